@@ -0,0 +1,118 @@
+/**
+ * PrdData.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import de.martindreier.rpg.prd.catalog.Catalog;
+import de.martindreier.rpg.prd.catalog.CatalogSnapshot;
+import de.martindreier.rpg.prd.catalog.PartitionedCatalog;
+
+/**
+ * Access to the PRD catalog generated when this module was built. The catalog
+ * is stored as a {@link CatalogSnapshot} resource, so no loader runs at
+ * runtime. The snapshot is opened on first access; entities are only decoded
+ * when requested, either all at once through {@link #getCatalog()} or per
+ * source through {@link #getPartitionedCatalog()}.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class PrdData
+{
+	/**
+	 * Name of the snapshot resource, relative to this class.
+	 */
+	public static final String			RESOURCE	= "catalog.bin";
+
+	/**
+	 * The snapshot, <code>null</code> until opened.
+	 */
+	private static CatalogSnapshot	snapshot;
+
+	/**
+	 * The decoded catalog, <code>null</code> until decoded.
+	 */
+	private static Catalog					catalog;
+
+	/**
+	 * Utility class.
+	 */
+	private PrdData()
+	{}
+
+	/**
+	 * Get the snapshot of the catalog.
+	 *
+	 * @return The snapshot.
+	 * @throws UncheckedIOException
+	 *           The snapshot is missing or invalid.
+	 */
+	public static synchronized CatalogSnapshot getSnapshot()
+	{
+		if (snapshot == null)
+		{
+			try
+			{
+				snapshot = CatalogSnapshot.openResource(PrdData.class, RESOURCE);
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException("Cannot open PRD catalog", e);
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Get the whole catalog. All entities are decoded on the first call.
+	 *
+	 * @return The catalog.
+	 * @throws UncheckedIOException
+	 *           The snapshot is missing or invalid.
+	 */
+	public static synchronized Catalog getCatalog()
+	{
+		if (catalog == null)
+		{
+			try
+			{
+				catalog = getSnapshot().toCatalog();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException("Cannot read PRD catalog", e);
+			}
+		}
+		return catalog;
+	}
+
+	/**
+	 * Create a catalog which decodes the entities of each source on first
+	 * access. Entities without source are only part of {@link #getCatalog()}.
+	 *
+	 * @return New catalog of all sources.
+	 * @throws UncheckedIOException
+	 *           The snapshot is missing or invalid.
+	 */
+	public static PartitionedCatalog getPartitionedCatalog()
+	{
+		return getSnapshot().toPartitionedCatalog();
+	}
+}
@@ -0,0 +1,75 @@
+/**
+ * PrdDataTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.EnumSet;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.catalog.Catalog;
+import de.martindreier.rpg.prd.catalog.PartitionedCatalog;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Feat.FeatType;
+
+/**
+ * Tests for the catalog generated from the offline PRD fixture.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class PrdDataTest
+{
+	/**
+	 * The catalog contains all feats of the fixture with their details.
+	 */
+	@Test
+	public void testCatalog()
+	{
+		Catalog catalog = PrdData.getCatalog();
+		assertEquals("Size", 42, catalog.size());
+		assertSame("Cached", catalog, PrdData.getCatalog());
+		Feat cleave = (Feat) catalog.get(Source.CORE_RULEBOOK, "Cleave");
+		assertEquals("Prerequisites", "Str 13, Power Attack, base attack bonus +1", cleave.getPrerequisites());
+		assertEquals("Types", EnumSet.of(FeatType.COMBAT), cleave.getTypes());
+		Feat crane = (Feat) catalog.get(Source.ULTIMATE_COMBAT, "Crane Style");
+		assertEquals("Style", EnumSet.of(FeatType.COMBAT, FeatType.STYLE), crane.getTypes());
+		assertEquals("Item creation", EnumSet.of(FeatType.ITEM_CREATION), ((Feat) catalog.get(Source.ULTIMATE_MAGIC,
+						"Craft Construct")).getTypes());
+	}
+
+	/**
+	 * The partitioned catalog decodes only the sources it accesses.
+	 */
+	@Test
+	public void testPartitionedCatalog()
+	{
+		assertEquals("Sources", EnumSet.of(Source.CORE_RULEBOOK, Source.ADVANCED_PLAYERS_GUIDE, Source.ULTIMATE_COMBAT,
+						Source.ULTIMATE_MAGIC), PrdData.getSnapshot().getSources());
+		PartitionedCatalog catalog = PrdData.getPartitionedCatalog();
+		assertEquals("Feats", 7, catalog.getEntities(Source.ADVANCED_PLAYERS_GUIDE).size());
+		assertTrue("Accessed", catalog.isLoaded(Source.ADVANCED_PLAYERS_GUIDE));
+		assertFalse("Not accessed", catalog.isLoaded(Source.CORE_RULEBOOK));
+	}
+}
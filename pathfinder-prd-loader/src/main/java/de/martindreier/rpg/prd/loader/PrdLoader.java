@@ -1,8 +1,18 @@
 package de.martindreier.rpg.prd.loader;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.catalog.Catalog;
+import de.martindreier.rpg.prd.catalog.CatalogPublisher;
+import de.martindreier.rpg.prd.catalog.EntityKey;
+import de.martindreier.rpg.prd.catalog.PartitionLoader;
+import de.martindreier.rpg.prd.loader.paizoprd.BasePaizoLoader;
 import de.martindreier.rpg.prd.loader.paizoprd.FeatLoader;
 
 /**
@@ -18,13 +28,40 @@ public class PrdLoader
 	 */
 	public Set<Loader<? extends BaseEntity>> loaders;
 
+	/**
+	 * Publishes the catalog of each run and its changes to the previous run.
+	 */
+	private final CatalogPublisher publisher = new CatalogPublisher(Catalog.EMPTY);
+
 	/**
 	 * Fill list of known loaders.
 	 */
 	public PrdLoader()
+	{
+		this(BasePaizoLoader.PRD_URI);
+	}
+
+	/**
+	 * Fill list of known loaders, reading from a mirror of the PRD website.
+	 *
+	 * @param baseURI
+	 *          Base URI of the mirror, ending with a slash. May be a
+	 *          <code>file:</code> URI of a local copy.
+	 */
+	public PrdLoader(URI baseURI)
 	{
 		loaders = new HashSet<>();
-		loaders.add(new FeatLoader());
+		loaders.add(new FeatLoader(baseURI));
+	}
+
+	/**
+	 * Get the publisher of loaded catalogs.
+	 *
+	 * @return The publisher.
+	 */
+	public CatalogPublisher getPublisher()
+	{
+		return publisher;
 	}
 
 	/**
@@ -46,6 +83,92 @@ public class PrdLoader
 		}
 	}
 
+	/**
+	 * Execute all known loaders and collect their results in a catalog. If an
+	 * entity is found more than once, the first one is kept. The catalog is
+	 * published, so listeners of the {@link #getPublisher() publisher} receive
+	 * the entities added, updated and removed since the previous run.
+	 * <p>
+	 * If any loader fails, nothing is published and the previous catalog stays
+	 * current. Publishing a partial result would report every entity of the
+	 * failed loader as removed, and as added again after the next successful
+	 * run.
+	 *
+	 * @return Catalog of all loaded entities.
+	 * @throws IOException
+	 *           A loader failed. Failures of further loaders are added as
+	 *           suppressed exceptions.
+	 */
+	public Catalog loadCatalog() throws IOException
+	{
+		Map<EntityKey, BaseEntity> entities = new LinkedHashMap<>();
+		IOException failure = null;
+		for (Loader<? extends BaseEntity> loader : loaders)
+		{
+			loader.initialize();
+			try
+			{
+				for (BaseEntity entity : loader.call())
+				{
+					entities.putIfAbsent(EntityKey.of(entity), entity);
+				}
+			}
+			catch (Exception exception)
+			{
+				if (failure == null)
+				{
+					failure = new IOException("Loader " + loader.getClass().getSimpleName() + " failed", exception);
+				}
+				else
+				{
+					failure.addSuppressed(exception);
+				}
+			}
+		}
+		if (failure != null)
+		{
+			throw failure;
+		}
+		Catalog catalog = new Catalog(entities.values());
+		publisher.publish(catalog);
+		return catalog;
+	}
+
+	/**
+	 * Get a partition loader running the PRD loaders. The loaders read all
+	 * sources at once, so they run when the first partition is requested and
+	 * later partitions are taken from that result. Concurrent first requests
+	 * wait for a single run; if the run fails, the next request tries again.
+	 * <p>
+	 * The partition loader keeps the whole catalog for later requests, so
+	 * {@link de.martindreier.rpg.prd.catalog.PartitionedCatalog#evict(de.martindreier.rpg.prd.Source)
+	 * evicting} partitions does not free memory. Use a
+	 * {@link de.martindreier.rpg.prd.catalog.CatalogSnapshot snapshot} where
+	 * memory matters.
+	 *
+	 * @return The partition loader.
+	 */
+	public PartitionLoader partitionLoader()
+	{
+		AtomicReference<Catalog> loaded = new AtomicReference<>();
+		return source -> {
+			Catalog catalog = loaded.get();
+			if (catalog == null)
+			{
+				synchronized (loaded)
+				{
+					catalog = loaded.get();
+					if (catalog == null)
+					{
+						catalog = loadCatalog();
+						loaded.set(catalog);
+					}
+				}
+			}
+			return catalog.getEntities(source);
+		};
+	}
+
 	public static void main(String[] args)
 	{
 		new PrdLoader().loadAll();
@@ -0,0 +1,74 @@
+/**
+ * SnapshotGenerator.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ */
+package de.martindreier.rpg.prd.loader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import de.martindreier.rpg.prd.catalog.Catalog;
+import de.martindreier.rpg.prd.catalog.CatalogSnapshot;
+
+/**
+ * Runs all loaders against the PRD website or a mirror and writes the result
+ * as a {@link CatalogSnapshot}. Used by the build of the data module.
+ * <p>
+ * Usage: <code>SnapshotGenerator &lt;base URI&gt; &lt;output file&gt;</code>
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ *
+ */
+public class SnapshotGenerator
+{
+	/**
+	 * Utility class.
+	 */
+	private SnapshotGenerator()
+	{}
+
+	/**
+	 * Load the catalog and write the snapshot. The snapshot is only written if
+	 * all loaders succeed, so a partly failed crawl never produces an
+	 * incomplete snapshot. The file is replaced in one step, so an existing
+	 * snapshot stays intact if writing fails.
+	 *
+	 * @param baseURI
+	 *          Base URI of the PRD website or mirror.
+	 * @param output
+	 *          The snapshot file.
+	 * @return The loaded catalog.
+	 * @throws IOException
+	 *           A loader failed or the snapshot cannot be written.
+	 * @throws IllegalStateException
+	 *           No entities were loaded.
+	 */
+	public static Catalog generate(URI baseURI, Path output) throws IOException
+	{
+		Catalog catalog = new PrdLoader(baseURI).loadCatalog();
+		if (catalog.size() == 0)
+		{
+			throw new IllegalStateException("No entities loaded from " + baseURI);
+		}
+		Path temporary = output.resolveSibling(output.getFileName() + ".tmp");
+		CatalogSnapshot.write(catalog, temporary);
+		Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return catalog;
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length != 2)
+		{
+			System.err.println("Usage: SnapshotGenerator <base URI> <output file>");
+			System.exit(1);
+		}
+		Path output = Paths.get(args[1]);
+		Catalog catalog = generate(URI.create(args[0]), output);
+		System.out.println("Wrote " + catalog.size() + " entities to " + output);
+	}
+}
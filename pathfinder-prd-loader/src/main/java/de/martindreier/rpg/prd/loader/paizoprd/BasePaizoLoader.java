@@ -5,6 +5,7 @@
  */
 package de.martindreier.rpg.prd.loader.paizoprd;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.util.HashSet;
@@ -24,20 +25,45 @@ import de.martindreier.rpg.prd.Source;
  */
 public class BasePaizoLoader
 {
+	/**
+	 * Base URI of the Paizo PRD website.
+	 */
+	public static final URI	PRD_URI	= URI.create("http://paizo.com/pathfinderRPG/prd/");
+
 	/**
 	 * Base URI of the Paizo PRD document.
 	 */
-	protected final URI		baseURI	= URI.create("http://paizo.com/pathfinderRPG/prd/");
+	protected final URI			baseURI;
 
 	/**
 	 * Base URL in links on the site.
 	 */
-	private final String	baseUrl	= "/pathfinderRPG/prd/";
+	private final String		baseUrl	= "/pathfinderRPG/prd/";
 
 	/**
 	 * Cached book list.
 	 */
-	private Set<String>		bookList;
+	private Set<String>			bookList;
+
+	/**
+	 * Create a loader reading from the Paizo PRD website.
+	 */
+	public BasePaizoLoader()
+	{
+		this(PRD_URI);
+	}
+
+	/**
+	 * Create a loader reading from a mirror of the PRD website.
+	 *
+	 * @param baseURI
+	 *          Base URI of the mirror, ending with a slash. May be a
+	 *          <code>file:</code> URI of a local copy.
+	 */
+	public BasePaizoLoader(URI baseURI)
+	{
+		this.baseURI = baseURI;
+	}
 
 	/**
 	 * Get available books from the homepage. Returns the list of available book.
@@ -96,6 +122,10 @@ public class BasePaizoLoader
 	protected Document get(String path) throws IOException
 	{
 		URI requestUri = baseURI.resolve(path);
+		if ("file".equals(requestUri.getScheme()))
+		{
+			return Jsoup.parse(new File(requestUri), "UTF-8", requestUri.toString());
+		}
 		String content = Request.Get(requestUri).execute().returnContent().asString();
 		return Jsoup.parse(content);
 	}
@@ -5,6 +5,7 @@
  */
 package de.martindreier.rpg.prd.loader.paizoprd;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -33,6 +34,25 @@ public class FeatLoader extends BasePaizoLoader implements Loader<Feat>
 	 */
 	private static final String	FEAT_SOURCE_CLASS_PREFIX	= "link-book-";
 
+	/**
+	 * Create a loader reading from the Paizo PRD website.
+	 */
+	public FeatLoader()
+	{
+		super();
+	}
+
+	/**
+	 * Create a loader reading from a mirror of the PRD website.
+	 *
+	 * @param baseURI
+	 *          Base URI of the mirror.
+	 */
+	public FeatLoader(URI baseURI)
+	{
+		super(baseURI);
+	}
+
 	@Override
 	public void initialize()
 	{}
@@ -0,0 +1,621 @@
+/**
+ * CatalogServer.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.catalog.Catalog;
+import de.martindreier.rpg.prd.catalog.CatalogQuery;
+import de.martindreier.rpg.prd.catalog.QueryCache;
+import de.martindreier.rpg.prd.loader.PrdLoader;
+import de.martindreier.rpg.prd.rules.Feat.FeatType;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Serves a {@link Catalog} as JSON over HTTP, so that several services can
+ * share one loaded catalog instead of each holding its own copy. Uses the HTTP
+ * server built into the JDK with a small pool of worker threads.
+ * <p>
+ * Resources:
+ * <ul>
+ * <li><code>GET /entity?source=core&amp;name=Power%20Attack</code>: a single
+ * entity by source tag and name. Without <code>source</code> the entity must
+ * have no source.</li>
+ * <li><code>GET /entities?offset=0&amp;limit=50</code>: all entities, one page
+ * at a time, ordered by source and name.</li>
+ * <li><code>GET /feats?type=COMBAT&amp;offset=0&amp;limit=50</code>: feats,
+ * optionally only those of one {@link FeatType}.</li>
+ * </ul>
+ * Both listings can be narrowed down with <code>source=&lt;tag&gt;</code> and
+ * <code>prefix=&lt;name prefix&gt;</code>. Listing results are kept in a
+ * {@link QueryCache}, which is cleared when the catalog changes.
+ * All responses carry a strong entity tag derived from the catalog version, so
+ * clients can revalidate with <code>If-None-Match</code> and receive
+ * <code>304 Not Modified</code> until the catalog is replaced. Responses larger
+ * than {@value #GZIP_THRESHOLD} bytes are gzip-encoded if the client accepts
+ * it.
+ * <p>
+ * Responses are written as header and body. Unless the system property
+ * <code>{@value #NODELAY_PROPERTY}</code> is <code>true</code>, the JDK server
+ * does not set TCP_NODELAY, and the client's delayed acknowledgement adds
+ * about 40 ms to every keep-alive request. The JDK server reads the property
+ * once, before the first server starts, so applications embedding this server
+ * should start the JVM with <code>-D{@value #NODELAY_PROPERTY}=true</code>.
+ * {@link #main(String[])} sets it itself.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class CatalogServer implements Closeable
+{
+	/**
+	 * Default number of worker threads.
+	 */
+	public static final int			DEFAULT_THREADS			= 4;
+
+	/**
+	 * Default page size.
+	 */
+	public static final int			DEFAULT_PAGE_SIZE		= 50;
+
+	/**
+	 * Largest allowed page size.
+	 */
+	public static final int			MAX_PAGE_SIZE				= 500;
+
+	/**
+	 * Smallest response size which is compressed.
+	 */
+	public static final int			GZIP_THRESHOLD			= 1024;
+
+	/**
+	 * Default size of the query cache in bytes.
+	 */
+	public static final long		DEFAULT_CACHE_SIZE	= 16L << 20;
+
+	/**
+	 * System property enabling TCP_NODELAY in the JDK HTTP server.
+	 */
+	public static final String	NODELAY_PROPERTY		= "sun.net.httpserver.nodelay";
+
+	/**
+	 * JSON content type.
+	 */
+	private static final String	CONTENT_TYPE				= "application/json; charset=UTF-8";
+
+	/**
+	 * The HTTP server.
+	 */
+	private final HttpServer			server;
+
+	/**
+	 * Worker threads.
+	 */
+	private final ExecutorService	workers;
+
+	/**
+	 * Cache for listing results.
+	 */
+	private final QueryCache			cache	= new QueryCache(DEFAULT_CACHE_SIZE);
+
+	/**
+	 * The catalog currently served.
+	 */
+	@Getter
+	private volatile Catalog			catalog;
+
+	/**
+	 * Create a server. The server is not started yet.
+	 *
+	 * @param catalog
+	 *          The catalog to be served.
+	 * @param address
+	 *          Address to listen on. Port 0 chooses a free port.
+	 * @param threads
+	 *          Number of worker threads.
+	 * @throws IOException
+	 *           The server cannot listen on the address.
+	 */
+	public CatalogServer(@NonNull Catalog catalog, @NonNull InetSocketAddress address, int threads)
+					throws IOException
+	{
+		if (threads <= 0)
+		{
+			throw new IllegalArgumentException("Number of threads must be positive");
+		}
+		this.catalog = catalog;
+		AtomicInteger threadNumber = new AtomicInteger();
+		workers = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "catalog-server-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		server = HttpServer.create(address, 0);
+		server.setExecutor(workers);
+		server.createContext("/entity", exchange -> handle(exchange, this::getEntity));
+		server.createContext("/entities", exchange -> handle(exchange, this::listEntities));
+		server.createContext("/feats", exchange -> handle(exchange, this::listFeats));
+	}
+
+	/**
+	 * Start serving requests.
+	 */
+	public void start()
+	{
+		server.start();
+	}
+
+	/**
+	 * Get the port the server listens on.
+	 *
+	 * @return The port.
+	 */
+	public int getPort()
+	{
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Replace the served catalog, e.g. after the loaders ran again. Entity tags
+	 * of earlier responses no longer match if the content changed.
+	 *
+	 * @param catalog
+	 *          The new catalog.
+	 */
+	public void setCatalog(@NonNull Catalog catalog)
+	{
+		this.catalog = catalog;
+	}
+
+	/**
+	 * Get the statistics of the listing cache.
+	 *
+	 * @return Cache statistics.
+	 */
+	public QueryCache.Statistics getCacheStatistics()
+	{
+		return cache.getStatistics();
+	}
+
+	/**
+	 * Stop the server. Requests in progress are given a second to complete.
+	 */
+	@Override
+	public void close()
+	{
+		server.stop(1);
+		workers.shutdown();
+		try
+		{
+			workers.awaitTermination(1, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Produces the response body for a request.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	@FunctionalInterface
+	private static interface Resource
+	{
+		/**
+		 * Write the response body.
+		 *
+		 * @param catalog
+		 *          The catalog at the time of the request.
+		 * @param parameters
+		 *          Query parameters.
+		 * @param out
+		 *          Receives the JSON response body.
+		 * @return HTTP status code.
+		 */
+		public int write(Catalog catalog, Map<String, String> parameters, StringBuilder out);
+	}
+
+	/**
+	 * Exception for invalid query parameters.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	private static class BadRequestException extends RuntimeException
+	{
+		/**
+		 * Serialization ID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Create an exception.
+		 *
+		 * @param message
+		 *          Message for the client.
+		 */
+		BadRequestException(String message)
+		{
+			super(message);
+		}
+	}
+
+	/**
+	 * Handle a request: check method and entity tag, produce, compress and send
+	 * the response.
+	 *
+	 * @param exchange
+	 *          The HTTP exchange.
+	 * @param resource
+	 *          Produces the response body.
+	 * @throws IOException
+	 *           The response cannot be sent.
+	 */
+	private void handle(HttpExchange exchange, Resource resource) throws IOException
+	{
+		try
+		{
+			Headers responseHeaders = exchange.getResponseHeaders();
+			String method = exchange.getRequestMethod();
+			if (!"GET".equals(method) && !"HEAD".equals(method))
+			{
+				responseHeaders.set("Allow", "GET, HEAD");
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+			// Step 1: Check entity tag. Compressed and plain responses need
+			// different strong tags.
+			Catalog current = catalog;
+			boolean gzipAccepted = acceptsGzip(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+			String plainTag = "\"" + current.getVersionTag() + "\"";
+			String gzipTag = "\"" + current.getVersionTag() + "-gzip\"";
+			responseHeaders.set("Vary", "Accept-Encoding");
+			responseHeaders.set("Cache-Control", "no-cache");
+			String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+			if (ifNoneMatch != null && (ifNoneMatch.contains(plainTag) || ifNoneMatch.contains(gzipTag)
+							|| ifNoneMatch.trim().equals("*")))
+			{
+				// Both tags name the current catalog version, the response depends
+				// only on the version and the request
+				responseHeaders.set("ETag", gzipAccepted && ifNoneMatch.contains(gzipTag) ? gzipTag : plainTag);
+				exchange.sendResponseHeaders(304, -1);
+				return;
+			}
+			// Step 2: Produce response
+			StringBuilder body = new StringBuilder(256);
+			int status;
+			try
+			{
+				status = resource.write(current, parseQuery(exchange.getRequestURI().getRawQuery()), body);
+			}
+			catch (BadRequestException e)
+			{
+				body.setLength(0);
+				JsonWriter.appendError(body, e.getMessage());
+				status = 400;
+			}
+			byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+			// Step 3: Compress large responses
+			boolean compressed = gzipAccepted && bytes.length >= GZIP_THRESHOLD;
+			if (compressed)
+			{
+				bytes = gzip(bytes);
+				responseHeaders.set("Content-Encoding", "gzip");
+			}
+			responseHeaders.set("Content-Type", CONTENT_TYPE);
+			if (status == 200)
+			{
+				responseHeaders.set("ETag", compressed ? gzipTag : plainTag);
+			}
+			boolean head = "HEAD".equals(method);
+			exchange.sendResponseHeaders(status, head ? -1 : bytes.length);
+			if (!head)
+			{
+				try (OutputStream out = exchange.getResponseBody())
+				{
+					out.write(bytes);
+				}
+			}
+		}
+		finally
+		{
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Look up a single entity.
+	 *
+	 * @param current
+	 *          The catalog.
+	 * @param parameters
+	 *          Query parameters <code>source</code> and <code>name</code>.
+	 * @param out
+	 *          Receives the entity.
+	 * @return HTTP status code.
+	 */
+	private int getEntity(Catalog current, Map<String, String> parameters, StringBuilder out)
+	{
+		String name = parameters.get("name");
+		if (name == null)
+		{
+			throw new BadRequestException("Parameter name is required");
+		}
+		Source source = getSource(parameters);
+		BaseEntity entity = current.get(source, name);
+		if (entity == null)
+		{
+			JsonWriter.appendError(out, "Not found");
+			return 404;
+		}
+		JsonWriter.appendEntity(out, entity);
+		return 200;
+	}
+
+	/**
+	 * List entities.
+	 *
+	 * @param current
+	 *          The catalog.
+	 * @param parameters
+	 *          Query parameters <code>source</code>, <code>prefix</code>,
+	 *          <code>offset</code> and <code>limit</code>.
+	 * @param out
+	 *          Receives the page.
+	 * @return HTTP status code.
+	 */
+	private int listEntities(Catalog current, Map<String, String> parameters, StringBuilder out)
+	{
+		return writePage(current, CatalogQuery.all(), parameters, out);
+	}
+
+	/**
+	 * List feats.
+	 *
+	 * @param current
+	 *          The catalog.
+	 * @param parameters
+	 *          Query parameters <code>type</code>, <code>source</code>,
+	 *          <code>prefix</code>, <code>offset</code> and <code>limit</code>.
+	 * @param out
+	 *          Receives the page.
+	 * @return HTTP status code.
+	 */
+	private int listFeats(Catalog current, Map<String, String> parameters, StringBuilder out)
+	{
+		String type = parameters.get("type");
+		if (type == null)
+		{
+			return writePage(current, CatalogQuery.feats(), parameters, out);
+		}
+		FeatType featType;
+		try
+		{
+			featType = FeatType.valueOf(type.toUpperCase());
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new BadRequestException("Unknown feat type " + type);
+		}
+		return writePage(current, CatalogQuery.feats().withFeatType(featType), parameters, out);
+	}
+
+	/**
+	 * Read the source from the query parameters.
+	 *
+	 * @param parameters
+	 *          Query parameters.
+	 * @return The source, or <code>null</code> if the parameter is missing.
+	 */
+	private static Source getSource(Map<String, String> parameters)
+	{
+		String tag = parameters.get("source");
+		if (tag == null)
+		{
+			return null;
+		}
+		Source source = Source.forTag(tag);
+		if (source == null)
+		{
+			throw new BadRequestException("Unknown source " + tag);
+		}
+		return source;
+	}
+
+	/**
+	 * Write one page of a listing. Listings are filtered by the
+	 * <code>source</code> and <code>prefix</code> parameters; results are taken
+	 * from the query cache.
+	 *
+	 * @param current
+	 *          The catalog.
+	 * @param query
+	 *          Query for the listing without source and prefix.
+	 * @param parameters
+	 *          Query parameters <code>source</code>, <code>prefix</code>,
+	 *          <code>offset</code> and <code>limit</code>.
+	 * @param out
+	 *          Receives the page.
+	 * @return HTTP status code.
+	 */
+	private int writePage(Catalog current, CatalogQuery query, Map<String, String> parameters, StringBuilder out)
+	{
+		CatalogQuery filtered = query.withSource(getSource(parameters)).withNamePrefix(parameters.get("prefix"));
+		int offset = getInt(parameters, "offset", 0);
+		int limit = getInt(parameters, "limit", DEFAULT_PAGE_SIZE);
+		if (limit > MAX_PAGE_SIZE)
+		{
+			throw new BadRequestException("Limit must not exceed " + MAX_PAGE_SIZE);
+		}
+		List<BaseEntity> entities = cache.get(current, filtered);
+		JsonWriter.appendPage(out, current.getVersionTag(), entities, Math.min(offset, entities.size()), limit);
+		return 200;
+	}
+
+	/**
+	 * Read a non-negative number from the query parameters.
+	 *
+	 * @param parameters
+	 *          Query parameters.
+	 * @param name
+	 *          Parameter name.
+	 * @param defaultValue
+	 *          Value if the parameter is missing.
+	 * @return The value.
+	 */
+	private static int getInt(Map<String, String> parameters, String name, int defaultValue)
+	{
+		String value = parameters.get(name);
+		if (value == null)
+		{
+			return defaultValue;
+		}
+		try
+		{
+			int number = Integer.parseInt(value);
+			if (number >= 0)
+			{
+				return number;
+			}
+		}
+		catch (NumberFormatException e)
+		{
+			// Fall through to error
+		}
+		throw new BadRequestException("Parameter " + name + " must be a number of zero or more");
+	}
+
+	/**
+	 * Split a raw query String into decoded parameters.
+	 *
+	 * @param query
+	 *          The raw query. May be <code>null</code>.
+	 * @return Parameters by name. For repeated parameters, the first value wins.
+	 */
+	static Map<String, String> parseQuery(String query)
+	{
+		Map<String, String> parameters = new HashMap<>();
+		if (query == null || query.isEmpty())
+		{
+			return parameters;
+		}
+		try
+		{
+			for (String pair : query.split("&"))
+			{
+				int separator = pair.indexOf('=');
+				String name = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), "UTF-8");
+				String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), "UTF-8");
+				parameters.putIfAbsent(name, value);
+			}
+		}
+		catch (UnsupportedEncodingException | IllegalArgumentException e)
+		{
+			throw new BadRequestException("Invalid query");
+		}
+		return parameters;
+	}
+
+	/**
+	 * Check if a client accepts gzip encoding.
+	 *
+	 * @param acceptEncoding
+	 *          Value of the <code>Accept-Encoding</code> header. May be
+	 *          <code>null</code>.
+	 * @return <code>true</code> if gzip is accepted.
+	 */
+	static boolean acceptsGzip(String acceptEncoding)
+	{
+		if (acceptEncoding == null)
+		{
+			return false;
+		}
+		for (String coding : acceptEncoding.split(","))
+		{
+			String[] parts = coding.trim().split(";");
+			if (parts[0].trim().equalsIgnoreCase("gzip"))
+			{
+				// Reject an explicit q=0
+				return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compress a response body.
+	 *
+	 * @param bytes
+	 *          Uncompressed body.
+	 * @return Compressed body.
+	 * @throws IOException
+	 *           Unexpected compression failure.
+	 */
+	private static byte[] gzip(byte[] bytes) throws IOException
+	{
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+		try (GZIPOutputStream out = new GZIPOutputStream(buffer, 8192))
+		{
+			out.write(bytes);
+		}
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * Load the catalog from the PRD and serve it.
+	 *
+	 * @param args
+	 *          Optional port, default 8080.
+	 * @throws IOException
+	 *           The server cannot be started.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if (System.getProperty(NODELAY_PROPERTY) == null)
+		{
+			System.setProperty(NODELAY_PROPERTY, "true");
+		}
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+		Catalog catalog = new PrdLoader().loadCatalog();
+		CatalogServer server = new CatalogServer(catalog, new InetSocketAddress(port), DEFAULT_THREADS);
+		server.start();
+		System.out.println("Serving " + catalog.size() + " entities on port " + server.getPort());
+	}
+}
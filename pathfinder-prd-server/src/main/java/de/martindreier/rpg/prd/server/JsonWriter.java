@@ -0,0 +1,192 @@
+/**
+ * JsonWriter.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.server;
+
+import java.util.List;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Feat.FeatType;
+
+/**
+ * Writes catalog entities as JSON. Only the few constructs needed for the
+ * catalog are supported, so the server does not need a JSON library.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+final class JsonWriter
+{
+	/**
+	 * Hexadecimal digits for escapes.
+	 */
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Utility class, no instances.
+	 */
+	private JsonWriter()
+	{}
+
+	/**
+	 * Write a page of entities.
+	 *
+	 * @param out
+	 *          Target.
+	 * @param version
+	 *          Catalog version tag.
+	 * @param entities
+	 *          All entities of the listing.
+	 * @param offset
+	 *          Index of the first entity on the page.
+	 * @param limit
+	 *          Maximum number of entities on the page.
+	 */
+	static void appendPage(StringBuilder out, String version, List<? extends BaseEntity> entities, int offset,
+					int limit)
+	{
+		int end = (int) Math.min(entities.size(), (long) offset + limit);
+		out.append("{\"version\":");
+		appendString(out, version);
+		out.append(",\"total\":").append(entities.size());
+		out.append(",\"offset\":").append(offset);
+		out.append(",\"limit\":").append(limit);
+		out.append(",\"items\":[");
+		for (int index = offset; index < end; index++)
+		{
+			if (index > offset)
+			{
+				out.append(',');
+			}
+			appendEntity(out, entities.get(index));
+		}
+		out.append("]}");
+	}
+
+	/**
+	 * Write a single entity.
+	 *
+	 * @param out
+	 *          Target.
+	 * @param entity
+	 *          The entity.
+	 */
+	static void appendEntity(StringBuilder out, BaseEntity entity)
+	{
+		Source source = entity.getSource();
+		out.append("{\"kind\":");
+		appendString(out, entity instanceof Feat ? "feat" : entity.getClass().getSimpleName().toLowerCase());
+		out.append(",\"name\":");
+		appendString(out, entity.getName());
+		out.append(",\"source\":");
+		appendString(out, source == null ? null : source.getTag());
+		out.append(",\"sourceName\":");
+		appendString(out, source == null ? null : source.getSourceName());
+		if (entity instanceof Feat)
+		{
+			Feat feat = (Feat) entity;
+			out.append(",\"prerequisites\":");
+			appendString(out, feat.getPrerequisites());
+			out.append(",\"types\":[");
+			boolean first = true;
+			for (FeatType type : FeatType.values())
+			{
+				if (feat.getTypes().contains(type))
+				{
+					if (!first)
+					{
+						out.append(',');
+					}
+					appendString(out, type.name());
+					first = false;
+				}
+			}
+			out.append(']');
+		}
+		out.append(",\"description\":");
+		appendString(out, entity.getDescription());
+		out.append('}');
+	}
+
+	/**
+	 * Write an error message.
+	 *
+	 * @param out
+	 *          Target.
+	 * @param message
+	 *          The message.
+	 */
+	static void appendError(StringBuilder out, String message)
+	{
+		out.append("{\"error\":");
+		appendString(out, message);
+		out.append('}');
+	}
+
+	/**
+	 * Write a String value with all necessary escapes.
+	 *
+	 * @param out
+	 *          Target.
+	 * @param value
+	 *          The String. <code>null</code> is written as JSON null.
+	 */
+	static void appendString(StringBuilder out, String value)
+	{
+		if (value == null)
+		{
+			out.append("null");
+			return;
+		}
+		out.append('"');
+		for (int index = 0; index < value.length(); index++)
+		{
+			char next = value.charAt(index);
+			switch (next)
+			{
+				case '"':
+					out.append("\\\"");
+					break;
+				case '\\':
+					out.append("\\\\");
+					break;
+				case '\n':
+					out.append("\\n");
+					break;
+				case '\r':
+					out.append("\\r");
+					break;
+				case '\t':
+					out.append("\\t");
+					break;
+				default:
+					if (next < 0x20 || next == '\u2028' || next == '\u2029')
+					{
+						out.append("\\u").append(HEX_DIGITS[next >> 12]).append(HEX_DIGITS[(next >> 8) & 0xF])
+										.append(HEX_DIGITS[(next >> 4) & 0xF]).append(HEX_DIGITS[next & 0xF]);
+					}
+					else
+					{
+						out.append(next);
+					}
+			}
+		}
+		out.append('"');
+	}
+}
@@ -0,0 +1,187 @@
+/**
+ * CatalogServerLoadTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Local load test for the catalog server: several keep-alive clients look up
+ * entities as fast as possible. The measurement is repeated and the latencies
+ * of all rounds are pooled, so the p99 latency is taken from a larger sample.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class CatalogServerLoadTest
+{
+	/**
+	 * Number of concurrent clients.
+	 */
+	private static final int	CLIENTS					= 4;
+
+	/**
+	 * Requests per client.
+	 */
+	private static final int	REQUESTS				= 5000;
+
+	/**
+	 * Requests per client before measuring starts.
+	 */
+	private static final int	WARMUP					= 1000;
+
+	/**
+	 * Number of measured rounds.
+	 */
+	private static final int	ROUNDS					= 3;
+
+	/**
+	 * Largest accepted p99 latency of all rounds, in nanoseconds.
+	 */
+	private static final long	MAX_P99					= 5_000_000L;
+
+	/**
+	 * Smallest accepted throughput of all rounds, in requests per second.
+	 */
+	private static final int	MIN_THROUGHPUT	= 2000;
+
+	/**
+	 * Measure latency and throughput of entity lookups.
+	 *
+	 * @throws Exception
+	 *           Request failed.
+	 */
+	@Test
+	public void testLookupLatency() throws Exception
+	{
+		try (CatalogServer server = new CatalogServer(CatalogServerTest.createCatalog(1000),
+						new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), CatalogServer.DEFAULT_THREADS))
+		{
+			server.start();
+			ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+			try
+			{
+				// Step 1: Warm up
+				runClients(clients, server.getPort(), WARMUP);
+				// Step 2: Measure all rounds
+				long[] latencies = new long[ROUNDS * CLIENTS * REQUESTS];
+				long nanos = 0;
+				for (int round = 0; round < ROUNDS; round++)
+				{
+					long start = System.nanoTime();
+					long[] roundLatencies = runClients(clients, server.getPort(), REQUESTS);
+					nanos += System.nanoTime() - start;
+					System.arraycopy(roundLatencies, 0, latencies, round * roundLatencies.length, roundLatencies.length);
+				}
+				// Step 3: Check the pooled sample
+				Arrays.sort(latencies);
+				long p99 = latencies[(int) (latencies.length * 0.99)];
+				double throughput = latencies.length / (nanos / 1e9);
+				System.out.printf("Catalog server: %.0f requests/s, p50 %.2f ms, p99 %.2f ms%n", throughput,
+								latencies[latencies.length / 2] / 1e6, p99 / 1e6);
+				assertTrue("p99 latency " + p99 / 1e6 + " ms", p99 < MAX_P99);
+				assertTrue("Throughput " + throughput + " requests/s", throughput > MIN_THROUGHPUT);
+			}
+			finally
+			{
+				clients.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Run all clients once.
+	 *
+	 * @param clients
+	 *          Client threads.
+	 * @param port
+	 *          Server port.
+	 * @param requests
+	 *          Requests per client.
+	 * @return Latencies of all requests in nanoseconds.
+	 * @throws Exception
+	 *           Request failed.
+	 */
+	private static long[] runClients(ExecutorService clients, int port, int requests) throws Exception
+	{
+		@SuppressWarnings("unchecked")
+		Future<long[]>[] results = new Future[CLIENTS];
+		for (int client = 0; client < CLIENTS; client++)
+		{
+			int seed = client;
+			results[client] = clients.submit(() -> runClient(port, requests, seed));
+		}
+		long[] latencies = new long[CLIENTS * requests];
+		for (int client = 0; client < CLIENTS; client++)
+		{
+			System.arraycopy(results[client].get(), 0, latencies, client * requests, requests);
+		}
+		return latencies;
+	}
+
+	/**
+	 * Send requests from a single client. The connection is kept alive between
+	 * requests.
+	 *
+	 * @param port
+	 *          Server port.
+	 * @param requests
+	 *          Number of requests.
+	 * @param seed
+	 *          Client number, selects the entities.
+	 * @return Latencies in nanoseconds.
+	 * @throws IOException
+	 *           Request failed.
+	 */
+	private static long[] runClient(int port, int requests, int seed) throws IOException
+	{
+		long[] latencies = new long[requests];
+		byte[] buffer = new byte[4096];
+		for (int i = 0; i < requests; i++)
+		{
+			URL url = new URL("http://localhost:" + port + "/entity?source=core&name=Feat+" + (1 + (i * 7 + seed) % 999));
+			long start = System.nanoTime();
+			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+			assertEquals("Status", 200, connection.getResponseCode());
+			try (InputStream in = connection.getInputStream())
+			{
+				while (in.read(buffer) >= 0)
+				{
+					// Read to end so the connection can be reused
+				}
+			}
+			latencies[i] = System.nanoTime() - start;
+		}
+		return latencies;
+	}
+}
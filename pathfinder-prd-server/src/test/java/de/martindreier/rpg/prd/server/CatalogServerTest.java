@@ -0,0 +1,317 @@
+/**
+ * CatalogServerTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.catalog.Catalog;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Feat.FeatType;
+
+/**
+ * Tests for the catalog server.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class CatalogServerTest
+{
+	/**
+	 * Server under test.
+	 */
+	private CatalogServer server;
+
+	/**
+	 * Start a server on a free port.
+	 *
+	 * @throws IOException
+	 *           Server cannot be started.
+	 */
+	@Before
+	public void start() throws IOException
+	{
+		server = new CatalogServer(createCatalog(200), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+		server.start();
+	}
+
+	/**
+	 * Stop the server.
+	 */
+	@After
+	public void stop()
+	{
+		server.close();
+	}
+
+	/**
+	 * Create a catalog of feats. Every third feat is a combat feat, the first
+	 * feat has no source.
+	 *
+	 * @param count
+	 *          Number of feats.
+	 * @return The catalog.
+	 */
+	static Catalog createCatalog(int count)
+	{
+		List<BaseEntity> entities = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+		{
+			entities.add(new Feat("Feat " + i, i % 2 == 0 ? "Base attack bonus +" + i : null, "Description of feat " + i,
+							i % 3 == 0 ? EnumSet.of(FeatType.COMBAT) : null, i == 0 ? null : Source.CORE_RULEBOOK));
+		}
+		entities.add(new Feat("Power \"Attack\"", null, "Trade\taccuracy\nfor damage", Collections.emptySet(),
+						Source.ADVANCED_PLAYERS_GUIDE));
+		return new Catalog(entities);
+	}
+
+	/**
+	 * Response of a test request.
+	 */
+	private static class Response
+	{
+		/**
+		 * Status code.
+		 */
+		int			status;
+		/**
+		 * Entity tag.
+		 */
+		String	etag;
+		/**
+		 * Content encoding.
+		 */
+		String	encoding;
+		/**
+		 * Decoded body.
+		 */
+		String	body;
+	}
+
+	/**
+	 * Send a GET request.
+	 *
+	 * @param path
+	 *          Path and query.
+	 * @param gzip
+	 *          Accept gzip encoding.
+	 * @param ifNoneMatch
+	 *          Entity tag to revalidate. May be <code>null</code>.
+	 * @return The response.
+	 * @throws IOException
+	 *           Request failed.
+	 */
+	private Response get(String path, boolean gzip, String ifNoneMatch) throws IOException
+	{
+		HttpURLConnection connection = (HttpURLConnection) new URL(
+						"http://localhost:" + server.getPort() + path).openConnection();
+		if (gzip)
+		{
+			connection.setRequestProperty("Accept-Encoding", "gzip");
+		}
+		if (ifNoneMatch != null)
+		{
+			connection.setRequestProperty("If-None-Match", ifNoneMatch);
+		}
+		Response response = new Response();
+		response.status = connection.getResponseCode();
+		response.etag = connection.getHeaderField("ETag");
+		response.encoding = connection.getHeaderField("Content-Encoding");
+		InputStream in = response.status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+		if (in != null)
+		{
+			if ("gzip".equals(response.encoding))
+			{
+				in = new GZIPInputStream(in);
+			}
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			for (int read = in.read(buffer); read >= 0; read = in.read(buffer))
+			{
+				body.write(buffer, 0, read);
+			}
+			in.close();
+			response.body = new String(body.toByteArray(), StandardCharsets.UTF_8);
+		}
+		return response;
+	}
+
+	/**
+	 * Look up entities by source tag and name.
+	 *
+	 * @throws IOException
+	 *           Request failed.
+	 */
+	@Test
+	public void testLookup() throws IOException
+	{
+		Response response = get("/entity?source=apg&name=Power%20%22Attack%22", false, null);
+		assertEquals("Status", 200, response.status);
+		assertTrue("Escaped name", response.body.contains("\"name\":\"Power \\\"Attack\\\"\""));
+		assertTrue("Escaped description", response.body.contains("\"Trade\\taccuracy\\nfor damage\""));
+		assertTrue("Source", response.body.contains("\"source\":\"apg\""));
+		assertEquals("Without source", 200, get("/entity?name=Feat+0", false, null).status);
+		assertEquals("Wrong source", 404, get("/entity?source=core&name=Feat+0", false, null).status);
+		assertEquals("Unknown source", 400, get("/entity?source=xyz&name=Feat+0", false, null).status);
+		assertEquals("Missing name", 400, get("/entity?source=core", false, null).status);
+	}
+
+	/**
+	 * Page through listings and filter by feat type.
+	 *
+	 * @throws IOException
+	 *           Request failed.
+	 */
+	@Test
+	public void testListing() throws IOException
+	{
+		Response page = get("/entities?offset=195&limit=10", false, null);
+		assertEquals("Status", 200, page.status);
+		assertTrue("Total", page.body.contains("\"total\":201"));
+		assertEquals("Items on last page", 6, count(page.body, "\"kind\":"));
+		Response combat = get("/feats?type=combat&limit=500", false, null);
+		assertTrue("Combat feats", combat.body.contains("\"total\":67"));
+		assertEquals("Default limit", CatalogServer.DEFAULT_PAGE_SIZE, count(get("/feats", false, null).body, "\"kind\":"));
+		assertEquals("Unknown type", 400, get("/feats?type=EPIC", false, null).status);
+		assertEquals("Limit too large", 400, get("/entities?limit=501", false, null).status);
+		assertEquals("Negative offset", 400, get("/entities?offset=-1", false, null).status);
+		assertEquals("Offset beyond end", 200, get("/entities?offset=1000", false, null).status);
+	}
+
+	/**
+	 * Filter listings by source and name prefix. Repeated listings are answered
+	 * from the cache.
+	 *
+	 * @throws IOException
+	 *           Request failed.
+	 */
+	@Test
+	public void testFilter() throws IOException
+	{
+		assertTrue("Source", get("/entities?source=apg", false, null).body.contains("\"total\":1,"));
+		assertTrue("Prefix", get("/feats?prefix=feat+19", false, null).body.contains("\"total\":11,"));
+		assertTrue("Type and prefix", get("/feats?type=COMBAT&prefix=FEAT%2019", false, null).body
+						.contains("\"total\":3,"));
+		get("/feats?prefix=+Feat+19+", false, null);
+		assertEquals("Cache hits", 1, server.getCacheStatistics().getHits());
+		assertEquals("Unknown source", 400, get("/feats?source=xyz", false, null).status);
+	}
+
+	/**
+	 * Large responses are compressed only if the client accepts it.
+	 *
+	 * @throws IOException
+	 *           Request failed.
+	 */
+	@Test
+	public void testCompression() throws IOException
+	{
+		Response plain = get("/entities?limit=100", false, null);
+		Response compressed = get("/entities?limit=100", true, null);
+		assertNull("Plain encoding", plain.encoding);
+		assertEquals("Compressed encoding", "gzip", compressed.encoding);
+		assertEquals("Same content", plain.body, compressed.body);
+		assertNotEquals("Different entity tags", plain.etag, compressed.etag);
+		assertNull("Small response", get("/entities?limit=1", true, null).encoding);
+		assertTrue("Accepted", CatalogServer.acceptsGzip("deflate, gzip;q=0.5"));
+		assertFalse("Refused", CatalogServer.acceptsGzip("gzip;q=0"));
+		assertFalse("Missing", CatalogServer.acceptsGzip("identity"));
+	}
+
+	/**
+	 * Entity tags change with the catalog content.
+	 *
+	 * @throws IOException
+	 *           Request failed.
+	 */
+	@Test
+	public void testEntityTags() throws IOException
+	{
+		Response first = get("/feats?type=COMBAT", true, null);
+		assertTrue("Strong tag", first.etag.startsWith("\""));
+		assertEquals("Not modified", 304, get("/feats?type=COMBAT", true, first.etag).status);
+		server.setCatalog(createCatalog(200));
+		assertEquals("Same content", 304, get("/feats?type=COMBAT", true, first.etag).status);
+		server.setCatalog(createCatalog(201));
+		Response changed = get("/feats?type=COMBAT", true, first.etag);
+		assertEquals("Modified", 200, changed.status);
+		assertNotEquals("New tag", first.etag, changed.etag);
+	}
+
+	/**
+	 * Only GET and HEAD are allowed.
+	 *
+	 * @throws IOException
+	 *           Request failed.
+	 */
+	@Test
+	public void testMethods() throws IOException
+	{
+		HttpURLConnection connection = (HttpURLConnection) new URL(
+						"http://localhost:" + server.getPort() + "/entities").openConnection();
+		connection.setRequestMethod("DELETE");
+		assertEquals("Status", 405, connection.getResponseCode());
+		assertEquals("Allow", "GET, HEAD", connection.getHeaderField("Allow"));
+		connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + "/entities").openConnection();
+		connection.setRequestMethod("HEAD");
+		assertEquals("HEAD", 200, connection.getResponseCode());
+	}
+
+	/**
+	 * Count occurrences of a String.
+	 *
+	 * @param text
+	 *          Text to search.
+	 * @param part
+	 *          String to count.
+	 * @return Number of occurrences.
+	 */
+	private static int count(String text, String part)
+	{
+		int count = 0;
+		for (int index = text.indexOf(part); index >= 0; index = text.indexOf(part, index + 1))
+		{
+			count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,523 @@
+/**
+ * TranslationTableGenerator.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.build;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.JavacTask;
+
+/**
+ * Generates the translation tables for the rules enums from the
+ * <code>i18n/Rules*.properties</code> files. Runs during the
+ * <code>generate-sources</code> phase of the build, before the enums are
+ * compiled, so the enum constants are read from their source files. The
+ * sources are parsed with the parser of the JDK compiler, without compiling
+ * them.
+ * <p>
+ * The build fails if a translation for an enum constant is missing from the
+ * base bundle, or if a bundle contains a key for an enum constant which does
+ * not exist.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class TranslationTableGenerator
+{
+	/**
+	 * Package of the rules enums and of the generated class.
+	 */
+	private static final String		RULES_PACKAGE		= "de.martindreier.rpg.prd.rules";
+
+	/**
+	 * Name of the generated class.
+	 */
+	private static final String		GENERATED_CLASS	= "GeneratedTranslations";
+
+	/**
+	 * Base name of the properties files.
+	 */
+	private static final String		BUNDLE_NAME			= "Rules";
+
+	/**
+	 * Pattern for the file names of the properties files. The first group is the
+	 * locale suffix, if any.
+	 */
+	private static final Pattern	BUNDLE_FILE			= Pattern.compile(BUNDLE_NAME + "(?:_(\\w+))?\\.properties");
+
+	/**
+	 * A translated rules enum.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	private static class EnumTable
+	{
+		/**
+		 * Name of the generated array.
+		 */
+		private final String				constantName;
+
+		/**
+		 * Translation keys, in ordinal order.
+		 */
+		private final List<String>	keys;
+
+		/**
+		 * Create a table.
+		 *
+		 * @param constantName
+		 *          Name of the generated array.
+		 * @param keys
+		 *          Translation keys, in ordinal order.
+		 */
+		private EnumTable(String constantName, List<String> keys)
+		{
+			this.constantName = constantName;
+			this.keys = keys;
+		}
+	}
+
+	/**
+	 * Run the generator.
+	 *
+	 * @param args
+	 *          Source directory, resource directory and output directory.
+	 * @throws IOException
+	 *           Reading the sources or bundles or writing the output failed.
+	 * @throws IllegalArgumentException
+	 *           The arguments are invalid.
+	 * @throws IllegalStateException
+	 *           The enums cannot be read or the bundles do not match them.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length != 3)
+		{
+			throw new IllegalArgumentException("Usage: TranslationTableGenerator <source dir> <resource dir> <output dir>");
+		}
+		Path rulesSources = Paths.get(args[0], RULES_PACKAGE.split("\\."));
+		Path bundleDirectory = Paths.get(args[1], "i18n");
+		Path output = Paths.get(args[2], RULES_PACKAGE.split("\\.")).resolve(GENERATED_CLASS + ".java");
+
+		// Step 1: Read enum constants and derive translation keys
+		Map<String, List<VariableTree>> enums = readEnums(rulesSources, "Attribute", "Skill", "BonusType", "EnergyType",
+						"Saves");
+		List<EnumTable> tables = new ArrayList<>();
+		List<VariableTree> attributes = getConstants(enums, "Attribute");
+		tables.add(new EnumTable("ATTRIBUTE_NAMES", keys("attribute", attributes, "")));
+		tables.add(new EnumTable("ATTRIBUTE_ABBREVIATIONS", keys("attribute", attributes, ".abbreviation")));
+		tables.add(new EnumTable("SKILL_NAMES", skillKeys(getConstants(enums, "Skill"))));
+		tables.add(new EnumTable("BONUS_NAMES", keys("bonus", getConstants(enums, "BonusType"), "")));
+		tables.add(new EnumTable("ENERGY_NAMES", keys("energy", getConstants(enums, "EnergyType"), "")));
+		tables.add(new EnumTable("SAVE_NAMES", keys("save", getConstants(enums, "Saves.SaveType"), "")));
+		Set<String> knownKeys = new LinkedHashSet<>();
+		for (EnumTable table : tables)
+		{
+			knownKeys.addAll(table.keys);
+		}
+
+		// Step 2: Load bundles; the base bundle comes first
+		TreeMap<String, Properties> bundles = new TreeMap<>();
+		try (Stream<Path> files = Files.list(bundleDirectory))
+		{
+			for (Path file : (Iterable<Path>) files::iterator)
+			{
+				Matcher matcher = BUNDLE_FILE.matcher(file.getFileName().toString());
+				if (matcher.matches())
+				{
+					Properties properties = new Properties();
+					try (InputStream in = Files.newInputStream(file))
+					{
+						properties.load(in);
+					}
+					bundles.put(matcher.group(1) == null ? "" : matcher.group(1), properties);
+				}
+			}
+		}
+
+		// Step 3: Validate keys
+		List<String> errors = new ArrayList<>();
+		Properties base = bundles.get("");
+		if (base == null)
+		{
+			errors.add("Base bundle " + BUNDLE_NAME + ".properties not found in " + bundleDirectory);
+			base = new Properties();
+		}
+		for (String key : knownKeys)
+		{
+			if (!base.containsKey(key))
+			{
+				errors.add(BUNDLE_NAME + ".properties: missing translation " + key);
+			}
+		}
+		for (String locale : bundles.keySet())
+		{
+			for (String key : bundles.get(locale).stringPropertyNames())
+			{
+				if (isEnumKey(key) && !knownKeys.contains(key))
+				{
+					errors.add(bundleFileName(locale) + ": unknown translation " + key);
+				}
+			}
+		}
+		if (!errors.isEmpty())
+		{
+			throw new IllegalStateException("Invalid translations:\n" + String.join("\n", errors));
+		}
+
+		// Step 4: Write the tables, only if they changed
+		String source = generate(tables, bundles);
+		byte[] content = source.getBytes(StandardCharsets.US_ASCII);
+		if (!Files.exists(output) || !Arrays.equals(Files.readAllBytes(output), content))
+		{
+			Files.createDirectories(output.getParent());
+			Files.write(output, content);
+			System.out.println("Generated " + output);
+		}
+	}
+
+	/**
+	 * Parse the source files of the rules enums.
+	 *
+	 * @param directory
+	 *          Source directory of the rules package.
+	 * @param classNames
+	 *          Simple names of the top level classes to parse.
+	 * @return Constants of all enums in the files, by enum name. Nested enums
+	 *         are named by their enclosing class, e.g.
+	 *         <code>Saves.SaveType</code>.
+	 * @throws IOException
+	 *           Reading the sources failed.
+	 * @throws IllegalStateException
+	 *           No compiler is available or the sources cannot be parsed.
+	 */
+	private static Map<String, List<VariableTree>> readEnums(Path directory, String... classNames) throws IOException
+	{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null)
+		{
+			throw new IllegalStateException("No Java compiler found, the build must run on a JDK");
+		}
+		List<File> files = new ArrayList<>();
+		for (String className : classNames)
+		{
+			files.add(directory.resolve(className + ".java").toFile());
+		}
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		Map<String, List<VariableTree>> enums = new HashMap<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8))
+		{
+			JavacTask task = (JavacTask) compiler.getTask(null, fileManager, diagnostics, null, null,
+							fileManager.getJavaFileObjectsFromFiles(files));
+			for (CompilationUnitTree unit : task.parse())
+			{
+				collectEnums(unit.getTypeDecls(), "", enums);
+			}
+		}
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+		{
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR)
+			{
+				throw new IllegalStateException("Cannot parse " + diagnostic.getSource().getName() + ":"
+								+ diagnostic.getLineNumber() + ": " + diagnostic.getMessage(null));
+			}
+		}
+		return enums;
+	}
+
+	/**
+	 * Collect the constants of all enums among some declarations, including
+	 * nested enums.
+	 *
+	 * @param declarations
+	 *          The declarations.
+	 * @param prefix
+	 *          Name of the enclosing class followed by a dot, empty for top level
+	 *          classes.
+	 * @param enums
+	 *          Receives the constants by enum name.
+	 */
+	private static void collectEnums(List<? extends Tree> declarations, String prefix,
+					Map<String, List<VariableTree>> enums)
+	{
+		for (Tree declaration : declarations)
+		{
+			if (!(declaration instanceof ClassTree))
+			{
+				continue;
+			}
+			ClassTree type = (ClassTree) declaration;
+			String name = prefix + type.getSimpleName();
+			if (type.getKind() == Tree.Kind.ENUM)
+			{
+				// The parser represents each constant as a field initialized with a
+				// new instance of the enum, which is not allowed for other fields
+				List<VariableTree> constants = new ArrayList<>();
+				for (Tree member : type.getMembers())
+				{
+					if (member instanceof VariableTree && ((VariableTree) member).getInitializer() instanceof NewClassTree
+									&& ((NewClassTree) ((VariableTree) member).getInitializer()).getIdentifier().toString()
+													.equals(type.getSimpleName().toString()))
+					{
+						constants.add((VariableTree) member);
+					}
+				}
+				enums.put(name, constants);
+			}
+			collectEnums(type.getMembers(), name + ".", enums);
+		}
+	}
+
+	/**
+	 * Get the constants of a parsed enum.
+	 *
+	 * @param enums
+	 *          Constants by enum name.
+	 * @param enumName
+	 *          The enum name.
+	 * @return Constants in declaration order.
+	 * @throws IllegalStateException
+	 *           The enum was not found or has no constants.
+	 */
+	private static List<VariableTree> getConstants(Map<String, List<VariableTree>> enums, String enumName)
+	{
+		List<VariableTree> constants = enums.get(enumName);
+		if (constants == null || constants.isEmpty())
+		{
+			throw new IllegalStateException("No constants found for enum " + enumName);
+		}
+		return constants;
+	}
+
+	/**
+	 * Build the translation keys for enum constants.
+	 *
+	 * @param prefix
+	 *          Type-specific prefix of the keys, without separator.
+	 * @param constants
+	 *          The enum constants.
+	 * @param suffix
+	 *          Suffix of the keys.
+	 * @return The keys.
+	 */
+	private static List<String> keys(String prefix, List<VariableTree> constants, String suffix)
+	{
+		List<String> keys = new ArrayList<>(constants.size());
+		for (VariableTree constant : constants)
+		{
+			keys.add(prefix + "." + constant.getName().toString().toLowerCase() + suffix);
+		}
+		return keys;
+	}
+
+	/**
+	 * Build the translation keys for skills. The first constructor argument is
+	 * the key without the <code>skill.</code> prefix, or <code>null</code> to
+	 * use the lower case constant name.
+	 *
+	 * @param skills
+	 *          The skill constants.
+	 * @return The keys.
+	 * @throws IllegalStateException
+	 *           The first argument of a skill is not a String literal or
+	 *           <code>null</code>.
+	 */
+	private static List<String> skillKeys(List<VariableTree> skills)
+	{
+		List<String> keys = new ArrayList<>(skills.size());
+		for (VariableTree skill : skills)
+		{
+			List<? extends ExpressionTree> arguments = ((NewClassTree) skill.getInitializer()).getArguments();
+			if (arguments.isEmpty() || !(arguments.get(0) instanceof LiteralTree))
+			{
+				throw new IllegalStateException("Cannot read name key of skill " + skill.getName());
+			}
+			Object key = ((LiteralTree) arguments.get(0)).getValue();
+			if (key != null && !(key instanceof String))
+			{
+				throw new IllegalStateException("Cannot read name key of skill " + skill.getName());
+			}
+			keys.add("skill." + (key == null ? skill.getName().toString().toLowerCase() : key));
+		}
+		return keys;
+	}
+
+	/**
+	 * Check if a key belongs to one of the translated enums.
+	 *
+	 * @param key
+	 *          The key.
+	 * @return <code>true</code> if the key has one of the enum prefixes.
+	 */
+	private static boolean isEnumKey(String key)
+	{
+		return key.startsWith("attribute.") || key.startsWith("skill.") || key.startsWith("bonus.")
+						|| key.startsWith("energy.") || key.startsWith("save.");
+	}
+
+	/**
+	 * Get the file name of a bundle.
+	 *
+	 * @param locale
+	 *          Locale suffix, empty for the base bundle.
+	 * @return The file name.
+	 */
+	private static String bundleFileName(String locale)
+	{
+		return BUNDLE_NAME + (locale.isEmpty() ? "" : "_" + locale) + ".properties";
+	}
+
+	/**
+	 * Generate the source of the table class. Translations missing from a
+	 * locale bundle are taken from its parent bundles, as a resource bundle
+	 * would.
+	 *
+	 * @param tables
+	 *          The enum tables.
+	 * @param bundles
+	 *          The bundles, by locale suffix.
+	 * @return Java source.
+	 */
+	private static String generate(List<EnumTable> tables, TreeMap<String, Properties> bundles)
+	{
+		StringBuilder out = new StringBuilder();
+		out.append("// Generated by ").append(TranslationTableGenerator.class.getSimpleName()).append(" from i18n/")
+						.append(BUNDLE_NAME).append("*.properties. Do not edit.\n");
+		out.append("package ").append(RULES_PACKAGE).append(";\n\n");
+		out.append("/**\n * Translation tables of the rules enums, indexed by locale and ordinal.\n */\n");
+		out.append("final class ").append(GENERATED_CLASS).append("\n{\n");
+		out.append("\t/**\n\t * Locale suffixes of the tables, the base bundle has an empty suffix.\n\t */\n");
+		out.append("\tstatic final String[] LOCALES = {");
+		appendList(out, new ArrayList<>(bundles.keySet()));
+		out.append("};\n");
+		for (EnumTable table : tables)
+		{
+			out.append("\n\tstatic final String[][] ").append(table.constantName).append(" = {\n");
+			for (String locale : bundles.keySet())
+			{
+				List<String> values = new ArrayList<>(table.keys.size());
+				for (String key : table.keys)
+				{
+					values.add(lookup(bundles, locale, key));
+				}
+				out.append("\t\t\t{");
+				appendList(out, values);
+				out.append("},\n");
+			}
+			out.append("\t};\n");
+		}
+		out.append("\n\tprivate ").append(GENERATED_CLASS).append("()\n\t{}\n}\n");
+		return out.toString();
+	}
+
+	/**
+	 * Look up a translation, falling back to the parent bundles.
+	 *
+	 * @param bundles
+	 *          The bundles, by locale suffix.
+	 * @param locale
+	 *          Locale suffix.
+	 * @param key
+	 *          Translation key.
+	 * @return The translation.
+	 */
+	private static String lookup(TreeMap<String, Properties> bundles, String locale, String key)
+	{
+		String candidate = locale;
+		while (true)
+		{
+			Properties bundle = bundles.get(candidate);
+			if (bundle != null && bundle.containsKey(key))
+			{
+				return bundle.getProperty(key);
+			}
+			if (candidate.isEmpty())
+			{
+				throw new IllegalStateException("No translation for " + key);
+			}
+			int separator = candidate.lastIndexOf('_');
+			candidate = separator < 0 ? "" : candidate.substring(0, separator);
+		}
+	}
+
+	/**
+	 * Append string literals separated by commas.
+	 *
+	 * @param out
+	 *          Target of the output.
+	 * @param values
+	 *          The values.
+	 */
+	private static void appendList(StringBuilder out, List<String> values)
+	{
+		for (int index = 0; index < values.size(); index++)
+		{
+			if (index > 0)
+			{
+				out.append(", ");
+			}
+			out.append('"');
+			for (char c : values.get(index).toCharArray())
+			{
+				if (c == '"' || c == '\\')
+				{
+					out.append('\\').append(c);
+				}
+				else if (c < 0x20 || c > 0x7e)
+				{
+					out.append(String.format("\\u%04x", (int) c));
+				}
+				else
+				{
+					out.append(c);
+				}
+			}
+			out.append('"');
+		}
+	}
+}
@@ -19,6 +19,7 @@
  */
 package de.martindreier.rpg.prd;
 
+import de.martindreier.rpg.prd.rules.StatBlockRenderer;
 import lombok.Data;
 
 /**
@@ -52,10 +53,6 @@ public abstract class BaseEntity
 	@Override
 	public String toString()
 	{
-		if (source == null)
-		{
-			return name;
-		}
-		return String.format("%s (%s)", name, source.getSourceName());
+		return StatBlockRenderer.render(StatBlockRenderer::appendEntity, this);
 	}
 }
@@ -106,6 +106,25 @@ public enum Source
 		return tag;
 	}
 
+	/**
+	 * Find a source by its tag.
+	 *
+	 * @param tag
+	 *          Source tag.
+	 * @return The source, or <code>null</code> if no source has the tag.
+	 */
+	public static Source forTag(String tag)
+	{
+		for (Source source : values())
+		{
+			if (source.tag.equals(tag))
+			{
+				return source;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Get the source author.
 	 *
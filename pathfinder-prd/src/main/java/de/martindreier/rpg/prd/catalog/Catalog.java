@@ -0,0 +1,419 @@
+/**
+ * Catalog.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Feat.FeatType;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Immutable collection of loaded PRD entities. Entities are identified by
+ * their {@link EntityKey}, i.e. source and name, and kept in key order. Feats
+ * are additionally indexed by {@link FeatType}.
+ * <p>
+ * Every catalog has a version derived from its content: two catalogs with the
+ * same entities have the same version, and any change to an entity changes the
+ * version. The version can be used to tag cached results, e.g. as HTTP entity
+ * tag. The same holds for the {@link #contentHash(BaseEntity) content hash} of
+ * each entity, which {@link #changesSince(Catalog)} uses to find the entities
+ * changed between two catalogs.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class Catalog implements CatalogView
+{
+	/**
+	 * Catalog without entities.
+	 */
+	public static final Catalog								EMPTY				= new Catalog(Collections.<BaseEntity> emptyList());
+
+	/**
+	 * FNV-1a 64 bit offset basis.
+	 */
+	private static final long									FNV_OFFSET	= 0xcbf29ce484222325L;
+
+	/**
+	 * FNV-1a 64 bit prime.
+	 */
+	private static final long									FNV_PRIME		= 0x100000001b3L;
+
+	/**
+	 * All entities in key order. Cannot be modified.
+	 */
+	private final List<BaseEntity>						entities;
+
+	/**
+	 * Entities indexed by key.
+	 */
+	private final Map<EntityKey, BaseEntity>	index;
+
+	/**
+	 * All feats in key order. Cannot be modified.
+	 */
+	@Getter
+	private final List<Feat>									feats;
+
+	/**
+	 * Feats by type, in key order. Lists cannot be modified.
+	 */
+	private final Map<FeatType, List<Feat>>		featsByType;
+
+	/**
+	 * Content hash of each entity, in key order.
+	 */
+	private final long[]											contentHashes;
+
+	/**
+	 * Content version.
+	 */
+	@Getter
+	private final long												version;
+
+	/**
+	 * Create a catalog.
+	 *
+	 * @param entities
+	 *          The entities. Each combination of source and name may occur only
+	 *          once.
+	 * @throws IllegalArgumentException
+	 *           Two entities have the same source and name.
+	 */
+	public Catalog(@NonNull Collection<? extends BaseEntity> entities)
+	{
+		// Step 1: Index and sort entities
+		Map<EntityKey, BaseEntity> keyIndex = new HashMap<>(entities.size() * 4 / 3 + 1);
+		for (BaseEntity entity : entities)
+		{
+			if (keyIndex.put(EntityKey.of(entity), entity) != null)
+			{
+				throw new IllegalArgumentException("Duplicate entity " + entity.getName() + " in source "
+								+ entity.getSource());
+			}
+		}
+		List<BaseEntity> sorted = new ArrayList<>(entities);
+		sorted.sort((first, second) -> EntityKey.of(first).compareTo(EntityKey.of(second)));
+		// Step 2: Index feats by type
+		List<Feat> allFeats = new ArrayList<>();
+		Map<FeatType, List<Feat>> byType = new EnumMap<>(FeatType.class);
+		for (FeatType type : FeatType.values())
+		{
+			byType.put(type, new ArrayList<>());
+		}
+		for (BaseEntity entity : sorted)
+		{
+			if (entity instanceof Feat)
+			{
+				Feat feat = (Feat) entity;
+				allFeats.add(feat);
+				for (FeatType type : feat.getTypes())
+				{
+					byType.get(type).add(feat);
+				}
+			}
+		}
+		for (FeatType type : FeatType.values())
+		{
+			byType.put(type, Collections.unmodifiableList(byType.get(type)));
+		}
+		// Step 3: Calculate version from content
+		long[] hashes = new long[sorted.size()];
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < hashes.length; i++)
+		{
+			hashes[i] = contentHash(sorted.get(i));
+			for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE)
+			{
+				hash = hashByte(hash, (int) (hashes[i] >>> shift));
+			}
+		}
+		this.entities = Collections.unmodifiableList(sorted);
+		this.index = keyIndex;
+		this.feats = Collections.unmodifiableList(allFeats);
+		this.featsByType = byType;
+		this.contentHashes = hashes;
+		this.version = hash;
+	}
+
+	/**
+	 * Get an entity.
+	 *
+	 * @param source
+	 *          Source of the entity. May be <code>null</code>.
+	 * @param name
+	 *          Name of the entity.
+	 * @return The entity, or <code>null</code> if the catalog does not contain
+	 *         it.
+	 */
+	@Override
+	public BaseEntity get(Source source, @NonNull String name)
+	{
+		return index.get(new EntityKey(source, name));
+	}
+
+	/**
+	 * Get an entity.
+	 *
+	 * @param key
+	 *          Key of the entity.
+	 * @return The entity, or <code>null</code> if the catalog does not contain
+	 *         it.
+	 */
+	@Override
+	public BaseEntity get(@NonNull EntityKey key)
+	{
+		return index.get(key);
+	}
+
+	/**
+	 * Get all entities.
+	 *
+	 * @return Read-only list of all entities, ordered by source and name.
+	 */
+	@Override
+	public List<BaseEntity> getEntities()
+	{
+		return entities;
+	}
+
+	/**
+	 * Get all entities of a source. Entities are sorted by source, so this is a
+	 * view of a part of the entity list.
+	 *
+	 * @see CatalogView#getEntities(Source)
+	 */
+	@Override
+	public List<BaseEntity> getEntities(Source source)
+	{
+		return entities.subList(firstIndexAfter(source, false), firstIndexAfter(source, true));
+	}
+
+	/**
+	 * Find the first entity in key order from a source or the sources after
+	 * it.
+	 *
+	 * @param source
+	 *          The source. May be <code>null</code>.
+	 * @param after
+	 *          <code>true</code> to skip the entities of the source itself.
+	 * @return Index of the first entity, or the number of entities if there is
+	 *         none.
+	 */
+	private int firstIndexAfter(Source source, boolean after)
+	{
+		int low = 0;
+		int high = entities.size();
+		while (low < high)
+		{
+			int middle = (low + high) >>> 1;
+			int order = compareSources(entities.get(middle).getSource(), source);
+			if (order < 0 || (after && order == 0))
+			{
+				low = middle + 1;
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Compare sources in key order, entities without source first.
+	 *
+	 * @param first
+	 *          First source. May be <code>null</code>.
+	 * @param second
+	 *          Second source. May be <code>null</code>.
+	 * @return Negative, zero or positive like {@link Comparable#compareTo}.
+	 */
+	private static int compareSources(Source first, Source second)
+	{
+		if (first == second)
+		{
+			return 0;
+		}
+		if (first == null)
+		{
+			return -1;
+		}
+		return second == null ? 1 : first.compareTo(second);
+	}
+
+	/**
+	 * Get all feats of a type.
+	 *
+	 * @param type
+	 *          Feat type.
+	 * @return Read-only list of the feats, ordered by source and name.
+	 */
+	public List<Feat> getFeats(@NonNull FeatType type)
+	{
+		return featsByType.get(type);
+	}
+
+	/**
+	 * Get the number of entities.
+	 *
+	 * @return Number of entities.
+	 */
+	public int size()
+	{
+		return entities.size();
+	}
+
+	/**
+	 * Get the version as hexadecimal String.
+	 *
+	 * @return The version, 16 hex digits.
+	 */
+	public String getVersionTag()
+	{
+		String hex = Long.toHexString(version);
+		return "0000000000000000".substring(hex.length()) + hex;
+	}
+
+	/**
+	 * Calculate the content hash of an entity from its type, source, name,
+	 * description and, for feats, prerequisites and types. Entities with equal
+	 * content have the same hash in every run.
+	 *
+	 * @param entity
+	 *          The entity.
+	 * @return The content hash.
+	 */
+	public static long contentHash(@NonNull BaseEntity entity)
+	{
+		long hash = hash(FNV_OFFSET, entity.getClass().getName());
+		hash = hash(hash, entity.getSource() == null ? null : entity.getSource().name());
+		hash = hash(hash, entity.getName());
+		hash = hash(hash, entity.getDescription());
+		if (entity instanceof Feat)
+		{
+			Feat feat = (Feat) entity;
+			hash = hash(hash, feat.getPrerequisites());
+			for (FeatType type : FeatType.values())
+			{
+				hash = hashByte(hash, feat.getTypes().contains(type) ? 1 : 0);
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Find the changes from another catalog to this one. Entities are compared
+	 * by key and content hash, so entities with the same content count as
+	 * unchanged even if they are different objects.
+	 *
+	 * @param previous
+	 *          The earlier catalog.
+	 * @return Changes in key order.
+	 */
+	public List<CatalogChange> changesSince(@NonNull Catalog previous)
+	{
+		// Both entity lists are in key order, walk them side by side
+		List<CatalogChange> changes = new ArrayList<>();
+		int before = 0;
+		int after = 0;
+		while (before < previous.entities.size() || after < entities.size())
+		{
+			int order;
+			if (before == previous.entities.size())
+			{
+				order = 1;
+			}
+			else if (after == entities.size())
+			{
+				order = -1;
+			}
+			else
+			{
+				order = EntityKey.of(previous.entities.get(before)).compareTo(EntityKey.of(entities.get(after)));
+			}
+			if (order < 0)
+			{
+				changes.add(CatalogChange.removed(previous.entities.get(before++)));
+			}
+			else if (order > 0)
+			{
+				changes.add(CatalogChange.added(entities.get(after++)));
+			}
+			else
+			{
+				if (previous.contentHashes[before] != contentHashes[after])
+				{
+					changes.add(CatalogChange.updated(previous.entities.get(before), entities.get(after)));
+				}
+				before++;
+				after++;
+			}
+		}
+		return changes;
+	}
+
+	/**
+	 * Add a String to a hash. <code>null</code> and the empty String hash
+	 * differently.
+	 *
+	 * @param hash
+	 *          Current hash.
+	 * @param value
+	 *          The String. May be <code>null</code>.
+	 * @return New hash.
+	 */
+	private static long hash(long hash, String value)
+	{
+		if (value == null)
+		{
+			return hashByte(hash, 0xFF);
+		}
+		for (byte next : value.getBytes(StandardCharsets.UTF_8))
+		{
+			hash = hashByte(hash, next);
+		}
+		// Terminator, so that field boundaries are part of the hash
+		return hashByte(hash, 0);
+	}
+
+	/**
+	 * Add a byte to a hash.
+	 *
+	 * @param hash
+	 *          Current hash.
+	 * @param value
+	 *          The byte.
+	 * @return New hash.
+	 */
+	private static long hashByte(long hash, int value)
+	{
+		return (hash ^ (value & 0xFF)) * FNV_PRIME;
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * CatalogChange.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import de.martindreier.rpg.prd.BaseEntity;
+import lombok.Value;
+
+/**
+ * Change of a single entity between two catalogs.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ * @see Catalog#changesSince(Catalog)
+ */
+@Value
+public class CatalogChange
+{
+	/**
+	 * Types of change.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	public static enum Type
+	{
+		/**
+		 * The entity is new.
+		 */
+		ADDED,
+		/**
+		 * The content of the entity changed.
+		 */
+		UPDATED,
+		/**
+		 * The entity no longer exists.
+		 */
+		REMOVED
+	}
+
+	/**
+	 * Type of change.
+	 */
+	private final Type				type;
+
+	/**
+	 * Key of the changed entity.
+	 */
+	private final EntityKey		key;
+
+	/**
+	 * The entity before the change. <code>null</code> for added entities.
+	 */
+	private final BaseEntity	previous;
+
+	/**
+	 * The entity after the change. <code>null</code> for removed entities.
+	 */
+	private final BaseEntity	current;
+
+	/**
+	 * Create a change for an added entity.
+	 *
+	 * @param entity
+	 *          The new entity.
+	 * @return The change.
+	 */
+	static CatalogChange added(BaseEntity entity)
+	{
+		return new CatalogChange(Type.ADDED, EntityKey.of(entity), null, entity);
+	}
+
+	/**
+	 * Create a change for an updated entity.
+	 *
+	 * @param previous
+	 *          The entity before the change.
+	 * @param current
+	 *          The entity after the change.
+	 * @return The change.
+	 */
+	static CatalogChange updated(BaseEntity previous, BaseEntity current)
+	{
+		return new CatalogChange(Type.UPDATED, EntityKey.of(current), previous, current);
+	}
+
+	/**
+	 * Create a change for a removed entity.
+	 *
+	 * @param entity
+	 *          The removed entity.
+	 * @return The change.
+	 */
+	static CatalogChange removed(BaseEntity entity)
+	{
+		return new CatalogChange(Type.REMOVED, EntityKey.of(entity), entity, null);
+	}
+}
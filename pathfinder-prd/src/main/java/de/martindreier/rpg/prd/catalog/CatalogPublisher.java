@@ -0,0 +1,134 @@
+/**
+ * CatalogPublisher.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Holds the current catalog and tells listeners which entities changed when
+ * a new catalog is published, e.g. after each loader run. Listeners can then
+ * update caches and search indexes for the changed entities only instead of
+ * rebuilding them.
+ * <p>
+ * Publishing is synchronized, so listeners receive the changes of consecutive
+ * catalogs in order. Listeners may be added and removed at any time.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class CatalogPublisher
+{
+	/**
+	 * Receives the changes of a newly published catalog.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	@FunctionalInterface
+	public static interface Listener
+	{
+		/**
+		 * Called after a catalog with changed entities has been published.
+		 *
+		 * @param previous
+		 *          The catalog before.
+		 * @param current
+		 *          The new catalog.
+		 * @param changes
+		 *          Read-only list of changes in key order. Never empty.
+		 */
+		public void catalogChanged(Catalog previous, Catalog current, List<CatalogChange> changes);
+	}
+
+	/**
+	 * Registered listeners.
+	 */
+	private final List<Listener>	listeners	= new CopyOnWriteArrayList<>();
+
+	/**
+	 * The current catalog.
+	 */
+	@Getter
+	private volatile Catalog			catalog;
+
+	/**
+	 * Create a publisher.
+	 *
+	 * @param initial
+	 *          The initial catalog, e.g. {@link Catalog#EMPTY} or one restored
+	 *          from a snapshot.
+	 */
+	public CatalogPublisher(@NonNull Catalog initial)
+	{
+		this.catalog = initial;
+	}
+
+	/**
+	 * Register a listener.
+	 *
+	 * @param listener
+	 *          The listener.
+	 */
+	public void addListener(@NonNull Listener listener)
+	{
+		listeners.add(listener);
+	}
+
+	/**
+	 * Remove a listener.
+	 *
+	 * @param listener
+	 *          The listener.
+	 */
+	public void removeListener(@NonNull Listener listener)
+	{
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Replace the current catalog and notify the listeners of the changes.
+	 * Listeners are not called if no entity changed.
+	 *
+	 * @param next
+	 *          The new catalog.
+	 * @return Read-only list of changes in key order.
+	 */
+	public synchronized List<CatalogChange> publish(@NonNull Catalog next)
+	{
+		Catalog previous = catalog;
+		catalog = next;
+		if (previous.getVersion() == next.getVersion() && previous.size() == next.size())
+		{
+			// Same content
+			return Collections.emptyList();
+		}
+		List<CatalogChange> changes = Collections.unmodifiableList(next.changesSince(previous));
+		if (!changes.isEmpty())
+		{
+			for (Listener listener : listeners)
+			{
+				listener.catalogChanged(previous, next, changes);
+			}
+		}
+		return changes;
+	}
+}
@@ -0,0 +1,241 @@
+/**
+ * CatalogQuery.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Feat.FeatType;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Query for entities of a {@link Catalog}. Queries are immutable and
+ * normalized: queries which select the same entities are equal, e.g. name
+ * prefixes are compared without regard to case and surrounding whitespace, and
+ * a feat type implies that only feats are selected. This makes queries
+ * suitable as cache keys, see {@link QueryCache}.
+ * <p>
+ * Start with {@link #all()} or {@link #feats()} and narrow the query down:
+ *
+ * <pre>
+ * CatalogQuery.feats().withFeatType(FeatType.COMBAT).withSource(Source.CORE_RULEBOOK)
+ * </pre>
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@Getter
+@EqualsAndHashCode
+public final class CatalogQuery
+{
+	/**
+	 * Query for all entities.
+	 */
+	private static final CatalogQuery	ALL		= new CatalogQuery(false, null, null, null);
+
+	/**
+	 * Query for all feats.
+	 */
+	private static final CatalogQuery	FEATS	= new CatalogQuery(true, null, null, null);
+
+	/**
+	 * Select only feats.
+	 */
+	private final boolean							featsOnly;
+
+	/**
+	 * Required source. <code>null</code> for any source.
+	 */
+	private final Source							source;
+
+	/**
+	 * Required feat type. <code>null</code> for any type.
+	 */
+	private final FeatType						featType;
+
+	/**
+	 * Required name prefix in normalized form. <code>null</code> for any name.
+	 */
+	private final String							namePrefix;
+
+	/**
+	 * Create a query.
+	 *
+	 * @param featsOnly
+	 *          Select only feats.
+	 * @param source
+	 *          Required source.
+	 * @param featType
+	 *          Required feat type.
+	 * @param namePrefix
+	 *          Normalized name prefix.
+	 */
+	private CatalogQuery(boolean featsOnly, Source source, FeatType featType, String namePrefix)
+	{
+		this.featsOnly = featsOnly || featType != null;
+		this.source = source;
+		this.featType = featType;
+		this.namePrefix = namePrefix;
+	}
+
+	/**
+	 * Query for all entities.
+	 *
+	 * @return The query.
+	 */
+	public static CatalogQuery all()
+	{
+		return ALL;
+	}
+
+	/**
+	 * Query for all feats.
+	 *
+	 * @return The query.
+	 */
+	public static CatalogQuery feats()
+	{
+		return FEATS;
+	}
+
+	/**
+	 * Select only entities of a source.
+	 *
+	 * @param source
+	 *          The source. <code>null</code> for any source.
+	 * @return The narrowed query.
+	 */
+	public CatalogQuery withSource(Source source)
+	{
+		return new CatalogQuery(featsOnly, source, featType, namePrefix);
+	}
+
+	/**
+	 * Select only feats of a type.
+	 *
+	 * @param featType
+	 *          The feat type. <code>null</code> for any type.
+	 * @return The narrowed query.
+	 */
+	public CatalogQuery withFeatType(FeatType featType)
+	{
+		return new CatalogQuery(featsOnly, source, featType, namePrefix);
+	}
+
+	/**
+	 * Select only entities whose name starts with a prefix. Case and
+	 * surrounding whitespace are ignored, inner whitespace counts as a single
+	 * space.
+	 *
+	 * @param prefix
+	 *          The prefix. <code>null</code> or blank for any name.
+	 * @return The narrowed query.
+	 */
+	public CatalogQuery withNamePrefix(String prefix)
+	{
+		String normalized = prefix == null ? "" : normalize(prefix);
+		return new CatalogQuery(featsOnly, source, featType, normalized.isEmpty() ? null : normalized);
+	}
+
+	/**
+	 * Run the query.
+	 *
+	 * @param catalog
+	 *          The catalog.
+	 * @return Read-only list of the matching entities, in catalog order.
+	 */
+	public List<BaseEntity> execute(@NonNull Catalog catalog)
+	{
+		List<? extends BaseEntity> candidates;
+		if (featType != null)
+		{
+			candidates = catalog.getFeats(featType);
+		}
+		else if (featsOnly)
+		{
+			candidates = catalog.getFeats();
+		}
+		else
+		{
+			candidates = catalog.getEntities();
+		}
+		if (source == null && namePrefix == null)
+		{
+			return Collections.unmodifiableList(candidates);
+		}
+		List<BaseEntity> result = new ArrayList<>();
+		for (BaseEntity entity : candidates)
+		{
+			if ((source == null || source == entity.getSource())
+							&& (namePrefix == null || normalize(entity.getName()).startsWith(namePrefix)))
+			{
+				result.add(entity);
+			}
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Estimate the memory used by this query.
+	 *
+	 * @return Size in bytes.
+	 */
+	int getEstimatedSize()
+	{
+		// Object header and fields, plus String header and characters
+		return 32 + (namePrefix == null ? 0 : 40 + 2 * namePrefix.length());
+	}
+
+	/**
+	 * Normalize a name for comparison.
+	 *
+	 * @param name
+	 *          The name.
+	 * @return Trimmed, lower case name with single spaces.
+	 */
+	static String normalize(String name)
+	{
+		return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder text = new StringBuilder(featsOnly ? "feats" : "entities");
+		if (source != null)
+		{
+			text.append(" source=").append(source.getTag());
+		}
+		if (featType != null)
+		{
+			text.append(" type=").append(featType);
+		}
+		if (namePrefix != null)
+		{
+			text.append(" prefix=").append(namePrefix);
+		}
+		return text.toString();
+	}
+}
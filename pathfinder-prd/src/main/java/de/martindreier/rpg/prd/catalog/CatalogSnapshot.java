@@ -0,0 +1,471 @@
+/**
+ * CatalogSnapshot.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import lombok.NonNull;
+
+/**
+ * Compact, indexed file containing a whole catalog. The file starts with a
+ * header and an index with the position, length and entity count of each
+ * source, followed by the entities of each source encoded with
+ * {@link EntityCodec}. Opening a snapshot only reads the index; the entities
+ * of a source are decoded when they are {@link #load(Source) loaded}, so a
+ * snapshot can back a {@link PartitionedCatalog} directly.
+ * <p>
+ * Snapshot files are memory mapped. Snapshots are thread safe.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class CatalogSnapshot implements PartitionLoader
+{
+	/**
+	 * First bytes of a snapshot file.
+	 */
+	private static final int	MAGIC				= 0x50524443;
+
+	/**
+	 * Format version.
+	 */
+	private static final int	VERSION			= 1;
+
+	/**
+	 * Size of the header: magic, version and number of index entries.
+	 */
+	private static final int	HEADER_SIZE	= 12;
+
+	/**
+	 * Size of an index entry: source, entity count, offset and length.
+	 */
+	private static final int	ENTRY_SIZE	= 13;
+
+	/**
+	 * Snapshot content. Never read directly, only through duplicates, so
+	 * several threads can read at the same time.
+	 */
+	private final ByteBuffer	buffer;
+
+	/**
+	 * Offset of the entities of each source by index (0 for no source, otherwise
+	 * ordinal plus one), -1 for sources without entities.
+	 */
+	private final int[]				offsets;
+
+	/**
+	 * Length of the entities of each source in bytes by index.
+	 */
+	private final int[]				lengths;
+
+	/**
+	 * Number of entities of each source by index.
+	 */
+	private final int[]				counts;
+
+	/**
+	 * Total number of entities.
+	 */
+	private final int					size;
+
+	/**
+	 * Read the index of a snapshot.
+	 *
+	 * @param buffer
+	 *          Snapshot content.
+	 * @throws IOException
+	 *           The content is not a valid snapshot.
+	 */
+	private CatalogSnapshot(ByteBuffer buffer) throws IOException
+	{
+		this.buffer = buffer;
+		int sources = EntityCodec.SOURCE_INDEXES;
+		offsets = new int[sources];
+		lengths = new int[sources];
+		counts = new int[sources];
+		Arrays.fill(offsets, -1);
+		try
+		{
+			ByteBuffer header = buffer.duplicate();
+			if (header.getInt() != MAGIC)
+			{
+				throw new IOException("Not a catalog snapshot");
+			}
+			int version = header.getInt();
+			if (version != VERSION)
+			{
+				throw new IOException("Unsupported snapshot version " + version);
+			}
+			int entries = header.getInt();
+			if (entries < 0 || entries > sources)
+			{
+				throw new IOException("Invalid number of sources " + entries);
+			}
+			int total = 0;
+			for (int i = 0; i < entries; i++)
+			{
+				int index = header.get() & 0xFF;
+				int count = header.getInt();
+				int offset = header.getInt();
+				int length = header.getInt();
+				if (index >= sources || offsets[index] != -1 || count < 0 || offset < HEADER_SIZE || length < 0
+								|| offset > buffer.limit() - length)
+				{
+					throw new IOException("Invalid index entry " + i);
+				}
+				offsets[index] = offset;
+				lengths[index] = length;
+				counts[index] = count;
+				total += count;
+			}
+			size = total;
+		}
+		catch (BufferUnderflowException e)
+		{
+			throw new IOException("Truncated catalog snapshot", e);
+		}
+	}
+
+	/**
+	 * Write a snapshot of a catalog.
+	 *
+	 * @param catalog
+	 *          The catalog.
+	 * @param out
+	 *          Receives the snapshot. Not closed.
+	 * @throws IOException
+	 *           The snapshot cannot be written.
+	 * @throws IllegalArgumentException
+	 *           The catalog contains entities which {@link EntityCodec} cannot
+	 *           encode.
+	 */
+	public static void write(@NonNull Catalog catalog, @NonNull OutputStream out) throws IOException
+	{
+		// Step 1: Encode the entities of each source
+		List<Integer> indices = new ArrayList<>();
+		List<byte[]> partitions = new ArrayList<>();
+		for (int index = 0; index < EntityCodec.SOURCE_INDEXES; index++)
+		{
+			List<BaseEntity> entities = catalog.getEntities(EntityCodec.sourceOf(index));
+			if (entities.isEmpty())
+			{
+				continue;
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream data = new DataOutputStream(bytes);
+			for (BaseEntity entity : entities)
+			{
+				EntityCodec.write(data, entity);
+			}
+			indices.add(index);
+			partitions.add(bytes.toByteArray());
+		}
+		// Step 2: Write header, index and entities
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(indices.size());
+		int offset = HEADER_SIZE + indices.size() * ENTRY_SIZE;
+		for (int i = 0; i < indices.size(); i++)
+		{
+			data.writeByte(indices.get(i));
+			data.writeInt(catalog.getEntities(EntityCodec.sourceOf(indices.get(i))).size());
+			data.writeInt(offset);
+			data.writeInt(partitions.get(i).length);
+			offset += partitions.get(i).length;
+		}
+		for (byte[] partition : partitions)
+		{
+			data.write(partition);
+		}
+		data.flush();
+	}
+
+	/**
+	 * Write a snapshot of a catalog to a file.
+	 *
+	 * @param catalog
+	 *          The catalog.
+	 * @param file
+	 *          The file. Parent directories are created, an existing file is
+	 *          replaced.
+	 * @throws IOException
+	 *           The snapshot cannot be written.
+	 */
+	public static void write(@NonNull Catalog catalog, @NonNull Path file) throws IOException
+	{
+		if (file.toAbsolutePath().getParent() != null)
+		{
+			Files.createDirectories(file.toAbsolutePath().getParent());
+		}
+		try (OutputStream out = Files.newOutputStream(file))
+		{
+			write(catalog, out);
+		}
+	}
+
+	/**
+	 * Open a snapshot file by mapping it into memory.
+	 *
+	 * @param file
+	 *          The file.
+	 * @return The snapshot.
+	 * @throws IOException
+	 *           The file cannot be read or is not a valid snapshot.
+	 */
+	public static CatalogSnapshot open(@NonNull Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			return new CatalogSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Open a snapshot in memory.
+	 *
+	 * @param content
+	 *          Snapshot content from its position to its limit. The buffer is
+	 *          not changed.
+	 * @return The snapshot.
+	 * @throws IOException
+	 *           The content is not a valid snapshot.
+	 */
+	public static CatalogSnapshot open(@NonNull ByteBuffer content) throws IOException
+	{
+		return new CatalogSnapshot(content.slice());
+	}
+
+	/**
+	 * Open a snapshot from the class path. Snapshots in a directory are mapped
+	 * directly; snapshots inside a JAR file are first extracted to a temporary
+	 * file, which is deleted when the JVM exits.
+	 *
+	 * @param anchor
+	 *          Class used to find the resource.
+	 * @param name
+	 *          Name of the resource, relative to the package of the class
+	 *          unless it starts with a slash.
+	 * @return The snapshot.
+	 * @throws IOException
+	 *           The resource does not exist, cannot be read or is not a valid
+	 *           snapshot.
+	 */
+	public static CatalogSnapshot openResource(@NonNull Class<?> anchor, @NonNull String name) throws IOException
+	{
+		URL resource = anchor.getResource(name);
+		if (resource == null)
+		{
+			throw new FileNotFoundException("Resource " + name + " not found");
+		}
+		if ("file".equals(resource.getProtocol()))
+		{
+			try
+			{
+				return open(Paths.get(resource.toURI()));
+			}
+			catch (URISyntaxException e)
+			{
+				// Fall back to extracting the resource
+			}
+		}
+		Path file = Files.createTempFile("catalog", ".snapshot");
+		file.toFile().deleteOnExit();
+		try (InputStream in = resource.openStream())
+		{
+			Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		return open(file);
+	}
+
+	/**
+	 * Get the sources which have entities in the snapshot.
+	 *
+	 * @return The sources, without entities without source.
+	 */
+	public Set<Source> getSources()
+	{
+		Set<Source> sources = EnumSet.noneOf(Source.class);
+		for (Source source : Source.values())
+		{
+			if (offsets[EntityCodec.indexOf(source)] != -1)
+			{
+				sources.add(source);
+			}
+		}
+		return sources;
+	}
+
+	/**
+	 * Get the number of entities without decoding them.
+	 *
+	 * @return Number of entities.
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get the number of entities of a source without decoding them.
+	 *
+	 * @param source
+	 *          The source. <code>null</code> for entities without source.
+	 * @return Number of entities.
+	 */
+	public int size(Source source)
+	{
+		return counts[EntityCodec.indexOf(source)];
+	}
+
+	/**
+	 * Decode the entities of a source.
+	 *
+	 * @param source
+	 *          The source. <code>null</code> for entities without source.
+	 * @return The entities in catalog order.
+	 * @throws IOException
+	 *           The entities cannot be decoded.
+	 */
+	@Override
+	public List<BaseEntity> load(Source source) throws IOException
+	{
+		int index = EntityCodec.indexOf(source);
+		if (offsets[index] == -1)
+		{
+			return Collections.emptyList();
+		}
+		ByteBuffer partition = buffer.duplicate();
+		partition.position(offsets[index]);
+		partition.limit(offsets[index] + lengths[index]);
+		DataInputStream in = new DataInputStream(new BufferInputStream(partition));
+		List<BaseEntity> entities = new ArrayList<>(counts[index]);
+		for (int i = 0; i < counts[index]; i++)
+		{
+			BaseEntity entity = EntityCodec.read(in);
+			if (entity.getSource() != source)
+			{
+				throw new IOException("Entity " + entity.getName() + " stored with wrong source");
+			}
+			entities.add(entity);
+		}
+		return entities;
+	}
+
+	/**
+	 * Decode all entities.
+	 *
+	 * @return Catalog of all entities.
+	 * @throws IOException
+	 *           The entities cannot be decoded.
+	 */
+	public Catalog toCatalog() throws IOException
+	{
+		List<BaseEntity> entities = new ArrayList<>(size);
+		for (int index = 0; index < offsets.length; index++)
+		{
+			entities.addAll(load(EntityCodec.sourceOf(index)));
+		}
+		try
+		{
+			return new Catalog(entities);
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new IOException("Invalid catalog snapshot", e);
+		}
+	}
+
+	/**
+	 * Create a catalog which decodes each source on first access.
+	 *
+	 * @return The catalog, containing all sources of the snapshot.
+	 */
+	public PartitionedCatalog toPartitionedCatalog()
+	{
+		return new PartitionedCatalog(this, getSources());
+	}
+
+	/**
+	 * Reads the remaining bytes of a buffer.
+	 */
+	private static final class BufferInputStream extends InputStream
+	{
+		/**
+		 * The buffer.
+		 */
+		private final ByteBuffer buffer;
+
+		/**
+		 * Read a buffer.
+		 *
+		 * @param buffer
+		 *          The buffer. Its position is advanced while reading.
+		 */
+		private BufferInputStream(ByteBuffer buffer)
+		{
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read()
+		{
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length)
+		{
+			if (length == 0)
+			{
+				return 0;
+			}
+			if (!buffer.hasRemaining())
+			{
+				return -1;
+			}
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * CatalogView.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.util.List;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import lombok.NonNull;
+
+/**
+ * Read access to a collection of entities identified by source and name. A
+ * view may hold all entities in memory like a {@link Catalog}, or load and
+ * combine them on demand.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public interface CatalogView
+{
+	/**
+	 * Get an entity.
+	 *
+	 * @param source
+	 *          Source of the entity. May be <code>null</code>.
+	 * @param name
+	 *          Name of the entity.
+	 * @return The entity, or <code>null</code> if the view does not contain it.
+	 */
+	public BaseEntity get(Source source, @NonNull String name);
+
+	/**
+	 * Get an entity.
+	 *
+	 * @param key
+	 *          Key of the entity.
+	 * @return The entity, or <code>null</code> if the view does not contain it.
+	 */
+	public default BaseEntity get(@NonNull EntityKey key)
+	{
+		return get(key.getSource(), key.getName());
+	}
+
+	/**
+	 * Get all entities of a source.
+	 *
+	 * @param source
+	 *          The source. May be <code>null</code> for entities without source.
+	 * @return Read-only list of the entities, ordered by name.
+	 */
+	public List<BaseEntity> getEntities(Source source);
+
+	/**
+	 * Get all entities.
+	 *
+	 * @return Read-only list of all entities, ordered by source and name.
+	 */
+	public List<BaseEntity> getEntities();
+}
@@ -0,0 +1,220 @@
+/**
+ * EntityCodec.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Feat.FeatType;
+import lombok.NonNull;
+
+/**
+ * Binary encoding of entities for files and network transfer. Each entity
+ * starts with a kind byte, followed by the source (0 for none, otherwise
+ * ordinal plus one), name and description. Feats add their prerequisites and
+ * a bit mask of their types by ordinal. Strings are written as length in bytes
+ * followed by UTF-8, length -1 for <code>null</code>, so they are not limited
+ * to 64 KiB like {@link DataOutput#writeUTF(String)}.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class EntityCodec
+{
+	/**
+	 * Kind byte of feats.
+	 */
+	private static final int	KIND_FEAT					= 1;
+
+	/**
+	 * Longest String accepted when reading, in bytes. Protects against
+	 * allocating huge arrays for corrupt input.
+	 */
+	public static final int		MAX_STRING_BYTES	= 1 << 24;
+
+	/**
+	 * Number of source indexes: one for entities without source and one per
+	 * source, see {@link #indexOf(Source)}.
+	 */
+	public static final int		SOURCE_INDEXES		= Source.values().length + 1;
+
+	/**
+	 * Utility class.
+	 */
+	private EntityCodec()
+	{}
+
+	/**
+	 * Write an entity.
+	 *
+	 * @param out
+	 *          Receives the entity.
+	 * @param entity
+	 *          The entity.
+	 * @throws IOException
+	 *           The entity cannot be written.
+	 * @throws IllegalArgumentException
+	 *           The entity type is not supported.
+	 */
+	public static void write(@NonNull DataOutput out, @NonNull BaseEntity entity) throws IOException
+	{
+		if (!(entity instanceof Feat))
+		{
+			throw new IllegalArgumentException("Unsupported entity type " + entity.getClass().getName());
+		}
+		Feat feat = (Feat) entity;
+		out.writeByte(KIND_FEAT);
+		out.writeByte(indexOf(entity.getSource()));
+		writeString(out, entity.getName());
+		writeString(out, entity.getDescription());
+		writeString(out, feat.getPrerequisites());
+		int types = 0;
+		for (FeatType type : feat.getTypes())
+		{
+			types |= 1 << type.ordinal();
+		}
+		out.writeInt(types);
+	}
+
+	/**
+	 * Read an entity.
+	 *
+	 * @param in
+	 *          Provides the entity.
+	 * @return The entity.
+	 * @throws IOException
+	 *           The entity cannot be read or is invalid.
+	 */
+	public static BaseEntity read(@NonNull DataInput in) throws IOException
+	{
+		int kind = in.readUnsignedByte();
+		if (kind != KIND_FEAT)
+		{
+			throw new IOException("Unknown entity kind " + kind);
+		}
+		int sourceIndex = in.readUnsignedByte();
+		if (sourceIndex >= SOURCE_INDEXES)
+		{
+			throw new IOException("Unknown source " + sourceIndex);
+		}
+		Source source = sourceOf(sourceIndex);
+		String name = readString(in);
+		String description = readString(in);
+		String prerequisites = readString(in);
+		int typeMask = in.readInt();
+		if (name == null || description == null)
+		{
+			throw new IOException("Entity without name or description");
+		}
+		Set<FeatType> types = EnumSet.noneOf(FeatType.class);
+		for (FeatType type : FeatType.values())
+		{
+			if ((typeMask & (1 << type.ordinal())) != 0)
+			{
+				types.add(type);
+			}
+		}
+		return new Feat(name, prerequisites, description, types, source);
+	}
+
+	/**
+	 * Get the index of a source, as used in the encoding and by indexed
+	 * structures over all sources.
+	 *
+	 * @param source
+	 *          The source. May be <code>null</code>.
+	 * @return 0 for no source, otherwise the ordinal plus one.
+	 */
+	public static int indexOf(Source source)
+	{
+		return source == null ? 0 : source.ordinal() + 1;
+	}
+
+	/**
+	 * Get the source of an index.
+	 *
+	 * @param index
+	 *          The index.
+	 * @return The source. <code>null</code> for index 0.
+	 * @throws IllegalArgumentException
+	 *           The index is out of range.
+	 * @see #indexOf(Source)
+	 */
+	public static Source sourceOf(int index)
+	{
+		if (index < 0 || index >= SOURCE_INDEXES)
+		{
+			throw new IllegalArgumentException("Invalid source index " + index);
+		}
+		return index == 0 ? null : Source.values()[index - 1];
+	}
+
+	/**
+	 * Write a String.
+	 *
+	 * @param out
+	 *          Receives the String.
+	 * @param value
+	 *          The String. May be <code>null</code>.
+	 * @throws IOException
+	 *           The String cannot be written.
+	 */
+	public static void writeString(@NonNull DataOutput out, String value) throws IOException
+	{
+		if (value == null)
+		{
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Read a String.
+	 *
+	 * @param in
+	 *          Provides the String.
+	 * @return The String. May be <code>null</code>.
+	 * @throws IOException
+	 *           The String cannot be read or has an invalid length.
+	 */
+	public static String readString(@NonNull DataInput in) throws IOException
+	{
+		int length = in.readInt();
+		if (length == -1)
+		{
+			return null;
+		}
+		if (length < 0 || length > MAX_STRING_BYTES)
+		{
+			throw new IOException("Invalid String length " + length);
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
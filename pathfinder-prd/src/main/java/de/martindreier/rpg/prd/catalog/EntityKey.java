@@ -0,0 +1,81 @@
+/**
+ * EntityKey.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Identifies an entity in a catalog by its source and name. Names are unique
+ * within a source, but the same name may appear in several sources.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@Value
+public class EntityKey implements Comparable<EntityKey>
+{
+	/**
+	 * Source of the entity. May be <code>null</code>.
+	 */
+	private final Source	source;
+
+	/**
+	 * Name of the entity.
+	 */
+	@NonNull
+	private final String	name;
+
+	/**
+	 * Get the key of an entity.
+	 *
+	 * @param entity
+	 *          The entity.
+	 * @return Key of the entity.
+	 */
+	public static EntityKey of(@NonNull BaseEntity entity)
+	{
+		return new EntityKey(entity.getSource(), entity.getName());
+	}
+
+	/**
+	 * Sort by source, entities without source first, then by name.
+	 *
+	 * @see java.lang.Comparable#compareTo(java.lang.Object)
+	 */
+	@Override
+	public int compareTo(EntityKey other)
+	{
+		if (source != other.source)
+		{
+			if (source == null)
+			{
+				return -1;
+			}
+			if (other.source == null)
+			{
+				return 1;
+			}
+			return source.compareTo(other.source);
+		}
+		return name.compareTo(other.name);
+	}
+}
@@ -0,0 +1,423 @@
+/**
+ * EntityLinker.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.Skill;
+import de.martindreier.rpg.prd.rules.Translations;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Finds names of entities, skills and attributes in text, e.g. in feat
+ * prerequisites like "Dex 13, Power Attack, Acrobatics 5 ranks". All names are
+ * compiled into one Aho-Corasick automaton, so a text is scanned in a single
+ * pass regardless of the number of names.
+ * <p>
+ * Names are matched without regard to case and only as whole words: the
+ * characters before and after a match must not be letters or digits. Where
+ * matches overlap, the one starting first wins, and of matches starting at the
+ * same position the longest wins, so "Improved Bull Rush" is linked as one
+ * feat and not as "Bull Rush". If several targets have the same name, entities
+ * take precedence over skills, skills over attributes, and entities earlier in
+ * catalog order over later ones.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class EntityLinker
+{
+	/**
+	 * Kind of link target.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	public static enum Kind
+	{
+		/**
+		 * A catalog entity, e.g. a feat.
+		 */
+		ENTITY,
+		/**
+		 * A skill, by its name.
+		 */
+		SKILL,
+		/**
+		 * An attribute, by its name or abbreviation.
+		 */
+		ATTRIBUTE
+	}
+
+	/**
+	 * A name found in a text.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	@Value
+	public static class Link
+	{
+		/**
+		 * Index of the first character of the name in the text.
+		 */
+		private final int			start;
+		/**
+		 * Index after the last character of the name in the text.
+		 */
+		private final int			end;
+		/**
+		 * Kind of target.
+		 */
+		private final Kind		kind;
+		/**
+		 * The target: a {@link BaseEntity}, {@link Skill} or {@link Attribute}.
+		 */
+		private final Object	target;
+
+		/**
+		 * Get the linked entity.
+		 *
+		 * @return The entity, or <code>null</code> if the target is not an entity.
+		 */
+		public BaseEntity getEntity()
+		{
+			return kind == Kind.ENTITY ? (BaseEntity) target : null;
+		}
+
+		/**
+		 * Get the linked skill.
+		 *
+		 * @return The skill, or <code>null</code> if the target is not a skill.
+		 */
+		public Skill getSkill()
+		{
+			return kind == Kind.SKILL ? (Skill) target : null;
+		}
+
+		/**
+		 * Get the linked attribute.
+		 *
+		 * @return The attribute, or <code>null</code> if the target is not an
+		 *         attribute.
+		 */
+		public Attribute getAttribute()
+		{
+			return kind == Kind.ATTRIBUTE ? (Attribute) target : null;
+		}
+	}
+
+	/**
+	 * Characters of the transitions of each node, sorted.
+	 */
+	private final char[][]	labels;
+
+	/**
+	 * Target nodes of the transitions of each node, in label order.
+	 */
+	private final int[][]		children;
+
+	/**
+	 * Failure link of each node: the node of the longest proper suffix of the
+	 * node's string which is also in the trie.
+	 */
+	private final int[]			failure;
+
+	/**
+	 * Pattern ending at each node, -1 if none.
+	 */
+	private final int[]			pattern;
+
+	/**
+	 * Next node on the failure chain of each node which ends a pattern, -1 if
+	 * none.
+	 */
+	private final int[]			dictionary;
+
+	/**
+	 * Length of each pattern.
+	 */
+	private final int[]			patternLength;
+
+	/**
+	 * Kind of each pattern.
+	 */
+	private final Kind[]		patternKind;
+
+	/**
+	 * Target of each pattern.
+	 */
+	private final Object[]	patternTarget;
+
+	/**
+	 * Number of patterns.
+	 */
+	@Getter
+	private final int				size;
+
+	/**
+	 * Create a linker for the names of all entities in a catalog, and the skill
+	 * and attribute names in the given locales.
+	 *
+	 * @param catalog
+	 *          The catalog.
+	 * @param locales
+	 *          Locales of skill and attribute names. If none is given, the
+	 *          default locale is used.
+	 */
+	public EntityLinker(@NonNull Catalog catalog, @NonNull Locale... locales)
+	{
+		// Step 1: Collect patterns, first target of each name wins
+		TreeMap<String, Integer> names = new TreeMap<>();
+		List<Kind> kinds = new ArrayList<>();
+		List<Object> targets = new ArrayList<>();
+		for (BaseEntity entity : catalog.getEntities())
+		{
+			addPattern(names, kinds, targets, entity.getName(), Kind.ENTITY, entity);
+		}
+		Set<Translations> translations = new LinkedHashSet<>();
+		for (Locale locale : locales.length == 0 ? new Locale[] { Locale.getDefault() } : locales)
+		{
+			translations.add(Translations.forLocale(locale));
+		}
+		for (Translations translation : translations)
+		{
+			for (Skill skill : Skill.values())
+			{
+				addPattern(names, kinds, targets, translation.getSkillName(skill), Kind.SKILL, skill);
+			}
+		}
+		for (Translations translation : translations)
+		{
+			for (Attribute attribute : Attribute.values())
+			{
+				addPattern(names, kinds, targets, translation.getAttributeName(attribute), Kind.ATTRIBUTE, attribute);
+				addPattern(names, kinds, targets, translation.getAttributeAbbreviation(attribute), Kind.ATTRIBUTE,
+								attribute);
+			}
+		}
+		size = targets.size();
+		patternKind = kinds.toArray(new Kind[size]);
+		patternTarget = targets.toArray();
+		patternLength = new int[size];
+		// Step 2: Build trie, then flatten transitions into sorted arrays
+		List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+		List<Integer> patternAt = new ArrayList<>();
+		trie.add(new TreeMap<>());
+		patternAt.add(-1);
+		for (Map.Entry<String, Integer> name : names.entrySet())
+		{
+			int node = 0;
+			for (char next : name.getKey().toCharArray())
+			{
+				Integer child = trie.get(node).get(next);
+				if (child == null)
+				{
+					child = trie.size();
+					trie.get(node).put(next, child);
+					trie.add(new TreeMap<>());
+					patternAt.add(-1);
+				}
+				node = child;
+			}
+			patternAt.set(node, name.getValue());
+			patternLength[name.getValue()] = name.getKey().length();
+		}
+		int nodes = trie.size();
+		labels = new char[nodes][];
+		children = new int[nodes][];
+		pattern = new int[nodes];
+		for (int node = 0; node < nodes; node++)
+		{
+			TreeMap<Character, Integer> transitions = trie.get(node);
+			labels[node] = new char[transitions.size()];
+			children[node] = new int[transitions.size()];
+			int index = 0;
+			for (Map.Entry<Character, Integer> transition : transitions.entrySet())
+			{
+				labels[node][index] = transition.getKey();
+				children[node][index] = transition.getValue();
+				index++;
+			}
+			pattern[node] = patternAt.get(node);
+		}
+		// Step 3: Compute failure and dictionary links breadth first
+		failure = new int[nodes];
+		dictionary = new int[nodes];
+		Arrays.fill(dictionary, -1);
+		Deque<Integer> queue = new ArrayDeque<>();
+		for (int child : children[0])
+		{
+			queue.add(child);
+		}
+		while (!queue.isEmpty())
+		{
+			int node = queue.poll();
+			for (int index = 0; index < labels[node].length; index++)
+			{
+				int child = children[node][index];
+				int fallback = failure[node];
+				int target = transition(fallback, labels[node][index]);
+				while (target < 0 && fallback != 0)
+				{
+					fallback = failure[fallback];
+					target = transition(fallback, labels[node][index]);
+				}
+				failure[child] = target < 0 ? 0 : target;
+				dictionary[child] = pattern[failure[child]] >= 0 ? failure[child] : dictionary[failure[child]];
+				queue.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Add a name to the patterns, unless it is already present.
+	 *
+	 * @param names
+	 *          Pattern index by normalized name.
+	 * @param kinds
+	 *          Kinds of the patterns.
+	 * @param targets
+	 *          Targets of the patterns.
+	 * @param name
+	 *          The name.
+	 * @param kind
+	 *          Kind of target.
+	 * @param target
+	 *          The target.
+	 */
+	private static void addPattern(TreeMap<String, Integer> names, List<Kind> kinds, List<Object> targets,
+					String name, Kind kind, Object target)
+	{
+		String normalized = toLowerCase(name.trim());
+		if (!normalized.isEmpty() && !names.containsKey(normalized))
+		{
+			names.put(normalized, targets.size());
+			kinds.add(kind);
+			targets.add(target);
+		}
+	}
+
+	/**
+	 * Find all names in a text.
+	 *
+	 * @param text
+	 *          The text. May be <code>null</code>.
+	 * @return Non-overlapping links in text order.
+	 */
+	public List<Link> link(String text)
+	{
+		if (text == null || text.isEmpty())
+		{
+			return Collections.emptyList();
+		}
+		// Step 1: Scan text for whole-word matches. Matches are reported at their
+		// end, ordered by end position and then from longest to shortest.
+		List<Link> candidates = new ArrayList<>();
+		int node = 0;
+		for (int position = 0; position < text.length(); position++)
+		{
+			char next = Character.toLowerCase(text.charAt(position));
+			int target = transition(node, next);
+			while (target < 0 && node != 0)
+			{
+				node = failure[node];
+				target = transition(node, next);
+			}
+			node = target < 0 ? 0 : target;
+			if (position + 1 < text.length() && Character.isLetterOrDigit(text.charAt(position + 1)))
+			{
+				continue;
+			}
+			for (int match = pattern[node] >= 0 ? node : dictionary[node]; match >= 0; match = dictionary[match])
+			{
+				int index = pattern[match];
+				int start = position + 1 - patternLength[index];
+				if (start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1)))
+				{
+					candidates.add(new Link(start, position + 1, patternKind[index], patternTarget[index]));
+				}
+			}
+		}
+		// Step 2: Keep leftmost longest matches. A candidate ends at or after all
+		// kept links, so it covers every kept link starting at or after its own
+		// start and replaces them, unless an earlier kept link overlaps it.
+		List<Link> links = new ArrayList<>(candidates.size());
+		for (Link candidate : candidates)
+		{
+			int first = links.size();
+			while (first > 0 && links.get(first - 1).getStart() >= candidate.getStart())
+			{
+				first--;
+			}
+			if (first == 0 || links.get(first - 1).getEnd() <= candidate.getStart())
+			{
+				links.subList(first, links.size()).clear();
+				links.add(candidate);
+			}
+		}
+		return links;
+	}
+
+	/**
+	 * Find a transition.
+	 *
+	 * @param node
+	 *          Source node.
+	 * @param label
+	 *          Character.
+	 * @return Target node, or -1 if there is no transition.
+	 */
+	private int transition(int node, char label)
+	{
+		int index = Arrays.binarySearch(labels[node], label);
+		return index < 0 ? -1 : children[node][index];
+	}
+
+	/**
+	 * Convert a name to lower case character by character, so that indexes in
+	 * the text and the lower case text agree.
+	 *
+	 * @param name
+	 *          The name.
+	 * @return The name in lower case.
+	 */
+	private static String toLowerCase(String name)
+	{
+		char[] characters = name.toCharArray();
+		for (int i = 0; i < characters.length; i++)
+		{
+			characters[i] = Character.toLowerCase(characters[i]);
+		}
+		return new String(characters);
+	}
+}
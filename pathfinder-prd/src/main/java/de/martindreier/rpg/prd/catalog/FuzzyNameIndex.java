@@ -0,0 +1,341 @@
+/**
+ * FuzzyNameIndex.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import de.martindreier.rpg.prd.BaseEntity;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Finds entities by approximate name, e.g. "Weapon Focs" for "Weapon Focus".
+ * Names are compared by Levenshtein distance, the number of characters which
+ * have to be inserted, deleted or replaced to turn one name into the other.
+ * Names are normalized like {@link CatalogQuery#withNamePrefix(String) name
+ * prefixes} before comparing, so case and extra whitespace do not count.
+ * <p>
+ * The names are kept in a BK-tree: each child of a node is stored under its
+ * distance to the node, and by the triangle inequality only children whose
+ * distance lies within the search radius of the node's own distance can
+ * contain matches. A search with a small radius therefore only compares the
+ * query with a small part of the names.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class FuzzyNameIndex
+{
+	/**
+	 * An entity found by approximate name.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	@Value
+	public static class Match
+	{
+		/**
+		 * The entity.
+		 */
+		private final BaseEntity	entity;
+		/**
+		 * Edit distance between the normalized query and entity name.
+		 */
+		private final int					distance;
+	}
+
+	/**
+	 * Node of the BK-tree: one normalized name.
+	 */
+	private static final class Node
+	{
+		/**
+		 * Normalized name.
+		 */
+		private final String						name;
+
+		/**
+		 * Entities with this name, in catalog order.
+		 */
+		private final List<BaseEntity>	entities	= new ArrayList<>(1);
+
+		/**
+		 * Children by distance to this node. Entries may be <code>null</code>.
+		 */
+		private Node[]									children	= new Node[0];
+
+		/**
+		 * Create a node.
+		 *
+		 * @param name
+		 *          Normalized name.
+		 */
+		private Node(String name)
+		{
+			this.name = name;
+		}
+	}
+
+	/**
+	 * Name found by a search, ordered by distance and then by name.
+	 */
+	private static final class Candidate implements Comparable<Candidate>
+	{
+		/**
+		 * Node of the name.
+		 */
+		private final Node	node;
+
+		/**
+		 * Distance to the query.
+		 */
+		private final int		distance;
+
+		/**
+		 * Create a candidate.
+		 *
+		 * @param node
+		 *          Node of the name.
+		 * @param distance
+		 *          Distance to the query.
+		 */
+		private Candidate(Node node, int distance)
+		{
+			this.node = node;
+			this.distance = distance;
+		}
+
+		@Override
+		public int compareTo(Candidate other)
+		{
+			if (distance != other.distance)
+			{
+				return Integer.compare(distance, other.distance);
+			}
+			return node.name.compareTo(other.node.name);
+		}
+	}
+
+	/**
+	 * Root of the tree. <code>null</code> if there are no names.
+	 */
+	private final Node	root;
+
+	/**
+	 * Number of distinct normalized names.
+	 */
+	@Getter
+	private final int		size;
+
+	/**
+	 * Create an index of all entity names of a catalog.
+	 *
+	 * @param catalog
+	 *          The catalog.
+	 */
+	public FuzzyNameIndex(@NonNull Catalog catalog)
+	{
+		Node first = null;
+		int names = 0;
+		for (BaseEntity entity : catalog.getEntities())
+		{
+			String name = CatalogQuery.normalize(entity.getName());
+			if (first == null)
+			{
+				first = new Node(name);
+				first.entities.add(entity);
+				names++;
+				continue;
+			}
+			// Descend along the edges labelled with the distance to each node
+			Node node = first;
+			while (true)
+			{
+				int distance = distance(name, node.name, Integer.MAX_VALUE);
+				if (distance == 0)
+				{
+					node.entities.add(entity);
+					break;
+				}
+				if (distance >= node.children.length)
+				{
+					node.children = Arrays.copyOf(node.children, distance + 1);
+				}
+				if (node.children[distance] == null)
+				{
+					node.children[distance] = new Node(name);
+					node.children[distance].entities.add(entity);
+					names++;
+					break;
+				}
+				node = node.children[distance];
+			}
+		}
+		root = first;
+		size = names;
+	}
+
+	/**
+	 * Find the entities whose names are closest to a name.
+	 *
+	 * @param name
+	 *          The name to look for.
+	 * @param maxDistance
+	 *          Largest edit distance of a match.
+	 * @param limit
+	 *          Maximum number of matches.
+	 * @return Matches ordered by distance, then by normalized name. Entities
+	 *         with the same name count as separate matches and are ordered by
+	 *         source. Of several matches with the same distance, the ones first
+	 *         in this order are kept.
+	 */
+	public List<Match> find(@NonNull String name, int maxDistance, int limit)
+	{
+		if (maxDistance < 0 || limit <= 0)
+		{
+			throw new IllegalArgumentException("Distance must not be negative and limit must be positive");
+		}
+		if (root == null)
+		{
+			return Collections.emptyList();
+		}
+		String query = CatalogQuery.normalize(name);
+		// Best names found so far, worst on top
+		PriorityQueue<Candidate> best = new PriorityQueue<>(Collections.reverseOrder());
+		int found = 0;
+		int radius = maxDistance;
+		Deque<Node> pending = new ArrayDeque<>();
+		pending.push(root);
+		while (!pending.isEmpty())
+		{
+			Node node = pending.pop();
+			// Children may be up to the radius beyond the node's distance
+			int distance = distance(query, node.name, saturatedAdd(radius, node.children.length));
+			if (distance <= radius)
+			{
+				best.add(new Candidate(node, distance));
+				found += node.entities.size();
+				// Drop the worst names as long as enough matches remain, then only
+				// look for names at least as close as the worst remaining one
+				while (found - best.peek().node.entities.size() >= limit)
+				{
+					found -= best.poll().node.entities.size();
+				}
+				if (found >= limit)
+				{
+					radius = best.peek().distance;
+				}
+			}
+			int low = Math.max(1, distance - radius);
+			int high = Math.min(node.children.length - 1, saturatedAdd(distance, radius));
+			for (int edge = low; edge <= high; edge++)
+			{
+				if (node.children[edge] != null)
+				{
+					pending.push(node.children[edge]);
+				}
+			}
+		}
+		List<Candidate> candidates = new ArrayList<>(best);
+		Collections.sort(candidates);
+		List<Match> matches = new ArrayList<>(Math.min(found, limit));
+		for (Candidate candidate : candidates)
+		{
+			for (BaseEntity entity : candidate.node.entities)
+			{
+				if (matches.size() < limit)
+				{
+					matches.add(new Match(entity, candidate.distance));
+				}
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Calculate the Levenshtein distance between two Strings.
+	 *
+	 * @param first
+	 *          First String.
+	 * @param second
+	 *          Second String.
+	 * @param bound
+	 *          Distances above this value need not be exact.
+	 * @return The distance, or a value larger than <code>bound</code> if the
+	 *         distance exceeds it.
+	 */
+	static int distance(String first, String second, int bound)
+	{
+		int beyond = saturatedAdd(bound, 1);
+		if (Math.abs(first.length() - second.length()) > bound)
+		{
+			return beyond;
+		}
+		int[] previous = new int[second.length() + 1];
+		int[] current = new int[second.length() + 1];
+		for (int j = 0; j <= second.length(); j++)
+		{
+			previous[j] = j;
+		}
+		for (int i = 1; i <= first.length(); i++)
+		{
+			current[0] = i;
+			int rowMinimum = i;
+			char next = first.charAt(i - 1);
+			for (int j = 1; j <= second.length(); j++)
+			{
+				int substitution = previous[j - 1] + (next == second.charAt(j - 1) ? 0 : 1);
+				current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+				rowMinimum = Math.min(rowMinimum, current[j]);
+			}
+			if (rowMinimum > bound)
+			{
+				// No later row can get below the minimum of this one
+				return beyond;
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[second.length()];
+	}
+
+	/**
+	 * Add two non-negative numbers, saturating at {@link Integer#MAX_VALUE}
+	 * instead of overflowing, so large distance limits stay valid.
+	 *
+	 * @param first
+	 *          First number.
+	 * @param second
+	 *          Second number.
+	 * @return The sum, at most {@link Integer#MAX_VALUE}.
+	 */
+	private static int saturatedAdd(int first, int second)
+	{
+		return (int) Math.min(Integer.MAX_VALUE, (long) first + second);
+	}
+}
@@ -0,0 +1,264 @@
+/**
+ * OverlayCatalog.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Changes to a shared catalog, e.g. the house rules of one campaign. An
+ * overlay only stores the entities it adds or replaces and the keys of the
+ * entities it removes; everything else is looked up in the base. Many overlays
+ * can therefore share one base catalog, each using memory in proportion to its
+ * own changes only. Lookups by key are two hash lookups in the overlay plus
+ * one in the base.
+ * <p>
+ * Overlays are immutable: {@link #with(BaseEntity)} and
+ * {@link #without(EntityKey)} return changed copies, which cost time in
+ * proportion to the number of changes. The base may itself be an overlay.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class OverlayCatalog implements CatalogView
+{
+	/**
+	 * The shared catalog.
+	 */
+	@Getter
+	private final CatalogView									base;
+
+	/**
+	 * Added and replaced entities by key. Cannot be modified.
+	 */
+	private final Map<EntityKey, BaseEntity>	overrides;
+
+	/**
+	 * Keys of removed base entities. Cannot be modified.
+	 */
+	private final Set<EntityKey>							removals;
+
+	/**
+	 * Create an overlay without changes.
+	 *
+	 * @param base
+	 *          The shared catalog.
+	 */
+	public OverlayCatalog(@NonNull CatalogView base)
+	{
+		this(base, Collections.<EntityKey, BaseEntity> emptyMap(), Collections.<EntityKey> emptySet());
+	}
+
+	/**
+	 * Create an overlay.
+	 *
+	 * @param base
+	 *          The shared catalog.
+	 * @param overrides
+	 *          Added and replaced entities.
+	 * @param removals
+	 *          Keys of removed entities.
+	 */
+	private OverlayCatalog(CatalogView base, Map<EntityKey, BaseEntity> overrides, Set<EntityKey> removals)
+	{
+		this.base = base;
+		this.overrides = overrides;
+		this.removals = removals;
+	}
+
+	@Override
+	public BaseEntity get(Source source, @NonNull String name)
+	{
+		return get(new EntityKey(source, name));
+	}
+
+	@Override
+	public BaseEntity get(@NonNull EntityKey key)
+	{
+		BaseEntity entity = overrides.get(key);
+		if (entity != null)
+		{
+			return entity;
+		}
+		return removals.contains(key) ? null : base.get(key);
+	}
+
+	/**
+	 * Get all entities of a source. Merges the base entities with the changes.
+	 *
+	 * @see CatalogView#getEntities(Source)
+	 */
+	@Override
+	public List<BaseEntity> getEntities(Source source)
+	{
+		return merge(base.getEntities(source), source, false);
+	}
+
+	/**
+	 * Get all entities. Merges the base entities with the changes.
+	 *
+	 * @see CatalogView#getEntities()
+	 */
+	@Override
+	public List<BaseEntity> getEntities()
+	{
+		return merge(base.getEntities(), null, true);
+	}
+
+	/**
+	 * Add or replace an entity.
+	 *
+	 * @param entity
+	 *          The entity. Replaces the entity with the same source and name.
+	 * @return Changed overlay, or this one if the entity is already present.
+	 */
+	public OverlayCatalog with(@NonNull BaseEntity entity)
+	{
+		EntityKey key = EntityKey.of(entity);
+		if (get(key) == entity)
+		{
+			return this;
+		}
+		Map<EntityKey, BaseEntity> changedOverrides = new HashMap<>(overrides);
+		Set<EntityKey> changedRemovals = removals;
+		if (base.get(key) == entity)
+		{
+			// Back to the base entity, the change is no longer needed
+			changedOverrides.remove(key);
+		}
+		else
+		{
+			changedOverrides.put(key, entity);
+		}
+		if (removals.contains(key))
+		{
+			changedRemovals = new HashSet<>(removals);
+			changedRemovals.remove(key);
+			changedRemovals = Collections.unmodifiableSet(changedRemovals);
+		}
+		return new OverlayCatalog(base, Collections.unmodifiableMap(changedOverrides), changedRemovals);
+	}
+
+	/**
+	 * Remove an entity.
+	 *
+	 * @param key
+	 *          Key of the entity.
+	 * @return Changed overlay, or this one if the entity is not present.
+	 */
+	public OverlayCatalog without(@NonNull EntityKey key)
+	{
+		if (get(key) == null)
+		{
+			return this;
+		}
+		Map<EntityKey, BaseEntity> changedOverrides = overrides;
+		Set<EntityKey> changedRemovals = removals;
+		if (overrides.containsKey(key))
+		{
+			changedOverrides = new HashMap<>(overrides);
+			changedOverrides.remove(key);
+			changedOverrides = Collections.unmodifiableMap(changedOverrides);
+		}
+		if (base.get(key) != null)
+		{
+			changedRemovals = new HashSet<>(removals);
+			changedRemovals.add(key);
+			changedRemovals = Collections.unmodifiableSet(changedRemovals);
+		}
+		return new OverlayCatalog(base, changedOverrides, changedRemovals);
+	}
+
+	/**
+	 * Get the added and replaced entities.
+	 *
+	 * @return Read-only collection of the entities.
+	 */
+	public Collection<BaseEntity> getOverrides()
+	{
+		return overrides.values();
+	}
+
+	/**
+	 * Get the keys of removed base entities.
+	 *
+	 * @return Read-only set of the keys.
+	 */
+	public Set<EntityKey> getRemovals()
+	{
+		return removals;
+	}
+
+	/**
+	 * Get the number of changes in this overlay.
+	 *
+	 * @return Number of added, replaced and removed entities.
+	 */
+	public int getChangeCount()
+	{
+		return overrides.size() + removals.size();
+	}
+
+	/**
+	 * Merge base entities with the changes.
+	 *
+	 * @param baseEntities
+	 *          Base entities in key order.
+	 * @param source
+	 *          Source of the base entities, if not all sources.
+	 * @param allSources
+	 *          <code>true</code> if the base entities are from all sources.
+	 * @return Read-only list of the merged entities, in key order.
+	 */
+	private List<BaseEntity> merge(List<BaseEntity> baseEntities, Source source, boolean allSources)
+	{
+		if (overrides.isEmpty() && removals.isEmpty())
+		{
+			return baseEntities;
+		}
+		List<BaseEntity> merged = new ArrayList<>(baseEntities.size() + overrides.size());
+		for (BaseEntity entity : baseEntities)
+		{
+			EntityKey key = EntityKey.of(entity);
+			if (!overrides.containsKey(key) && !removals.contains(key))
+			{
+				merged.add(entity);
+			}
+		}
+		for (BaseEntity entity : overrides.values())
+		{
+			if (allSources || entity.getSource() == source)
+			{
+				merged.add(entity);
+			}
+		}
+		merged.sort((first, second) -> EntityKey.of(first).compareTo(EntityKey.of(second)));
+		return Collections.unmodifiableList(merged);
+	}
+}
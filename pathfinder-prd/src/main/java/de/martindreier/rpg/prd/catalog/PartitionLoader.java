@@ -0,0 +1,58 @@
+/**
+ * PartitionLoader.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.io.IOException;
+import java.util.Collection;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+
+/**
+ * Loads the entities of a single source for a {@link PartitionedCatalog}, e.g.
+ * from a snapshot file or by running the PRD loaders.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@FunctionalInterface
+public interface PartitionLoader
+{
+	/**
+	 * Load all entities of a source.
+	 *
+	 * @param source
+	 *          The source.
+	 * @return The entities. All must belong to the source.
+	 * @throws IOException
+	 *           The entities cannot be loaded.
+	 */
+	public Collection<? extends BaseEntity> load(Source source) throws IOException;
+
+	/**
+	 * Load partitions from a catalog already in memory.
+	 *
+	 * @param catalog
+	 *          The catalog.
+	 * @return The loader.
+	 */
+	public static PartitionLoader of(Catalog catalog)
+	{
+		return catalog::getEntities;
+	}
+}
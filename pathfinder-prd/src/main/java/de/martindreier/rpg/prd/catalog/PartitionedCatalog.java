@@ -0,0 +1,314 @@
+/**
+ * PartitionedCatalog.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Catalog split into one partition per {@link Source}. Only the sources
+ * enabled for a catalog are available, and each partition is loaded the first
+ * time it is accessed, so memory and start-up cost grow with the books actually
+ * used instead of with all books. Partitions which have not been accessed for
+ * a while can be evicted with {@link #evictIdle(long, TimeUnit)}; they are
+ * loaded again on the next access.
+ * <p>
+ * Entities without source are not part of any partition. The catalog is thread
+ * safe; each partition is loaded only once even if several threads access it
+ * at the same time.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class PartitionedCatalog implements CatalogView
+{
+	/**
+	 * Partition of a single source.
+	 */
+	private static final class Partition
+	{
+		/**
+		 * Entities of the source, <code>null</code> if not loaded.
+		 */
+		private volatile Catalog	catalog;
+
+		/**
+		 * Time of the last access, by the catalog's clock.
+		 */
+		private volatile long			lastAccess;
+	}
+
+	/**
+	 * Loads partitions.
+	 */
+	private final PartitionLoader	loader;
+
+	/**
+	 * Partitions by source ordinal, <code>null</code> for disabled sources.
+	 */
+	private final Partition[]			partitions;
+
+	/**
+	 * Current time in nanoseconds.
+	 */
+	private final LongSupplier		clock;
+
+	/**
+	 * Enabled sources. Cannot be modified.
+	 */
+	@Getter
+	private final Set<Source>			sources;
+
+	/**
+	 * Number of partitions loaded so far, including reloads after eviction.
+	 */
+	private final AtomicInteger		loadCount	= new AtomicInteger();
+
+	/**
+	 * Create a catalog.
+	 *
+	 * @param loader
+	 *          Loads partitions.
+	 * @param sources
+	 *          Enabled sources.
+	 */
+	public PartitionedCatalog(@NonNull PartitionLoader loader, @NonNull Collection<Source> sources)
+	{
+		this(loader, sources, System::nanoTime);
+	}
+
+	/**
+	 * Create a catalog with a custom clock.
+	 *
+	 * @param loader
+	 *          Loads partitions.
+	 * @param sources
+	 *          Enabled sources.
+	 * @param clock
+	 *          Current time in nanoseconds.
+	 */
+	PartitionedCatalog(PartitionLoader loader, Collection<Source> sources, LongSupplier clock)
+	{
+		this.loader = loader;
+		this.clock = clock;
+		this.partitions = new Partition[Source.values().length];
+		Set<Source> enabled = EnumSet.noneOf(Source.class);
+		for (Source source : sources)
+		{
+			partitions[source.ordinal()] = new Partition();
+			enabled.add(source);
+		}
+		this.sources = Collections.unmodifiableSet(enabled);
+	}
+
+	@Override
+	public BaseEntity get(Source source, @NonNull String name)
+	{
+		Catalog partition = getPartition(source);
+		return partition == null ? null : partition.get(source, name);
+	}
+
+	@Override
+	public List<BaseEntity> getEntities(Source source)
+	{
+		Catalog partition = getPartition(source);
+		return partition == null ? Collections.<BaseEntity> emptyList() : partition.getEntities();
+	}
+
+	/**
+	 * Get all entities. Loads all enabled partitions.
+	 *
+	 * @see CatalogView#getEntities()
+	 */
+	@Override
+	public List<BaseEntity> getEntities()
+	{
+		List<BaseEntity> entities = new ArrayList<>();
+		for (Source source : sources)
+		{
+			entities.addAll(getPartition(source).getEntities());
+		}
+		return Collections.unmodifiableList(entities);
+	}
+
+	/**
+	 * Get the partition of a source, loading it if necessary.
+	 *
+	 * @param source
+	 *          The source. May be <code>null</code>.
+	 * @return Catalog of the source's entities, or <code>null</code> if the
+	 *         source is not enabled.
+	 * @throws UncheckedIOException
+	 *           The partition cannot be loaded.
+	 * @throws IllegalStateException
+	 *           The loader returned an entity of another source.
+	 */
+	public Catalog getPartition(Source source)
+	{
+		Partition partition = source == null ? null : partitions[source.ordinal()];
+		if (partition == null)
+		{
+			return null;
+		}
+		partition.lastAccess = clock.getAsLong();
+		Catalog catalog = partition.catalog;
+		if (catalog != null)
+		{
+			return catalog;
+		}
+		synchronized (partition)
+		{
+			// Another thread may have loaded the partition meanwhile
+			catalog = partition.catalog;
+			if (catalog == null)
+			{
+				Collection<? extends BaseEntity> entities;
+				try
+				{
+					entities = loader.load(source);
+				}
+				catch (IOException e)
+				{
+					throw new UncheckedIOException("Cannot load entities of " + source, e);
+				}
+				for (BaseEntity entity : entities)
+				{
+					if (entity.getSource() != source)
+					{
+						throw new IllegalStateException("Entity " + entity.getName() + " does not belong to "
+										+ source);
+					}
+				}
+				catalog = new Catalog(entities);
+				partition.catalog = catalog;
+				loadCount.incrementAndGet();
+			}
+		}
+		return catalog;
+	}
+
+	/**
+	 * Check if the partition of a source is loaded.
+	 *
+	 * @param source
+	 *          The source.
+	 * @return <code>true</code> if the source is enabled and its partition is
+	 *         loaded.
+	 */
+	public boolean isLoaded(@NonNull Source source)
+	{
+		Partition partition = partitions[source.ordinal()];
+		return partition != null && partition.catalog != null;
+	}
+
+	/**
+	 * Get the sources whose partitions are loaded.
+	 *
+	 * @return The sources.
+	 */
+	public Set<Source> getLoadedSources()
+	{
+		Set<Source> loaded = EnumSet.noneOf(Source.class);
+		for (Source source : sources)
+		{
+			if (isLoaded(source))
+			{
+				loaded.add(source);
+			}
+		}
+		return loaded;
+	}
+
+	/**
+	 * Get the number of partition loads.
+	 *
+	 * @return Number of partitions loaded so far, including reloads after
+	 *         eviction.
+	 */
+	public int getLoadCount()
+	{
+		return loadCount.get();
+	}
+
+	/**
+	 * Evict the partition of a source. It is loaded again on the next access.
+	 *
+	 * @param source
+	 *          The source.
+	 * @return <code>true</code> if the partition was loaded.
+	 */
+	public boolean evict(@NonNull Source source)
+	{
+		Partition partition = partitions[source.ordinal()];
+		if (partition == null)
+		{
+			return false;
+		}
+		synchronized (partition)
+		{
+			boolean loaded = partition.catalog != null;
+			partition.catalog = null;
+			return loaded;
+		}
+	}
+
+	/**
+	 * Evict all partitions which have not been accessed for some time.
+	 *
+	 * @param idleTime
+	 *          Minimum time since the last access.
+	 * @param unit
+	 *          Unit of the idle time.
+	 * @return Number of evicted partitions.
+	 */
+	public int evictIdle(long idleTime, @NonNull TimeUnit unit)
+	{
+		long limit = clock.getAsLong() - unit.toNanos(idleTime);
+		int evicted = 0;
+		for (Partition partition : partitions)
+		{
+			if (partition != null && partition.catalog != null && partition.lastAccess - limit <= 0)
+			{
+				synchronized (partition)
+				{
+					// Check again, the partition may just have been used
+					if (partition.catalog != null && partition.lastAccess - limit <= 0)
+					{
+						partition.catalog = null;
+						evicted++;
+					}
+				}
+			}
+		}
+		return evicted;
+	}
+}
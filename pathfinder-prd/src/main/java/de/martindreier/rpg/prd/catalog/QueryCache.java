@@ -0,0 +1,472 @@
+/**
+ * QueryCache.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.util.FrequencySketch;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Cache for results of {@link CatalogQuery catalog queries}, bounded by the
+ * estimated memory of its entries. Results are tied to the version of the
+ * catalog they were computed from; querying a catalog with a different
+ * version, e.g. after a loader run, discards all cached results.
+ * <p>
+ * Eviction follows W-TinyLFU, which keeps popular queries even when many
+ * queries are only run once:
+ * <ul>
+ * <li>New results enter a small <em>window</em> region ({@value #WINDOW_PERCENT}
+ * % of the capacity) which is evicted in least recently used order.</li>
+ * <li>A result leaving the window is only admitted to the <em>main</em>
+ * region if it was queried more often than each result it would evict there,
+ * according to a {@link FrequencySketch} of recent queries.</li>
+ * <li>The main region is split into <em>probation</em> and
+ * <em>protected</em> ({@value #PROTECTED_PERCENT} % of the main region).
+ * Results hit in probation move to protected, results pushed out of protected
+ * move back to probation, and eviction victims are taken from probation
+ * first.</li>
+ * </ul>
+ * The cache is thread safe. Queries are run outside the lock, so the same
+ * query may occasionally be run twice concurrently.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class QueryCache
+{
+	/**
+	 * Share of the capacity used for the window region, in percent.
+	 */
+	public static final int		WINDOW_PERCENT		= 1;
+
+	/**
+	 * Share of the main region used for protected entries, in percent.
+	 */
+	public static final int		PROTECTED_PERCENT	= 80;
+
+	/**
+	 * Estimated memory of a cache entry without key and result elements.
+	 */
+	private static final int	ENTRY_SIZE				= 96;
+
+	/**
+	 * Estimated memory of one result element.
+	 */
+	private static final int	REFERENCE_SIZE		= 8;
+
+	/**
+	 * Estimated size of a typical entry, used to size the frequency sketch.
+	 */
+	private static final int	TYPICAL_SIZE			= 1024;
+
+	/**
+	 * Cache statistics.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	@Value
+	public static class Statistics
+	{
+		/**
+		 * Number of queries answered from the cache.
+		 */
+		private final long	hits;
+		/**
+		 * Number of queries which had to be run.
+		 */
+		private final long	misses;
+		/**
+		 * Number of results evicted or not admitted because of the size bound.
+		 */
+		private final long	evictions;
+		/**
+		 * Number of times the cache was cleared because the catalog changed.
+		 */
+		private final long	invalidations;
+		/**
+		 * Number of cached results.
+		 */
+		private final int		size;
+		/**
+		 * Estimated memory of all cached results in bytes.
+		 */
+		private final long	weight;
+
+		/**
+		 * Get the share of queries answered from the cache.
+		 *
+		 * @return Hit rate between 0 and 1. 0 if there were no queries.
+		 */
+		public double getHitRate()
+		{
+			long total = hits + misses;
+			return total == 0 ? 0 : (double) hits / total;
+		}
+	}
+
+	/**
+	 * Cached result with its estimated memory.
+	 */
+	private static final class CachedResult
+	{
+		/**
+		 * The result.
+		 */
+		private final List<BaseEntity>	result;
+
+		/**
+		 * Estimated memory in bytes.
+		 */
+		private final long							weight;
+
+		/**
+		 * Create a cached result.
+		 *
+		 * @param query
+		 *          The query.
+		 * @param result
+		 *          The result.
+		 */
+		private CachedResult(CatalogQuery query, List<BaseEntity> result)
+		{
+			this.result = result;
+			this.weight = ENTRY_SIZE + query.getEstimatedSize() + (long) REFERENCE_SIZE * result.size();
+		}
+	}
+
+	/**
+	 * Maximum estimated memory of all entries.
+	 */
+	@Getter
+	private final long																			maximumWeight;
+
+	/**
+	 * Maximum estimated memory of the window region.
+	 */
+	private final long																			maximumWindowWeight;
+
+	/**
+	 * Maximum estimated memory of the protected region.
+	 */
+	private final long																			maximumProtectedWeight;
+
+	/**
+	 * Window region, least recently used first.
+	 */
+	private final LinkedHashMap<CatalogQuery, CachedResult>	window					= new LinkedHashMap<>();
+
+	/**
+	 * Probation region, least recently used first.
+	 */
+	private final LinkedHashMap<CatalogQuery, CachedResult>	probation				= new LinkedHashMap<>();
+
+	/**
+	 * Protected region, least recently used first.
+	 */
+	private final LinkedHashMap<CatalogQuery, CachedResult>	protectedRegion	= new LinkedHashMap<>();
+
+	/**
+	 * Recent query frequencies.
+	 */
+	private final FrequencySketch														sketch;
+
+	/**
+	 * Catalog version of the cached results.
+	 */
+	private long																						version;
+
+	/**
+	 * Estimated memory of the window region.
+	 */
+	private long																						windowWeight;
+
+	/**
+	 * Estimated memory of the probation region.
+	 */
+	private long																						probationWeight;
+
+	/**
+	 * Estimated memory of the protected region.
+	 */
+	private long																						protectedWeight;
+
+	/**
+	 * Number of hits.
+	 */
+	private long																						hits;
+
+	/**
+	 * Number of misses.
+	 */
+	private long																						misses;
+
+	/**
+	 * Number of evictions.
+	 */
+	private long																						evictions;
+
+	/**
+	 * Number of invalidations.
+	 */
+	private long																						invalidations;
+
+	/**
+	 * Create a cache.
+	 *
+	 * @param maximumWeight
+	 *          Maximum estimated memory of all cached results in bytes.
+	 */
+	public QueryCache(long maximumWeight)
+	{
+		if (maximumWeight <= 0)
+		{
+			throw new IllegalArgumentException("Maximum weight must be positive");
+		}
+		this.maximumWeight = maximumWeight;
+		this.maximumWindowWeight = Math.max(1, maximumWeight * WINDOW_PERCENT / 100);
+		this.maximumProtectedWeight = (maximumWeight - maximumWindowWeight) * PROTECTED_PERCENT / 100;
+		this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, Math.max(16, maximumWeight / TYPICAL_SIZE)));
+	}
+
+	/**
+	 * Get the result of a query, running it if it is not cached.
+	 *
+	 * @param catalog
+	 *          The catalog.
+	 * @param query
+	 *          The query.
+	 * @return Read-only result of the query.
+	 */
+	public List<BaseEntity> get(@NonNull Catalog catalog, @NonNull CatalogQuery query)
+	{
+		// Step 1: Look up cached result
+		synchronized (this)
+		{
+			if (catalog.getVersion() != version)
+			{
+				invalidateAll();
+				version = catalog.getVersion();
+			}
+			sketch.increment(query.hashCode());
+			CachedResult entry = getEntry(query);
+			if (entry != null)
+			{
+				hits++;
+				return entry.result;
+			}
+			misses++;
+		}
+		// Step 2: Run query without holding the lock
+		List<BaseEntity> result = query.execute(catalog);
+		// Step 3: Cache the result unless the catalog changed meanwhile
+		synchronized (this)
+		{
+			if (catalog.getVersion() == version && !window.containsKey(query) && !probation.containsKey(query)
+							&& !protectedRegion.containsKey(query))
+			{
+				add(query, new CachedResult(query, result));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Discard all cached results. Query frequencies are kept.
+	 */
+	public synchronized void invalidateAll()
+	{
+		if (!window.isEmpty() || !probation.isEmpty() || !protectedRegion.isEmpty())
+		{
+			invalidations++;
+		}
+		window.clear();
+		probation.clear();
+		protectedRegion.clear();
+		windowWeight = 0;
+		probationWeight = 0;
+		protectedWeight = 0;
+	}
+
+	/**
+	 * Get the cache statistics.
+	 *
+	 * @return Consistent copy of the current statistics.
+	 */
+	public synchronized Statistics getStatistics()
+	{
+		return new Statistics(hits, misses, evictions, invalidations,
+						window.size() + probation.size() + protectedRegion.size(),
+						windowWeight + probationWeight + protectedWeight);
+	}
+
+	/**
+	 * Find a cached entry and update its region.
+	 *
+	 * @param query
+	 *          The query.
+	 * @return The entry, or <code>null</code> if the query is not cached.
+	 */
+	private CachedResult getEntry(CatalogQuery query)
+	{
+		CachedResult entry = window.get(query);
+		if (entry != null)
+		{
+			moveToEnd(window, query, entry);
+			return entry;
+		}
+		entry = protectedRegion.get(query);
+		if (entry != null)
+		{
+			moveToEnd(protectedRegion, query, entry);
+			return entry;
+		}
+		entry = probation.remove(query);
+		if (entry != null)
+		{
+			// Promote to protected, demote least recently used protected entries
+			probationWeight -= entry.weight;
+			protectedRegion.put(query, entry);
+			protectedWeight += entry.weight;
+			Iterator<Map.Entry<CatalogQuery, CachedResult>> oldest = protectedRegion.entrySet().iterator();
+			while (protectedWeight > maximumProtectedWeight && protectedRegion.size() > 1)
+			{
+				Map.Entry<CatalogQuery, CachedResult> demoted = oldest.next();
+				oldest.remove();
+				protectedWeight -= demoted.getValue().weight;
+				probation.put(demoted.getKey(), demoted.getValue());
+				probationWeight += demoted.getValue().weight;
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Add a new entry to the window and move overflowing window entries to the
+	 * main region.
+	 *
+	 * @param query
+	 *          The query.
+	 * @param entry
+	 *          The entry.
+	 */
+	private void add(CatalogQuery query, CachedResult entry)
+	{
+		if (entry.weight > maximumWeight)
+		{
+			evictions++;
+			return;
+		}
+		window.put(query, entry);
+		windowWeight += entry.weight;
+		Iterator<Map.Entry<CatalogQuery, CachedResult>> oldest = window.entrySet().iterator();
+		while (windowWeight > maximumWindowWeight && oldest.hasNext())
+		{
+			Map.Entry<CatalogQuery, CachedResult> candidate = oldest.next();
+			oldest.remove();
+			windowWeight -= candidate.getValue().weight;
+			admit(candidate.getKey(), candidate.getValue());
+		}
+	}
+
+	/**
+	 * Admit an entry leaving the window to the main region if it is queried
+	 * more often than each of the entries it would evict. The victims are only
+	 * evicted once the candidate is admitted, so a rejected candidate never
+	 * costs any entries.
+	 *
+	 * @param query
+	 *          The query.
+	 * @param candidate
+	 *          The entry.
+	 */
+	private void admit(CatalogQuery query, CachedResult candidate)
+	{
+		long maximumMainWeight = maximumWeight - maximumWindowWeight;
+		int candidateFrequency = sketch.frequency(query.hashCode());
+		// Step 1: Select least recently used victims, probation first
+		long excess = probationWeight + protectedWeight + candidate.weight - maximumMainWeight;
+		List<CatalogQuery> victims = new ArrayList<>();
+		Iterator<Map.Entry<CatalogQuery, CachedResult>> oldest = probation.entrySet().iterator();
+		boolean inProbation = true;
+		while (excess > 0)
+		{
+			if (!oldest.hasNext())
+			{
+				if (!inProbation)
+				{
+					// Candidate does not fit at all
+					evictions++;
+					return;
+				}
+				oldest = protectedRegion.entrySet().iterator();
+				inProbation = false;
+				continue;
+			}
+			Map.Entry<CatalogQuery, CachedResult> victim = oldest.next();
+			if (candidateFrequency <= sketch.frequency(victim.getKey().hashCode()))
+			{
+				// Candidate is less popular than a victim
+				evictions++;
+				return;
+			}
+			victims.add(victim.getKey());
+			excess -= victim.getValue().weight;
+		}
+		// Step 2: Evict victims and add candidate
+		for (CatalogQuery victim : victims)
+		{
+			CachedResult evicted = probation.remove(victim);
+			if (evicted != null)
+			{
+				probationWeight -= evicted.weight;
+			}
+			else
+			{
+				protectedWeight -= protectedRegion.remove(victim).weight;
+			}
+			evictions++;
+		}
+		probation.put(query, candidate);
+		probationWeight += candidate.weight;
+	}
+
+	/**
+	 * Mark an entry as most recently used within its region.
+	 *
+	 * @param region
+	 *          The region.
+	 * @param query
+	 *          The query.
+	 * @param entry
+	 *          The entry.
+	 */
+	private static void moveToEnd(LinkedHashMap<CatalogQuery, CachedResult> region, CatalogQuery query,
+					CachedResult entry)
+	{
+		region.remove(query);
+		region.put(query, entry);
+	}
+}
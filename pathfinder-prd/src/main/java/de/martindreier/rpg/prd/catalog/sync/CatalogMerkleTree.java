@@ -0,0 +1,217 @@
+/**
+ * CatalogMerkleTree.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog.sync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.catalog.Catalog;
+import de.martindreier.rpg.prd.catalog.EntityCodec;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Hash tree over the content of a catalog. The tree has three levels below the
+ * root:
+ * <ol>
+ * <li>one node per source, plus one for entities without source,</li>
+ * <li>below each source one node per name range: all names starting with the
+ * same {@value #RANGE_LENGTH} characters, ignoring case,</li>
+ * <li>the {@link Catalog#contentHash(BaseEntity) content hashes} of the
+ * entities in a range, in catalog order.</li>
+ * </ol>
+ * Each node's hash combines the hashes of its children, so two catalogs with
+ * the same root hash have the same content, and two catalogs which differ in a
+ * few entities differ only in the hashes along the paths to these entities.
+ * Range boundaries do not depend on the content, so both sides of a
+ * comparison split their entities the same way.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class CatalogMerkleTree
+{
+	/**
+	 * Number of leading name characters which select the range.
+	 */
+	public static final int														RANGE_LENGTH	= 2;
+
+	/**
+	 * FNV-1a 64 bit offset basis.
+	 */
+	private static final long													FNV_OFFSET		= 0xcbf29ce484222325L;
+
+	/**
+	 * FNV-1a 64 bit prime.
+	 */
+	private static final long													FNV_PRIME			= 0x100000001b3L;
+
+	/**
+	 * The catalog.
+	 */
+	@Getter
+	private final Catalog															catalog;
+
+	/**
+	 * Hash of the whole catalog.
+	 */
+	@Getter
+	private final long																rootHash;
+
+	/**
+	 * Hash of each source by {@link EntityCodec#indexOf(Source) index}, 0 for
+	 * sources without entities.
+	 */
+	private final long[]															sourceHashes;
+
+	/**
+	 * Range hashes of each source by index.
+	 */
+	private final List<SortedMap<String, Long>>				rangeHashes;
+
+	/**
+	 * Entities of each range of each source by index.
+	 */
+	private final List<Map<String, List<BaseEntity>>>	ranges;
+
+	/**
+	 * Build the tree of a catalog.
+	 *
+	 * @param catalog
+	 *          The catalog.
+	 */
+	public CatalogMerkleTree(@NonNull Catalog catalog)
+	{
+		this.catalog = catalog;
+		int sources = EntityCodec.SOURCE_INDEXES;
+		sourceHashes = new long[sources];
+		rangeHashes = new ArrayList<>(sources);
+		ranges = new ArrayList<>(sources);
+		// Step 1: Group entities by source and range
+		for (int index = 0; index < sources; index++)
+		{
+			Map<String, List<BaseEntity>> sourceRanges = new TreeMap<>();
+			for (BaseEntity entity : catalog.getEntities(EntityCodec.sourceOf(index)))
+			{
+				sourceRanges.computeIfAbsent(rangeOf(entity.getName()), range -> new ArrayList<>()).add(entity);
+			}
+			ranges.add(sourceRanges);
+		}
+		// Step 2: Hash bottom up
+		long root = FNV_OFFSET;
+		for (int index = 0; index < sources; index++)
+		{
+			SortedMap<String, Long> hashes = new TreeMap<>();
+			long sourceHash = FNV_OFFSET;
+			for (Map.Entry<String, List<BaseEntity>> range : ranges.get(index).entrySet())
+			{
+				long rangeHash = FNV_OFFSET;
+				for (BaseEntity entity : range.getValue())
+				{
+					rangeHash = hash(rangeHash, Catalog.contentHash(entity));
+				}
+				hashes.put(range.getKey(), rangeHash);
+				sourceHash = hash(hash(sourceHash, range.getKey().hashCode()), rangeHash);
+			}
+			rangeHashes.add(Collections.unmodifiableSortedMap(hashes));
+			if (!hashes.isEmpty())
+			{
+				sourceHashes[index] = sourceHash;
+				root = hash(hash(root, index), sourceHash);
+			}
+		}
+		rootHash = root;
+	}
+
+	/**
+	 * Get the hash of a source.
+	 *
+	 * @param source
+	 *          The source. <code>null</code> for entities without source.
+	 * @return The hash, 0 if the catalog has no entities of the source.
+	 */
+	public long getSourceHash(Source source)
+	{
+		return sourceHashes[EntityCodec.indexOf(source)];
+	}
+
+	/**
+	 * Get the hashes of the name ranges of a source.
+	 *
+	 * @param source
+	 *          The source. <code>null</code> for entities without source.
+	 * @return Read-only map of the hashes by range, only ranges with entities.
+	 */
+	public SortedMap<String, Long> getRangeHashes(Source source)
+	{
+		return rangeHashes.get(EntityCodec.indexOf(source));
+	}
+
+	/**
+	 * Get the entities of a name range.
+	 *
+	 * @param source
+	 *          The source. <code>null</code> for entities without source.
+	 * @param range
+	 *          The range.
+	 * @return Read-only list of the entities in catalog order.
+	 */
+	public List<BaseEntity> getEntities(Source source, @NonNull String range)
+	{
+		List<BaseEntity> entities = ranges.get(EntityCodec.indexOf(source)).get(range);
+		return entities == null ? Collections.<BaseEntity> emptyList() : Collections.unmodifiableList(entities);
+	}
+
+	/**
+	 * Get the name range of a name.
+	 *
+	 * @param name
+	 *          The name.
+	 * @return The range.
+	 */
+	public static String rangeOf(@NonNull String name)
+	{
+		String prefix = name.length() <= RANGE_LENGTH ? name : name.substring(0, RANGE_LENGTH);
+		return prefix.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Add a value to a hash.
+	 *
+	 * @param hash
+	 *          Current hash.
+	 * @param value
+	 *          The value.
+	 * @return New hash.
+	 */
+	private static long hash(long hash, long value)
+	{
+		for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE)
+		{
+			hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+		}
+		return hash;
+	}
+}
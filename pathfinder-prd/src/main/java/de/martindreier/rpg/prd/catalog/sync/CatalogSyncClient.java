@@ -0,0 +1,333 @@
+/**
+ * CatalogSyncClient.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog.sync;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.catalog.Catalog;
+import de.martindreier.rpg.prd.catalog.EntityCodec;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Brings a local catalog up to date with the catalog of a
+ * {@link CatalogSyncServer}. The client compares the hash trees of both
+ * catalogs top down and only descends into sources and name ranges whose
+ * hashes differ, so the requests and transferred entities grow with the
+ * number of changed ranges, not with the size of the catalog. Identical
+ * catalogs need a single request.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class CatalogSyncClient
+{
+	/**
+	 * Result of a synchronization.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	@Value
+	public static class Result
+	{
+		/**
+		 * The synchronized catalog, the local catalog if nothing changed.
+		 */
+		private final Catalog	catalog;
+
+		/**
+		 * Number of requests sent to the server.
+		 */
+		private final int			requestCount;
+
+		/**
+		 * Number of name ranges transferred from the server.
+		 */
+		private final int			rangeCount;
+
+		/**
+		 * Number of entities transferred from the server.
+		 */
+		private final int			entityCount;
+	}
+
+	/**
+	 * Default timeout for connecting and reading, in milliseconds.
+	 */
+	public static final int					DEFAULT_TIMEOUT	= 10000;
+
+	/**
+	 * Address of the server.
+	 */
+	@Getter
+	private final InetSocketAddress	address;
+
+	/**
+	 * Timeout for connecting and reading, in milliseconds.
+	 */
+	@Getter
+	private final int								timeout;
+
+	/**
+	 * Create a client with the default timeout.
+	 *
+	 * @param address
+	 *          Address of the server.
+	 */
+	public CatalogSyncClient(@NonNull InetSocketAddress address)
+	{
+		this(address, DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Create a client.
+	 *
+	 * @param address
+	 *          Address of the server.
+	 * @param timeout
+	 *          Timeout for connecting and reading, in milliseconds.
+	 */
+	public CatalogSyncClient(@NonNull InetSocketAddress address, int timeout)
+	{
+		if (timeout <= 0)
+		{
+			throw new IllegalArgumentException("Timeout must be positive");
+		}
+		this.address = address;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Synchronize a catalog with the server.
+	 *
+	 * @param local
+	 *          The local catalog. It is not changed.
+	 * @return The result, containing a catalog with the same content as the
+	 *         server's.
+	 * @throws IOException
+	 *           The server cannot be reached or sends invalid data.
+	 */
+	public Result sync(@NonNull Catalog local) throws IOException
+	{
+		CatalogMerkleTree tree = new CatalogMerkleTree(local);
+		try (Socket socket = new Socket())
+		{
+			socket.connect(address, timeout);
+			socket.setSoTimeout(timeout);
+			socket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			out.writeInt(SyncProtocol.MAGIC);
+			out.writeInt(SyncProtocol.VERSION);
+			Result result = sync(tree, in, out);
+			out.write(SyncProtocol.CLOSE);
+			out.flush();
+			return result;
+		}
+	}
+
+	/**
+	 * Compare the trees and transfer the changed ranges.
+	 *
+	 * @param tree
+	 *          Tree of the local catalog.
+	 * @param in
+	 *          Responses of the server.
+	 * @param out
+	 *          Requests to the server.
+	 * @return The result.
+	 * @throws IOException
+	 *           The server cannot be reached or sends invalid data.
+	 */
+	private Result sync(CatalogMerkleTree tree, DataInputStream in, DataOutputStream out) throws IOException
+	{
+		// Step 1: Compare root
+		out.write(SyncProtocol.ROOT);
+		out.flush();
+		long remoteRoot = in.readLong();
+		int requests = 1;
+		if (remoteRoot == tree.getRootHash())
+		{
+			return new Result(tree.getCatalog(), requests, 0, 0);
+		}
+		// Step 2: Compare sources
+		out.write(SyncProtocol.SOURCES);
+		out.flush();
+		requests++;
+		Map<Integer, Long> remoteSources = new HashMap<>();
+		int sourceCount = in.readInt();
+		for (int i = 0; i < sourceCount; i++)
+		{
+			int index = in.readUnsignedByte();
+			if (index >= EntityCodec.SOURCE_INDEXES)
+			{
+				throw new IOException("Invalid source index " + index);
+			}
+			remoteSources.put(index, in.readLong());
+		}
+		// Step 3: Compare ranges of changed sources, fetch changed ranges
+		Set<Integer> replacedSources = new HashSet<>();
+		Map<Integer, Set<String>> replacedRanges = new HashMap<>();
+		List<BaseEntity> received = new ArrayList<>();
+		int rangeCount = 0;
+		for (int index = 0; index < EntityCodec.SOURCE_INDEXES; index++)
+		{
+			Source source = EntityCodec.sourceOf(index);
+			SortedMap<String, Long> localRanges = tree.getRangeHashes(source);
+			Long remoteHash = remoteSources.get(index);
+			if (remoteHash == null)
+			{
+				// Source removed on the server (or empty on both sides)
+				if (!localRanges.isEmpty())
+				{
+					replacedSources.add(index);
+				}
+				continue;
+			}
+			if (!localRanges.isEmpty() && remoteHash == tree.getSourceHash(source))
+			{
+				continue;
+			}
+			out.write(SyncProtocol.RANGES);
+			out.writeByte(index);
+			out.flush();
+			requests++;
+			SortedMap<String, Long> remoteRanges = readRanges(in);
+			Set<String> changed = new TreeSet<>(localRanges.keySet());
+			changed.addAll(remoteRanges.keySet());
+			changed.removeIf(range -> remoteRanges.get(range) != null
+							&& remoteRanges.get(range).equals(localRanges.get(range)));
+			for (String range : changed)
+			{
+				if (remoteRanges.containsKey(range))
+				{
+					out.write(SyncProtocol.ENTITIES);
+					out.writeByte(index);
+					EntityCodec.writeString(out, range);
+					out.flush();
+					requests++;
+					rangeCount++;
+					readEntities(in, source, range, received);
+				}
+			}
+			replacedRanges.put(index, changed);
+		}
+		// Step 4: Merge unchanged local entities and received entities
+		List<BaseEntity> entities = new ArrayList<>(received);
+		for (BaseEntity entity : tree.getCatalog().getEntities())
+		{
+			int index = EntityCodec.indexOf(entity.getSource());
+			if (!replacedSources.contains(index) && !replacedRanges.getOrDefault(index, Collections.<String> emptySet())
+							.contains(CatalogMerkleTree.rangeOf(entity.getName())))
+			{
+				entities.add(entity);
+			}
+		}
+		Catalog catalog;
+		try
+		{
+			catalog = new Catalog(entities);
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new IOException("Server sent conflicting entities", e);
+		}
+		if (new CatalogMerkleTree(catalog).getRootHash() != remoteRoot)
+		{
+			throw new IOException("Synchronized catalog does not match the server's catalog");
+		}
+		return new Result(catalog, requests, rangeCount, received.size());
+	}
+
+	/**
+	 * Read the range hashes of a source.
+	 *
+	 * @param in
+	 *          Responses of the server.
+	 * @return The hashes by range.
+	 * @throws IOException
+	 *           The hashes cannot be read.
+	 */
+	private static SortedMap<String, Long> readRanges(DataInputStream in) throws IOException
+	{
+		SortedMap<String, Long> ranges = new TreeMap<>();
+		int count = in.readInt();
+		for (int i = 0; i < count; i++)
+		{
+			String range = EntityCodec.readString(in);
+			if (range == null)
+			{
+				throw new IOException("Missing range name");
+			}
+			ranges.put(range, in.readLong());
+		}
+		return ranges;
+	}
+
+	/**
+	 * Read the entities of a range.
+	 *
+	 * @param in
+	 *          Responses of the server.
+	 * @param source
+	 *          Source of the range.
+	 * @param range
+	 *          The range.
+	 * @param entities
+	 *          Receives the entities.
+	 * @throws IOException
+	 *           The entities cannot be read or do not belong to the range.
+	 */
+	private static void readEntities(DataInputStream in, Source source, String range, List<BaseEntity> entities)
+					throws IOException
+	{
+		int count = in.readInt();
+		if (count < 0)
+		{
+			throw new IOException("Invalid entity count " + count);
+		}
+		for (int i = 0; i < count; i++)
+		{
+			BaseEntity entity = EntityCodec.read(in);
+			if (entity.getSource() != source || !CatalogMerkleTree.rangeOf(entity.getName()).equals(range))
+			{
+				throw new IOException("Entity " + entity.getName() + " does not belong to range " + range);
+			}
+			entities.add(entity);
+		}
+	}
+}
@@ -0,0 +1,356 @@
+/**
+ * CatalogSyncServer.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog.sync;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.catalog.Catalog;
+import de.martindreier.rpg.prd.catalog.EntityCodec;
+import lombok.NonNull;
+
+/**
+ * Answers synchronization requests of {@link CatalogSyncClient clients} for
+ * the current catalog of this node, see {@link SyncProtocol} for the
+ * protocol. Each connection is handled by its own daemon thread, up to a
+ * maximum number of connections; further connections are closed right away.
+ * Connections whose client sends nothing for longer than the timeout are
+ * closed as well.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class CatalogSyncServer implements Closeable
+{
+	/**
+	 * Default maximum number of concurrent connections.
+	 */
+	public static final int							DEFAULT_MAX_CONNECTIONS	= 16;
+
+	/**
+	 * Default read timeout of connections, in milliseconds.
+	 */
+	public static final int							DEFAULT_TIMEOUT					= 30000;
+
+	/**
+	 * Provides the current catalog, e.g.
+	 * {@link de.martindreier.rpg.prd.catalog.CatalogPublisher#getCatalog()}.
+	 */
+	private final Supplier<Catalog>			catalog;
+
+	/**
+	 * Listening socket.
+	 */
+	private final ServerSocket					serverSocket;
+
+	/**
+	 * Thread accepting connections.
+	 */
+	private final Thread								acceptor;
+
+	/**
+	 * Threads handling connections.
+	 */
+	private final ThreadPoolExecutor		threads;
+
+	/**
+	 * Read timeout of connections, in milliseconds.
+	 */
+	private final int										timeout;
+
+	/**
+	 * Tree of the most recently served catalog.
+	 */
+	private volatile CatalogMerkleTree	tree;
+
+	/**
+	 * Start a server with the default connection limit and timeout.
+	 *
+	 * @param catalog
+	 *          Provides the current catalog.
+	 * @param address
+	 *          Address to listen on. Port 0 chooses a free port.
+	 * @throws IOException
+	 *           The server cannot listen on the address.
+	 */
+	public CatalogSyncServer(@NonNull Supplier<Catalog> catalog, @NonNull InetSocketAddress address)
+					throws IOException
+	{
+		this(catalog, address, DEFAULT_MAX_CONNECTIONS, DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Start a server.
+	 *
+	 * @param catalog
+	 *          Provides the current catalog.
+	 * @param address
+	 *          Address to listen on. Port 0 chooses a free port.
+	 * @param maxConnections
+	 *          Maximum number of concurrent connections.
+	 * @param timeout
+	 *          Read timeout of connections, in milliseconds.
+	 * @throws IOException
+	 *           The server cannot listen on the address.
+	 */
+	public CatalogSyncServer(@NonNull Supplier<Catalog> catalog, @NonNull InetSocketAddress address,
+					int maxConnections, int timeout) throws IOException
+	{
+		if (maxConnections <= 0)
+		{
+			throw new IllegalArgumentException("Maximum number of connections must be positive");
+		}
+		if (timeout <= 0)
+		{
+			throw new IllegalArgumentException("Timeout must be positive");
+		}
+		this.catalog = catalog;
+		this.timeout = timeout;
+		this.serverSocket = new ServerSocket();
+		serverSocket.bind(address);
+		threads = new ThreadPoolExecutor(0, maxConnections, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "catalog-sync");
+			thread.setDaemon(true);
+			return thread;
+		});
+		acceptor = new Thread(this::accept, "catalog-sync-accept");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	/**
+	 * Get the port the server listens on.
+	 *
+	 * @return The port.
+	 */
+	public int getPort()
+	{
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Stop accepting connections. Open connections are closed when their
+	 * clients finish.
+	 *
+	 * @throws IOException
+	 *           The socket cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		serverSocket.close();
+		threads.shutdown();
+	}
+
+	/**
+	 * Accept connections until the server is closed. Connections beyond the
+	 * maximum are closed.
+	 */
+	private void accept()
+	{
+		while (!serverSocket.isClosed())
+		{
+			try
+			{
+				Socket socket = serverSocket.accept();
+				try
+				{
+					threads.execute(() -> serve(socket));
+				}
+				catch (RejectedExecutionException e)
+				{
+					socket.close();
+				}
+			}
+			catch (IOException e)
+			{
+				// Closed
+			}
+		}
+	}
+
+	/**
+	 * Get the tree of the current catalog, reusing the previous tree if the
+	 * catalog did not change.
+	 *
+	 * @return The tree.
+	 */
+	private CatalogMerkleTree getTree()
+	{
+		Catalog current = catalog.get();
+		CatalogMerkleTree currentTree = tree;
+		if (currentTree == null || currentTree.getCatalog() != current)
+		{
+			currentTree = new CatalogMerkleTree(current);
+			tree = currentTree;
+		}
+		return currentTree;
+	}
+
+	/**
+	 * Answer the requests of one connection.
+	 *
+	 * @param socket
+	 *          The connection.
+	 */
+	private void serve(Socket socket)
+	{
+		try (Socket connection = socket;
+						DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+						DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream())))
+		{
+			connection.setSoTimeout(timeout);
+			connection.setTcpNoDelay(true);
+			if (in.readInt() != SyncProtocol.MAGIC || in.readInt() != SyncProtocol.VERSION)
+			{
+				return;
+			}
+			// All answers of a session refer to the same catalog
+			CatalogMerkleTree session = getTree();
+			while (true)
+			{
+				int request = in.read();
+				switch (request)
+				{
+					case SyncProtocol.ROOT:
+						out.writeLong(session.getRootHash());
+						break;
+					case SyncProtocol.SOURCES:
+						writeSources(out, session);
+						break;
+					case SyncProtocol.RANGES:
+						writeRanges(out, session.getRangeHashes(EntityCodec.sourceOf(in.readUnsignedByte())));
+						break;
+					case SyncProtocol.ENTITIES:
+						Source source = EntityCodec.sourceOf(in.readUnsignedByte());
+						String range = EntityCodec.readString(in);
+						if (range == null)
+						{
+							// Invalid request
+							return;
+						}
+						writeEntities(out, session.getEntities(source, range));
+						break;
+					default:
+						// Close request, end of stream or unknown request
+						return;
+				}
+				out.flush();
+			}
+		}
+		catch (EOFException | IllegalArgumentException e)
+		{
+			// Client closed the connection or sent an invalid request
+		}
+		catch (SocketTimeoutException e)
+		{
+			// Client idle for too long
+		}
+		catch (IOException e)
+		{
+			// Connection failed, nothing to report to
+		}
+	}
+
+	/**
+	 * Write the hashes of all sources with entities.
+	 *
+	 * @param out
+	 *          Receives the hashes.
+	 * @param tree
+	 *          The tree.
+	 * @throws IOException
+	 *           The hashes cannot be written.
+	 */
+	private static void writeSources(DataOutputStream out, CatalogMerkleTree tree) throws IOException
+	{
+		List<Integer> indices = new ArrayList<>();
+		for (int index = 0; index < EntityCodec.SOURCE_INDEXES; index++)
+		{
+			if (!tree.getRangeHashes(EntityCodec.sourceOf(index)).isEmpty())
+			{
+				indices.add(index);
+			}
+		}
+		out.writeInt(indices.size());
+		for (int index : indices)
+		{
+			out.writeByte(index);
+			out.writeLong(tree.getSourceHash(EntityCodec.sourceOf(index)));
+		}
+	}
+
+	/**
+	 * Write the range hashes of a source.
+	 *
+	 * @param out
+	 *          Receives the hashes.
+	 * @param hashes
+	 *          The hashes by range.
+	 * @throws IOException
+	 *           The hashes cannot be written.
+	 */
+	private static void writeRanges(DataOutputStream out, SortedMap<String, Long> hashes) throws IOException
+	{
+		out.writeInt(hashes.size());
+		for (Map.Entry<String, Long> range : hashes.entrySet())
+		{
+			EntityCodec.writeString(out, range.getKey());
+			out.writeLong(range.getValue());
+		}
+	}
+
+	/**
+	 * Write the entities of a range.
+	 *
+	 * @param out
+	 *          Receives the entities.
+	 * @param entities
+	 *          The entities.
+	 * @throws IOException
+	 *           The entities cannot be written.
+	 */
+	private static void writeEntities(DataOutputStream out, List<BaseEntity> entities) throws IOException
+	{
+		out.writeInt(entities.size());
+		for (BaseEntity entity : entities)
+		{
+			EntityCodec.write(out, entity);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * SyncProtocol.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog.sync;
+
+/**
+ * Constants of the catalog synchronization protocol. A client opens a TCP
+ * connection, sends {@link #MAGIC} and {@link #VERSION}, and then any number
+ * of requests, each a request byte followed by its arguments. The server
+ * answers each request before reading the next one:
+ * <table summary="Requests">
+ * <tr>
+ * <th>Request</th>
+ * <th>Arguments</th>
+ * <th>Response</th>
+ * </tr>
+ * <tr>
+ * <td>{@link #ROOT}</td>
+ * <td>-</td>
+ * <td>root hash (long)</td>
+ * </tr>
+ * <tr>
+ * <td>{@link #SOURCES}</td>
+ * <td>-</td>
+ * <td>count (int), then source index (byte) and hash (long) of each source
+ * with entities</td>
+ * </tr>
+ * <tr>
+ * <td>{@link #RANGES}</td>
+ * <td>source index (byte)</td>
+ * <td>count (int), then range (String) and hash (long) of each range</td>
+ * </tr>
+ * <tr>
+ * <td>{@link #ENTITIES}</td>
+ * <td>source index (byte), range (String)</td>
+ * <td>count (int), then each entity</td>
+ * </tr>
+ * <tr>
+ * <td>{@link #CLOSE}</td>
+ * <td>-</td>
+ * <td>none, the server closes the connection</td>
+ * </tr>
+ * </table>
+ * All responses to one connection are answered from the same catalog, so a
+ * client sees a consistent state even if the server's catalog is replaced
+ * during synchronization. Strings and entities are written with
+ * {@link de.martindreier.rpg.prd.catalog.EntityCodec}.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+final class SyncProtocol
+{
+	/**
+	 * Sent by the client when connecting.
+	 */
+	static final int	MAGIC			= 0x50524453;
+
+	/**
+	 * Protocol version.
+	 */
+	static final int	VERSION		= 1;
+
+	/**
+	 * End of the session.
+	 */
+	static final int	CLOSE			= 0;
+
+	/**
+	 * Request for the root hash.
+	 */
+	static final int	ROOT			= 1;
+
+	/**
+	 * Request for the source hashes.
+	 */
+	static final int	SOURCES		= 2;
+
+	/**
+	 * Request for the range hashes of a source.
+	 */
+	static final int	RANGES		= 3;
+
+	/**
+	 * Request for the entities of a range.
+	 */
+	static final int	ENTITIES	= 4;
+
+	/**
+	 * Constants only.
+	 */
+	private SyncProtocol()
+	{}
+}
@@ -0,0 +1,338 @@
+/**
+ * AreaEffectResolver.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import java.util.SplittableRandom;
+import de.martindreier.rpg.prd.rules.EnergyType;
+import de.martindreier.rpg.prd.rules.Resistances;
+import de.martindreier.rpg.prd.rules.Saves;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import lombok.NonNull;
+
+/**
+ * Applies area effects to many creatures at once. Saving throw, vulnerability
+ * and energy resistance are resolved in a single pass over the creatures, in
+ * this order:
+ * <ol>
+ * <li>A successful save halves (rounded down) or negates the damage. A natural
+ * 20 always succeeds, a natural 1 always fails.</li>
+ * <li>Vulnerable creatures take half again as much damage (rounded down).</li>
+ * <li>Energy resistance is subtracted; damage never drops below 0.</li>
+ * </ol>
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class AreaEffectResolver
+{
+	/**
+	 * Utility class, do not instantiate.
+	 */
+	private AreaEffectResolver()
+	{}
+
+	/**
+	 * Apply damage to a range of rows in a creature table, rolling a saving
+	 * throw for every creature.
+	 *
+	 * @param packet
+	 *          The damage.
+	 * @param table
+	 *          The creatures.
+	 * @param from
+	 *          First row, inclusive.
+	 * @param to
+	 *          Last row, exclusive.
+	 * @param random
+	 *          Random number generator for the saving throws.
+	 * @param result
+	 *          Receives the outcome; position 0 is row <code>from</code>.
+	 * @return The result.
+	 */
+	public static AreaEffectResult resolve(@NonNull DamagePacket packet, @NonNull CreatureTable table, int from, int to,
+					@NonNull SplittableRandom random, @NonNull AreaEffectResult result)
+	{
+		checkRange(table, from, to);
+		result.reset(to - from);
+		rollSaves(packet, random, result);
+		resolveTable(packet, table, from, to, result);
+		return result;
+	}
+
+	/**
+	 * Apply damage to a range of rows in a creature table using given saving
+	 * throw rolls.
+	 *
+	 * @param packet
+	 *          The damage.
+	 * @param table
+	 *          The creatures.
+	 * @param from
+	 *          First row, inclusive.
+	 * @param to
+	 *          Last row, exclusive.
+	 * @param rolls
+	 *          Natural d20 rolls, one for each row starting at <code>from</code>.
+	 *          Ignored if the damage allows no save.
+	 * @param result
+	 *          Receives the outcome; position 0 is row <code>from</code>.
+	 * @return The result.
+	 */
+	public static AreaEffectResult resolve(@NonNull DamagePacket packet, @NonNull CreatureTable table, int from, int to,
+					@NonNull int[] rolls, @NonNull AreaEffectResult result)
+	{
+		checkRange(table, from, to);
+		checkRolls(rolls, to - from);
+		result.reset(to - from);
+		System.arraycopy(rolls, 0, result.rolls, 0, to - from);
+		resolveTable(packet, table, from, to, result);
+		return result;
+	}
+
+	/**
+	 * Apply damage to a batch of creatures, rolling a saving throw for every
+	 * creature.
+	 *
+	 * @param packet
+	 *          The damage.
+	 * @param saves
+	 *          Saving throws of the creatures.
+	 * @param resistances
+	 *          Resistances of the creatures, in the same order as the saves.
+	 * @param random
+	 *          Random number generator for the saving throws.
+	 * @param result
+	 *          Receives the outcome.
+	 * @return The result.
+	 */
+	public static AreaEffectResult resolve(@NonNull DamagePacket packet, @NonNull Saves[] saves,
+					@NonNull Resistances[] resistances, @NonNull SplittableRandom random, @NonNull AreaEffectResult result)
+	{
+		checkBatch(saves, resistances);
+		result.reset(saves.length);
+		rollSaves(packet, random, result);
+		resolveBatch(packet, saves, resistances, result);
+		return result;
+	}
+
+	/**
+	 * Apply damage to a batch of creatures using given saving throw rolls.
+	 *
+	 * @param packet
+	 *          The damage.
+	 * @param saves
+	 *          Saving throws of the creatures.
+	 * @param resistances
+	 *          Resistances of the creatures, in the same order as the saves.
+	 * @param rolls
+	 *          Natural d20 rolls, one for each creature. Ignored if the damage
+	 *          allows no save.
+	 * @param result
+	 *          Receives the outcome.
+	 * @return The result.
+	 */
+	public static AreaEffectResult resolve(@NonNull DamagePacket packet, @NonNull Saves[] saves,
+					@NonNull Resistances[] resistances, @NonNull int[] rolls, @NonNull AreaEffectResult result)
+	{
+		checkBatch(saves, resistances);
+		checkRolls(rolls, saves.length);
+		result.reset(saves.length);
+		System.arraycopy(rolls, 0, result.rolls, 0, saves.length);
+		resolveBatch(packet, saves, resistances, result);
+		return result;
+	}
+
+	/**
+	 * Resolve the damage against table rows. The saving throw rolls must already
+	 * be in the result.
+	 *
+	 * @param packet
+	 *          The damage.
+	 * @param table
+	 *          The creatures.
+	 * @param from
+	 *          First row, inclusive.
+	 * @param to
+	 *          Last row, exclusive.
+	 * @param result
+	 *          Receives the outcome.
+	 */
+	private static void resolveTable(DamagePacket packet, CreatureTable table, int from, int to,
+					AreaEffectResult result)
+	{
+		EnergyType energyType = packet.getEnergyType();
+		int[] resistanceColumn = table.getEnergyResistances()[energyType.ordinal()];
+		int[] vulnerabilityColumn = table.getVulnerabilities();
+		int[] saveColumn = packet.getSaveType() == null ? null : table.getSaves()[packet.getSaveType().ordinal()];
+		int vulnerabilityBit = 1 << energyType.ordinal();
+		for (int row = from; row < to; row++)
+		{
+			int position = row - from;
+			int bonus = saveColumn == null ? 0 : saveColumn[row];
+			apply(packet, position, bonus, (vulnerabilityColumn[row] & vulnerabilityBit) != 0, resistanceColumn[row],
+							result);
+		}
+	}
+
+	/**
+	 * Resolve the damage against a batch of creatures. The saving throw rolls
+	 * must already be in the result.
+	 *
+	 * @param packet
+	 *          The damage.
+	 * @param saves
+	 *          Saving throws of the creatures.
+	 * @param resistances
+	 *          Resistances of the creatures.
+	 * @param result
+	 *          Receives the outcome.
+	 */
+	private static void resolveBatch(DamagePacket packet, Saves[] saves, Resistances[] resistances,
+					AreaEffectResult result)
+	{
+		EnergyType energyType = packet.getEnergyType();
+		SaveType saveType = packet.getSaveType();
+		int shift = energyType.ordinal() * Resistances.RESISTANCE_BITS;
+		int vulnerabilityBit = 1 << energyType.ordinal();
+		for (int position = 0; position < saves.length; position++)
+		{
+			Resistances creature = resistances[position];
+			int bonus = saveType == null ? 0 : saves[position].getSave(saveType);
+			int resistance = (int) (creature.getPackedEnergyResistances() >>> shift) & Resistances.MAX_ENERGY_RESISTANCE;
+			apply(packet, position, bonus, (creature.getVulnerabilityMask() & vulnerabilityBit) != 0, resistance,
+							result);
+		}
+	}
+
+	/**
+	 * Resolve the damage against a single creature.
+	 *
+	 * @param packet
+	 *          The damage.
+	 * @param position
+	 *          Position of the creature in the batch.
+	 * @param saveBonus
+	 *          Saving throw bonus of the creature.
+	 * @param vulnerable
+	 *          <code>true</code> if the creature is vulnerable to the energy
+	 *          type.
+	 * @param resistance
+	 *          Energy resistance of the creature.
+	 * @param result
+	 *          Receives the outcome.
+	 */
+	private static void apply(DamagePacket packet, int position, int saveBonus, boolean vulnerable, int resistance,
+					AreaEffectResult result)
+	{
+		int damage = packet.getAmount();
+		boolean saved = false;
+		if (packet.getSaveType() != null)
+		{
+			int roll = result.rolls[position];
+			saved = roll == 20 || (roll != 1 && roll + saveBonus >= packet.getDifficulty());
+			if (saved)
+			{
+				damage = packet.isHalfOnSave() ? damage / 2 : 0;
+				result.saveCount++;
+			}
+		}
+		if (vulnerable)
+		{
+			damage += damage / 2;
+		}
+		damage = Math.max(0, damage - resistance);
+		result.saved[position] = saved;
+		result.damage[position] = damage;
+		result.totalDamage += damage;
+	}
+
+	/**
+	 * Roll saving throws for the whole batch, if the damage allows a save.
+	 *
+	 * @param packet
+	 *          The damage.
+	 * @param random
+	 *          Random number generator.
+	 * @param result
+	 *          Receives the rolls; must be reset to the batch size.
+	 */
+	private static void rollSaves(DamagePacket packet, SplittableRandom random, AreaEffectResult result)
+	{
+		if (packet.getSaveType() == null)
+		{
+			return;
+		}
+		int[] rolls = result.rolls;
+		for (int position = 0; position < result.getSize(); position++)
+		{
+			rolls[position] = random.nextInt(20) + 1;
+		}
+	}
+
+	/**
+	 * Check that a row range is part of a table.
+	 *
+	 * @param table
+	 *          The table.
+	 * @param from
+	 *          First row, inclusive.
+	 * @param to
+	 *          Last row, exclusive.
+	 */
+	private static void checkRange(CreatureTable table, int from, int to)
+	{
+		if (from < 0 || to > table.getSize() || from > to)
+		{
+			throw new IndexOutOfBoundsException(
+							"Invalid range " + from + " to " + to + " in table of size " + table.getSize());
+		}
+	}
+
+	/**
+	 * Check that saves and resistances describe the same creatures.
+	 *
+	 * @param saves
+	 *          Saving throws of the creatures.
+	 * @param resistances
+	 *          Resistances of the creatures.
+	 */
+	private static void checkBatch(Saves[] saves, Resistances[] resistances)
+	{
+		if (saves.length != resistances.length)
+		{
+			throw new IllegalArgumentException("Number of saves and resistances differ");
+		}
+	}
+
+	/**
+	 * Check that there is a roll for every creature.
+	 *
+	 * @param rolls
+	 *          The rolls.
+	 * @param batchSize
+	 *          Number of creatures.
+	 */
+	private static void checkRolls(int[] rolls, int batchSize)
+	{
+		if (rolls.length < batchSize)
+		{
+			throw new IllegalArgumentException("Expected " + batchSize + " saving throw rolls, got " + rolls.length);
+		}
+	}
+}
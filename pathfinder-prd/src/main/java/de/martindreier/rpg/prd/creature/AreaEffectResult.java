@@ -0,0 +1,158 @@
+/**
+ * AreaEffectResult.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import lombok.Getter;
+
+/**
+ * Per-creature outcome of an area effect. Instances can be reused for many
+ * effects to avoid allocating new arrays each time; the arrays grow when a
+ * larger batch is resolved.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class AreaEffectResult
+{
+	/**
+	 * Number of creatures in the last resolved batch.
+	 */
+	@Getter
+	private int size = 0;
+
+	/**
+	 * Natural saving throw rolls, indexed by position in the batch.
+	 */
+	int[]							rolls;
+
+	/**
+	 * Damage taken, indexed by position in the batch.
+	 */
+	int[]							damage;
+
+	/**
+	 * Saving throw success, indexed by position in the batch.
+	 */
+	boolean[]					saved;
+
+	/**
+	 * Sum of the damage taken by all creatures.
+	 */
+	@Getter
+	long							totalDamage	= 0;
+
+	/**
+	 * Number of successful saving throws.
+	 */
+	@Getter
+	int								saveCount		= 0;
+
+	/**
+	 * Create an empty result.
+	 */
+	public AreaEffectResult()
+	{
+		this(16);
+	}
+
+	/**
+	 * Create an empty result.
+	 *
+	 * @param capacity
+	 *          Expected number of creatures per batch.
+	 */
+	public AreaEffectResult(int capacity)
+	{
+		rolls = new int[capacity];
+		damage = new int[capacity];
+		saved = new boolean[capacity];
+	}
+
+	/**
+	 * Get the damage taken by a creature.
+	 *
+	 * @param position
+	 *          Position of the creature in the batch.
+	 * @return Damage after saves, vulnerability and resistance.
+	 */
+	public int getDamage(int position)
+	{
+		checkPosition(position);
+		return damage[position];
+	}
+
+	/**
+	 * Check if a creature succeeded on its saving throw.
+	 *
+	 * @param position
+	 *          Position of the creature in the batch.
+	 * @return <code>true</code> if the save succeeded.
+	 */
+	public boolean isSaved(int position)
+	{
+		checkPosition(position);
+		return saved[position];
+	}
+
+	/**
+	 * Get the natural saving throw roll of a creature.
+	 *
+	 * @param position
+	 *          Position of the creature in the batch.
+	 * @return The natural d20 roll.
+	 */
+	public int getRoll(int position)
+	{
+		checkPosition(position);
+		return rolls[position];
+	}
+
+	/**
+	 * Prepare for a new batch.
+	 *
+	 * @param batchSize
+	 *          Number of creatures in the batch.
+	 */
+	void reset(int batchSize)
+	{
+		if (rolls.length < batchSize)
+		{
+			rolls = new int[batchSize];
+			damage = new int[batchSize];
+			saved = new boolean[batchSize];
+		}
+		size = batchSize;
+		totalDamage = 0;
+		saveCount = 0;
+	}
+
+	/**
+	 * Check that a position is part of the last batch.
+	 *
+	 * @param position
+	 *          Position of the creature in the batch.
+	 */
+	private void checkPosition(int position)
+	{
+		if (position < 0 || position >= size)
+		{
+			throw new IndexOutOfBoundsException("No creature " + position + " in batch of size " + size);
+		}
+	}
+}
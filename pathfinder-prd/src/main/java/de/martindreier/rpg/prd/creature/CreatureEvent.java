@@ -0,0 +1,560 @@
+/**
+ * CreatureEvent.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.EnergyType;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.rules.Skill;
+import de.martindreier.rpg.prd.util.VarInt;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A single change to the statistics of a creature, e.g. an armor class modifier
+ * applied or a saving throw bonus changed. Events are recorded in a
+ * {@link CreatureEventLog} and applied to {@link CreatureStatBlock}s to restore
+ * the state of a creature.
+ * <p>
+ * The binary form is the event type, the creature, the ordinal of the
+ * attribute, bonus type, save type, energy type or skill concerned and the new
+ * value, all as variable length integers. Most events take four bytes.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@Getter
+public final class CreatureEvent
+{
+	/**
+	 * Type of change.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	public static enum Type
+	{
+		/**
+		 * Creature added. The key is unused, the value holds the maximum hit
+		 * points.
+		 */
+		ADDED(0)
+		{
+			@Override
+			CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event)
+			{
+				return CreatureStatBlock.create(event.name, event.value);
+			}
+		},
+		/**
+		 * Typed armor class modifier applied.
+		 */
+		ARMOR_CLASS_MODIFIER(BonusType.values().length)
+		{
+			@Override
+			CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event)
+			{
+				return statBlock.withArmorClassModifier(BonusType.values()[event.key], event.value);
+			}
+		},
+		/**
+		 * Armor class modifier derived from an attribute applied.
+		 */
+		ARMOR_CLASS_ATTRIBUTE(Attribute.values().length)
+		{
+			@Override
+			CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event)
+			{
+				return statBlock.withArmorClass(statBlock.getArmorClass().withModifier(Attribute.values()[event.key],
+								event.value));
+			}
+		},
+		/**
+		 * All armor class modifiers of a type removed. The value is unused.
+		 */
+		ARMOR_CLASS_MODIFIER_REMOVED(BonusType.values().length)
+		{
+			@Override
+			CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event)
+			{
+				return statBlock.withArmorClass(statBlock.getArmorClass().withoutModifier(BonusType.values()[event.key]));
+			}
+		},
+		/**
+		 * Saving throw bonus changed.
+		 */
+		SAVE(SaveType.values().length)
+		{
+			@Override
+			CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event)
+			{
+				return statBlock.withSave(SaveType.values()[event.key], event.value);
+			}
+		},
+		/**
+		 * Energy resistance set.
+		 */
+		ENERGY_RESISTANCE(EnergyType.values().length)
+		{
+			@Override
+			CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event)
+			{
+				return statBlock.withResistances(statBlock.getResistances().withEnergyResistance(
+								EnergyType.values()[event.key], event.value));
+			}
+		},
+		/**
+		 * Vulnerability added (value 1) or removed (value 0).
+		 */
+		VULNERABILITY(EnergyType.values().length)
+		{
+			@Override
+			CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event)
+			{
+				return statBlock.withResistances(statBlock.getResistances().withVulnerability(
+								EnergyType.values()[event.key], event.value != 0));
+			}
+		},
+		/**
+		 * Spell resistance set. The key is unused.
+		 */
+		SPELL_RESISTANCE(0)
+		{
+			@Override
+			CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event)
+			{
+				return statBlock.withResistances(statBlock.getResistances().withSpellResistance(event.value));
+			}
+		},
+		/**
+		 * Current hit points changed. The key is unused.
+		 */
+		HIT_POINTS(0)
+		{
+			@Override
+			CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event)
+			{
+				return statBlock.withHitPoints(event.value);
+			}
+		},
+		/**
+		 * Attribute score changed.
+		 */
+		ATTRIBUTE_SCORE(Attribute.values().length)
+		{
+			@Override
+			CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event)
+			{
+				return statBlock.withAttributeScore(Attribute.values()[event.key], event.value);
+			}
+		},
+		/**
+		 * Skill ranks changed.
+		 */
+		SKILL_RANKS(Skill.values().length)
+		{
+			@Override
+			CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event)
+			{
+				return statBlock.withSkillRanks(Skill.values()[event.key], event.value);
+			}
+		};
+
+		/**
+		 * Number of valid keys. 0 if the key is unused.
+		 */
+		private final int keyCount;
+
+		/**
+		 * Create an event type.
+		 *
+		 * @param keyCount
+		 *          Number of valid keys.
+		 */
+		private Type(int keyCount)
+		{
+			this.keyCount = keyCount;
+		}
+
+		/**
+		 * Apply an event of this type.
+		 *
+		 * @param statBlock
+		 *          Stat block before the event. <code>null</code> for
+		 *          {@link #ADDED}.
+		 * @param event
+		 *          The event.
+		 * @return Stat block after the event.
+		 */
+		abstract CreatureStatBlock apply(CreatureStatBlock statBlock, CreatureEvent event);
+	}
+
+	/**
+	 * Cached event types.
+	 */
+	private static final Type[]	TYPES	= Type.values();
+
+	/**
+	 * Type of change.
+	 */
+	private final Type					type;
+
+	/**
+	 * Number of the creature.
+	 */
+	private final int						creature;
+
+	/**
+	 * Ordinal of the attribute, bonus type, save type, energy type or skill
+	 * concerned. 0 if unused.
+	 */
+	private final int						key;
+
+	/**
+	 * New value.
+	 */
+	private final int						value;
+
+	/**
+	 * Name of the creature for {@link Type#ADDED}, otherwise <code>null</code>.
+	 */
+	private final String				name;
+
+	/**
+	 * Create an event.
+	 *
+	 * @param type
+	 *          Type of change.
+	 * @param creature
+	 *          Number of the creature.
+	 * @param key
+	 *          Ordinal of the item concerned.
+	 * @param value
+	 *          New value.
+	 * @param name
+	 *          Name of the creature for {@link Type#ADDED}.
+	 */
+	private CreatureEvent(Type type, int creature, int key, int value, String name)
+	{
+		if (creature < 0)
+		{
+			throw new IllegalArgumentException("Creature number must be zero or positive");
+		}
+		this.type = type;
+		this.creature = creature;
+		this.key = key;
+		this.value = value;
+		this.name = name;
+	}
+
+	/**
+	 * A creature was added.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @param name
+	 *          Name of the creature.
+	 * @param maxHitPoints
+	 *          Maximum hit points.
+	 * @return The event.
+	 */
+	public static CreatureEvent added(int creature, @NonNull String name, int maxHitPoints)
+	{
+		return new CreatureEvent(Type.ADDED, creature, 0, maxHitPoints, name);
+	}
+
+	/**
+	 * A typed armor class modifier was applied.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @param type
+	 *          Bonus type.
+	 * @param value
+	 *          Value of the modifier.
+	 * @return The event.
+	 */
+	public static CreatureEvent armorClassModifier(int creature, @NonNull BonusType type, int value)
+	{
+		return new CreatureEvent(Type.ARMOR_CLASS_MODIFIER, creature, type.ordinal(), value, null);
+	}
+
+	/**
+	 * An armor class modifier derived from an attribute was applied.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @param referenceAttribute
+	 *          The reference attribute.
+	 * @param value
+	 *          Value of the modifier.
+	 * @return The event.
+	 */
+	public static CreatureEvent armorClassModifier(int creature, @NonNull Attribute referenceAttribute, int value)
+	{
+		return new CreatureEvent(Type.ARMOR_CLASS_ATTRIBUTE, creature, referenceAttribute.ordinal(), value, null);
+	}
+
+	/**
+	 * All armor class modifiers of a type were removed.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @param type
+	 *          Bonus type.
+	 * @return The event.
+	 */
+	public static CreatureEvent armorClassModifierRemoved(int creature, @NonNull BonusType type)
+	{
+		return new CreatureEvent(Type.ARMOR_CLASS_MODIFIER_REMOVED, creature, type.ordinal(), 0, null);
+	}
+
+	/**
+	 * A saving throw bonus was changed.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @param type
+	 *          The type of saving throw.
+	 * @param value
+	 *          The new saving throw bonus.
+	 * @return The event.
+	 */
+	public static CreatureEvent save(int creature, @NonNull SaveType type, int value)
+	{
+		return new CreatureEvent(Type.SAVE, creature, type.ordinal(), value, null);
+	}
+
+	/**
+	 * An energy resistance was set.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @param type
+	 *          The energy type.
+	 * @param value
+	 *          The new resistance.
+	 * @return The event.
+	 */
+	public static CreatureEvent energyResistance(int creature, @NonNull EnergyType type, int value)
+	{
+		return new CreatureEvent(Type.ENERGY_RESISTANCE, creature, type.ordinal(), value, null);
+	}
+
+	/**
+	 * A vulnerability was added or removed.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @param type
+	 *          The energy type.
+	 * @param vulnerable
+	 *          <code>true</code> if the vulnerability was added.
+	 * @return The event.
+	 */
+	public static CreatureEvent vulnerability(int creature, @NonNull EnergyType type, boolean vulnerable)
+	{
+		return new CreatureEvent(Type.VULNERABILITY, creature, type.ordinal(), vulnerable ? 1 : 0, null);
+	}
+
+	/**
+	 * The spell resistance was set.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @param value
+	 *          The new spell resistance.
+	 * @return The event.
+	 */
+	public static CreatureEvent spellResistance(int creature, int value)
+	{
+		return new CreatureEvent(Type.SPELL_RESISTANCE, creature, 0, value, null);
+	}
+
+	/**
+	 * The current hit points were changed.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @param value
+	 *          The new current hit points.
+	 * @return The event.
+	 */
+	public static CreatureEvent hitPoints(int creature, int value)
+	{
+		return new CreatureEvent(Type.HIT_POINTS, creature, 0, value, null);
+	}
+
+	/**
+	 * An attribute score was changed.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @param attribute
+	 *          The attribute.
+	 * @param value
+	 *          The new score.
+	 * @return The event.
+	 */
+	public static CreatureEvent attributeScore(int creature, @NonNull Attribute attribute, int value)
+	{
+		return new CreatureEvent(Type.ATTRIBUTE_SCORE, creature, attribute.ordinal(), value, null);
+	}
+
+	/**
+	 * The ranks in a skill were changed.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @param skill
+	 *          The skill.
+	 * @param value
+	 *          The new number of ranks.
+	 * @return The event.
+	 */
+	public static CreatureEvent skillRanks(int creature, @NonNull Skill skill, int value)
+	{
+		return new CreatureEvent(Type.SKILL_RANKS, creature, skill.ordinal(), value, null);
+	}
+
+	/**
+	 * Apply the event to the stat block of the creature.
+	 *
+	 * @param statBlock
+	 *          Stat block before the event. May be <code>null</code> for
+	 *          {@link Type#ADDED}.
+	 * @return Stat block after the event.
+	 * @throws IllegalStateException
+	 *           The creature does not exist.
+	 */
+	public CreatureStatBlock apply(CreatureStatBlock statBlock)
+	{
+		if (statBlock == null && type != Type.ADDED)
+		{
+			throw new IllegalStateException("Unknown creature " + creature);
+		}
+		return type.apply(statBlock, this);
+	}
+
+	/**
+	 * Write the event.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 */
+	public void encode(@NonNull ByteBuffer buffer)
+	{
+		VarInt.writeUnsigned(buffer, type.ordinal());
+		VarInt.writeUnsigned(buffer, creature);
+		if (type == Type.ADDED)
+		{
+			byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+			VarInt.writeUnsigned(buffer, bytes.length);
+			buffer.put(bytes);
+		}
+		else if (type.keyCount > 0)
+		{
+			VarInt.writeUnsigned(buffer, key);
+		}
+		VarInt.writeSigned(buffer, value);
+	}
+
+	/**
+	 * Get the maximum size of the encoded event.
+	 *
+	 * @return Number of bytes.
+	 */
+	public int getMaxEncodedSize()
+	{
+		int size = 4 * VarInt.MAX_INT_BYTES;
+		return name == null ? size : size + 3 * name.length();
+	}
+
+	/**
+	 * Read an event.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @return The event.
+	 * @throws IllegalArgumentException
+	 *           The buffer does not contain a valid event.
+	 */
+	public static CreatureEvent decode(@NonNull ByteBuffer buffer)
+	{
+		int typeOrdinal = VarInt.readUnsigned(buffer);
+		if (typeOrdinal < 0 || typeOrdinal >= TYPES.length)
+		{
+			throw new IllegalArgumentException("Unknown event type " + typeOrdinal);
+		}
+		Type type = TYPES[typeOrdinal];
+		int creature = VarInt.readUnsigned(buffer);
+		int key = 0;
+		String name = null;
+		if (type == Type.ADDED)
+		{
+			int length = VarInt.readUnsigned(buffer);
+			if (length < 0 || length > buffer.remaining())
+			{
+				throw new IllegalArgumentException("Name length " + length + " exceeds buffer");
+			}
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			name = new String(bytes, StandardCharsets.UTF_8);
+		}
+		else if (type.keyCount > 0)
+		{
+			key = VarInt.readUnsigned(buffer);
+			if (key < 0 || key >= type.keyCount)
+			{
+				throw new IllegalArgumentException("Invalid key " + key + " for event type " + type);
+			}
+		}
+		return new CreatureEvent(type, creature, key, VarInt.readSigned(buffer), name);
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (this == other)
+		{
+			return true;
+		}
+		if (!(other instanceof CreatureEvent))
+		{
+			return false;
+		}
+		CreatureEvent event = (CreatureEvent) other;
+		return type == event.type && creature == event.creature && key == event.key && value == event.value
+						&& (name == null ? event.name == null : name.equals(event.name));
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return ((type.hashCode() * 31 + creature) * 31 + key) * 31 + value;
+	}
+
+	@Override
+	public String toString()
+	{
+		return type + " #" + creature + (type == Type.ADDED ? " " + name : " [" + key + "] = " + value);
+	}
+}
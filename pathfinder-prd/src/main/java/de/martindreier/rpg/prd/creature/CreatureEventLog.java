@@ -0,0 +1,537 @@
+/**
+ * CreatureEventLog.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import de.martindreier.rpg.prd.util.VarInt;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Log of all changes to the creatures of a game session, appended to a
+ * memory-mapped file. Every {@link #getSnapshotInterval() n} events the stat
+ * blocks of all creatures are written as a snapshot. Opening an existing log
+ * restores the state from the last snapshot and the events after it, so a
+ * crashed session can be continued without replaying the whole log. All events
+ * stay in the file and can be read with {@link #forEach(Consumer)} for an audit.
+ * <p>
+ * The file starts with a header of {@value #HEADER_SIZE} bytes: a magic number,
+ * the format version, the end of the last complete record and the position of
+ * the last snapshot. Each record is a kind byte, the payload length as a
+ * variable length integer and the payload. The end in the header is updated
+ * only after a record was written completely, so a record cut off by a crash is
+ * ignored and overwritten. The file grows in steps and may be larger than the
+ * data it holds.
+ * <p>
+ * Instances are safe for use by several threads.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class CreatureEventLog implements Closeable
+{
+	/**
+	 * Default number of events between two snapshots.
+	 */
+	public static final int												DEFAULT_SNAPSHOT_INTERVAL	= 1000;
+
+	/**
+	 * Size of the file header.
+	 */
+	public static final int												HEADER_SIZE								= 32;
+
+	/**
+	 * Magic number at the start of the file: &quot;PRDE&quot;.
+	 */
+	private static final int											MAGIC											= 0x50524445;
+
+	/**
+	 * Version of the file format.
+	 */
+	private static final int											VERSION										= 1;
+
+	/**
+	 * Position of the end of the last complete record in the header.
+	 */
+	private static final int											END_POSITION							= 8;
+
+	/**
+	 * Position of the offset of the last snapshot in the header.
+	 */
+	private static final int											SNAPSHOT_POSITION					= 16;
+
+	/**
+	 * Record kind of an event.
+	 */
+	private static final byte											EVENT_RECORD							= 1;
+
+	/**
+	 * Record kind of a snapshot.
+	 */
+	private static final byte											SNAPSHOT_RECORD						= 2;
+
+	/**
+	 * Initial size of the mapped file.
+	 */
+	private static final int											INITIAL_CAPACITY					= 1 << 16;
+
+	/**
+	 * Number of events between two snapshots.
+	 */
+	@Getter
+	private final int															snapshotInterval;
+
+	/**
+	 * The file channel.
+	 */
+	private final FileChannel											channel;
+
+	/**
+	 * Mapped file content.
+	 */
+	private MappedByteBuffer											mapped;
+
+	/**
+	 * Buffer for encoding records before they are copied into the file.
+	 */
+	private ByteBuffer														scratch										= ByteBuffer.allocate(256);
+
+	/**
+	 * End of the last complete record.
+	 */
+	private int																		end;
+
+	/**
+	 * Position of the last snapshot, 0 if there is none.
+	 */
+	private int																		lastSnapshot;
+
+	/**
+	 * Number of events written since the last snapshot.
+	 */
+	@Getter
+	private int																		eventsSinceSnapshot;
+
+	/**
+	 * Current stat blocks, indexed by creature number.
+	 */
+	private final Map<Integer, CreatureStatBlock>	creatures									= new TreeMap<>();
+
+	/**
+	 * Open an event log with the default snapshot interval.
+	 *
+	 * @param file
+	 *          The log file. Created if it does not exist.
+	 * @throws IOException
+	 *           The file cannot be opened or is not a valid event log.
+	 */
+	public CreatureEventLog(@NonNull Path file) throws IOException
+	{
+		this(file, DEFAULT_SNAPSHOT_INTERVAL);
+	}
+
+	/**
+	 * Open an event log. The state of an existing log is restored from its last
+	 * snapshot.
+	 *
+	 * @param file
+	 *          The log file. Created if it does not exist.
+	 * @param snapshotInterval
+	 *          Number of events between two snapshots. Must be positive.
+	 * @throws IOException
+	 *           The file cannot be opened or is not a valid event log.
+	 */
+	public CreatureEventLog(@NonNull Path file, int snapshotInterval) throws IOException
+	{
+		if (snapshotInterval <= 0)
+		{
+			throw new IllegalArgumentException("Snapshot interval must be positive");
+		}
+		this.snapshotInterval = snapshotInterval;
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try
+		{
+			if (channel.size() == 0)
+			{
+				mapped = channel.map(MapMode.READ_WRITE, 0, INITIAL_CAPACITY);
+				mapped.putInt(0, MAGIC);
+				mapped.putInt(4, VERSION);
+				end = HEADER_SIZE;
+				lastSnapshot = 0;
+				writeHeader();
+			}
+			else
+			{
+				restore(file);
+			}
+		}
+		catch (IOException | RuntimeException e)
+		{
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Restore the state from the last snapshot and the events after it.
+	 *
+	 * @param file
+	 *          The log file, for error messages.
+	 * @throws IOException
+	 *           The file is not a valid event log.
+	 */
+	private void restore(Path file) throws IOException
+	{
+		// Step 1: Check the header before mapping, which would extend the file
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (header.hasRemaining() && channel.read(header, header.position()) >= 0)
+		{}
+		if (header.hasRemaining() || header.getInt(0) != MAGIC)
+		{
+			throw new IOException("Not a creature event log: " + file);
+		}
+		if (header.getInt(4) != VERSION)
+		{
+			throw new IOException("Unsupported event log version " + header.getInt(4) + ": " + file);
+		}
+		long storedEnd = header.getLong(END_POSITION);
+		long storedSnapshot = header.getLong(SNAPSHOT_POSITION);
+		if (storedEnd < HEADER_SIZE || storedEnd > channel.size() || storedSnapshot < 0 || storedSnapshot >= storedEnd)
+		{
+			throw new IOException("Corrupt event log header: " + file);
+		}
+		// Step 2: Replay from the last snapshot
+		mapped = channel.map(MapMode.READ_WRITE, 0, Math.max(channel.size(), INITIAL_CAPACITY));
+		end = (int) storedEnd;
+		lastSnapshot = (int) storedSnapshot;
+		ByteBuffer reader = mapped.duplicate();
+		reader.limit(end);
+		reader.position(lastSnapshot > 0 ? lastSnapshot : HEADER_SIZE);
+		try
+		{
+			while (reader.hasRemaining())
+			{
+				byte kind = reader.get();
+				int length = VarInt.readUnsigned(reader);
+				ByteBuffer payload = slice(reader, length);
+				if (kind == SNAPSHOT_RECORD)
+				{
+					readSnapshot(payload, creatures);
+					eventsSinceSnapshot = 0;
+				}
+				else if (kind == EVENT_RECORD)
+				{
+					CreatureEvent event = CreatureEvent.decode(payload);
+					creatures.put(event.getCreature(), event.apply(creatures.get(event.getCreature())));
+					eventsSinceSnapshot++;
+				}
+				else
+				{
+					throw new IllegalArgumentException("Unknown record kind " + kind);
+				}
+			}
+		}
+		catch (RuntimeException e)
+		{
+			throw new IOException("Corrupt event log " + file + " at position " + reader.position(), e);
+		}
+	}
+
+	/**
+	 * Append an event and apply it to the stat block of the creature.
+	 *
+	 * @param event
+	 *          The event.
+	 * @return Stat block of the creature after the event.
+	 * @throws IOException
+	 *           The event cannot be written.
+	 * @throws IllegalStateException
+	 *           The creature does not exist.
+	 */
+	public synchronized CreatureStatBlock append(@NonNull CreatureEvent event) throws IOException
+	{
+		// Step 1: Apply first, so invalid events are not recorded
+		CreatureStatBlock statBlock = event.apply(creatures.get(event.getCreature()));
+		// Step 2: Record event
+		scratch = ensureScratch(event.getMaxEncodedSize());
+		event.encode(scratch);
+		writeRecord(EVENT_RECORD);
+		creatures.put(event.getCreature(), statBlock);
+		// Step 3: Take a snapshot if enough events were written
+		if (++eventsSinceSnapshot >= snapshotInterval)
+		{
+			snapshot();
+		}
+		return statBlock;
+	}
+
+	/**
+	 * Write a snapshot of all stat blocks now. Later restores start from this
+	 * snapshot. The file content is forced to the storage device.
+	 *
+	 * @throws IOException
+	 *           The snapshot cannot be written.
+	 */
+	public synchronized void snapshot() throws IOException
+	{
+		while (true)
+		{
+			scratch.clear();
+			try
+			{
+				writeSnapshot(scratch, creatures);
+				break;
+			}
+			catch (BufferOverflowException e)
+			{
+				scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+			}
+		}
+		int position = end;
+		writeRecord(SNAPSHOT_RECORD);
+		lastSnapshot = position;
+		writeHeader();
+		eventsSinceSnapshot = 0;
+		mapped.force();
+	}
+
+	/**
+	 * Get the current stat block of a creature.
+	 *
+	 * @param creature
+	 *          Number of the creature.
+	 * @return The stat block, or <code>null</code> if the creature does not
+	 *         exist.
+	 */
+	public synchronized CreatureStatBlock getStatBlock(int creature)
+	{
+		return creatures.get(creature);
+	}
+
+	/**
+	 * Get the current stat blocks of all creatures.
+	 *
+	 * @return Read-only copy of the stat blocks, ordered by creature number.
+	 */
+	public synchronized Map<Integer, CreatureStatBlock> getStatBlocks()
+	{
+		return Collections.unmodifiableMap(new TreeMap<>(creatures));
+	}
+
+	/**
+	 * Get the number of bytes used in the file.
+	 *
+	 * @return Size of the header and all records.
+	 */
+	public synchronized int getSize()
+	{
+		return end;
+	}
+
+	/**
+	 * Read all events from the start of the log, e.g. for an audit. Snapshots
+	 * are skipped.
+	 *
+	 * @param consumer
+	 *          Receives the events in the order they were appended.
+	 */
+	public void forEach(@NonNull Consumer<CreatureEvent> consumer)
+	{
+		ByteBuffer reader;
+		synchronized (this)
+		{
+			reader = mapped.duplicate();
+			reader.limit(end);
+		}
+		reader.position(HEADER_SIZE);
+		while (reader.hasRemaining())
+		{
+			byte kind = reader.get();
+			int length = VarInt.readUnsigned(reader);
+			ByteBuffer payload = slice(reader, length);
+			if (kind == EVENT_RECORD)
+			{
+				consumer.accept(CreatureEvent.decode(payload));
+			}
+		}
+	}
+
+	/**
+	 * Force all changes to the storage device. Changes written to the mapped
+	 * file survive a crash of the program without this, but not a crash of the
+	 * operating system.
+	 */
+	public synchronized void flush()
+	{
+		mapped.force();
+	}
+
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (channel.isOpen())
+		{
+			mapped.force();
+			channel.close();
+		}
+	}
+
+	/**
+	 * Copy the content of the scratch buffer into the file as a record and
+	 * update the end in the header.
+	 *
+	 * @param kind
+	 *          Record kind.
+	 * @throws IOException
+	 *           The file cannot be extended.
+	 */
+	private void writeRecord(byte kind) throws IOException
+	{
+		scratch.flip();
+		int length = scratch.remaining();
+		ensureCapacity(1 + VarInt.sizeOfUnsigned(length) + length);
+		mapped.position(end);
+		mapped.put(kind);
+		VarInt.writeUnsigned(mapped, length);
+		mapped.put(scratch);
+		end = mapped.position();
+		writeHeader();
+	}
+
+	/**
+	 * Write end and last snapshot position to the header.
+	 */
+	private void writeHeader()
+	{
+		mapped.putLong(SNAPSHOT_POSITION, lastSnapshot);
+		mapped.putLong(END_POSITION, end);
+	}
+
+	/**
+	 * Make sure the mapped file has room for more bytes.
+	 *
+	 * @param bytes
+	 *          Number of bytes to be written at the end.
+	 * @throws IOException
+	 *           The file cannot be extended.
+	 */
+	private void ensureCapacity(int bytes) throws IOException
+	{
+		long required = (long) end + bytes;
+		if (required <= mapped.capacity())
+		{
+			return;
+		}
+		long capacity = Math.max(required, 2L * mapped.capacity());
+		if (capacity > Integer.MAX_VALUE)
+		{
+			throw new IOException("Event log too large");
+		}
+		mapped.force();
+		mapped = channel.map(MapMode.READ_WRITE, 0, capacity);
+	}
+
+	/**
+	 * Make sure the scratch buffer can hold a record.
+	 *
+	 * @param bytes
+	 *          Maximum size of the record.
+	 * @return The scratch buffer, cleared.
+	 */
+	private ByteBuffer ensureScratch(int bytes)
+	{
+		if (scratch.capacity() < bytes)
+		{
+			scratch = ByteBuffer.allocate(Math.max(bytes, 2 * scratch.capacity()));
+		}
+		scratch.clear();
+		return scratch;
+	}
+
+	/**
+	 * Take the next bytes of a buffer as a separate buffer.
+	 *
+	 * @param buffer
+	 *          Source buffer. Its position is moved past the slice.
+	 * @param length
+	 *          Number of bytes.
+	 * @return The slice.
+	 */
+	private static ByteBuffer slice(ByteBuffer buffer, int length)
+	{
+		if (length < 0 || length > buffer.remaining())
+		{
+			throw new IllegalArgumentException("Record length " + length + " exceeds log");
+		}
+		ByteBuffer slice = buffer.slice();
+		slice.limit(length);
+		buffer.position(buffer.position() + length);
+		return slice;
+	}
+
+	/**
+	 * Write the stat blocks of all creatures in full.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param creatures
+	 *          Stat blocks indexed by creature number.
+	 */
+	static void writeSnapshot(ByteBuffer buffer, Map<Integer, CreatureStatBlock> creatures)
+	{
+		VarInt.writeUnsigned(buffer, creatures.size());
+		for (Map.Entry<Integer, CreatureStatBlock> entry : creatures.entrySet())
+		{
+			VarInt.writeUnsigned(buffer, entry.getKey());
+			StatBlockCodec.encode(buffer, entry.getValue());
+		}
+	}
+
+	/**
+	 * Read the stat blocks of all creatures.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @param creatures
+	 *          Receives the stat blocks indexed by creature number. Cleared
+	 *          first.
+	 */
+	static void readSnapshot(ByteBuffer buffer, Map<Integer, CreatureStatBlock> creatures)
+	{
+		creatures.clear();
+		int count = VarInt.readUnsigned(buffer);
+		for (int index = 0; index < count; index++)
+		{
+			int creature = VarInt.readUnsigned(buffer);
+			creatures.put(creature, StatBlockCodec.decode(buffer));
+		}
+	}
+}
@@ -0,0 +1,409 @@
+/**
+ * CreatureStatBlock.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import java.util.Arrays;
+import java.util.Objects;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.ImmutableArmorClass;
+import de.martindreier.rpg.prd.rules.ImmutableResistances;
+import de.martindreier.rpg.prd.rules.Saves;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.rules.Skill;
+import de.martindreier.rpg.prd.util.PersistentIntVector;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Immutable version of a creature's statistics at one point in time, e.g. after
+ * one action in a combat round. Every change returns a new stat block which
+ * shares all unchanged parts with the previous one: changing a skill rank
+ * copies one path of the skill rank vector, changing an armor class modifier
+ * leaves attributes, skills, saves and resistances untouched. Keeping a stat
+ * block for every action is therefore cheap.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@Getter
+public final class CreatureStatBlock
+{
+	/**
+	 * Default attribute score.
+	 */
+	public static final int										DEFAULT_ATTRIBUTE_SCORE	= CreatureStatistics.DEFAULT_ATTRIBUTE_SCORE;
+
+	/**
+	 * Attribute scores of a new stat block, shared by all stat blocks until an
+	 * attribute is changed.
+	 */
+	private static final PersistentIntVector	DEFAULT_ATTRIBUTES;
+
+	/**
+	 * Skill ranks of a new stat block.
+	 */
+	private static final PersistentIntVector	NO_SKILL_RANKS					= PersistentIntVector
+					.zeros(Skill.values().length);
+
+	/**
+	 * Saves of a new stat block.
+	 */
+	private static final Saves.Snapshot				NO_SAVES								= new Saves.Snapshot(0, 0, 0);
+
+	static
+	{
+		int[] scores = new int[Attribute.values().length];
+		Arrays.fill(scores, DEFAULT_ATTRIBUTE_SCORE);
+		DEFAULT_ATTRIBUTES = PersistentIntVector.of(scores);
+	}
+
+	/**
+	 * Name of the creature.
+	 */
+	private final String								name;
+
+	/**
+	 * Attribute scores, indexed by attribute ordinal.
+	 */
+	private final PersistentIntVector		attributeScores;
+
+	/**
+	 * Skill ranks, indexed by skill ordinal.
+	 */
+	private final PersistentIntVector		skillRanks;
+
+	/**
+	 * Armor class.
+	 */
+	private final ImmutableArmorClass		armorClass;
+
+	/**
+	 * Saving throw bonuses.
+	 */
+	private final Saves.Snapshot				saves;
+
+	/**
+	 * Resistances.
+	 */
+	private final ImmutableResistances	resistances;
+
+	/**
+	 * Current hit points.
+	 */
+	private final int										hitPoints;
+
+	/**
+	 * Maximum hit points.
+	 */
+	private final int										maxHitPoints;
+
+	/**
+	 * Create a stat block.
+	 *
+	 * @param name
+	 *          Name of the creature.
+	 * @param attributeScores
+	 *          Attribute scores.
+	 * @param skillRanks
+	 *          Skill ranks.
+	 * @param armorClass
+	 *          Armor class.
+	 * @param saves
+	 *          Saving throw bonuses.
+	 * @param resistances
+	 *          Resistances.
+	 * @param hitPoints
+	 *          Current hit points.
+	 * @param maxHitPoints
+	 *          Maximum hit points.
+	 */
+	private CreatureStatBlock(String name, PersistentIntVector attributeScores, PersistentIntVector skillRanks,
+					ImmutableArmorClass armorClass, Saves.Snapshot saves, ImmutableResistances resistances, int hitPoints,
+					int maxHitPoints)
+	{
+		this.name = name;
+		this.attributeScores = attributeScores;
+		this.skillRanks = skillRanks;
+		this.armorClass = armorClass;
+		this.saves = saves;
+		this.resistances = resistances;
+		this.hitPoints = hitPoints;
+		this.maxHitPoints = maxHitPoints;
+	}
+
+	/**
+	 * Create a stat block with default attribute scores and no modifiers.
+	 *
+	 * @param name
+	 *          Name of the creature.
+	 * @param maxHitPoints
+	 *          Maximum hit points, also used as current hit points.
+	 * @return New stat block.
+	 */
+	public static CreatureStatBlock create(@NonNull String name, int maxHitPoints)
+	{
+		return new CreatureStatBlock(name, DEFAULT_ATTRIBUTES, NO_SKILL_RANKS, ImmutableArmorClass.EMPTY, NO_SAVES,
+						ImmutableResistances.NONE, maxHitPoints, maxHitPoints);
+	}
+
+	/**
+	 * Get an attribute score.
+	 *
+	 * @param attribute
+	 *          The attribute.
+	 * @return The attribute score.
+	 */
+	public int getAttributeScore(@NonNull Attribute attribute)
+	{
+		return attributeScores.get(attribute.ordinal());
+	}
+
+	/**
+	 * Get the ranks in a skill.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @return The number of ranks.
+	 */
+	public int getSkillRanks(@NonNull Skill skill)
+	{
+		return skillRanks.get(skill.ordinal());
+	}
+
+	/**
+	 * Get a saving throw bonus.
+	 *
+	 * @param type
+	 *          The type of saving throw.
+	 * @return The saving throw bonus.
+	 */
+	public int getSave(@NonNull SaveType type)
+	{
+		return saves.get(type);
+	}
+
+	/**
+	 * Change the name.
+	 *
+	 * @param newName
+	 *          New name of the creature.
+	 * @return New stat block, or this one if nothing changed.
+	 */
+	public CreatureStatBlock withName(@NonNull String newName)
+	{
+		if (newName.equals(name))
+		{
+			return this;
+		}
+		return new CreatureStatBlock(newName, attributeScores, skillRanks, armorClass, saves, resistances, hitPoints,
+						maxHitPoints);
+	}
+
+	/**
+	 * Change an attribute score.
+	 *
+	 * @param attribute
+	 *          The attribute.
+	 * @param score
+	 *          The new score.
+	 * @return New stat block, or this one if nothing changed.
+	 */
+	public CreatureStatBlock withAttributeScore(@NonNull Attribute attribute, int score)
+	{
+		return withParts(attributeScores.set(attribute.ordinal(), score), skillRanks, armorClass, saves, resistances);
+	}
+
+	/**
+	 * Change the ranks in a skill.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @param ranks
+	 *          The number of ranks. Must be zero or positive.
+	 * @return New stat block, or this one if nothing changed.
+	 */
+	public CreatureStatBlock withSkillRanks(@NonNull Skill skill, int ranks)
+	{
+		if (ranks < 0)
+		{
+			throw new IllegalArgumentException("Skill ranks must be zero or positive");
+		}
+		return withParts(attributeScores, skillRanks.set(skill.ordinal(), ranks), armorClass, saves, resistances);
+	}
+
+	/**
+	 * Replace the armor class.
+	 *
+	 * @param newArmorClass
+	 *          The new armor class.
+	 * @return New stat block, or this one if nothing changed.
+	 */
+	public CreatureStatBlock withArmorClass(@NonNull ImmutableArmorClass newArmorClass)
+	{
+		return withParts(attributeScores, skillRanks, newArmorClass, saves, resistances);
+	}
+
+	/**
+	 * Set a typed armor class modifier.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @param value
+	 *          New value of the modifier.
+	 * @return New stat block, or this one if nothing changed.
+	 * @see ImmutableArmorClass#withModifier(BonusType, int)
+	 */
+	public CreatureStatBlock withArmorClassModifier(@NonNull BonusType type, int value)
+	{
+		return withArmorClass(armorClass.withModifier(type, value));
+	}
+
+	/**
+	 * Change a saving throw bonus.
+	 *
+	 * @param type
+	 *          The type of saving throw.
+	 * @param value
+	 *          The new saving throw bonus.
+	 * @return New stat block, or this one if nothing changed.
+	 */
+	public CreatureStatBlock withSave(@NonNull SaveType type, int value)
+	{
+		return withParts(attributeScores, skillRanks, armorClass, saves.with(type, value), resistances);
+	}
+
+	/**
+	 * Replace all saving throw bonuses.
+	 *
+	 * @param newSaves
+	 *          The new saving throw bonuses.
+	 * @return New stat block, or this one if nothing changed.
+	 */
+	public CreatureStatBlock withSaves(@NonNull Saves.Snapshot newSaves)
+	{
+		return withParts(attributeScores, skillRanks, armorClass, newSaves.equals(saves) ? saves : newSaves,
+						resistances);
+	}
+
+	/**
+	 * Replace the resistances.
+	 *
+	 * @param newResistances
+	 *          The new resistances.
+	 * @return New stat block, or this one if nothing changed.
+	 */
+	public CreatureStatBlock withResistances(@NonNull ImmutableResistances newResistances)
+	{
+		return withParts(attributeScores, skillRanks, armorClass, saves, newResistances);
+	}
+
+	/**
+	 * Change the current hit points.
+	 *
+	 * @param newHitPoints
+	 *          The new current hit points. May be negative.
+	 * @return New stat block, or this one if nothing changed.
+	 */
+	public CreatureStatBlock withHitPoints(int newHitPoints)
+	{
+		if (newHitPoints == hitPoints)
+		{
+			return this;
+		}
+		return new CreatureStatBlock(name, attributeScores, skillRanks, armorClass, saves, resistances, newHitPoints,
+						maxHitPoints);
+	}
+
+	/**
+	 * Change the maximum hit points. The current hit points are not changed.
+	 *
+	 * @param newMaxHitPoints
+	 *          The new maximum hit points.
+	 * @return New stat block, or this one if nothing changed.
+	 */
+	public CreatureStatBlock withMaxHitPoints(int newMaxHitPoints)
+	{
+		if (newMaxHitPoints == maxHitPoints)
+		{
+			return this;
+		}
+		return new CreatureStatBlock(name, attributeScores, skillRanks, armorClass, saves, resistances, hitPoints,
+						newMaxHitPoints);
+	}
+
+	/**
+	 * Create a stat block with some parts replaced. Returns this stat block if
+	 * all parts are the same instances as before.
+	 *
+	 * @param newAttributeScores
+	 *          Attribute scores.
+	 * @param newSkillRanks
+	 *          Skill ranks.
+	 * @param newArmorClass
+	 *          Armor class.
+	 * @param newSaves
+	 *          Saving throw bonuses.
+	 * @param newResistances
+	 *          Resistances.
+	 * @return The stat block.
+	 */
+	private CreatureStatBlock withParts(PersistentIntVector newAttributeScores, PersistentIntVector newSkillRanks,
+					ImmutableArmorClass newArmorClass, Saves.Snapshot newSaves, ImmutableResistances newResistances)
+	{
+		if (newAttributeScores == attributeScores && newSkillRanks == skillRanks && newArmorClass == armorClass
+						&& newSaves == saves && newResistances == resistances)
+		{
+			return this;
+		}
+		return new CreatureStatBlock(name, newAttributeScores, newSkillRanks, newArmorClass, newSaves, newResistances,
+						hitPoints, maxHitPoints);
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (this == other)
+		{
+			return true;
+		}
+		if (!(other instanceof CreatureStatBlock))
+		{
+			return false;
+		}
+		CreatureStatBlock statBlock = (CreatureStatBlock) other;
+		return hitPoints == statBlock.hitPoints && maxHitPoints == statBlock.maxHitPoints
+						&& name.equals(statBlock.name) && attributeScores.equals(statBlock.attributeScores)
+						&& skillRanks.equals(statBlock.skillRanks) && armorClass.equals(statBlock.armorClass)
+						&& saves.equals(statBlock.saves) && resistances.equals(statBlock.resistances);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(name, attributeScores, skillRanks, armorClass, saves, resistances, hitPoints,
+						maxHitPoints);
+	}
+
+	@Override
+	public String toString()
+	{
+		return name + " (" + armorClass + ", HP " + hitPoints + "/" + maxHitPoints + ")";
+	}
+}
@@ -0,0 +1,376 @@
+/**
+ * CreatureStatistics.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import de.martindreier.rpg.prd.rules.ArmorClass;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.ModifierStack;
+import de.martindreier.rpg.prd.rules.Saves;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.rules.Skill;
+import de.martindreier.rpg.prd.rules.SkillRank;
+import lombok.NonNull;
+
+/**
+ * Statistics of a creature, connected as a graph from the attribute scores to
+ * the values derived from them. Attribute scores, base saves, skill ranks and
+ * the armor check penalty are set directly. Armor class, saves and skill
+ * totals are derived from them and only calculated again when they are read
+ * after one of their inputs has changed.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class CreatureStatistics
+{
+	/**
+	 * Default attribute score.
+	 */
+	public static final int				DEFAULT_ATTRIBUTE_SCORE	= 10;
+
+	/**
+	 * Attribute scores, indexed by attribute ordinal.
+	 */
+	private final StatNode[]			attributeScores;
+
+	/**
+	 * Attribute bonuses, indexed by attribute ordinal.
+	 */
+	private final StatNode[]			attributeBonuses;
+
+	/**
+	 * Armor class with all typed modifiers. The Dexterity modifier is maintained
+	 * by {@link #armorClassNode}.
+	 */
+	private final ArmorClass			armorClass							= new ArmorClass();
+
+	/**
+	 * Node keeping the Dexterity modifier of {@link #armorClass} up to date.
+	 */
+	private final StatNode				armorClassNode;
+
+	/**
+	 * Base saving throw bonuses, indexed by save type ordinal.
+	 */
+	private final StatNode[]			baseSaves;
+
+	/**
+	 * Additional modifiers to the saves, indexed by save type ordinal.
+	 */
+	private final ModifierStack[]	saveModifiers;
+
+	/**
+	 * Total saving throw bonuses, indexed by save type ordinal.
+	 */
+	private final StatNode[]			saves;
+
+	/**
+	 * Armor check penalty. Zero or negative.
+	 */
+	private final StatNode				armorCheckPenalty;
+
+	/**
+	 * Skill ranks, indexed by skill ordinal.
+	 */
+	private final StatNode[]			skillRanks;
+
+	/**
+	 * Additional modifiers to the skills, indexed by skill ordinal. Created on
+	 * first use.
+	 */
+	private final ModifierStack[]	skillModifiers;
+
+	/**
+	 * Total skill bonuses, indexed by skill ordinal.
+	 */
+	private final StatNode[]			skills;
+
+	/**
+	 * Create statistics with all attributes at the default score.
+	 */
+	public CreatureStatistics()
+	{
+		// Source and derived attribute nodes
+		Attribute[] attributes = Attribute.values();
+		attributeScores = new StatNode[attributes.length];
+		attributeBonuses = new StatNode[attributes.length];
+		for (Attribute attribute : attributes)
+		{
+			StatNode score = StatNode.source(DEFAULT_ATTRIBUTE_SCORE);
+			attributeScores[attribute.ordinal()] = score;
+			attributeBonuses[attribute.ordinal()] = StatNode.derived(() -> Attribute.calculateBonus(score.get()), score);
+		}
+
+		// Armor class
+		StatNode dexterityBonus = attributeBonuses[Attribute.DEXTERITY.ordinal()];
+		armorClassNode = StatNode.derived(() -> {
+			armorClass.updateModifier(Attribute.DEXTERITY, dexterityBonus.get());
+			return armorClass.getModifier(Attribute.DEXTERITY);
+		}, dexterityBonus);
+
+		// Saves
+		SaveType[] saveTypes = SaveType.values();
+		baseSaves = new StatNode[saveTypes.length];
+		saveModifiers = new ModifierStack[saveTypes.length];
+		saves = new StatNode[saveTypes.length];
+		for (SaveType saveType : saveTypes)
+		{
+			int index = saveType.ordinal();
+			StatNode base = StatNode.source(0);
+			StatNode bonus = attributeBonuses[saveType.getBaseAttribute().ordinal()];
+			ModifierStack modifiers = new ModifierStack();
+			StatNode save = StatNode.derived(() -> base.get() + bonus.get() + modifiers.getTotal(), base, bonus);
+			modifiers.addListener((type, oldValue, newValue) -> save.invalidate());
+			baseSaves[index] = base;
+			saveModifiers[index] = modifiers;
+			saves[index] = save;
+		}
+
+		// Skills
+		Skill[] allSkills = Skill.values();
+		armorCheckPenalty = StatNode.source(0);
+		skillRanks = new StatNode[allSkills.length];
+		skillModifiers = new ModifierStack[allSkills.length];
+		skills = new StatNode[allSkills.length];
+		for (Skill skill : allSkills)
+		{
+			int index = skill.ordinal();
+			StatNode ranks = StatNode.source(0);
+			StatNode bonus = attributeBonuses[skill.getBaseAttribute().ordinal()];
+			skillRanks[index] = ranks;
+			if (skill.isArmorCheckPenalty())
+			{
+				skills[index] = StatNode.derived(
+								() -> ranks.get() + bonus.get() + armorCheckPenalty.get() + getSkillModifierTotal(index), ranks,
+								bonus, armorCheckPenalty);
+			}
+			else
+			{
+				skills[index] = StatNode.derived(() -> ranks.get() + bonus.get() + getSkillModifierTotal(index), ranks,
+								bonus);
+			}
+		}
+	}
+
+	/**
+	 * Get an attribute score.
+	 *
+	 * @param attribute
+	 *          The attribute.
+	 * @return The attribute score.
+	 */
+	public int getAttributeScore(@NonNull Attribute attribute)
+	{
+		return attributeScores[attribute.ordinal()].get();
+	}
+
+	/**
+	 * Set an attribute score. All values derived from the attribute are
+	 * calculated again the next time they are read.
+	 *
+	 * @param attribute
+	 *          The attribute.
+	 * @param score
+	 *          The new score. Must be zero or positive.
+	 */
+	public void setAttributeScore(@NonNull Attribute attribute, int score)
+	{
+		if (score < 0)
+		{
+			throw new IllegalArgumentException("Attribute value must be zero or positive");
+		}
+		attributeScores[attribute.ordinal()].set(score);
+	}
+
+	/**
+	 * Get the bonus for an attribute.
+	 *
+	 * @param attribute
+	 *          The attribute.
+	 * @return The attribute bonus.
+	 * @see Attribute#calculateBonus(int)
+	 */
+	public int getAttributeBonus(@NonNull Attribute attribute)
+	{
+		return attributeBonuses[attribute.ordinal()].get();
+	}
+
+	/**
+	 * Get the armor class. Typed modifiers may be changed directly on the
+	 * returned object, the Dexterity modifier is maintained by the graph and
+	 * must not be set.
+	 *
+	 * @return The armor class.
+	 */
+	public ArmorClass getArmorClass()
+	{
+		armorClassNode.get();
+		return armorClass;
+	}
+
+	/**
+	 * Set the base saving throw bonus, e.g. from class levels.
+	 *
+	 * @param type
+	 *          The type of saving throw.
+	 * @param value
+	 *          The base bonus, without attribute bonus.
+	 */
+	public void setBaseSave(@NonNull SaveType type, int value)
+	{
+		baseSaves[type.ordinal()].set(value);
+	}
+
+	/**
+	 * Get the additional modifiers to a saving throw, e.g. from spells.
+	 *
+	 * @param type
+	 *          The type of saving throw.
+	 * @return Modifiers to the saving throw.
+	 */
+	public ModifierStack getSaveModifiers(@NonNull SaveType type)
+	{
+		return saveModifiers[type.ordinal()];
+	}
+
+	/**
+	 * Get the total bonus for a saving throw: base bonus, attribute bonus and
+	 * additional modifiers.
+	 *
+	 * @param type
+	 *          The type of saving throw.
+	 * @return The total saving throw bonus.
+	 */
+	public int getSave(@NonNull SaveType type)
+	{
+		return saves[type.ordinal()].get();
+	}
+
+	/**
+	 * Get all saving throw bonuses.
+	 *
+	 * @return A copy of the current saving throw bonuses.
+	 */
+	public Saves getSaves()
+	{
+		return new Saves(getSave(SaveType.FORTITUDE), getSave(SaveType.REFLEX), getSave(SaveType.WILL));
+	}
+
+	/**
+	 * Set the armor check penalty from armor and shield.
+	 *
+	 * @param penalty
+	 *          The penalty. Must be zero or negative.
+	 */
+	public void setArmorCheckPenalty(int penalty)
+	{
+		if (penalty > 0)
+		{
+			throw new IllegalArgumentException("Armor check penalty must be zero or negative");
+		}
+		armorCheckPenalty.set(penalty);
+	}
+
+	/**
+	 * Set the ranks in a skill.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @param ranks
+	 *          The number of ranks. Must be zero or positive.
+	 */
+	public void setSkillRanks(@NonNull Skill skill, int ranks)
+	{
+		if (ranks < 0)
+		{
+			throw new IllegalArgumentException("Skill ranks must be zero or positive");
+		}
+		skillRanks[skill.ordinal()].set(ranks);
+	}
+
+	/**
+	 * Get the additional modifiers to a skill, e.g. racial bonuses.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @return Modifiers to the skill.
+	 */
+	public ModifierStack getSkillModifiers(@NonNull Skill skill)
+	{
+		int index = skill.ordinal();
+		if (skillModifiers[index] == null)
+		{
+			ModifierStack modifiers = new ModifierStack();
+			StatNode total = skills[index];
+			modifiers.addListener((type, oldValue, newValue) -> total.invalidate());
+			skillModifiers[index] = modifiers;
+			total.invalidate();
+		}
+		return skillModifiers[index];
+	}
+
+	/**
+	 * Get the total bonus for a skill: ranks, attribute bonus, armor check
+	 * penalty if applicable and additional modifiers.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @return The total skill bonus.
+	 */
+	public int getSkill(@NonNull Skill skill)
+	{
+		return skills[skill.ordinal()].get();
+	}
+
+	/**
+	 * Get the skill total as a skill rank.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @return Skill rank with the total skill bonus.
+	 */
+	public SkillRank getSkillRank(@NonNull Skill skill)
+	{
+		return new SkillRank(skill, null, getSkill(skill));
+	}
+
+	/**
+	 * Get the total of additional skill modifiers.
+	 *
+	 * @param index
+	 *          Skill ordinal.
+	 * @return The total of the modifiers, or <code>0</code> if there are none.
+	 */
+	private int getSkillModifierTotal(int index)
+	{
+		return skillModifiers[index] == null ? 0 : skillModifiers[index].getTotal();
+	}
+
+	/**
+	 * Get the node calculating a skill total. Used for tests.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @return The skill node.
+	 */
+	StatNode getSkillNode(Skill skill)
+	{
+		return skills[skill.ordinal()];
+	}
+}
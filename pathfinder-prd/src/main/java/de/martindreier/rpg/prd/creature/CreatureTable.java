@@ -0,0 +1,842 @@
+/**
+ * CreatureTable.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import de.martindreier.rpg.prd.rules.ArmorClass;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.EnergyType;
+import de.martindreier.rpg.prd.rules.Resistances;
+import de.martindreier.rpg.prd.rules.Saves;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Statistics of many creatures, stored column by column in primitive arrays.
+ * Each creature is a row, identified by its index. Operations over a range of
+ * rows only read the columns they need, which keeps large battles compact in
+ * memory. {@link Row} gives access to a single creature.
+ * <p>
+ * Armor class is stored as one value per bonus type (all dodge bonuses
+ * combined) plus the Dexterity modifier. Total, touch and flat-footed armor
+ * class are kept up to date as in {@link ArmorClass}.
+ * <p>
+ * The table is not thread-safe. Bulk operations on disjoint row ranges may run
+ * in parallel.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class CreatureTable
+{
+	/**
+	 * View of a single row of the table. Holds no data of its own.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	public class Row
+	{
+		/**
+		 * Row index.
+		 */
+		@Getter
+		private final int index;
+
+		/**
+		 * Create a view of a row.
+		 *
+		 * @param index
+		 *          Row index.
+		 */
+		private Row(int index)
+		{
+			this.index = index;
+		}
+
+		/**
+		 * @return The total armor class.
+		 * @see CreatureTable#getArmorClass(int)
+		 */
+		public int getArmorClass()
+		{
+			return CreatureTable.this.getArmorClass(index);
+		}
+
+		/**
+		 * @param type
+		 *          Bonus type.
+		 * @param value
+		 *          New modifier value.
+		 * @see CreatureTable#setArmorClassModifier(int, BonusType, int)
+		 */
+		public void setArmorClassModifier(@NonNull BonusType type, int value)
+		{
+			CreatureTable.this.setArmorClassModifier(index, type, value);
+		}
+
+		/**
+		 * @param type
+		 *          The type of saving throw.
+		 * @return The saving throw bonus.
+		 * @see CreatureTable#getSave(int, SaveType)
+		 */
+		public int getSave(@NonNull SaveType type)
+		{
+			return CreatureTable.this.getSave(index, type);
+		}
+
+		/**
+		 * @param type
+		 *          The type of saving throw.
+		 * @param value
+		 *          The new saving throw bonus.
+		 * @see CreatureTable#setSave(int, SaveType, int)
+		 */
+		public void setSave(@NonNull SaveType type, int value)
+		{
+			CreatureTable.this.setSave(index, type, value);
+		}
+
+		/**
+		 * @param type
+		 *          The energy type.
+		 * @return The energy resistance.
+		 * @see CreatureTable#getEnergyResistance(int, EnergyType)
+		 */
+		public int getEnergyResistance(@NonNull EnergyType type)
+		{
+			return CreatureTable.this.getEnergyResistance(index, type);
+		}
+
+		/**
+		 * @param type
+		 *          The energy type.
+		 * @param value
+		 *          The new energy resistance.
+		 * @see CreatureTable#setEnergyResistance(int, EnergyType, int)
+		 */
+		public void setEnergyResistance(@NonNull EnergyType type, int value)
+		{
+			CreatureTable.this.setEnergyResistance(index, type, value);
+		}
+
+		/**
+		 * @param type
+		 *          The energy type.
+		 * @return <code>true</code> if the creature is vulnerable.
+		 * @see CreatureTable#isVulnerable(int, EnergyType)
+		 */
+		public boolean isVulnerable(@NonNull EnergyType type)
+		{
+			return CreatureTable.this.isVulnerable(index, type);
+		}
+
+		/**
+		 * @return The armor class of this creature.
+		 * @see CreatureTable#toArmorClass(int)
+		 */
+		public ArmorClass toArmorClass()
+		{
+			return CreatureTable.this.toArmorClass(index);
+		}
+
+		/**
+		 * @return The saves of this creature.
+		 * @see CreatureTable#toSaves(int)
+		 */
+		public Saves toSaves()
+		{
+			return CreatureTable.this.toSaves(index);
+		}
+
+		/**
+		 * @return The resistances of this creature.
+		 * @see CreatureTable#toResistances(int)
+		 */
+		public Resistances toResistances()
+		{
+			return CreatureTable.this.toResistances(index);
+		}
+	}
+
+	/**
+	 * Bonus types which do not apply to touch attacks, as bit mask over the bonus
+	 * type ordinals.
+	 */
+	private static final int	TOUCH_EXCLUDED		= (1 << BonusType.ARMOR.ordinal())
+					| (1 << BonusType.SHIELD.ordinal()) | (1 << BonusType.NATURAL_ARMOR.ordinal());
+
+	/**
+	 * Initial capacity if none is given.
+	 */
+	private static final int	DEFAULT_CAPACITY	= 64;
+
+	/**
+	 * Number of rows.
+	 */
+	@Getter
+	private int								size							= 0;
+
+	/**
+	 * Typed armor class modifiers, indexed by bonus type ordinal and row.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private final int[][]			armorClassModifiers;
+
+	/**
+	 * Dexterity modifier to armor class, indexed by row.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private int[]							dexterityModifiers;
+
+	/**
+	 * Whether a Dexterity modifier is set, indexed by row. Copied to
+	 * {@link ArmorClass} objects, which only list modifiers that were set.
+	 */
+	private boolean[]					dexteritySet;
+
+	/**
+	 * Total armor class, indexed by row.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private int[]							armorClass;
+
+	/**
+	 * Touch armor class, indexed by row.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private int[]							touchArmorClass;
+
+	/**
+	 * Flat-footed armor class, indexed by row.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private int[]							flatFootedArmorClass;
+
+	/**
+	 * Saving throw bonuses, indexed by save type ordinal and row.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private final int[][]			saves;
+
+	/**
+	 * Energy resistances, indexed by energy type ordinal and row.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private final int[][]			energyResistances;
+
+	/**
+	 * Spell resistance, indexed by row.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private int[]							spellResistance;
+
+	/**
+	 * Vulnerabilities as bit mask over the energy type ordinals, indexed by row.
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private int[]							vulnerabilities;
+
+	/**
+	 * Create an empty table.
+	 */
+	public CreatureTable()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create an empty table.
+	 *
+	 * @param capacity
+	 *          Number of rows for which space is reserved.
+	 */
+	public CreatureTable(int capacity)
+	{
+		if (capacity < 1)
+		{
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		armorClassModifiers = new int[BonusType.values().length][capacity];
+		dexterityModifiers = new int[capacity];
+		dexteritySet = new boolean[capacity];
+		armorClass = new int[capacity];
+		touchArmorClass = new int[capacity];
+		flatFootedArmorClass = new int[capacity];
+		saves = new int[SaveType.values().length][capacity];
+		energyResistances = new int[EnergyType.values().length][capacity];
+		spellResistance = new int[capacity];
+		vulnerabilities = new int[capacity];
+	}
+
+	/**
+	 * Add a new creature without modifiers: armor class 10, all saves and
+	 * resistances zero.
+	 *
+	 * @return Index of the new row.
+	 */
+	public int add()
+	{
+		if (size == armorClass.length)
+		{
+			grow();
+		}
+		int row = size++;
+		armorClass[row] = ArmorClass.BASE_VALUE;
+		touchArmorClass[row] = ArmorClass.BASE_VALUE;
+		flatFootedArmorClass[row] = ArmorClass.BASE_VALUE;
+		return row;
+	}
+
+	/**
+	 * Add a new creature with the given statistics.
+	 *
+	 * @param armorClass
+	 *          Armor class of the creature.
+	 * @param saves
+	 *          Saves of the creature.
+	 * @param resistances
+	 *          Resistances of the creature.
+	 * @return Index of the new row.
+	 */
+	public int add(@NonNull ArmorClass armorClass, @NonNull Saves saves, @NonNull Resistances resistances)
+	{
+		int row = add();
+		for (BonusType type : BonusType.values())
+		{
+			setArmorClassModifier(row, type, armorClass.getModifier(type));
+		}
+		if (armorClass.hasModifier(Attribute.DEXTERITY))
+		{
+			setDexterityModifier(row, armorClass.getModifier(Attribute.DEXTERITY));
+		}
+		Saves.Snapshot saveValues = saves.getSnapshot();
+		for (SaveType type : SaveType.values())
+		{
+			this.saves[type.ordinal()][row] = saveValues.get(type);
+		}
+		int[] resistanceValues = resistances.getEnergyResistanceSnapshot();
+		for (int type = 0; type < resistanceValues.length; type++)
+		{
+			energyResistances[type][row] = resistanceValues[type];
+		}
+		spellResistance[row] = resistances.getSpellResistance().get();
+		vulnerabilities[row] = resistances.getVulnerabilityMask();
+		return row;
+	}
+
+	/**
+	 * Get a view of a single row.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @return View of the row.
+	 */
+	public Row getRow(int row)
+	{
+		checkRow(row);
+		return new Row(row);
+	}
+
+	/**
+	 * Get the total armor class of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @return The total armor class.
+	 */
+	public int getArmorClass(int row)
+	{
+		checkRow(row);
+		return armorClass[row];
+	}
+
+	/**
+	 * Get the touch armor class of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @return The touch armor class.
+	 */
+	public int getTouchArmorClass(int row)
+	{
+		checkRow(row);
+		return touchArmorClass[row];
+	}
+
+	/**
+	 * Get the flat-footed armor class of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @return The flat-footed armor class.
+	 */
+	public int getFlatFootedArmorClass(int row)
+	{
+		checkRow(row);
+		return flatFootedArmorClass[row];
+	}
+
+	/**
+	 * Set a typed armor class modifier of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @param type
+	 *          Bonus type. For {@link BonusType#DODGE} the sum of all dodge
+	 *          bonuses.
+	 * @param value
+	 *          New modifier value.
+	 */
+	public void setArmorClassModifier(int row, @NonNull BonusType type, int value)
+	{
+		checkRow(row);
+		int[] column = armorClassModifiers[type.ordinal()];
+		adjustArmorClass(row, type, value - column[row]);
+		column[row] = value;
+	}
+
+	/**
+	 * Set the Dexterity modifier to armor class of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @param value
+	 *          New modifier value.
+	 */
+	public void setDexterityModifier(int row, int value)
+	{
+		checkRow(row);
+		int delta = value - dexterityModifiers[row];
+		armorClass[row] += delta;
+		touchArmorClass[row] += delta;
+		flatFootedArmorClass[row] += Math.min(value, 0) - Math.min(dexterityModifiers[row], 0);
+		dexterityModifiers[row] = value;
+		dexteritySet[row] = true;
+	}
+
+	/**
+	 * Add to a typed armor class modifier of all creatures in a range, e.g. for
+	 * a spell affecting a group.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @param delta
+	 *          Amount to add to the modifier.
+	 * @param from
+	 *          First row, inclusive.
+	 * @param to
+	 *          Last row, exclusive.
+	 */
+	public void addArmorClassModifier(@NonNull BonusType type, int delta, int from, int to)
+	{
+		checkRange(from, to);
+		int[] column = armorClassModifiers[type.ordinal()];
+		for (int row = from; row < to; row++)
+		{
+			column[row] += delta;
+			adjustArmorClass(row, type, delta);
+		}
+	}
+
+	/**
+	 * Get a saving throw bonus of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @param type
+	 *          The type of saving throw.
+	 * @return The saving throw bonus.
+	 */
+	public int getSave(int row, @NonNull SaveType type)
+	{
+		checkRow(row);
+		return saves[type.ordinal()][row];
+	}
+
+	/**
+	 * Set a saving throw bonus of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @param type
+	 *          The type of saving throw.
+	 * @param value
+	 *          The new saving throw bonus.
+	 */
+	public void setSave(int row, @NonNull SaveType type, int value)
+	{
+		checkRow(row);
+		saves[type.ordinal()][row] = value;
+	}
+
+	/**
+	 * Add to a saving throw bonus of all creatures in a range.
+	 *
+	 * @param type
+	 *          The type of saving throw.
+	 * @param delta
+	 *          Amount to add to the saving throw bonus.
+	 * @param from
+	 *          First row, inclusive.
+	 * @param to
+	 *          Last row, exclusive.
+	 */
+	public void addSave(@NonNull SaveType type, int delta, int from, int to)
+	{
+		checkRange(from, to);
+		int[] column = saves[type.ordinal()];
+		for (int row = from; row < to; row++)
+		{
+			column[row] += delta;
+		}
+	}
+
+	/**
+	 * Get an energy resistance of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @param type
+	 *          The energy type.
+	 * @return The energy resistance.
+	 */
+	public int getEnergyResistance(int row, @NonNull EnergyType type)
+	{
+		checkRow(row);
+		return energyResistances[type.ordinal()][row];
+	}
+
+	/**
+	 * Set an energy resistance of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @param type
+	 *          The energy type.
+	 * @param value
+	 *          The new energy resistance. Must be between 0 and
+	 *          {@link Resistances#MAX_ENERGY_RESISTANCE}.
+	 */
+	public void setEnergyResistance(int row, @NonNull EnergyType type, int value)
+	{
+		checkRow(row);
+		if (value < 0)
+		{
+			throw new IllegalArgumentException("Resistance value must be 0 or positive");
+		}
+		else if (value > Resistances.MAX_ENERGY_RESISTANCE)
+		{
+			throw new IllegalArgumentException("Resistance value must not exceed " + Resistances.MAX_ENERGY_RESISTANCE);
+		}
+		energyResistances[type.ordinal()][row] = value;
+	}
+
+	/**
+	 * Get the spell resistance of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @return The spell resistance.
+	 */
+	public int getSpellResistance(int row)
+	{
+		checkRow(row);
+		return spellResistance[row];
+	}
+
+	/**
+	 * Set the spell resistance of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @param value
+	 *          The new spell resistance.
+	 */
+	public void setSpellResistance(int row, int value)
+	{
+		checkRow(row);
+		spellResistance[row] = value;
+	}
+
+	/**
+	 * Check if a creature is vulnerable to an energy type.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @param type
+	 *          The energy type.
+	 * @return <code>true</code> iff the creature is vulnerable.
+	 */
+	public boolean isVulnerable(int row, @NonNull EnergyType type)
+	{
+		checkRow(row);
+		return (vulnerabilities[row] & (1 << type.ordinal())) != 0;
+	}
+
+	/**
+	 * Set or clear a vulnerability of a creature.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @param type
+	 *          The energy type.
+	 * @param vulnerable
+	 *          <code>true</code> to set the vulnerability, <code>false</code>
+	 *          to clear it.
+	 */
+	public void setVulnerable(int row, @NonNull EnergyType type, boolean vulnerable)
+	{
+		checkRow(row);
+		if (vulnerable)
+		{
+			vulnerabilities[row] |= 1 << type.ordinal();
+		}
+		else
+		{
+			vulnerabilities[row] &= ~(1 << type.ordinal());
+		}
+	}
+
+	/**
+	 * Count the creatures in a range which are hit by an attack.
+	 *
+	 * @param attackTotal
+	 *          Total attack roll.
+	 * @param touch
+	 *          <code>true</code> for touch attacks.
+	 * @param from
+	 *          First row, inclusive.
+	 * @param to
+	 *          Last row, exclusive.
+	 * @return Number of creatures whose armor class is not higher than the
+	 *         attack roll.
+	 */
+	public int countHits(int attackTotal, boolean touch, int from, int to)
+	{
+		checkRange(from, to);
+		int[] column = touch ? touchArmorClass : armorClass;
+		int hits = 0;
+		for (int row = from; row < to; row++)
+		{
+			if (column[row] <= attackTotal)
+			{
+				hits++;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Count the creatures in a range which succeed on a saving throw with a
+	 * fixed roll.
+	 *
+	 * @param type
+	 *          The type of saving throw.
+	 * @param roll
+	 *          The die roll, without bonus.
+	 * @param difficulty
+	 *          Difficulty class of the saving throw.
+	 * @param from
+	 *          First row, inclusive.
+	 * @param to
+	 *          Last row, exclusive.
+	 * @return Number of creatures which succeed.
+	 */
+	public int countSaves(@NonNull SaveType type, int roll, int difficulty, int from, int to)
+	{
+		checkRange(from, to);
+		int[] column = saves[type.ordinal()];
+		int successes = 0;
+		for (int row = from; row < to; row++)
+		{
+			if (roll + column[row] >= difficulty)
+			{
+				successes++;
+			}
+		}
+		return successes;
+	}
+
+	/**
+	 * Run an operation for each row in a range.
+	 *
+	 * @param from
+	 *          First row, inclusive.
+	 * @param to
+	 *          Last row, exclusive.
+	 * @param operation
+	 *          Operation receiving the row index.
+	 */
+	public void forEach(int from, int to, @NonNull IntConsumer operation)
+	{
+		checkRange(from, to);
+		for (int row = from; row < to; row++)
+		{
+			operation.accept(row);
+		}
+	}
+
+	/**
+	 * Copy the armor class of a creature into an {@link ArmorClass} object.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @return New armor class object.
+	 */
+	public ArmorClass toArmorClass(int row)
+	{
+		checkRow(row);
+		ArmorClass result = new ArmorClass();
+		if (dexteritySet[row])
+		{
+			result.updateModifier(Attribute.DEXTERITY, dexterityModifiers[row]);
+		}
+		for (BonusType type : BonusType.values())
+		{
+			int value = armorClassModifiers[type.ordinal()][row];
+			if (value != 0)
+			{
+				result.updateModifier(type, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Copy the saves of a creature into a {@link Saves} object.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @return New saves object.
+	 */
+	public Saves toSaves(int row)
+	{
+		checkRow(row);
+		return new Saves(saves[SaveType.FORTITUDE.ordinal()][row], saves[SaveType.REFLEX.ordinal()][row],
+						saves[SaveType.WILL.ordinal()][row]);
+	}
+
+	/**
+	 * Copy the resistances of a creature into a {@link Resistances} object.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @return New resistances object.
+	 */
+	public Resistances toResistances(int row)
+	{
+		checkRow(row);
+		Resistances result = new Resistances();
+		for (EnergyType type : EnergyType.values())
+		{
+			result.setEnergyResistance(type, energyResistances[type.ordinal()][row]);
+			if (isVulnerable(row, type))
+			{
+				result.addVulnerability(type);
+			}
+		}
+		result.getSpellResistance().set(spellResistance[row]);
+		return result;
+	}
+
+	/**
+	 * Apply a change of a typed armor class modifier to the cached totals.
+	 *
+	 * @param row
+	 *          Row index.
+	 * @param type
+	 *          Bonus type.
+	 * @param delta
+	 *          Change of the modifier.
+	 */
+	private void adjustArmorClass(int row, BonusType type, int delta)
+	{
+		armorClass[row] += delta;
+		if ((TOUCH_EXCLUDED & (1 << type.ordinal())) == 0)
+		{
+			touchArmorClass[row] += delta;
+		}
+		if (type != BonusType.DODGE)
+		{
+			flatFootedArmorClass[row] += delta;
+		}
+	}
+
+	/**
+	 * Double the capacity of all columns.
+	 */
+	private void grow()
+	{
+		int capacity = armorClass.length * 2;
+		for (int type = 0; type < armorClassModifiers.length; type++)
+		{
+			armorClassModifiers[type] = Arrays.copyOf(armorClassModifiers[type], capacity);
+		}
+		dexterityModifiers = Arrays.copyOf(dexterityModifiers, capacity);
+		dexteritySet = Arrays.copyOf(dexteritySet, capacity);
+		armorClass = Arrays.copyOf(armorClass, capacity);
+		touchArmorClass = Arrays.copyOf(touchArmorClass, capacity);
+		flatFootedArmorClass = Arrays.copyOf(flatFootedArmorClass, capacity);
+		for (int type = 0; type < saves.length; type++)
+		{
+			saves[type] = Arrays.copyOf(saves[type], capacity);
+		}
+		for (int type = 0; type < energyResistances.length; type++)
+		{
+			energyResistances[type] = Arrays.copyOf(energyResistances[type], capacity);
+		}
+		spellResistance = Arrays.copyOf(spellResistance, capacity);
+		vulnerabilities = Arrays.copyOf(vulnerabilities, capacity);
+	}
+
+	/**
+	 * Check that a row exists.
+	 *
+	 * @param row
+	 *          Row index.
+	 */
+	private void checkRow(int row)
+	{
+		if (row < 0 || row >= size)
+		{
+			throw new IndexOutOfBoundsException("No row " + row + " in table of size " + size);
+		}
+	}
+
+	/**
+	 * Check that a range of rows exists.
+	 *
+	 * @param from
+	 *          First row, inclusive.
+	 * @param to
+	 *          Last row, exclusive.
+	 */
+	private void checkRange(int from, int to)
+	{
+		if (from < 0 || to > size || from > to)
+		{
+			throw new IndexOutOfBoundsException("Invalid range " + from + " to " + to + " in table of size " + size);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * DamagePacket.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import de.martindreier.rpg.prd.rules.EnergyType;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Energy damage dealt by an effect, e.g. a fireball, together with the saving
+ * throw allowed against it.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@Getter
+public class DamagePacket
+{
+	/**
+	 * Energy type of the damage.
+	 */
+	private final EnergyType	energyType;
+
+	/**
+	 * Rolled amount of damage before saves and resistances.
+	 */
+	private final int					amount;
+
+	/**
+	 * Type of saving throw allowed. <code>null</code> if there is no save.
+	 */
+	private final SaveType		saveType;
+
+	/**
+	 * Difficulty class of the saving throw.
+	 */
+	private final int					difficulty;
+
+	/**
+	 * <code>true</code> if a successful save halves the damage,
+	 * <code>false</code> if it negates the damage.
+	 */
+	private final boolean			halfOnSave;
+
+	/**
+	 * Create damage which allows a saving throw for half damage.
+	 *
+	 * @param energyType
+	 *          Energy type of the damage.
+	 * @param amount
+	 *          Rolled amount of damage. Must be 0 or positive.
+	 * @param saveType
+	 *          Type of saving throw allowed. <code>null</code> if there is no
+	 *          save.
+	 * @param difficulty
+	 *          Difficulty class of the saving throw.
+	 */
+	public DamagePacket(@NonNull EnergyType energyType, int amount, SaveType saveType, int difficulty)
+	{
+		this(energyType, amount, saveType, difficulty, true);
+	}
+
+	/**
+	 * Create damage.
+	 *
+	 * @param energyType
+	 *          Energy type of the damage.
+	 * @param amount
+	 *          Rolled amount of damage. Must be 0 or positive.
+	 * @param saveType
+	 *          Type of saving throw allowed. <code>null</code> if there is no
+	 *          save.
+	 * @param difficulty
+	 *          Difficulty class of the saving throw.
+	 * @param halfOnSave
+	 *          <code>true</code> if a successful save halves the damage,
+	 *          <code>false</code> if it negates the damage.
+	 */
+	public DamagePacket(@NonNull EnergyType energyType, int amount, SaveType saveType, int difficulty,
+					boolean halfOnSave)
+	{
+		if (amount < 0)
+		{
+			throw new IllegalArgumentException("Damage must be 0 or positive");
+		}
+		this.energyType = energyType;
+		this.amount = amount;
+		this.saveType = saveType;
+		this.difficulty = difficulty;
+		this.halfOnSave = halfOnSave;
+	}
+}
@@ -0,0 +1,859 @@
+/**
+ * StatBlockCodec.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.EnergyType;
+import de.martindreier.rpg.prd.rules.ImmutableArmorClass;
+import de.martindreier.rpg.prd.rules.ImmutableResistances;
+import de.martindreier.rpg.prd.rules.Saves;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.rules.Skill;
+import de.martindreier.rpg.prd.util.VarInt;
+import lombok.NonNull;
+
+/**
+ * Compact binary encoding of creature stat blocks, for sending them to clients
+ * and for snapshots.
+ * <p>
+ * A stat block is encoded as a delta against a base version the receiver
+ * already knows; a full stat block is a delta against
+ * {@link #EMPTY_STAT_BLOCK}. The delta starts with a bit mask of the parts
+ * which changed. Each part then lists its changes with bit masks over
+ * {@link Attribute}, {@link Skill}, {@link BonusType}, {@link SaveType} and
+ * {@link EnergyType} ordinals, followed by the changed values. All numbers are
+ * variable length integers, so a single changed modifier takes about four
+ * bytes.
+ * <p>
+ * Frames combine the deltas of many creatures, so a server can encode all
+ * changes of a round once and send the same frame to every client.
+ * <p>
+ * All methods throw a {@link java.nio.BufferOverflowException} if the target
+ * buffer is too small, and an {@link IllegalArgumentException} if the source
+ * does not hold a valid encoding.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class StatBlockCodec
+{
+	/**
+	 * Base version for full stat blocks: no name, no hit points, default
+	 * attribute scores and no modifiers.
+	 */
+	public static final CreatureStatBlock	EMPTY_STAT_BLOCK	= CreatureStatBlock.create("", 0);
+
+	/**
+	 * Part flag: name changed.
+	 */
+	private static final int							NAME							= 1;
+
+	/**
+	 * Part flag: hit points changed.
+	 */
+	private static final int							HIT_POINTS				= 1 << 1;
+
+	/**
+	 * Part flag: maximum hit points changed.
+	 */
+	private static final int							MAX_HIT_POINTS		= 1 << 2;
+
+	/**
+	 * Part flag: attribute scores changed.
+	 */
+	private static final int							ATTRIBUTES				= 1 << 3;
+
+	/**
+	 * Part flag: skill ranks changed.
+	 */
+	private static final int							SKILLS						= 1 << 4;
+
+	/**
+	 * Part flag: armor class changed.
+	 */
+	private static final int							ARMOR_CLASS				= 1 << 5;
+
+	/**
+	 * Part flag: saves changed.
+	 */
+	private static final int							SAVES							= 1 << 6;
+
+	/**
+	 * Part flag: resistances changed.
+	 */
+	private static final int							RESISTANCES				= 1 << 7;
+
+	/**
+	 * Armor class flag: attribute modifiers changed.
+	 */
+	private static final int							AC_ATTRIBUTES			= 1;
+
+	/**
+	 * Armor class flag: typed modifiers changed.
+	 */
+	private static final int							AC_TYPES					= 1 << 1;
+
+	/**
+	 * Armor class flag: dodge bonuses changed.
+	 */
+	private static final int							AC_DODGE					= 1 << 2;
+
+	/**
+	 * Resistance flag: energy resistances changed.
+	 */
+	private static final int							ENERGY						= 1;
+
+	/**
+	 * Resistance flag: vulnerabilities changed.
+	 */
+	private static final int							VULNERABILITIES		= 1 << 1;
+
+	/**
+	 * Resistance flag: spell resistance changed.
+	 */
+	private static final int							SPELL_RESISTANCE	= 1 << 2;
+
+	/**
+	 * Resistance flag: turn resistance changed.
+	 */
+	private static final int							TURN_RESISTANCE		= 1 << 3;
+
+	/**
+	 * Resistance flag: damage reduction changed.
+	 */
+	private static final int							DAMAGE_REDUCTION	= 1 << 4;
+
+	/**
+	 * Frame entry kind: delta against the known stat block.
+	 */
+	private static final int							DELTA_ENTRY				= 0;
+
+	/**
+	 * Frame entry kind: full stat block.
+	 */
+	private static final int							FULL_ENTRY				= 1;
+
+	/**
+	 * Frame entry kind: creature removed.
+	 */
+	private static final int							REMOVED_ENTRY			= 2;
+
+	/**
+	 * Cached attributes.
+	 */
+	private static final Attribute[]			ATTRIBUTE_VALUES	= Attribute.values();
+
+	/**
+	 * Cached skills.
+	 */
+	private static final Skill[]					SKILL_VALUES			= Skill.values();
+
+	/**
+	 * Cached bonus types.
+	 */
+	private static final BonusType[]			BONUS_TYPE_VALUES	= BonusType.values();
+
+	/**
+	 * Cached save types.
+	 */
+	private static final SaveType[]				SAVE_TYPE_VALUES	= SaveType.values();
+
+	/**
+	 * Cached energy types.
+	 */
+	private static final EnergyType[]			ENERGY_VALUES			= EnergyType.values();
+
+	static
+	{
+		if (SKILL_VALUES.length > Long.SIZE || BONUS_TYPE_VALUES.length > Integer.SIZE)
+		{
+			throw new IllegalStateException("Skills or bonus types do not fit into presence mask");
+		}
+	}
+
+	/**
+	 * Utility class, no instances.
+	 */
+	private StatBlockCodec()
+	{}
+
+	/**
+	 * Write a complete stat block.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param statBlock
+	 *          The stat block.
+	 */
+	public static void encode(@NonNull ByteBuffer buffer, @NonNull CreatureStatBlock statBlock)
+	{
+		encodeDelta(buffer, EMPTY_STAT_BLOCK, statBlock);
+	}
+
+	/**
+	 * Read a complete stat block.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @return The stat block.
+	 */
+	public static CreatureStatBlock decode(@NonNull ByteBuffer buffer)
+	{
+		return decodeDelta(buffer, EMPTY_STAT_BLOCK);
+	}
+
+	/**
+	 * Write the changes from a base version to a new version of a stat block.
+	 * Parts which are the same instance in both versions are skipped without
+	 * comparing them, which is the common case for stat blocks derived from
+	 * each other.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param base
+	 *          Base version known to the receiver.
+	 * @param target
+	 *          New version.
+	 */
+	public static void encodeDelta(@NonNull ByteBuffer buffer, @NonNull CreatureStatBlock base,
+					@NonNull CreatureStatBlock target)
+	{
+		// Step 1: Find changed parts
+		int parts = 0;
+		if (!base.getName().equals(target.getName()))
+		{
+			parts |= NAME;
+		}
+		if (base.getHitPoints() != target.getHitPoints())
+		{
+			parts |= HIT_POINTS;
+		}
+		if (base.getMaxHitPoints() != target.getMaxHitPoints())
+		{
+			parts |= MAX_HIT_POINTS;
+		}
+		if (!base.getAttributeScores().equals(target.getAttributeScores()))
+		{
+			parts |= ATTRIBUTES;
+		}
+		if (!base.getSkillRanks().equals(target.getSkillRanks()))
+		{
+			parts |= SKILLS;
+		}
+		if (!base.getArmorClass().equals(target.getArmorClass()))
+		{
+			parts |= ARMOR_CLASS;
+		}
+		if (!base.getSaves().equals(target.getSaves()))
+		{
+			parts |= SAVES;
+		}
+		if (!base.getResistances().equals(target.getResistances()))
+		{
+			parts |= RESISTANCES;
+		}
+		// Step 2: Write changed parts
+		VarInt.writeUnsigned(buffer, parts);
+		if ((parts & NAME) != 0)
+		{
+			writeString(buffer, target.getName());
+		}
+		if ((parts & HIT_POINTS) != 0)
+		{
+			VarInt.writeSigned(buffer, target.getHitPoints());
+		}
+		if ((parts & MAX_HIT_POINTS) != 0)
+		{
+			VarInt.writeSigned(buffer, target.getMaxHitPoints());
+		}
+		if ((parts & ATTRIBUTES) != 0)
+		{
+			int changed = 0;
+			for (Attribute attribute : ATTRIBUTE_VALUES)
+			{
+				if (base.getAttributeScore(attribute) != target.getAttributeScore(attribute))
+				{
+					changed |= 1 << attribute.ordinal();
+				}
+			}
+			VarInt.writeUnsigned(buffer, changed);
+			for (Attribute attribute : ATTRIBUTE_VALUES)
+			{
+				if ((changed & (1 << attribute.ordinal())) != 0)
+				{
+					VarInt.writeSigned(buffer, target.getAttributeScore(attribute));
+				}
+			}
+		}
+		if ((parts & SKILLS) != 0)
+		{
+			long changed = 0;
+			for (Skill skill : SKILL_VALUES)
+			{
+				if (base.getSkillRanks(skill) != target.getSkillRanks(skill))
+				{
+					changed |= 1L << skill.ordinal();
+				}
+			}
+			VarInt.writeUnsigned(buffer, changed);
+			for (Skill skill : SKILL_VALUES)
+			{
+				if ((changed & (1L << skill.ordinal())) != 0)
+				{
+					VarInt.writeUnsigned(buffer, target.getSkillRanks(skill));
+				}
+			}
+		}
+		if ((parts & ARMOR_CLASS) != 0)
+		{
+			encodeArmorClass(buffer, base.getArmorClass(), target.getArmorClass());
+		}
+		if ((parts & SAVES) != 0)
+		{
+			encodeSaves(buffer, base.getSaves(), target.getSaves());
+		}
+		if ((parts & RESISTANCES) != 0)
+		{
+			encodeResistances(buffer, base.getResistances(), target.getResistances());
+		}
+	}
+
+	/**
+	 * Read the changes to a stat block and apply them to the base version.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @param base
+	 *          Base version the changes were encoded against.
+	 * @return New version. Shares all unchanged parts with the base version.
+	 */
+	public static CreatureStatBlock decodeDelta(@NonNull ByteBuffer buffer, @NonNull CreatureStatBlock base)
+	{
+		int parts = VarInt.readUnsigned(buffer);
+		CreatureStatBlock statBlock = base;
+		if ((parts & NAME) != 0)
+		{
+			String name = readString(buffer);
+			if (name == null)
+			{
+				throw new IllegalArgumentException("Missing creature name");
+			}
+			statBlock = statBlock.withName(name);
+		}
+		if ((parts & HIT_POINTS) != 0)
+		{
+			statBlock = statBlock.withHitPoints(VarInt.readSigned(buffer));
+		}
+		if ((parts & MAX_HIT_POINTS) != 0)
+		{
+			statBlock = statBlock.withMaxHitPoints(VarInt.readSigned(buffer));
+		}
+		if ((parts & ATTRIBUTES) != 0)
+		{
+			int changed = VarInt.readUnsigned(buffer);
+			for (Attribute attribute : ATTRIBUTE_VALUES)
+			{
+				if ((changed & (1 << attribute.ordinal())) != 0)
+				{
+					statBlock = statBlock.withAttributeScore(attribute, VarInt.readSigned(buffer));
+				}
+			}
+		}
+		if ((parts & SKILLS) != 0)
+		{
+			long changed = VarInt.readUnsignedLong(buffer);
+			for (Skill skill : SKILL_VALUES)
+			{
+				if ((changed & (1L << skill.ordinal())) != 0)
+				{
+					statBlock = statBlock.withSkillRanks(skill, VarInt.readUnsigned(buffer));
+				}
+			}
+		}
+		if ((parts & ARMOR_CLASS) != 0)
+		{
+			statBlock = statBlock.withArmorClass(decodeArmorClass(buffer, statBlock.getArmorClass()));
+		}
+		if ((parts & SAVES) != 0)
+		{
+			int changed = VarInt.readUnsigned(buffer);
+			Saves.Snapshot saves = statBlock.getSaves();
+			for (SaveType type : SAVE_TYPE_VALUES)
+			{
+				if ((changed & (1 << type.ordinal())) != 0)
+				{
+					saves = saves.with(type, VarInt.readSigned(buffer));
+				}
+			}
+			statBlock = statBlock.withSaves(saves);
+		}
+		if ((parts & RESISTANCES) != 0)
+		{
+			statBlock = statBlock.withResistances(decodeResistances(buffer, statBlock.getResistances()));
+		}
+		return statBlock;
+	}
+
+	/**
+	 * Write the changes of many creatures into a single frame. Creatures which
+	 * the receiver does not know are written in full, unchanged creatures are
+	 * skipped and creatures which are no longer present are marked as removed.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param known
+	 *          Stat blocks known to the receivers, indexed by creature number.
+	 * @param current
+	 *          Current stat blocks, indexed by creature number.
+	 * @return Number of creatures in the frame.
+	 */
+	public static int encodeFrame(@NonNull ByteBuffer buffer, @NonNull Map<Integer, CreatureStatBlock> known,
+					@NonNull Map<Integer, CreatureStatBlock> current)
+	{
+		// Step 1: Count entries, so the receiver knows where the frame ends
+		int count = 0;
+		for (Map.Entry<Integer, CreatureStatBlock> entry : current.entrySet())
+		{
+			if (!isUnchanged(known.get(entry.getKey()), entry.getValue()))
+			{
+				count++;
+			}
+		}
+		for (Integer creature : known.keySet())
+		{
+			if (!current.containsKey(creature))
+			{
+				count++;
+			}
+		}
+		// Step 2: Write entries
+		VarInt.writeUnsigned(buffer, count);
+		for (Map.Entry<Integer, CreatureStatBlock> entry : current.entrySet())
+		{
+			CreatureStatBlock base = known.get(entry.getKey());
+			if (base == null)
+			{
+				writeEntryHeader(buffer, entry.getKey(), FULL_ENTRY);
+				encode(buffer, entry.getValue());
+			}
+			else if (!isUnchanged(base, entry.getValue()))
+			{
+				writeEntryHeader(buffer, entry.getKey(), DELTA_ENTRY);
+				encodeDelta(buffer, base, entry.getValue());
+			}
+		}
+		for (Integer creature : known.keySet())
+		{
+			if (!current.containsKey(creature))
+			{
+				writeEntryHeader(buffer, creature, REMOVED_ENTRY);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Read a frame and apply it to the known stat blocks.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @param known
+	 *          Stat blocks known to the receiver, indexed by creature number.
+	 *          Updated with the content of the frame.
+	 * @return Number of creatures in the frame.
+	 */
+	public static int decodeFrame(@NonNull ByteBuffer buffer, @NonNull Map<Integer, CreatureStatBlock> known)
+	{
+		int count = VarInt.readUnsigned(buffer);
+		for (int index = 0; index < count; index++)
+		{
+			int header = VarInt.readUnsigned(buffer);
+			int creature = header >>> 2;
+			switch (header & 3)
+			{
+				case FULL_ENTRY:
+					known.put(creature, decode(buffer));
+					break;
+				case DELTA_ENTRY:
+					CreatureStatBlock base = known.get(creature);
+					if (base == null)
+					{
+						throw new IllegalArgumentException("Delta for unknown creature " + creature);
+					}
+					known.put(creature, decodeDelta(buffer, base));
+					break;
+				case REMOVED_ENTRY:
+					known.remove(creature);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown frame entry kind " + (header & 3));
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Check if a stat block did not change.
+	 *
+	 * @param base
+	 *          Known version. May be <code>null</code>.
+	 * @param target
+	 *          Current version.
+	 * @return <code>true</code> if both versions are equal.
+	 */
+	private static boolean isUnchanged(CreatureStatBlock base, CreatureStatBlock target)
+	{
+		return base == target || (base != null && base.equals(target));
+	}
+
+	/**
+	 * Write the header of a frame entry.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param creature
+	 *          Number of the creature.
+	 * @param kind
+	 *          Kind of entry.
+	 */
+	private static void writeEntryHeader(ByteBuffer buffer, int creature, int kind)
+	{
+		if (creature < 0 || creature > (Integer.MAX_VALUE >>> 2))
+		{
+			throw new IllegalArgumentException("Invalid creature number " + creature);
+		}
+		VarInt.writeUnsigned(buffer, (creature << 2) | kind);
+	}
+
+	/**
+	 * Write the changes to an armor class.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param base
+	 *          Base version.
+	 * @param target
+	 *          New version.
+	 */
+	private static void encodeArmorClass(ByteBuffer buffer, ImmutableArmorClass base, ImmutableArmorClass target)
+	{
+		// Attribute modifiers cannot be removed, so changed values are enough
+		int changedAttributes = 0;
+		for (Attribute attribute : ATTRIBUTE_VALUES)
+		{
+			if (target.hasModifier(attribute) && (!base.hasModifier(attribute)
+							|| base.getModifier(attribute) != target.getModifier(attribute)))
+			{
+				changedAttributes |= 1 << attribute.ordinal();
+			}
+		}
+		int removedTypes = 0;
+		int changedTypes = 0;
+		for (BonusType type : BONUS_TYPE_VALUES)
+		{
+			if (type == BonusType.DODGE)
+			{
+				continue;
+			}
+			int bit = 1 << type.ordinal();
+			if (base.hasModifier(type) && !target.hasModifier(type))
+			{
+				removedTypes |= bit;
+			}
+			else if (target.hasModifier(type)
+							&& (!base.hasModifier(type) || base.getModifier(type) != target.getModifier(type)))
+			{
+				changedTypes |= bit;
+			}
+		}
+		int[] dodgeBonuses = target.getDodgeBonuses();
+		boolean dodgeChanged = !Arrays.equals(base.getDodgeBonuses(), dodgeBonuses);
+		int flags = (changedAttributes != 0 ? AC_ATTRIBUTES : 0)
+						| (removedTypes != 0 || changedTypes != 0 ? AC_TYPES : 0) | (dodgeChanged ? AC_DODGE : 0);
+		VarInt.writeUnsigned(buffer, flags);
+		if ((flags & AC_ATTRIBUTES) != 0)
+		{
+			VarInt.writeUnsigned(buffer, changedAttributes);
+			for (Attribute attribute : ATTRIBUTE_VALUES)
+			{
+				if ((changedAttributes & (1 << attribute.ordinal())) != 0)
+				{
+					VarInt.writeSigned(buffer, target.getModifier(attribute));
+				}
+			}
+		}
+		if ((flags & AC_TYPES) != 0)
+		{
+			VarInt.writeUnsigned(buffer, removedTypes);
+			VarInt.writeUnsigned(buffer, changedTypes);
+			for (BonusType type : BONUS_TYPE_VALUES)
+			{
+				if ((changedTypes & (1 << type.ordinal())) != 0)
+				{
+					VarInt.writeSigned(buffer, target.getModifier(type));
+				}
+			}
+		}
+		if (dodgeChanged)
+		{
+			VarInt.writeUnsigned(buffer, dodgeBonuses.length);
+			for (int dodge : dodgeBonuses)
+			{
+				VarInt.writeSigned(buffer, dodge);
+			}
+		}
+	}
+
+	/**
+	 * Read the changes to an armor class.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @param base
+	 *          Base version.
+	 * @return New version.
+	 */
+	private static ImmutableArmorClass decodeArmorClass(ByteBuffer buffer, ImmutableArmorClass base)
+	{
+		int flags = VarInt.readUnsigned(buffer);
+		ImmutableArmorClass armorClass = base;
+		if ((flags & AC_ATTRIBUTES) != 0)
+		{
+			int changed = VarInt.readUnsigned(buffer);
+			for (Attribute attribute : ATTRIBUTE_VALUES)
+			{
+				if ((changed & (1 << attribute.ordinal())) != 0)
+				{
+					armorClass = armorClass.withModifier(attribute, VarInt.readSigned(buffer));
+				}
+			}
+		}
+		if ((flags & AC_TYPES) != 0)
+		{
+			int removed = VarInt.readUnsigned(buffer);
+			int changed = VarInt.readUnsigned(buffer);
+			if (((removed | changed) & (1 << BonusType.DODGE.ordinal())) != 0)
+			{
+				throw new IllegalArgumentException("Dodge bonuses must not be encoded as typed modifier");
+			}
+			for (BonusType type : BONUS_TYPE_VALUES)
+			{
+				int bit = 1 << type.ordinal();
+				if ((removed & bit) != 0)
+				{
+					armorClass = armorClass.withoutModifier(type);
+				}
+				else if ((changed & bit) != 0)
+				{
+					armorClass = armorClass.withModifier(type, VarInt.readSigned(buffer));
+				}
+			}
+		}
+		if ((flags & AC_DODGE) != 0)
+		{
+			armorClass = armorClass.withoutModifier(BonusType.DODGE);
+			for (int count = VarInt.readUnsigned(buffer); count > 0; count--)
+			{
+				armorClass = armorClass.withModifier(BonusType.DODGE, VarInt.readSigned(buffer));
+			}
+		}
+		return armorClass;
+	}
+
+	/**
+	 * Write the changes to the saves.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param base
+	 *          Base version.
+	 * @param target
+	 *          New version.
+	 */
+	private static void encodeSaves(ByteBuffer buffer, Saves.Snapshot base, Saves.Snapshot target)
+	{
+		int changed = 0;
+		for (SaveType type : SAVE_TYPE_VALUES)
+		{
+			if (base.get(type) != target.get(type))
+			{
+				changed |= 1 << type.ordinal();
+			}
+		}
+		VarInt.writeUnsigned(buffer, changed);
+		for (SaveType type : SAVE_TYPE_VALUES)
+		{
+			if ((changed & (1 << type.ordinal())) != 0)
+			{
+				VarInt.writeSigned(buffer, target.get(type));
+			}
+		}
+	}
+
+	/**
+	 * Write the changes to the resistances.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param base
+	 *          Base version.
+	 * @param target
+	 *          New version.
+	 */
+	private static void encodeResistances(ByteBuffer buffer, ImmutableResistances base, ImmutableResistances target)
+	{
+		int changedEnergies = 0;
+		for (EnergyType type : ENERGY_VALUES)
+		{
+			if (base.getEnergyResistance(type) != target.getEnergyResistance(type))
+			{
+				changedEnergies |= 1 << type.ordinal();
+			}
+		}
+		int flags = (changedEnergies != 0 ? ENERGY : 0)
+						| (base.getVulnerabilityMask() != target.getVulnerabilityMask() ? VULNERABILITIES : 0)
+						| (base.getSpellResistance() != target.getSpellResistance() ? SPELL_RESISTANCE : 0)
+						| (base.getTurnResistance() != target.getTurnResistance() ? TURN_RESISTANCE : 0)
+						| (!Objects.equals(base.getDamageReduction(), target.getDamageReduction()) ? DAMAGE_REDUCTION : 0);
+		VarInt.writeUnsigned(buffer, flags);
+		if ((flags & ENERGY) != 0)
+		{
+			VarInt.writeUnsigned(buffer, changedEnergies);
+			for (EnergyType type : ENERGY_VALUES)
+			{
+				if ((changedEnergies & (1 << type.ordinal())) != 0)
+				{
+					VarInt.writeUnsigned(buffer, target.getEnergyResistance(type));
+				}
+			}
+		}
+		if ((flags & VULNERABILITIES) != 0)
+		{
+			VarInt.writeUnsigned(buffer, target.getVulnerabilityMask());
+		}
+		if ((flags & SPELL_RESISTANCE) != 0)
+		{
+			VarInt.writeSigned(buffer, target.getSpellResistance());
+		}
+		if ((flags & TURN_RESISTANCE) != 0)
+		{
+			VarInt.writeSigned(buffer, target.getTurnResistance());
+		}
+		if ((flags & DAMAGE_REDUCTION) != 0)
+		{
+			writeString(buffer, target.getDamageReduction());
+		}
+	}
+
+	/**
+	 * Read the changes to the resistances.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @param base
+	 *          Base version.
+	 * @return New version.
+	 */
+	private static ImmutableResistances decodeResistances(ByteBuffer buffer, ImmutableResistances base)
+	{
+		int flags = VarInt.readUnsigned(buffer);
+		ImmutableResistances resistances = base;
+		if ((flags & ENERGY) != 0)
+		{
+			int changed = VarInt.readUnsigned(buffer);
+			for (EnergyType type : ENERGY_VALUES)
+			{
+				if ((changed & (1 << type.ordinal())) != 0)
+				{
+					resistances = resistances.withEnergyResistance(type, VarInt.readUnsigned(buffer));
+				}
+			}
+		}
+		if ((flags & VULNERABILITIES) != 0)
+		{
+			int mask = VarInt.readUnsigned(buffer);
+			for (EnergyType type : ENERGY_VALUES)
+			{
+				resistances = resistances.withVulnerability(type, (mask & (1 << type.ordinal())) != 0);
+			}
+		}
+		if ((flags & SPELL_RESISTANCE) != 0)
+		{
+			resistances = resistances.withSpellResistance(VarInt.readSigned(buffer));
+		}
+		if ((flags & TURN_RESISTANCE) != 0)
+		{
+			resistances = resistances.withTurnResistance(VarInt.readSigned(buffer));
+		}
+		if ((flags & DAMAGE_REDUCTION) != 0)
+		{
+			resistances = resistances.withDamageReduction(readString(buffer));
+		}
+		return resistances;
+	}
+
+	/**
+	 * Write a String which may be <code>null</code>.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param value
+	 *          The String.
+	 */
+	static void writeString(ByteBuffer buffer, String value)
+	{
+		if (value == null)
+		{
+			VarInt.writeUnsigned(buffer, 0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		VarInt.writeUnsigned(buffer, bytes.length + 1);
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Read a String which may be <code>null</code>.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @return The String.
+	 */
+	static String readString(ByteBuffer buffer)
+	{
+		int length = VarInt.readUnsigned(buffer);
+		if (length == 0)
+		{
+			return null;
+		}
+		if (length - 1 > buffer.remaining())
+		{
+			throw new IllegalArgumentException("String length " + (length - 1) + " exceeds buffer");
+		}
+		byte[] bytes = new byte[length - 1];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
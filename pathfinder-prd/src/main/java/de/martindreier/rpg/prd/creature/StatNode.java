@@ -0,0 +1,179 @@
+/**
+ * StatNode.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Node in the statistics graph of a creature. Source nodes hold a value which
+ * is set from outside, derived nodes calculate their value from other nodes.
+ * Derived values are only calculated when they are read. Changing a node marks
+ * all nodes depending on it as dirty, so only values affected by a change are
+ * calculated again.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+class StatNode
+{
+	/**
+	 * Nodes whose value depends on this node.
+	 */
+	private final List<StatNode>	dependents	= new ArrayList<>(2);
+
+	/**
+	 * Formula calculating the value of a derived node. <code>null</code> for
+	 * source nodes.
+	 */
+	private final IntSupplier			formula;
+
+	/**
+	 * Current value. Only valid if the node is not dirty.
+	 */
+	private int										value;
+
+	/**
+	 * <code>true</code> if the value must be calculated before it is read.
+	 */
+	private boolean								dirty;
+
+	/**
+	 * Number of times the formula has been evaluated.
+	 */
+	private int										evaluations	= 0;
+
+	/**
+	 * Create a new node.
+	 *
+	 * @param formula
+	 *          Formula for derived nodes, <code>null</code> for source nodes.
+	 * @param value
+	 *          Initial value of source nodes.
+	 */
+	private StatNode(IntSupplier formula, int value)
+	{
+		this.formula = formula;
+		this.value = value;
+		this.dirty = formula != null;
+	}
+
+	/**
+	 * Create a source node.
+	 *
+	 * @param initialValue
+	 *          The initial value.
+	 * @return The new node.
+	 */
+	static StatNode source(int initialValue)
+	{
+		return new StatNode(null, initialValue);
+	}
+
+	/**
+	 * Create a derived node.
+	 *
+	 * @param formula
+	 *          Formula calculating the value. Must only read the given inputs
+	 *          (and values which invalidate the node themselves).
+	 * @param inputs
+	 *          Nodes read by the formula.
+	 * @return The new node.
+	 */
+	static StatNode derived(IntSupplier formula, StatNode... inputs)
+	{
+		StatNode node = new StatNode(formula, 0);
+		for (StatNode input : inputs)
+		{
+			input.dependents.add(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Get the value of the node, calculating it if necessary.
+	 *
+	 * @return The current value.
+	 */
+	int get()
+	{
+		if (dirty)
+		{
+			value = formula.getAsInt();
+			evaluations++;
+			dirty = false;
+		}
+		return value;
+	}
+
+	/**
+	 * Set the value of a source node.
+	 *
+	 * @param newValue
+	 *          The new value.
+	 */
+	void set(int newValue)
+	{
+		if (formula != null)
+		{
+			throw new IllegalStateException("Cannot set the value of a derived node");
+		}
+		if (newValue != value)
+		{
+			value = newValue;
+			invalidateDependents();
+		}
+	}
+
+	/**
+	 * Mark a derived node as dirty, e.g. because a value outside of the graph
+	 * which is read by the formula has changed.
+	 */
+	void invalidate()
+	{
+		if (formula != null && !dirty)
+		{
+			dirty = true;
+			invalidateDependents();
+		}
+	}
+
+	/**
+	 * Get the number of times the formula has been evaluated.
+	 *
+	 * @return Number of evaluations.
+	 */
+	int getEvaluations()
+	{
+		return evaluations;
+	}
+
+	/**
+	 * Mark all dependent nodes as dirty. Nodes which are already dirty are
+	 * skipped, as their dependents have been marked before.
+	 */
+	private void invalidateDependents()
+	{
+		for (StatNode dependent : dependents)
+		{
+			dependent.invalidate();
+		}
+	}
+}
@@ -0,0 +1,912 @@
+/**
+ * DiceExpression.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.dice;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A compiled dice expression, e.g. <code>2d6+4</code>,
+ * <code>1d20+SkillRank</code> or <code>4d6 drop lowest</code>. Expressions are
+ * parsed once by {@link #compile(String)} and can then be rolled many times.
+ * The exact distribution of the outcome is calculated on first use and kept
+ * with the expression.
+ * <p>
+ * Supported terms, combined with <code>+</code> and <code>-</code>:
+ * <ul>
+ * <li>Dice: <code>NdM</code>, <code>dM</code>, <code>d%</code></li>
+ * <li>Dropped dice after a dice term: <code>drop lowest [K]</code>,
+ * <code>drop highest [K]</code>, <code>dl[K]</code>, <code>dh[K]</code>,
+ * <code>keep highest K</code>, <code>keep lowest K</code>,
+ * <code>khK</code>, <code>klK</code></li>
+ * <li>Constants: <code>4</code></li>
+ * <li>Variables, supplied when rolling: <code>SkillRank</code></li>
+ * </ul>
+ * Instances are immutable and may be shared between threads.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class DiceExpression
+{
+	/**
+	 * Largest number of dice in a single term.
+	 */
+	public static final int														MAX_DICE					= 1000;
+
+	/**
+	 * Largest number of terms, counting dice, constants and variables. Bounds
+	 * the number of distributions to add.
+	 */
+	public static final int														MAX_TERMS					= 32;
+
+	/**
+	 * Largest difference between the highest and lowest sum of all dice terms
+	 * together, i.e. the sum of number of dice times sides minus one over all
+	 * terms. Bounds the size and the time needed to calculate the distribution
+	 * of an expression.
+	 */
+	public static final int														MAX_RANGE					= 100000;
+
+	/**
+	 * Number of compiled expressions kept for reuse by {@link #compile(String)}.
+	 */
+	static final int																	CACHE_SIZE				= 256;
+
+	/**
+	 * Largest number of sorted dice combinations evaluated for the distribution
+	 * of a term with dropped dice.
+	 */
+	private static final long													MAX_COMBINATIONS	= 5000000;
+
+	/**
+	 * Recently compiled expressions by their text, least recently used first.
+	 * Access must be synchronized on the map.
+	 */
+	private static final Map<String, DiceExpression>	compiled					= createCache();
+
+	/**
+	 * Text of the expression.
+	 */
+	@Getter
+	private final String															text;
+
+	/**
+	 * Number of dice per dice term.
+	 */
+	private final int[]																diceCounts;
+
+	/**
+	 * Number of sides per dice term.
+	 */
+	private final int[]																diceSides;
+
+	/**
+	 * Number of lowest dice dropped per dice term.
+	 */
+	private final int[]																dropLowest;
+
+	/**
+	 * Number of highest dice dropped per dice term.
+	 */
+	private final int[]																dropHighest;
+
+	/**
+	 * Sign (1 or -1) per dice term.
+	 */
+	private final int[]																diceSigns;
+
+	/**
+	 * Sum of all constant terms.
+	 */
+	private final int																	constant;
+
+	/**
+	 * Names of the variables, in order of first appearance.
+	 */
+	private final List<String>												variables;
+
+	/**
+	 * Factor per variable, the sum of the signs of all its occurrences.
+	 */
+	private final int[]																variableFactors;
+
+	/**
+	 * Distribution without variables. Calculated on first use.
+	 */
+	private volatile Distribution											distribution;
+
+	/**
+	 * Create a compiled expression.
+	 *
+	 * @param parser
+	 *          Parser which has read the full expression.
+	 */
+	private DiceExpression(Parser parser)
+	{
+		text = parser.text;
+		int terms = parser.diceTerms;
+		diceCounts = Arrays.copyOf(parser.diceCounts, terms);
+		diceSides = Arrays.copyOf(parser.diceSides, terms);
+		dropLowest = Arrays.copyOf(parser.dropLowest, terms);
+		dropHighest = Arrays.copyOf(parser.dropHighest, terms);
+		diceSigns = Arrays.copyOf(parser.diceSigns, terms);
+		constant = parser.constant;
+		variables = Collections.unmodifiableList(Arrays.asList(parser.variableNames));
+		variableFactors = parser.variableFactors;
+	}
+
+	/**
+	 * Compile an expression. Recently compiled texts are not parsed again.
+	 *
+	 * @param text
+	 *          The expression.
+	 * @return The compiled expression.
+	 * @throws IllegalArgumentException
+	 *           The expression is not valid.
+	 */
+	public static DiceExpression compile(@NonNull String text)
+	{
+		String normalized = text.trim().replaceAll("\\s+", " ");
+		DiceExpression expression;
+		synchronized (compiled)
+		{
+			expression = compiled.get(normalized);
+		}
+		if (expression == null)
+		{
+			// Parse outside the lock, a concurrent duplicate is harmless
+			expression = new DiceExpression(new Parser(normalized).parse());
+			synchronized (compiled)
+			{
+				DiceExpression existing = compiled.putIfAbsent(normalized, expression);
+				if (existing != null)
+				{
+					expression = existing;
+				}
+			}
+		}
+		return expression;
+	}
+
+	/**
+	 * Create the cache of compiled expressions, which keeps the
+	 * {@value #CACHE_SIZE} most recently used expressions.
+	 *
+	 * @return The cache.
+	 */
+	private static Map<String, DiceExpression> createCache()
+	{
+		return new LinkedHashMap<String, DiceExpression>(CACHE_SIZE * 4 / 3 + 1, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, DiceExpression> eldest)
+			{
+				return size() > CACHE_SIZE;
+			}
+		};
+	}
+
+	/**
+	 * Get the names of the variables in the expression. Values for the variables
+	 * are passed in this order.
+	 *
+	 * @return Read-only list of variable names.
+	 */
+	public List<String> getVariables()
+	{
+		return variables;
+	}
+
+	/**
+	 * Roll the expression.
+	 *
+	 * @param random
+	 *          Random number source.
+	 * @param variableValues
+	 *          Values of the variables, in the order of {@link #getVariables()}.
+	 * @return The outcome.
+	 */
+	public int roll(@NonNull SplittableRandom random, int... variableValues)
+	{
+		int total = constant + variableOffset(variableValues);
+		for (int term = 0; term < diceCounts.length; term++)
+		{
+			total += diceSigns[term] * rollTerm(random, term);
+		}
+		return total;
+	}
+
+	/**
+	 * Get the exact distribution of the outcome.
+	 *
+	 * @param variableValues
+	 *          Values of the variables, in the order of {@link #getVariables()}.
+	 * @return The distribution.
+	 */
+	public Distribution getDistribution(int... variableValues)
+	{
+		return getConstantDistribution().shift(variableOffset(variableValues));
+	}
+
+	/**
+	 * Get the exact probability of reaching at least a given value, e.g. the
+	 * difficulty class of a check.
+	 *
+	 * @param value
+	 *          The value to reach.
+	 * @param variableValues
+	 *          Values of the variables, in the order of {@link #getVariables()}.
+	 * @return Probability of an outcome greater than or equal to the value.
+	 */
+	public double getProbabilityAtLeast(int value, int... variableValues)
+	{
+		return getConstantDistribution().getProbabilityAtLeast(value - variableOffset(variableValues));
+	}
+
+	@Override
+	public String toString()
+	{
+		return text;
+	}
+
+	/**
+	 * Get the distribution of the dice and constant terms, calculating it on
+	 * first use.
+	 *
+	 * @return The distribution without variables.
+	 */
+	private Distribution getConstantDistribution()
+	{
+		Distribution result = distribution;
+		if (result == null)
+		{
+			Distribution[] terms = new Distribution[Math.max(diceCounts.length, 1)];
+			terms[0] = Distribution.ZERO;
+			for (int term = 0; term < diceCounts.length; term++)
+			{
+				Distribution termDistribution = termDistribution(term);
+				terms[term] = diceSigns[term] < 0 ? termDistribution.negate() : termDistribution;
+			}
+			// Add pairwise, so most additions are of small distributions
+			for (int count = terms.length; count > 1; count = (count + 1) / 2)
+			{
+				for (int term = 0; term < count / 2; term++)
+				{
+					terms[term] = terms[2 * term].add(terms[2 * term + 1]);
+				}
+				if (count % 2 == 1)
+				{
+					terms[count / 2] = terms[count - 1];
+				}
+			}
+			result = terms[0].shift(constant);
+			distribution = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Calculate the contribution of the variables.
+	 *
+	 * @param variableValues
+	 *          Values of the variables.
+	 * @return Sum of the variable values multiplied with their factors.
+	 */
+	private int variableOffset(int[] variableValues)
+	{
+		if (variableValues.length != variableFactors.length)
+		{
+			throw new IllegalArgumentException(
+							"Expected " + variableFactors.length + " variable values for " + variables + " in " + text);
+		}
+		int offset = 0;
+		for (int variable = 0; variable < variableFactors.length; variable++)
+		{
+			offset += variableFactors[variable] * variableValues[variable];
+		}
+		return offset;
+	}
+
+	/**
+	 * Roll a single dice term.
+	 *
+	 * @param random
+	 *          Random number source.
+	 * @param term
+	 *          Index of the dice term.
+	 * @return Sum of the kept dice.
+	 */
+	private int rollTerm(SplittableRandom random, int term)
+	{
+		int count = diceCounts[term];
+		int sides = diceSides[term];
+		int lowest = dropLowest[term];
+		int highest = dropHighest[term];
+		if (lowest == 0 && highest == 0)
+		{
+			int sum = count;
+			for (int die = 0; die < count; die++)
+			{
+				sum += random.nextInt(sides);
+			}
+			return sum;
+		}
+		if (lowest == 1 && highest == 0)
+		{
+			// Common case, e.g. 4d6 drop lowest: no need to sort
+			int sum = 0;
+			int minimum = Integer.MAX_VALUE;
+			for (int die = 0; die < count; die++)
+			{
+				int roll = random.nextInt(sides) + 1;
+				sum += roll;
+				minimum = Math.min(minimum, roll);
+			}
+			return sum - minimum;
+		}
+		int[] rolls = new int[count];
+		for (int die = 0; die < count; die++)
+		{
+			rolls[die] = random.nextInt(sides) + 1;
+		}
+		Arrays.sort(rolls);
+		int sum = 0;
+		for (int die = lowest; die < count - highest; die++)
+		{
+			sum += rolls[die];
+		}
+		return sum;
+	}
+
+	/**
+	 * Calculate the distribution of a single dice term.
+	 *
+	 * @param term
+	 *          Index of the dice term.
+	 * @return Distribution of the sum of the kept dice.
+	 */
+	private Distribution termDistribution(int term)
+	{
+		int count = diceCounts[term];
+		int sides = diceSides[term];
+		if (dropLowest[term] == 0 && dropHighest[term] == 0)
+		{
+			// Convolution of single dice, using a sliding window sum
+			double[] current = { 1 };
+			double dieProbability = 1.0 / sides;
+			for (int die = 0; die < count; die++)
+			{
+				double[] next = new double[current.length + sides - 1];
+				double window = 0;
+				for (int index = 0; index < next.length; index++)
+				{
+					if (index < current.length)
+					{
+						window += current[index];
+					}
+					if (index - sides >= 0)
+					{
+						window -= current[index - sides];
+					}
+					next[index] = window * dieProbability;
+				}
+				current = next;
+			}
+			return new Distribution(count, current);
+		}
+		return new DroppedDiceDistribution(count, sides, dropLowest[term], dropHighest[term]).calculate();
+	}
+
+	/**
+	 * Distribution of a dice term with dropped dice. Enumerates all sorted
+	 * combinations of dice values, each weighted with the number of orders in
+	 * which it can be rolled.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	private static class DroppedDiceDistribution
+	{
+		/**
+		 * Number of dice.
+		 */
+		private final int				count;
+		/**
+		 * Number of sides of each die.
+		 */
+		private final int				sides;
+		/**
+		 * Number of lowest dice dropped.
+		 */
+		private final int				lowest;
+		/**
+		 * Number of highest dice dropped.
+		 */
+		private final int				highest;
+		/**
+		 * Natural logarithms of the factorials up to {@link #count}.
+		 */
+		private final double[]	logFactorials;
+		/**
+		 * Number of dice showing each value, indexed by value - 1.
+		 */
+		private final int[]			multiplicities;
+		/**
+		 * Probabilities of the sums of kept dice, from the lowest possible sum.
+		 */
+		private final double[]	probabilities;
+
+		/**
+		 * Prepare the calculation.
+		 *
+		 * @param count
+		 *          Number of dice.
+		 * @param sides
+		 *          Number of sides of each die.
+		 * @param lowest
+		 *          Number of lowest dice dropped.
+		 * @param highest
+		 *          Number of highest dice dropped.
+		 * @throws IllegalArgumentException
+		 *           There are too many combinations to enumerate.
+		 */
+		private DroppedDiceDistribution(int count, int sides, int lowest, int highest)
+		{
+			this.count = count;
+			this.sides = sides;
+			this.lowest = lowest;
+			this.highest = highest;
+			double combinations = 1;
+			for (int index = 1; index <= count; index++)
+			{
+				combinations = combinations * (sides - 1 + index) / index;
+			}
+			if (combinations > MAX_COMBINATIONS)
+			{
+				throw new IllegalArgumentException("Too many dice combinations to calculate distribution");
+			}
+			logFactorials = new double[count + 1];
+			for (int index = 1; index <= count; index++)
+			{
+				logFactorials[index] = logFactorials[index - 1] + Math.log(index);
+			}
+			multiplicities = new int[sides];
+			int kept = count - lowest - highest;
+			probabilities = new double[kept * (sides - 1) + 1];
+		}
+
+		/**
+		 * Enumerate all combinations.
+		 *
+		 * @return Distribution of the sum of the kept dice.
+		 */
+		private Distribution calculate()
+		{
+			enumerate(0, count);
+			return new Distribution(count - lowest - highest, probabilities);
+		}
+
+		/**
+		 * Choose how many dice show a value, then continue with the next value.
+		 *
+		 * @param value
+		 *          Index of the value (value - 1).
+		 * @param remaining
+		 *          Number of dice without value yet.
+		 */
+		private void enumerate(int value, int remaining)
+		{
+			if (value == sides - 1)
+			{
+				multiplicities[value] = remaining;
+				record();
+				return;
+			}
+			for (int dice = remaining; dice >= 0; dice--)
+			{
+				multiplicities[value] = dice;
+				enumerate(value + 1, remaining - dice);
+			}
+		}
+
+		/**
+		 * Add the probability of the current combination.
+		 */
+		private void record()
+		{
+			double logWeight = logFactorials[count] - count * Math.log(sides);
+			int position = 0;
+			int sum = 0;
+			for (int value = 0; value < sides; value++)
+			{
+				int dice = multiplicities[value];
+				logWeight -= logFactorials[dice];
+				// Count dice at sorted positions which are kept
+				int keptFrom = Math.max(position, lowest);
+				int keptTo = Math.min(position + dice, count - highest);
+				if (keptTo > keptFrom)
+				{
+					sum += (keptTo - keptFrom) * (value + 1);
+				}
+				position += dice;
+			}
+			probabilities[sum - (count - lowest - highest)] += Math.exp(logWeight);
+		}
+	}
+
+	/**
+	 * Recursive descent parser for dice expressions.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	private static class Parser
+	{
+		/**
+		 * The normalized expression.
+		 */
+		private final String	text;
+		/**
+		 * Current position in the text.
+		 */
+		private int						position				= 0;
+		/**
+		 * Number of terms parsed.
+		 */
+		private int						terms						= 0;
+		/**
+		 * Number of dice terms parsed.
+		 */
+		private int						diceTerms				= 0;
+		/**
+		 * Number of dice per dice term.
+		 */
+		private int[]					diceCounts			= new int[2];
+		/**
+		 * Number of sides per dice term.
+		 */
+		private int[]					diceSides				= new int[2];
+		/**
+		 * Number of lowest dice dropped per dice term.
+		 */
+		private int[]					dropLowest			= new int[2];
+		/**
+		 * Number of highest dice dropped per dice term.
+		 */
+		private int[]					dropHighest			= new int[2];
+		/**
+		 * Sign per dice term.
+		 */
+		private int[]					diceSigns				= new int[2];
+		/**
+		 * Sum of the ranges of all dice terms, see {@link DiceExpression#MAX_RANGE}.
+		 */
+		private long					range						= 0;
+		/**
+		 * Sum of all constant terms.
+		 */
+		private int						constant				= 0;
+		/**
+		 * Names of the variables in order of appearance.
+		 */
+		private String[]			variableNames		= new String[0];
+		/**
+		 * Factor of each variable, the sum of the signs of its terms.
+		 */
+		private int[]					variableFactors	= new int[0];
+
+		/**
+		 * Create a parser.
+		 *
+		 * @param text
+		 *          The normalized expression.
+		 */
+		private Parser(String text)
+		{
+			this.text = text;
+		}
+
+		/**
+		 * Parse the whole expression: term (('+' | '-') term)*
+		 *
+		 * @return This parser.
+		 */
+		private Parser parse()
+		{
+			skipSpaces();
+			int sign = 1;
+			if (peek() == '-' || peek() == '+')
+			{
+				sign = next() == '-' ? -1 : 1;
+			}
+			term(sign);
+			skipSpaces();
+			while (position < text.length())
+			{
+				char operator = next();
+				if (operator != '+' && operator != '-')
+				{
+					throw error("Expected + or -");
+				}
+				term(operator == '-' ? -1 : 1);
+				skipSpaces();
+			}
+			return this;
+		}
+
+		/**
+		 * Parse a single term: dice, constant or variable.
+		 *
+		 * @param sign
+		 *          Sign of the term.
+		 */
+		private void term(int sign)
+		{
+			if (++terms > MAX_TERMS)
+			{
+				throw error("Too many terms");
+			}
+			skipSpaces();
+			char first = peek();
+			if (Character.isDigit(first))
+			{
+				int number = number();
+				if (isDiceStart())
+				{
+					dice(sign, number);
+				}
+				else
+				{
+					constant += sign * number;
+				}
+			}
+			else if (isDiceStart())
+			{
+				dice(sign, 1);
+			}
+			else if (Character.isJavaIdentifierStart(first))
+			{
+				int start = position;
+				while (position < text.length() && Character.isJavaIdentifierPart(text.charAt(position)))
+				{
+					position++;
+				}
+				variable(sign, text.substring(start, position));
+			}
+			else
+			{
+				throw error("Expected dice, number or variable");
+			}
+		}
+
+		/**
+		 * Parse a dice term after the number of dice.
+		 *
+		 * @param sign
+		 *          Sign of the term.
+		 * @param count
+		 *          Number of dice.
+		 */
+		private void dice(int sign, int count)
+		{
+			// Skip 'd'
+			position++;
+			int sides;
+			if (peek() == '%')
+			{
+				position++;
+				sides = 100;
+			}
+			else
+			{
+				sides = number();
+			}
+			if (count < 1 || count > MAX_DICE || sides < 1)
+			{
+				throw error("Invalid number of dice or sides");
+			}
+			range += (long) count * (sides - 1);
+			if (range > MAX_RANGE)
+			{
+				throw error("Too many dice or sides");
+			}
+			int lowest = 0;
+			int highest = 0;
+			int mark = position;
+			skipSpaces();
+			if (consume("drop lowest") || consume("dl"))
+			{
+				lowest = optionalNumber(1);
+			}
+			else if (consume("drop highest") || consume("dh"))
+			{
+				highest = optionalNumber(1);
+			}
+			else if (consume("keep highest") || consume("kh"))
+			{
+				lowest = count - optionalNumber(1);
+			}
+			else if (consume("keep lowest") || consume("kl"))
+			{
+				highest = count - optionalNumber(1);
+			}
+			else
+			{
+				position = mark;
+			}
+			if (lowest < 0 || highest < 0 || lowest + highest >= count)
+			{
+				throw error("Cannot drop that many dice");
+			}
+			if (diceTerms == diceCounts.length)
+			{
+				diceCounts = Arrays.copyOf(diceCounts, diceTerms * 2);
+				diceSides = Arrays.copyOf(diceSides, diceTerms * 2);
+				dropLowest = Arrays.copyOf(dropLowest, diceTerms * 2);
+				dropHighest = Arrays.copyOf(dropHighest, diceTerms * 2);
+				diceSigns = Arrays.copyOf(diceSigns, diceTerms * 2);
+			}
+			diceCounts[diceTerms] = count;
+			diceSides[diceTerms] = sides;
+			dropLowest[diceTerms] = lowest;
+			dropHighest[diceTerms] = highest;
+			diceSigns[diceTerms] = sign;
+			diceTerms++;
+		}
+
+		/**
+		 * Record a variable term.
+		 *
+		 * @param sign
+		 *          Sign of the term.
+		 * @param name
+		 *          Variable name.
+		 */
+		private void variable(int sign, String name)
+		{
+			for (int index = 0; index < variableNames.length; index++)
+			{
+				if (variableNames[index].equals(name))
+				{
+					variableFactors[index] += sign;
+					return;
+				}
+			}
+			variableNames = Arrays.copyOf(variableNames, variableNames.length + 1);
+			variableFactors = Arrays.copyOf(variableFactors, variableFactors.length + 1);
+			variableNames[variableNames.length - 1] = name;
+			variableFactors[variableFactors.length - 1] = sign;
+		}
+
+		/**
+		 * Check if a dice term starts at the current position: 'd' followed by a
+		 * digit or '%'.
+		 *
+		 * @return <code>true</code> for the start of dice.
+		 */
+		private boolean isDiceStart()
+		{
+			if (position + 1 >= text.length() || Character.toLowerCase(text.charAt(position)) != 'd')
+			{
+				return false;
+			}
+			char next = text.charAt(position + 1);
+			return Character.isDigit(next) || next == '%';
+		}
+
+		/**
+		 * Consume a keyword if it is at the current position, ignoring case.
+		 *
+		 * @param keyword
+		 *          The keyword.
+		 * @return <code>true</code> if the keyword was consumed.
+		 */
+		private boolean consume(String keyword)
+		{
+			if (text.regionMatches(true, position, keyword, 0, keyword.length()))
+			{
+				position += keyword.length();
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Read a number, if there is one.
+		 *
+		 * @param defaultValue
+		 *          Value if there is no number.
+		 * @return The number.
+		 */
+		private int optionalNumber(int defaultValue)
+		{
+			skipSpaces();
+			return Character.isDigit(peek()) ? number() : defaultValue;
+		}
+
+		/**
+		 * Read a number.
+		 *
+		 * @return The number.
+		 */
+		private int number()
+		{
+			int start = position;
+			while (position < text.length() && Character.isDigit(text.charAt(position)))
+			{
+				position++;
+			}
+			if (start == position || position - start > 6)
+			{
+				throw error("Expected number");
+			}
+			return Integer.parseInt(text.substring(start, position));
+		}
+
+		/**
+		 * Skip spaces at the current position.
+		 */
+		private void skipSpaces()
+		{
+			while (position < text.length() && text.charAt(position) == ' ')
+			{
+				position++;
+			}
+		}
+
+		/**
+		 * Get the character at the current position without consuming it.
+		 *
+		 * @return The character, 0 at the end of the text.
+		 */
+		private char peek()
+		{
+			return position < text.length() ? text.charAt(position) : 0;
+		}
+
+		/**
+		 * Consume the character at the current position.
+		 *
+		 * @return The character.
+		 */
+		private char next()
+		{
+			return text.charAt(position++);
+		}
+
+		/**
+		 * Create an exception for a syntax error at the current position.
+		 *
+		 * @param message
+		 *          Description of the error.
+		 * @return The exception.
+		 */
+		private IllegalArgumentException error(String message)
+		{
+			return new IllegalArgumentException(message + " at position " + position + " in '" + text + "'");
+		}
+	}
+}
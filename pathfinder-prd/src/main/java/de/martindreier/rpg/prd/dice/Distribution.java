@@ -0,0 +1,304 @@
+/**
+ * Distribution.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.dice;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Probability distribution over a contiguous range of integer outcomes.
+ * Instances are immutable.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class Distribution
+{
+	/**
+	 * Distribution of a constant zero.
+	 */
+	static final Distribution	ZERO					= new Distribution(0, new double[] { 1 });
+
+	/**
+	 * Smallest product of the lengths of two distributions which
+	 * {@link #add(Distribution)} convolves by fast Fourier transform instead of
+	 * directly.
+	 */
+	static final int					FFT_THRESHOLD	= 1 << 16;
+
+	/**
+	 * Smallest possible outcome.
+	 */
+	@Getter
+	private final int					minimum;
+
+	/**
+	 * Probabilities of the outcomes from {@link #minimum} upwards.
+	 */
+	private final double[]		probabilities;
+
+	/**
+	 * Probabilities of at least the outcome, from {@link #minimum} upwards.
+	 */
+	private final double[]		atLeast;
+
+	/**
+	 * Create a distribution.
+	 *
+	 * @param minimum
+	 *          Smallest possible outcome.
+	 * @param probabilities
+	 *          Probabilities of the outcomes from the minimum upwards. Not
+	 *          copied.
+	 */
+	Distribution(int minimum, double[] probabilities)
+	{
+		this.minimum = minimum;
+		this.probabilities = probabilities;
+		atLeast = new double[probabilities.length];
+		double sum = 0;
+		for (int index = probabilities.length - 1; index >= 0; index--)
+		{
+			sum += probabilities[index];
+			atLeast[index] = Math.min(sum, 1);
+		}
+	}
+
+	/**
+	 * Get the largest possible outcome.
+	 *
+	 * @return The maximum.
+	 */
+	public int getMaximum()
+	{
+		return minimum + probabilities.length - 1;
+	}
+
+	/**
+	 * Get the probability of an outcome.
+	 *
+	 * @param outcome
+	 *          The outcome.
+	 * @return Probability of exactly this outcome.
+	 */
+	public double getProbability(int outcome)
+	{
+		int index = outcome - minimum;
+		return index < 0 || index >= probabilities.length ? 0 : probabilities[index];
+	}
+
+	/**
+	 * Get the probability of reaching at least a given value, e.g. the
+	 * difficulty class of a check.
+	 *
+	 * @param value
+	 *          The value to reach.
+	 * @return Probability of an outcome greater than or equal to the value.
+	 */
+	public double getProbabilityAtLeast(int value)
+	{
+		int index = value - minimum;
+		if (index <= 0)
+		{
+			return 1;
+		}
+		return index >= atLeast.length ? 0 : atLeast[index];
+	}
+
+	/**
+	 * Get the expected value.
+	 *
+	 * @return The mean outcome.
+	 */
+	public double getMean()
+	{
+		double mean = 0;
+		for (int index = 0; index < probabilities.length; index++)
+		{
+			mean += (minimum + index) * probabilities[index];
+		}
+		return mean;
+	}
+
+	/**
+	 * Get the distribution of the outcome plus a constant.
+	 *
+	 * @param offset
+	 *          The constant.
+	 * @return Shifted distribution, sharing the probabilities with this one.
+	 */
+	public Distribution shift(int offset)
+	{
+		return offset == 0 ? this : new Distribution(minimum + offset, probabilities);
+	}
+
+	/**
+	 * Get the distribution of the negated outcome.
+	 *
+	 * @return Mirrored distribution.
+	 */
+	Distribution negate()
+	{
+		double[] mirrored = new double[probabilities.length];
+		for (int index = 0; index < probabilities.length; index++)
+		{
+			mirrored[probabilities.length - 1 - index] = probabilities[index];
+		}
+		return new Distribution(-getMaximum(), mirrored);
+	}
+
+	/**
+	 * Get the distribution of the sum of two independent outcomes. Small
+	 * distributions are convolved directly, large ones by fast Fourier
+	 * transform in O((n + m) log(n + m)).
+	 *
+	 * @param other
+	 *          The other distribution.
+	 * @return Convolution of both distributions.
+	 */
+	Distribution add(Distribution other)
+	{
+		if ((long) probabilities.length * other.probabilities.length >= FFT_THRESHOLD)
+		{
+			return new Distribution(minimum + other.minimum, convolve(probabilities, other.probabilities));
+		}
+		double[] sum = new double[probabilities.length + other.probabilities.length - 1];
+		for (int left = 0; left < probabilities.length; left++)
+		{
+			double probability = probabilities[left];
+			if (probability == 0)
+			{
+				continue;
+			}
+			for (int right = 0; right < other.probabilities.length; right++)
+			{
+				sum[left + right] += probability * other.probabilities[right];
+			}
+		}
+		return new Distribution(minimum + other.minimum, sum);
+	}
+
+	/**
+	 * Convolve two probability arrays by fast Fourier transform.
+	 *
+	 * @param left
+	 *          First probabilities.
+	 * @param right
+	 *          Second probabilities.
+	 * @return Probabilities of the sums. Rounding errors below zero are cut
+	 *         off.
+	 */
+	private static double[] convolve(double[] left, double[] right)
+	{
+		int length = left.length + right.length - 1;
+		int size = Integer.highestOneBit(length);
+		if (size < length)
+		{
+			size <<= 1;
+		}
+		// Step 1: Transform both
+		double[] leftReal = Arrays.copyOf(left, size);
+		double[] leftImaginary = new double[size];
+		double[] rightReal = Arrays.copyOf(right, size);
+		double[] rightImaginary = new double[size];
+		transform(leftReal, leftImaginary, false);
+		transform(rightReal, rightImaginary, false);
+		// Step 2: Multiply
+		for (int index = 0; index < size; index++)
+		{
+			double real = leftReal[index] * rightReal[index] - leftImaginary[index] * rightImaginary[index];
+			leftImaginary[index] = leftReal[index] * rightImaginary[index] + leftImaginary[index] * rightReal[index];
+			leftReal[index] = real;
+		}
+		// Step 3: Transform back
+		transform(leftReal, leftImaginary, true);
+		double[] sum = new double[length];
+		for (int index = 0; index < length; index++)
+		{
+			sum[index] = Math.max(0, leftReal[index] / size);
+		}
+		return sum;
+	}
+
+	/**
+	 * Iterative radix-2 fast Fourier transform in place.
+	 *
+	 * @param real
+	 *          Real parts. The length must be a power of two.
+	 * @param imaginary
+	 *          Imaginary parts, same length.
+	 * @param inverse
+	 *          <code>true</code> for the inverse transform, without the division
+	 *          by the length.
+	 */
+	private static void transform(double[] real, double[] imaginary, boolean inverse)
+	{
+		int size = real.length;
+		// Step 1: Bit reversal permutation
+		for (int index = 1, reversed = 0; index < size; index++)
+		{
+			int bit = size >> 1;
+			for (; (reversed & bit) != 0; bit >>= 1)
+			{
+				reversed ^= bit;
+			}
+			reversed ^= bit;
+			if (index < reversed)
+			{
+				double swap = real[index];
+				real[index] = real[reversed];
+				real[reversed] = swap;
+				swap = imaginary[index];
+				imaginary[index] = imaginary[reversed];
+				imaginary[reversed] = swap;
+			}
+		}
+		// Step 2: Twiddle factors, computed directly to avoid accumulating errors
+		double[] cosines = new double[size / 2];
+		double[] sines = new double[size / 2];
+		for (int index = 0; index < size / 2; index++)
+		{
+			double angle = 2 * Math.PI * index / size;
+			cosines[index] = Math.cos(angle);
+			sines[index] = inverse ? Math.sin(angle) : -Math.sin(angle);
+		}
+		// Step 3: Butterflies
+		for (int length = 2; length <= size; length <<= 1)
+		{
+			int half = length / 2;
+			int step = size / length;
+			for (int start = 0; start < size; start += length)
+			{
+				for (int offset = 0; offset < half; offset++)
+				{
+					int first = start + offset;
+					int second = first + half;
+					double cosine = cosines[offset * step];
+					double sine = sines[offset * step];
+					double secondReal = real[second] * cosine - imaginary[second] * sine;
+					double secondImaginary = real[second] * sine + imaginary[second] * cosine;
+					real[second] = real[first] - secondReal;
+					imaginary[second] = imaginary[first] - secondImaginary;
+					real[first] += secondReal;
+					imaginary[first] += secondImaginary;
+				}
+			}
+		}
+	}
+}
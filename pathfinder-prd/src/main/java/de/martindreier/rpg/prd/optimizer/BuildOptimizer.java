@@ -0,0 +1,627 @@
+/**
+ * BuildOptimizer.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.optimizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import lombok.NonNull;
+
+/**
+ * Finds the character build which maximizes an {@link Objective}, given a plan
+ * of {@link Choice choices}.
+ * <p>
+ * The search is a depth-first branch-and-bound over the choices:
+ * <ul>
+ * <li>For monotone objectives, a partial build is skipped if even the highest
+ * values of every remaining choice combined, with every remaining feat taken
+ * once, cannot beat the best complete build found so far.</li>
+ * <li>Partial builds are remembered by their values and the number of choices
+ * made. Reaching the same partial build again, e.g. by taking the same feats in
+ * a different order, skips it.</li>
+ * <li>Subtrees near the root run in parallel on a fork/join pool; all tasks
+ * share the best build found so far.</li>
+ * </ul>
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class BuildOptimizer
+{
+	/**
+	 * Default maximum number of partial builds remembered during a search.
+	 */
+	public static final int			DEFAULT_MEMO_SIZE	= 1 << 20;
+
+	/**
+	 * Number of queued tasks above which a task explores its subtree itself
+	 * instead of forking.
+	 */
+	private static final int		SURPLUS_TASKS			= 2;
+
+	/**
+	 * Pool running the search.
+	 */
+	private final ForkJoinPool	pool;
+
+	/**
+	 * Maximum number of partial builds remembered during a search.
+	 */
+	private final int						memoSize;
+
+	/**
+	 * Create an optimizer using the common fork/join pool.
+	 */
+	public BuildOptimizer()
+	{
+		this(ForkJoinPool.commonPool(), DEFAULT_MEMO_SIZE);
+	}
+
+	/**
+	 * Create an optimizer.
+	 *
+	 * @param pool
+	 *          Pool running the search.
+	 * @param memoSize
+	 *          Maximum number of partial builds remembered during a search. Must
+	 *          be zero or positive.
+	 */
+	public BuildOptimizer(@NonNull ForkJoinPool pool, int memoSize)
+	{
+		if (memoSize < 0)
+		{
+			throw new IllegalArgumentException("Memo size must be zero or positive");
+		}
+		this.pool = pool;
+		this.memoSize = memoSize;
+	}
+
+	/**
+	 * Find the best build.
+	 *
+	 * @param start
+	 *          The build before the first choice.
+	 * @param plan
+	 *          Choices in the order they are made.
+	 * @param objective
+	 *          Value to maximize.
+	 * @return The best build.
+	 */
+	public BuildResult optimize(@NonNull CharacterBuild start, @NonNull List<Choice> plan, @NonNull Objective objective)
+	{
+		return optimize(start, plan, objective, build -> true);
+	}
+
+	/**
+	 * Find the best build which meets a constraint.
+	 *
+	 * @param start
+	 *          The build before the first choice.
+	 * @param plan
+	 *          Choices in the order they are made.
+	 * @param objective
+	 *          Value to maximize.
+	 * @param constraint
+	 *          Condition the final build must meet, e.g. a minimum skill total.
+	 * @return The best build, or <code>null</code> if no build meets the
+	 *         constraint.
+	 */
+	public BuildResult optimize(@NonNull CharacterBuild start, @NonNull List<Choice> plan,
+					@NonNull Objective objective, @NonNull Predicate<CharacterBuild> constraint)
+	{
+		Search search = new Search(new ArrayList<>(plan), objective, constraint);
+		pool.invoke(new Subtree(search, start, 0, null));
+		Candidate best = search.best.get();
+		if (best == null)
+		{
+			return null;
+		}
+		List<BuildOption> picks = new ArrayList<>();
+		for (Path path = best.path; path != null; path = path.parent)
+		{
+			picks.add(path.option);
+		}
+		Collections.reverse(picks);
+		return new BuildResult(best.build, best.value, Collections.unmodifiableList(picks), search.visited.sum());
+	}
+
+	/**
+	 * Options picked so far, as a list linked from the last pick to the first.
+	 * Shared between subtrees.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	private static class Path
+	{
+		/**
+		 * The last pick.
+		 */
+		private final BuildOption	option;
+
+		/**
+		 * The picks before, or <code>null</code>.
+		 */
+		private final Path				parent;
+
+		/**
+		 * Create a path.
+		 *
+		 * @param option
+		 *          The last pick.
+		 * @param parent
+		 *          The picks before.
+		 */
+		private Path(BuildOption option, Path parent)
+		{
+			this.option = option;
+			this.parent = parent;
+		}
+	}
+
+	/**
+	 * A complete build which meets the constraint.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	private static class Candidate
+	{
+		/**
+		 * The build.
+		 */
+		private final CharacterBuild	build;
+
+		/**
+		 * Value of the build.
+		 */
+		private final double					value;
+
+		/**
+		 * Picks leading to the build.
+		 */
+		private final Path						path;
+
+		/**
+		 * Create a candidate.
+		 *
+		 * @param build
+		 *          The build.
+		 * @param value
+		 *          Value of the build.
+		 * @param path
+		 *          Picks leading to the build.
+		 */
+		private Candidate(CharacterBuild build, double value, Path path)
+		{
+			this.build = build;
+			this.value = value;
+			this.path = path;
+		}
+	}
+
+	/**
+	 * Partial build after a number of choices, used to recognize builds reached
+	 * twice.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	private static class State
+	{
+		/**
+		 * Number of choices made.
+		 */
+		private final int							depth;
+
+		/**
+		 * The partial build.
+		 */
+		private final CharacterBuild	build;
+
+		/**
+		 * Create a state.
+		 *
+		 * @param depth
+		 *          Number of choices made.
+		 * @param build
+		 *          The partial build.
+		 */
+		private State(int depth, CharacterBuild build)
+		{
+			this.depth = depth;
+			this.build = build;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * build.hashCode() + depth;
+		}
+
+		@Override
+		public boolean equals(Object other)
+		{
+			return other instanceof State && ((State) other).depth == depth && ((State) other).build.equals(build);
+		}
+	}
+
+	/**
+	 * Shared state of one search.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	private class Search
+	{
+		/**
+		 * The choices.
+		 */
+		private final List<Choice>								plan;
+
+		/**
+		 * Value to maximize.
+		 */
+		private final Objective										objective;
+
+		/**
+		 * Condition for complete builds.
+		 */
+		private final Predicate<CharacterBuild>		constraint;
+
+		/**
+		 * For each position in the plan, the combined effect of the choices from
+		 * that position on which are not pure feat choices, assuming each choice
+		 * gives the highest value any of its options gives. <code>null</code> if
+		 * the objective is not monotone.
+		 */
+		private final CharacterBuild[]						remainingEffects;
+
+		/**
+		 * For each position in the plan, the distinct feats offered by pure feat
+		 * choices from that position on. A feat can only be taken once, so
+		 * counting each feat once gives a much lower bound than counting the best
+		 * feat for every choice. <code>null</code> if the objective is not
+		 * monotone.
+		 */
+		private final BuildOption[][]							remainingFeats;
+
+		/**
+		 * Highest level of all choices; no skill can have more ranks.
+		 */
+		private final int													maxLevel;
+
+		/**
+		 * Best complete build so far.
+		 */
+		private final AtomicReference<Candidate>	best					= new AtomicReference<>();
+
+		/**
+		 * Partial builds already reached.
+		 */
+		private final Set<State>									reached				= ConcurrentHashMap.newKeySet();
+
+		/**
+		 * Approximate size of {@link #reached}.
+		 */
+		private final AtomicInteger								reachedCount	= new AtomicInteger();
+
+		/**
+		 * Number of partial builds looked at.
+		 */
+		private final LongAdder										visited				= new LongAdder();
+
+		/**
+		 * Set up a search.
+		 *
+		 * @param plan
+		 *          The choices.
+		 * @param objective
+		 *          Value to maximize.
+		 * @param constraint
+		 *          Condition for complete builds.
+		 */
+		private Search(List<Choice> plan, Objective objective, Predicate<CharacterBuild> constraint)
+		{
+			this.plan = plan;
+			this.objective = objective;
+			this.constraint = constraint;
+			int level = 0;
+			for (Choice choice : plan)
+			{
+				level = Math.max(level, choice.getLevel());
+			}
+			maxLevel = level;
+			if (objective.isMonotone())
+			{
+				remainingEffects = new CharacterBuild[plan.size() + 1];
+				remainingFeats = new BuildOption[plan.size() + 1][];
+				remainingEffects[plan.size()] = CharacterBuild.EMPTY;
+				remainingFeats[plan.size()] = new BuildOption[0];
+				Map<Integer, BuildOption> feats = new LinkedHashMap<>();
+				for (int depth = plan.size() - 1; depth >= 0; depth--)
+				{
+					List<BuildOption> options = plan.get(depth).getOptions();
+					if (!options.isEmpty() && options.stream().allMatch(option -> option.getFeatIndex() >= 0))
+					{
+						remainingEffects[depth] = remainingEffects[depth + 1];
+						for (BuildOption option : options)
+						{
+							feats.putIfAbsent(option.getFeatIndex(), option);
+						}
+					}
+					else
+					{
+						CharacterBuild choiceEffect = CharacterBuild.EMPTY;
+						for (BuildOption option : options)
+						{
+							choiceEffect = choiceEffect.max(option.getEffect());
+						}
+						remainingEffects[depth] = remainingEffects[depth + 1].plus(choiceEffect);
+					}
+					remainingFeats[depth] = feats.values().toArray(new BuildOption[feats.size()]);
+				}
+			}
+			else
+			{
+				remainingEffects = null;
+				remainingFeats = null;
+			}
+		}
+
+		/**
+		 * Get the value of the best complete build so far.
+		 *
+		 * @return The value, or negative infinity if there is none.
+		 */
+		private double getBestValue()
+		{
+			Candidate candidate = best.get();
+			return candidate == null ? Double.NEGATIVE_INFINITY : candidate.value;
+		}
+
+		/**
+		 * Offer a complete build.
+		 *
+		 * @param build
+		 *          The build.
+		 * @param path
+		 *          Picks leading to the build.
+		 */
+		private void offer(CharacterBuild build, Path path)
+		{
+			if (!constraint.test(build))
+			{
+				return;
+			}
+			double value = objective.evaluate(build);
+			Candidate candidate = null;
+			while (true)
+			{
+				Candidate current = best.get();
+				if (current != null && current.value >= value)
+				{
+					return;
+				}
+				if (candidate == null)
+				{
+					candidate = new Candidate(build, value, path);
+				}
+				if (best.compareAndSet(current, candidate))
+				{
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Check if a partial build can still beat the best build so far, and has
+		 * not been reached before.
+		 *
+		 * @param build
+		 *          The partial build.
+		 * @param depth
+		 *          Number of choices made.
+		 * @return <code>true</code> if the subtree must be explored.
+		 */
+		private boolean isPromising(CharacterBuild build, int depth)
+		{
+			if (remainingEffects != null && getUpperBound(build, depth) <= getBestValue())
+			{
+				return false;
+			}
+			if (reachedCount.get() < memoSize)
+			{
+				if (!reached.add(new State(depth, build)))
+				{
+					return false;
+				}
+				reachedCount.incrementAndGet();
+			}
+			return true;
+		}
+
+		/**
+		 * Get a value no build reachable from a partial build can exceed. Only
+		 * valid for monotone objectives.
+		 *
+		 * @param build
+		 *          The partial build.
+		 * @param depth
+		 *          Number of choices made.
+		 * @return The upper bound.
+		 */
+		private double getUpperBound(CharacterBuild build, int depth)
+		{
+			CharacterBuild optimistic = build.plus(remainingEffects[depth]);
+			for (BuildOption feat : remainingFeats[depth])
+			{
+				if (!build.hasFeat(feat.getFeatIndex()))
+				{
+					optimistic = optimistic.plus(feat.getEffect());
+				}
+			}
+			return objective.evaluate(optimistic.limitSkillRanks(maxLevel));
+		}
+
+		/**
+		 * Get the builds after the next choice, the most promising first.
+		 *
+		 * @param build
+		 *          The partial build.
+		 * @param depth
+		 *          Number of choices made.
+		 * @param path
+		 *          Picks so far.
+		 * @return The next partial builds with their paths. Contains the
+		 *         unchanged build if no option is applicable.
+		 */
+		private List<Candidate> expand(CharacterBuild build, int depth, Path path)
+		{
+			Choice choice = plan.get(depth);
+			List<Candidate> children = new ArrayList<>(choice.getOptions().size());
+			for (BuildOption option : choice.getOptions())
+			{
+				if (option.isApplicable(build, choice.getLevel()))
+				{
+					CharacterBuild child = option.apply(build);
+					children.add(new Candidate(child, objective.evaluate(child), new Path(option, path)));
+				}
+			}
+			if (children.isEmpty())
+			{
+				children.add(new Candidate(build, 0, path));
+			}
+			else
+			{
+				children.sort((left, right) -> Double.compare(right.value, left.value));
+			}
+			return children;
+		}
+
+		/**
+		 * Explore a subtree on the current thread.
+		 *
+		 * @param build
+		 *          The partial build.
+		 * @param depth
+		 *          Number of choices made.
+		 * @param path
+		 *          Picks so far.
+		 */
+		private void explore(CharacterBuild build, int depth, Path path)
+		{
+			visited.increment();
+			if (depth == plan.size())
+			{
+				offer(build, path);
+				return;
+			}
+			if (!isPromising(build, depth))
+			{
+				return;
+			}
+			for (Candidate child : expand(build, depth, path))
+			{
+				explore(child.build, depth + 1, child.path);
+			}
+		}
+	}
+
+	/**
+	 * Subtree which may be split into parallel tasks.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	private class Subtree extends RecursiveAction
+	{
+		/**
+		 * Serialization ID.
+		 */
+		private static final long			serialVersionUID	= 1L;
+
+		/**
+		 * The search.
+		 */
+		private final Search					search;
+
+		/**
+		 * Root of the subtree.
+		 */
+		private final CharacterBuild	build;
+
+		/**
+		 * Number of choices made.
+		 */
+		private final int							depth;
+
+		/**
+		 * Picks so far.
+		 */
+		private final Path						path;
+
+		/**
+		 * Create a subtree.
+		 *
+		 * @param search
+		 *          The search.
+		 * @param build
+		 *          Root of the subtree.
+		 * @param depth
+		 *          Number of choices made.
+		 * @param path
+		 *          Picks so far.
+		 */
+		private Subtree(Search search, CharacterBuild build, int depth, Path path)
+		{
+			this.search = search;
+			this.build = build;
+			this.depth = depth;
+			this.path = path;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (depth == search.plan.size() || ForkJoinTask.getSurplusQueuedTaskCount() > SURPLUS_TASKS)
+			{
+				search.explore(build, depth, path);
+				return;
+			}
+			search.visited.increment();
+			if (!search.isPromising(build, depth))
+			{
+				return;
+			}
+			List<Subtree> children = new ArrayList<>();
+			for (Candidate child : search.expand(build, depth, path))
+			{
+				children.add(new Subtree(search, child.build, depth + 1, child.path));
+			}
+			invokeAll(children);
+		}
+	}
+}
@@ -0,0 +1,274 @@
+/**
+ * BuildOption.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.optimizer;
+
+import java.util.function.Predicate;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.rules.Skill;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * One possible pick for a {@link Choice}: a feat, an attribute increase or a
+ * skill rank. The effect of an option is fixed and never lowers a value, which
+ * allows the optimizer to compute an upper bound for all builds reachable from
+ * a partial build. Options are immutable; the <code>with...</code> methods
+ * return a new option.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class BuildOption
+{
+	/**
+	 * Display name of the option.
+	 */
+	@Getter
+	private final String										name;
+
+	/**
+	 * The feat taken by this option, or <code>null</code>.
+	 */
+	@Getter
+	private final Feat											feat;
+
+	/**
+	 * Index of the feat in the build's feat mask, or -1 if this is no feat.
+	 */
+	@Getter
+	private final int												featIndex;
+
+	/**
+	 * Skill which receives a rank, or <code>null</code>.
+	 */
+	private final Skill											rankedSkill;
+
+	/**
+	 * Values added to the build.
+	 */
+	private final CharacterBuild						effect;
+
+	/**
+	 * Condition the build must meet before the option can be picked.
+	 */
+	private final Predicate<CharacterBuild>	prerequisite;
+
+	/**
+	 * Create an option.
+	 *
+	 * @param name
+	 *          Display name.
+	 * @param feat
+	 *          The feat, or <code>null</code>.
+	 * @param featIndex
+	 *          Index of the feat, or -1.
+	 * @param rankedSkill
+	 *          Skill which receives a rank, or <code>null</code>.
+	 * @param effect
+	 *          Values added to the build.
+	 * @param prerequisite
+	 *          Condition for picking the option.
+	 */
+	private BuildOption(String name, Feat feat, int featIndex, Skill rankedSkill, CharacterBuild effect,
+					Predicate<CharacterBuild> prerequisite)
+	{
+		this.name = name;
+		this.feat = feat;
+		this.featIndex = featIndex;
+		this.rankedSkill = rankedSkill;
+		this.effect = effect;
+		this.prerequisite = prerequisite;
+	}
+
+	/**
+	 * Create an option for taking a feat. The feat has no effect until effects
+	 * are added with the <code>with...</code> methods.
+	 *
+	 * @param feat
+	 *          The feat.
+	 * @param featIndex
+	 *          Index of the feat in the build's feat mask, from 0 to
+	 *          {@link CharacterBuild#MAX_FEATS} - 1. Each feat in a plan needs its
+	 *          own index.
+	 * @return New option.
+	 */
+	public static BuildOption feat(@NonNull Feat feat, int featIndex)
+	{
+		if (featIndex < 0 || featIndex >= CharacterBuild.MAX_FEATS)
+		{
+			throw new IllegalArgumentException("Feat index must be between 0 and " + (CharacterBuild.MAX_FEATS - 1));
+		}
+		return new BuildOption(feat.getName(), feat, featIndex, null, CharacterBuild.EMPTY.addFeat(featIndex),
+						build -> true);
+	}
+
+	/**
+	 * Create an option for increasing an attribute score by 1.
+	 *
+	 * @param attribute
+	 *          The attribute.
+	 * @return New option.
+	 */
+	public static BuildOption attributeIncrease(@NonNull Attribute attribute)
+	{
+		return new BuildOption("+1 " + attribute.getAbbreviation(), null, -1, null,
+						CharacterBuild.EMPTY.addAttributeOrRanks(attribute, null, 1), build -> true);
+	}
+
+	/**
+	 * Create an option for putting one rank into a skill. The rank can only be
+	 * picked if the skill ranks do not exceed the level of the choice.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @return New option.
+	 */
+	public static BuildOption skillRank(@NonNull Skill skill)
+	{
+		return new BuildOption("+1 " + skill.getSkillName(), null, -1, skill,
+						CharacterBuild.EMPTY.addAttributeOrRanks(null, skill, 1), build -> true);
+	}
+
+	/**
+	 * Add an armor class bonus to the effect of this option.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @param value
+	 *          The bonus. Must be zero or positive.
+	 * @return New option.
+	 */
+	public BuildOption withArmorClassBonus(@NonNull BonusType type, int value)
+	{
+		checkBonus(value);
+		return new BuildOption(name, feat, featIndex, rankedSkill,
+						effect.withArmorClassBonus(type, effect.getArmorClassBonus(type) + value), prerequisite);
+	}
+
+	/**
+	 * Add a saving throw bonus to the effect of this option.
+	 *
+	 * @param type
+	 *          Save type.
+	 * @param value
+	 *          The bonus. Must be zero or positive.
+	 * @return New option.
+	 */
+	public BuildOption withSaveBonus(@NonNull SaveType type, int value)
+	{
+		checkBonus(value);
+		return new BuildOption(name, feat, featIndex, rankedSkill, effect.addSkillOrSaveBonus(null, type, value),
+						prerequisite);
+	}
+
+	/**
+	 * Add a flat skill bonus to the effect of this option.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @param value
+	 *          The bonus. Must be zero or positive.
+	 * @return New option.
+	 */
+	public BuildOption withSkillBonus(@NonNull Skill skill, int value)
+	{
+		checkBonus(value);
+		return new BuildOption(name, feat, featIndex, rankedSkill, effect.addSkillOrSaveBonus(skill, null, value),
+						prerequisite);
+	}
+
+	/**
+	 * Add a prerequisite to this option. All prerequisites must be met.
+	 *
+	 * @param condition
+	 *          Condition the build must meet before the option can be picked.
+	 * @return New option.
+	 */
+	public BuildOption withPrerequisite(@NonNull Predicate<CharacterBuild> condition)
+	{
+		return new BuildOption(name, feat, featIndex, rankedSkill, effect, prerequisite.and(condition));
+	}
+
+	/**
+	 * Check if the option can be picked.
+	 *
+	 * @param build
+	 *          The build so far.
+	 * @param level
+	 *          Character level of the choice.
+	 * @return <code>true</code> if the option is allowed.
+	 */
+	public boolean isApplicable(@NonNull CharacterBuild build, int level)
+	{
+		if (featIndex >= 0 && build.hasFeat(featIndex))
+		{
+			return false;
+		}
+		if (rankedSkill != null && build.getSkillRanks(rankedSkill) >= level)
+		{
+			return false;
+		}
+		return prerequisite.test(build);
+	}
+
+	/**
+	 * Pick the option.
+	 *
+	 * @param build
+	 *          The build so far.
+	 * @return New build with the effect of this option.
+	 */
+	public CharacterBuild apply(@NonNull CharacterBuild build)
+	{
+		return build.plus(effect);
+	}
+
+	/**
+	 * Get the values this option adds to a build.
+	 *
+	 * @return The effect.
+	 */
+	CharacterBuild getEffect()
+	{
+		return effect;
+	}
+
+	@Override
+	public String toString()
+	{
+		return name;
+	}
+
+	/**
+	 * Check that a bonus does not lower a value.
+	 *
+	 * @param value
+	 *          The bonus.
+	 */
+	private static void checkBonus(int value)
+	{
+		if (value < 0)
+		{
+			throw new IllegalArgumentException("Build option effects must be zero or positive");
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/**
+ * BuildResult.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.optimizer;
+
+import java.util.List;
+import lombok.Value;
+
+/**
+ * Best build found by the {@link BuildOptimizer}.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@Value
+public class BuildResult
+{
+	/**
+	 * The final build.
+	 */
+	private CharacterBuild		build;
+
+	/**
+	 * Value of the build according to the objective.
+	 */
+	private double						value;
+
+	/**
+	 * Options picked, in the order of the plan. Skipped choices are left out.
+	 */
+	private List<BuildOption>	picks;
+
+	/**
+	 * Number of partial builds the search looked at.
+	 */
+	private long							visitedBuilds;
+}
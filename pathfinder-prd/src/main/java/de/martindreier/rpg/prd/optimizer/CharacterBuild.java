@@ -0,0 +1,561 @@
+/**
+ * CharacterBuild.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.optimizer;
+
+import java.util.Arrays;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.ArmorClass;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.Saves;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.rules.Skill;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Immutable state of a character build: attribute scores, skill ranks, armor
+ * class bonuses, saving throws and the feats taken so far. Changes return a new
+ * build. Two builds are equal if all their values are equal, no matter in which
+ * order the choices were made.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class CharacterBuild
+{
+	/**
+	 * Number of feats which can be tracked.
+	 */
+	public static final int			MAX_FEATS	= Long.SIZE;
+
+	/**
+	 * Build without any values, used as the base of build option effects.
+	 */
+	static final CharacterBuild	EMPTY			= new CharacterBuild(new int[Attribute.values().length]);
+
+	/**
+	 * Attribute scores, indexed by attribute ordinal.
+	 */
+	private final int[]					attributeScores;
+
+	/**
+	 * Skill ranks, indexed by skill ordinal.
+	 */
+	private final int[]					skillRanks;
+
+	/**
+	 * Flat skill bonuses, e.g. from feats, indexed by skill ordinal.
+	 */
+	private final int[]					skillBonuses;
+
+	/**
+	 * Armor class bonuses, indexed by bonus type ordinal. Dodge bonuses are
+	 * summed up, all other types use the highest bonus.
+	 */
+	private final int[]					armorClassBonuses;
+
+	/**
+	 * Saving throw bonuses without the attribute bonus, indexed by save type
+	 * ordinal.
+	 */
+	private final int[]					saveBonuses;
+
+	/**
+	 * Feats taken, as bit mask over the feat indices.
+	 */
+	@Getter
+	private final long					featMask;
+
+	/**
+	 * Cached hash code.
+	 */
+	private final int						hashCode;
+
+	/**
+	 * Cached armor class, created on first use.
+	 */
+	private volatile ArmorClass	armorClass;
+
+	/**
+	 * Create a build with all attribute scores at 10.
+	 */
+	public CharacterBuild()
+	{
+		this(filled(Attribute.values().length, 10));
+	}
+
+	/**
+	 * Create a build from attribute scores.
+	 *
+	 * @param attributeScores
+	 *          Attribute scores, indexed by attribute ordinal. Not copied.
+	 */
+	private CharacterBuild(int[] attributeScores)
+	{
+		this(attributeScores, new int[Skill.values().length], new int[Skill.values().length],
+						new int[BonusType.values().length], new int[SaveType.values().length], 0L);
+	}
+
+	/**
+	 * Create a build. The arrays are not copied.
+	 *
+	 * @param attributeScores
+	 *          Attribute scores.
+	 * @param skillRanks
+	 *          Skill ranks.
+	 * @param skillBonuses
+	 *          Flat skill bonuses.
+	 * @param armorClassBonuses
+	 *          Armor class bonuses.
+	 * @param saveBonuses
+	 *          Saving throw bonuses.
+	 * @param featMask
+	 *          Feats taken.
+	 */
+	private CharacterBuild(int[] attributeScores, int[] skillRanks, int[] skillBonuses, int[] armorClassBonuses,
+					int[] saveBonuses, long featMask)
+	{
+		this.attributeScores = attributeScores;
+		this.skillRanks = skillRanks;
+		this.skillBonuses = skillBonuses;
+		this.armorClassBonuses = armorClassBonuses;
+		this.saveBonuses = saveBonuses;
+		this.featMask = featMask;
+		int hash = Arrays.hashCode(attributeScores);
+		hash = 31 * hash + Arrays.hashCode(skillRanks);
+		hash = 31 * hash + Arrays.hashCode(skillBonuses);
+		hash = 31 * hash + Arrays.hashCode(armorClassBonuses);
+		hash = 31 * hash + Arrays.hashCode(saveBonuses);
+		hashCode = 31 * hash + Long.hashCode(featMask);
+	}
+
+	/**
+	 * Get an attribute score.
+	 *
+	 * @param attribute
+	 *          The attribute.
+	 * @return The score.
+	 */
+	public int getAttributeScore(@NonNull Attribute attribute)
+	{
+		return attributeScores[attribute.ordinal()];
+	}
+
+	/**
+	 * Get the bonus of an attribute.
+	 *
+	 * @param attribute
+	 *          The attribute.
+	 * @return The bonus derived from the score.
+	 */
+	public int getAttributeBonus(@NonNull Attribute attribute)
+	{
+		return Attribute.calculateBonus(attributeScores[attribute.ordinal()]);
+	}
+
+	/**
+	 * Get the ranks in a skill.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @return Number of ranks.
+	 */
+	public int getSkillRanks(@NonNull Skill skill)
+	{
+		return skillRanks[skill.ordinal()];
+	}
+
+	/**
+	 * Get the skill total: ranks, attribute bonus and flat bonuses.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @return The total skill bonus.
+	 */
+	public int getSkillTotal(@NonNull Skill skill)
+	{
+		return skillRanks[skill.ordinal()] + getAttributeBonus(skill.getBaseAttribute()) + skillBonuses[skill.ordinal()];
+	}
+
+	/**
+	 * Get an armor class bonus.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @return The bonus, 0 if none.
+	 */
+	public int getArmorClassBonus(@NonNull BonusType type)
+	{
+		return armorClassBonuses[type.ordinal()];
+	}
+
+	/**
+	 * Get the armor class, including the Dexterity bonus.
+	 *
+	 * @return The armor class. Must not be modified.
+	 */
+	public ArmorClass getArmorClass()
+	{
+		ArmorClass result = armorClass;
+		if (result == null)
+		{
+			result = new ArmorClass();
+			result.updateModifier(Attribute.DEXTERITY, getAttributeBonus(Attribute.DEXTERITY));
+			for (BonusType type : BonusType.values())
+			{
+				if (armorClassBonuses[type.ordinal()] != 0)
+				{
+					result.updateModifier(type, armorClassBonuses[type.ordinal()]);
+				}
+			}
+			armorClass = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Get a saving throw, including the attribute bonus.
+	 *
+	 * @param type
+	 *          Save type.
+	 * @return The saving throw bonus.
+	 */
+	public int getSave(@NonNull SaveType type)
+	{
+		return saveBonuses[type.ordinal()] + getAttributeBonus(type.getBaseAttribute());
+	}
+
+	/**
+	 * Get all saving throws, including the attribute bonuses.
+	 *
+	 * @return New saves object.
+	 */
+	public Saves getSaves()
+	{
+		return new Saves(getSave(SaveType.FORTITUDE), getSave(SaveType.REFLEX), getSave(SaveType.WILL));
+	}
+
+	/**
+	 * Check if a feat has been taken.
+	 *
+	 * @param featIndex
+	 *          Index of the feat.
+	 * @return <code>true</code> if the feat has been taken.
+	 */
+	public boolean hasFeat(int featIndex)
+	{
+		return (featMask & (1L << featIndex)) != 0;
+	}
+
+	/**
+	 * Set an attribute score.
+	 *
+	 * @param attribute
+	 *          The attribute.
+	 * @param score
+	 *          The new score. Must be zero or positive.
+	 * @return New build.
+	 */
+	public CharacterBuild withAttributeScore(@NonNull Attribute attribute, int score)
+	{
+		if (score < 0)
+		{
+			throw new IllegalArgumentException("Attribute value must be zero or positive");
+		}
+		int[] scores = attributeScores.clone();
+		scores[attribute.ordinal()] = score;
+		return new CharacterBuild(scores, skillRanks, skillBonuses, armorClassBonuses, saveBonuses, featMask);
+	}
+
+	/**
+	 * Set the ranks in a skill.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @param ranks
+	 *          Number of ranks. Must be zero or positive.
+	 * @return New build.
+	 */
+	public CharacterBuild withSkillRanks(@NonNull Skill skill, int ranks)
+	{
+		if (ranks < 0)
+		{
+			throw new IllegalArgumentException("Skill ranks must be zero or positive");
+		}
+		int[] ranksBySkill = skillRanks.clone();
+		ranksBySkill[skill.ordinal()] = ranks;
+		return new CharacterBuild(attributeScores, ranksBySkill, skillBonuses, armorClassBonuses, saveBonuses, featMask);
+	}
+
+	/**
+	 * Set an armor class bonus.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @param value
+	 *          The bonus.
+	 * @return New build.
+	 */
+	public CharacterBuild withArmorClassBonus(@NonNull BonusType type, int value)
+	{
+		int[] bonuses = armorClassBonuses.clone();
+		bonuses[type.ordinal()] = value;
+		return new CharacterBuild(attributeScores, skillRanks, skillBonuses, bonuses, saveBonuses, featMask);
+	}
+
+	/**
+	 * Set the base saving throw bonus, e.g. from class levels.
+	 *
+	 * @param type
+	 *          Save type.
+	 * @param value
+	 *          The bonus, without the attribute bonus.
+	 * @return New build.
+	 */
+	public CharacterBuild withBaseSave(@NonNull SaveType type, int value)
+	{
+		int[] bonuses = saveBonuses.clone();
+		bonuses[type.ordinal()] = value;
+		return new CharacterBuild(attributeScores, skillRanks, skillBonuses, armorClassBonuses, bonuses, featMask);
+	}
+
+	/**
+	 * Add to an attribute score, skill ranks or a bonus. Used to set up the
+	 * effects of build options.
+	 *
+	 * @param attribute
+	 *          Attribute to increase, or <code>null</code>.
+	 * @param skill
+	 *          Skill to receive ranks, or <code>null</code>.
+	 * @param value
+	 *          Amount to add.
+	 * @return New build.
+	 */
+	CharacterBuild addAttributeOrRanks(Attribute attribute, Skill skill, int value)
+	{
+		int[] scores = attributeScores;
+		int[] ranks = skillRanks;
+		if (attribute != null)
+		{
+			scores = scores.clone();
+			scores[attribute.ordinal()] += value;
+		}
+		if (skill != null)
+		{
+			ranks = ranks.clone();
+			ranks[skill.ordinal()] += value;
+		}
+		return new CharacterBuild(scores, ranks, skillBonuses, armorClassBonuses, saveBonuses, featMask);
+	}
+
+	/**
+	 * Add a flat skill bonus or save bonus. Used to set up the effects of build
+	 * options.
+	 *
+	 * @param skill
+	 *          Skill to receive the bonus, or <code>null</code>.
+	 * @param saveType
+	 *          Save to receive the bonus, or <code>null</code>.
+	 * @param value
+	 *          Amount to add.
+	 * @return New build.
+	 */
+	CharacterBuild addSkillOrSaveBonus(Skill skill, SaveType saveType, int value)
+	{
+		int[] skills = skillBonuses;
+		int[] saves = saveBonuses;
+		if (skill != null)
+		{
+			skills = skills.clone();
+			skills[skill.ordinal()] += value;
+		}
+		if (saveType != null)
+		{
+			saves = saves.clone();
+			saves[saveType.ordinal()] += value;
+		}
+		return new CharacterBuild(attributeScores, skillRanks, skills, armorClassBonuses, saves, featMask);
+	}
+
+	/**
+	 * Add a feat. Used to set up the effects of build options.
+	 *
+	 * @param featIndex
+	 *          Index of the feat.
+	 * @return New build.
+	 */
+	CharacterBuild addFeat(int featIndex)
+	{
+		return new CharacterBuild(attributeScores, skillRanks, skillBonuses, armorClassBonuses, saveBonuses,
+						featMask | (1L << featIndex));
+	}
+
+	/**
+	 * Apply an effect to this build. Attribute scores, skill ranks, flat skill
+	 * and save bonuses and dodge bonuses are added, other armor class bonuses do
+	 * not stack, so the higher one is used. Feats are merged.
+	 * <p>
+	 * Since all parts only grow, applying several effects to a build never
+	 * results in lower values than applying a subset of them.
+	 *
+	 * @param effect
+	 *          The effect.
+	 * @return New build.
+	 */
+	CharacterBuild plus(CharacterBuild effect)
+	{
+		int[] bonuses = armorClassBonuses.clone();
+		for (int index = 0; index < bonuses.length; index++)
+		{
+			bonuses[index] = index == BonusType.DODGE.ordinal() ? bonuses[index] + effect.armorClassBonuses[index]
+							: Math.max(bonuses[index], effect.armorClassBonuses[index]);
+		}
+		return new CharacterBuild(add(attributeScores, effect.attributeScores), add(skillRanks, effect.skillRanks),
+						add(skillBonuses, effect.skillBonuses), bonuses, add(saveBonuses, effect.saveBonuses),
+						featMask | effect.featMask);
+	}
+
+	/**
+	 * Combine the effects of alternative options: every value is the highest
+	 * of both. Picking either option never results in higher values than
+	 * applying the combination.
+	 *
+	 * @param other
+	 *          The other effect.
+	 * @return New build.
+	 */
+	CharacterBuild max(CharacterBuild other)
+	{
+		return new CharacterBuild(max(attributeScores, other.attributeScores), max(skillRanks, other.skillRanks),
+						max(skillBonuses, other.skillBonuses), max(armorClassBonuses, other.armorClassBonuses),
+						max(saveBonuses, other.saveBonuses), featMask | other.featMask);
+	}
+
+	/**
+	 * Limit the ranks of all skills.
+	 *
+	 * @param maxRanks
+	 *          Maximum number of ranks in a skill.
+	 * @return This build if no skill exceeds the limit, otherwise a new build.
+	 */
+	CharacterBuild limitSkillRanks(int maxRanks)
+	{
+		int[] ranks = null;
+		for (int index = 0; index < skillRanks.length; index++)
+		{
+			if (skillRanks[index] > maxRanks)
+			{
+				if (ranks == null)
+				{
+					ranks = skillRanks.clone();
+				}
+				ranks[index] = maxRanks;
+			}
+		}
+		return ranks == null ? this
+						: new CharacterBuild(attributeScores, ranks, skillBonuses, armorClassBonuses, saveBonuses, featMask);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (this == other)
+		{
+			return true;
+		}
+		if (!(other instanceof CharacterBuild))
+		{
+			return false;
+		}
+		CharacterBuild build = (CharacterBuild) other;
+		return hashCode == build.hashCode && featMask == build.featMask
+						&& Arrays.equals(attributeScores, build.attributeScores) && Arrays.equals(skillRanks, build.skillRanks)
+						&& Arrays.equals(skillBonuses, build.skillBonuses)
+						&& Arrays.equals(armorClassBonuses, build.armorClassBonuses)
+						&& Arrays.equals(saveBonuses, build.saveBonuses);
+	}
+
+	/**
+	 * Add two arrays element by element.
+	 *
+	 * @param left
+	 *          First array.
+	 * @param right
+	 *          Second array, same length.
+	 * @return New array with the sums, or <code>left</code> if
+	 *         <code>right</code> is all zeros.
+	 */
+	private static int[] add(int[] left, int[] right)
+	{
+		int[] sum = null;
+		for (int index = 0; index < right.length; index++)
+		{
+			if (right[index] != 0)
+			{
+				if (sum == null)
+				{
+					sum = left.clone();
+				}
+				sum[index] += right[index];
+			}
+		}
+		return sum == null ? left : sum;
+	}
+
+	/**
+	 * Get the element-wise maximum of two arrays.
+	 *
+	 * @param left
+	 *          First array.
+	 * @param right
+	 *          Second array, same length.
+	 * @return New array with the maximums.
+	 */
+	private static int[] max(int[] left, int[] right)
+	{
+		int[] result = new int[left.length];
+		for (int index = 0; index < left.length; index++)
+		{
+			result[index] = Math.max(left[index], right[index]);
+		}
+		return result;
+	}
+
+	/**
+	 * Create an array filled with a value.
+	 *
+	 * @param length
+	 *          Length of the array.
+	 * @param value
+	 *          The value.
+	 * @return New array.
+	 */
+	private static int[] filled(int length, int value)
+	{
+		int[] array = new int[length];
+		Arrays.fill(array, value);
+		return array;
+	}
+}
@@ -0,0 +1,103 @@
+/**
+ * Choice.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.optimizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.Skill;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A decision in a character plan, e.g. the feat at 3rd level. Exactly one of
+ * the options is picked. If none of the options is applicable, the choice is
+ * skipped.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@Getter
+public final class Choice
+{
+	/**
+	 * Character level at which the choice is made.
+	 */
+	private final int								level;
+
+	/**
+	 * Possible picks. Cannot be modified.
+	 */
+	private final List<BuildOption>	options;
+
+	/**
+	 * Create a choice.
+	 *
+	 * @param level
+	 *          Character level at which the choice is made. Must be positive.
+	 * @param options
+	 *          Possible picks.
+	 */
+	public Choice(int level, @NonNull List<BuildOption> options)
+	{
+		if (level <= 0)
+		{
+			throw new IllegalArgumentException("Level must be positive");
+		}
+		this.level = level;
+		this.options = Collections.unmodifiableList(new ArrayList<>(options));
+	}
+
+	/**
+	 * Create a choice of an attribute increase, e.g. at 4th level.
+	 *
+	 * @param level
+	 *          Character level at which the choice is made.
+	 * @return New choice between all attributes.
+	 */
+	public static Choice attributeIncrease(int level)
+	{
+		List<BuildOption> options = new ArrayList<>();
+		for (Attribute attribute : Attribute.values())
+		{
+			options.add(BuildOption.attributeIncrease(attribute));
+		}
+		return new Choice(level, options);
+	}
+
+	/**
+	 * Create a choice of a skill rank.
+	 *
+	 * @param level
+	 *          Character level at which the choice is made.
+	 * @param skills
+	 *          Skills which may receive the rank.
+	 * @return New choice between the skills.
+	 */
+	public static Choice skillRank(int level, @NonNull Skill... skills)
+	{
+		List<BuildOption> options = new ArrayList<>();
+		for (Skill skill : skills)
+		{
+			options.add(BuildOption.skillRank(skill));
+		}
+		return new Choice(level, options);
+	}
+}
@@ -0,0 +1,165 @@
+/**
+ * Objective.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.optimizer;
+
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.rules.Skill;
+import lombok.NonNull;
+
+/**
+ * Value of a character build which the optimizer maximizes.
+ * <p>
+ * An objective is <em>monotone</em> if adding attribute points, skill ranks,
+ * bonuses or feats never lowers its value. For monotone objectives the
+ * optimizer can compute an upper bound for all builds reachable from a partial
+ * build by combining the highest values of all remaining choices, and skip
+ * partial builds which cannot beat the best build found so far. Objectives
+ * which are not monotone are searched exhaustively.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@FunctionalInterface
+public interface Objective
+{
+	/**
+	 * Evaluate a build.
+	 *
+	 * @param build
+	 *          The build.
+	 * @return Value of the build. Higher is better.
+	 */
+	public double evaluate(CharacterBuild build);
+
+	/**
+	 * Check if the objective never decreases when values of the build grow.
+	 *
+	 * @return <code>true</code> if the objective is monotone. The default is
+	 *         <code>false</code>.
+	 */
+	public default boolean isMonotone()
+	{
+		return false;
+	}
+
+	/**
+	 * Declare an objective as monotone.
+	 *
+	 * @param objective
+	 *          An objective which never decreases when values of the build grow.
+	 * @return Monotone objective.
+	 */
+	public static Objective monotone(@NonNull Objective objective)
+	{
+		return new Objective()
+		{
+			@Override
+			public double evaluate(CharacterBuild build)
+			{
+				return objective.evaluate(build);
+			}
+
+			@Override
+			public boolean isMonotone()
+			{
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Maximize the total armor class.
+	 *
+	 * @return The objective.
+	 */
+	public static Objective armorClass()
+	{
+		return monotone(build -> build.getArmorClass().getTotal());
+	}
+
+	/**
+	 * Maximize the touch armor class.
+	 *
+	 * @return The objective.
+	 */
+	public static Objective touchArmorClass()
+	{
+		return monotone(build -> build.getArmorClass().getTouch());
+	}
+
+	/**
+	 * Maximize the flat-footed armor class.
+	 *
+	 * @return The objective.
+	 */
+	public static Objective flatFootedArmorClass()
+	{
+		return monotone(build -> build.getArmorClass().getFlatFooted());
+	}
+
+	/**
+	 * Maximize a saving throw.
+	 *
+	 * @param type
+	 *          Save type.
+	 * @return The objective.
+	 */
+	public static Objective save(@NonNull SaveType type)
+	{
+		return monotone(build -> build.getSave(type));
+	}
+
+	/**
+	 * Maximize a skill total.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @return The objective.
+	 */
+	public static Objective skill(@NonNull Skill skill)
+	{
+		return monotone(build -> build.getSkillTotal(skill));
+	}
+
+	/**
+	 * Weigh this objective. Negative weights make the result non-monotone.
+	 *
+	 * @param weight
+	 *          The weight.
+	 * @return The weighted objective.
+	 */
+	public default Objective times(double weight)
+	{
+		Objective weighted = build -> weight * evaluate(build);
+		return isMonotone() && weight >= 0 ? monotone(weighted) : weighted;
+	}
+
+	/**
+	 * Add another objective to this one.
+	 *
+	 * @param other
+	 *          The other objective.
+	 * @return The sum, monotone if both parts are.
+	 */
+	public default Objective plus(@NonNull Objective other)
+	{
+		Objective sum = build -> evaluate(build) + other.evaluate(build);
+		return isMonotone() && other.isMonotone() ? monotone(sum) : sum;
+	}
+}
@@ -20,15 +20,15 @@
 package de.martindreier.rpg.prd.rules;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.SortedSet;
-import java.util.TreeSet;
-import de.martindreier.rpg.prd.util.I18nUtil;
 import lombok.Getter;
 import lombok.NonNull;
 
 /**
+ * Armor class of a creature. Modifier values are stored in arrays indexed by
+ * bonus type and attribute, the total, touch and flat-footed armor class are
+ * kept up to date whenever a modifier changes, so reading them is cheap.
  *
  * @author Martin Dreier <martin@martindreier.de>
  */
@@ -115,31 +115,178 @@ public class ArmorClass
 		}
 	}
 
-	private SortedSet<Modifier> modifiers = new TreeSet<>();
+	/**
+	 * Base value of the armor class without any modifiers.
+	 */
+	public static final int		BASE_VALUE			= 10;
+
+	/**
+	 * Bonus types which do not apply to touch attacks, as bit mask over the bonus
+	 * type ordinals.
+	 */
+	static final int					TOUCH_EXCLUDED	= (1 << BonusType.ARMOR.ordinal())
+					| (1 << BonusType.SHIELD.ordinal()) | (1 << BonusType.NATURAL_ARMOR.ordinal());
+
+	/**
+	 * Values of the typed modifiers, indexed by bonus type ordinal. The entry for
+	 * {@link BonusType#DODGE} is the sum of all dodge bonuses.
+	 */
+	private final int[]				typeValues			= new int[BonusType.values().length];
+
+	/**
+	 * Bit mask of bonus types for which a modifier is set.
+	 */
+	private int								typeMask				= 0;
+
+	/**
+	 * Values of the attribute modifiers, indexed by attribute ordinal.
+	 */
+	private final int[]				attributeValues	= new int[Attribute.values().length];
+
+	/**
+	 * Bit mask of attributes for which a modifier is set.
+	 */
+	private int								attributeMask		= 0;
+
+	/**
+	 * Dodge bonuses. These always stack, so each one is kept separately. Only the
+	 * first {@link #dodgeCount} entries are valid.
+	 */
+	private int[]							dodgeBonuses		= new int[2];
 
 	/**
-	 * Calculate total armor class value from all modifiers.
+	 * Number of dodge bonuses.
+	 */
+	private int								dodgeCount			= 0;
+
+	/**
+	 * Cached total armor class.
+	 */
+	private int								total						= BASE_VALUE;
+
+	/**
+	 * Cached touch armor class.
+	 */
+	private int								touch						= BASE_VALUE;
+
+	/**
+	 * Cached flat-footed armor class.
+	 */
+	private int								flatFooted			= BASE_VALUE;
+
+	/**
+	 * Get the total armor class value from all modifiers.
 	 *
-	 * @return
+	 * @return The total armor class.
 	 */
 	public int getTotal()
 	{
-		int total = 10;
-		for (Modifier modifier : modifiers)
-		{
-			total += modifier.value;
-		}
 		return total;
 	}
 
 	/**
-	 * Get all modifiers to armor class.
+	 * Get the touch armor class. Armor, shield and natural armor bonuses do not
+	 * apply.
+	 *
+	 * @return The touch armor class.
+	 */
+	public int getTouch()
+	{
+		return touch;
+	}
+
+	/**
+	 * Get the flat-footed armor class. Dodge bonuses and a positive Dexterity
+	 * modifier do not apply, a Dexterity penalty still does.
+	 *
+	 * @return The flat-footed armor class.
+	 */
+	public int getFlatFooted()
+	{
+		return flatFooted;
+	}
+
+	/**
+	 * Get all modifiers to armor class. Attribute modifiers come first, followed
+	 * by the typed modifiers in order of their bonus type.
 	 *
 	 * @return A copy of the list of modifiers.
 	 */
 	public List<Modifier> getModifiers()
 	{
-		return new ArrayList<>(modifiers);
+		List<Modifier> modifiers = new ArrayList<>(Integer.bitCount(attributeMask) + Integer.bitCount(typeMask)
+						+ dodgeCount);
+		for (Attribute attribute : Attribute.values())
+		{
+			if (hasModifier(attribute))
+			{
+				modifiers.add(new Modifier(attribute, attributeValues[attribute.ordinal()]));
+			}
+		}
+		for (BonusType type : BonusType.values())
+		{
+			if (type == BonusType.DODGE)
+			{
+				for (int index = 0; index < dodgeCount; index++)
+				{
+					modifiers.add(new Modifier(type, dodgeBonuses[index]));
+				}
+			}
+			else if (hasModifier(type))
+			{
+				modifiers.add(new Modifier(type, typeValues[type.ordinal()]));
+			}
+		}
+		return modifiers;
+	}
+
+	/**
+	 * Check if a modifier of the given type is set.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @return <code>true</code> iff at least one modifier of the type is set.
+	 */
+	public boolean hasModifier(@NonNull BonusType type)
+	{
+		return (typeMask & (1 << type.ordinal())) != 0;
+	}
+
+	/**
+	 * Check if a modifier derived from the given attribute is set.
+	 *
+	 * @param referenceAttribute
+	 *          The reference attribute.
+	 * @return <code>true</code> iff a modifier for the attribute is set.
+	 */
+	public boolean hasModifier(@NonNull Attribute referenceAttribute)
+	{
+		return (attributeMask & (1 << referenceAttribute.ordinal())) != 0;
+	}
+
+	/**
+	 * Get the value of the modifier of a given type. For {@link BonusType#DODGE}
+	 * this is the sum of all dodge bonuses.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @return The modifier value, or <code>0</code> if no modifier is set.
+	 */
+	public int getModifier(@NonNull BonusType type)
+	{
+		return typeValues[type.ordinal()];
+	}
+
+	/**
+	 * Get the value of the modifier derived from a given attribute.
+	 *
+	 * @param referenceAttribute
+	 *          The reference attribute.
+	 * @return The modifier value, or <code>0</code> if no modifier is set.
+	 */
+	public int getModifier(@NonNull Attribute referenceAttribute)
+	{
+		return attributeValues[referenceAttribute.ordinal()];
 	}
 
 	/**
@@ -155,48 +302,49 @@ public class ArmorClass
 	 */
 	public void updateModifier(@NonNull BonusType type, int newValue)
 	{
-		// Step 1: Find existing modifier of same type and update.
-		if (type != BonusType.DODGE)
+		if (type == BonusType.DODGE)
 		{
-			for (Modifier modifier : modifiers)
+			// Dodge bonuses stack, always add a new one
+			if (dodgeCount == dodgeBonuses.length)
 			{
-				if (type == modifier.type)
-				{
-					modifier.value = newValue;
-					return;
-				}
+				dodgeBonuses = Arrays.copyOf(dodgeBonuses, dodgeCount * 2);
 			}
+			dodgeBonuses[dodgeCount++] = newValue;
+			setTypeValue(type, typeValues[type.ordinal()] + newValue);
+		}
+		else
+		{
+			setTypeValue(type, newValue);
 		}
-		// Step 2: If modifier with given type is not yet present, add
-		// new modifer.
-		modifiers.add(new Modifier(type, newValue));
 	}
 
 	/**
-	 * Set or update a modifier with a given type. If a modifier with the same
-	 * type is already set, the value is update. In all other cases a new modifier
-	 * is added. Exception: Bonuses of type {@link BonusType#DODGE} are always
-	 * added and never updated.
+	 * Set or update a modifier derived from an attribute. If a modifier for the
+	 * same attribute is already set, the value is updated, otherwise a new
+	 * modifier is added.
 	 *
-	 * @param type
-	 *          Bonus type.
+	 * @param referenceAttribute
+	 *          The reference attribute.
 	 * @param newValue
 	 *          New value of the modifier.
 	 */
 	public void updateModifier(@NonNull Attribute referenceAttribute, int newValue)
 	{
-		// Step 1: Find existing modifier for given attribute and update.
-		for (Modifier modifier : modifiers)
+		int index = referenceAttribute.ordinal();
+		int delta = newValue - attributeValues[index];
+		attributeValues[index] = newValue;
+		attributeMask |= 1 << index;
+		total += delta;
+		touch += delta;
+		if (referenceAttribute == Attribute.DEXTERITY)
 		{
-			if (referenceAttribute == modifier.referenceAttribute)
-			{
-				modifier.value = newValue;
-				return;
-			}
+			// Flat-footed creatures lose their Dexterity bonus, but not a penalty
+			flatFooted += Math.min(newValue, 0) - Math.min(newValue - delta, 0);
+		}
+		else
+		{
+			flatFooted += delta;
 		}
-		// Step 2: If modifier with given attribute is not yet present, add
-		// new modifer.
-		modifiers.add(new Modifier(referenceAttribute, newValue));
 	}
 
 	/**
@@ -207,15 +355,93 @@ public class ArmorClass
 	 */
 	public void removeModifer(@NonNull BonusType type)
 	{
-		Iterator<Modifier> allModifiers = modifiers.iterator();
-		while (allModifiers.hasNext())
+		if (type == BonusType.DODGE)
+		{
+			dodgeCount = 0;
+		}
+		setTypeValue(type, 0);
+		typeMask &= ~(1 << type.ordinal());
+	}
+
+	/**
+	 * Take the typed modifiers from a modifier stack. The current effective
+	 * values of the stack are applied immediately, later changes are applied as
+	 * they happen. The stack owns the typed modifiers from then on: a type whose
+	 * effective value drops to zero is removed, and all dodge bonuses of the
+	 * stack are combined into a single modifier.
+	 * <p>
+	 * Each call registers a new listener, so binding the same stack twice
+	 * applies its changes twice. Remove the returned listener from the stack to
+	 * stop following it; the values applied so far are kept.
+	 *
+	 * @param stack
+	 *          The modifier stack.
+	 * @return The listener registered on the stack.
+	 */
+	public ModifierStack.Listener applyModifiers(@NonNull ModifierStack stack)
+	{
+		for (BonusType type : BonusType.values())
 		{
-			Modifier modifier = allModifiers.next();
-			if (modifier.type == type)
+			if (stack.getValue(type) != 0)
 			{
-				allModifiers.remove();
+				applyStackedModifier(type, stack.getValue(type));
 			}
 		}
+		ModifierStack.Listener listener = (type, oldValue, newValue) -> applyStackedModifier(type, newValue);
+		stack.addListener(listener);
+		return listener;
+	}
+
+	/**
+	 * Replace the modifiers of a type with the effective value from a modifier
+	 * stack.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @param value
+	 *          Effective value.
+	 */
+	private void applyStackedModifier(BonusType type, int value)
+	{
+		if (type == BonusType.DODGE)
+		{
+			dodgeCount = 0;
+			if (value != 0)
+			{
+				dodgeBonuses[dodgeCount++] = value;
+			}
+		}
+		setTypeValue(type, value);
+		if (value == 0)
+		{
+			typeMask &= ~(1 << type.ordinal());
+		}
+	}
+
+	/**
+	 * Store a new value for a bonus type and update the cached totals.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @param newValue
+	 *          New value of the modifier. For {@link BonusType#DODGE} the sum of
+	 *          all dodge bonuses.
+	 */
+	private void setTypeValue(BonusType type, int newValue)
+	{
+		int index = type.ordinal();
+		int delta = newValue - typeValues[index];
+		typeValues[index] = newValue;
+		typeMask |= 1 << index;
+		total += delta;
+		if ((TOUCH_EXCLUDED & (1 << index)) == 0)
+		{
+			touch += delta;
+		}
+		if (type != BonusType.DODGE)
+		{
+			flatFooted += delta;
+		}
 	}
 
 	/**
@@ -236,32 +462,32 @@ public class ArmorClass
 	 */
 	public String getArmorClassLine()
 	{
-		StringBuilder out = new StringBuilder();
-		out.append(getTotal());
-		if (!modifiers.isEmpty())
+		return StatBlockRenderer.render(StatBlockRenderer::appendArmorClassLine, this);
+	}
+
+	/**
+	 * Get the number of separate dodge bonuses.
+	 *
+	 * @return Number of dodge bonuses.
+	 */
+	int getDodgeCount()
+	{
+		return dodgeCount;
+	}
+
+	/**
+	 * Get a single dodge bonus.
+	 *
+	 * @param index
+	 *          Index of the bonus, less than {@link #getDodgeCount()}.
+	 * @return The dodge bonus.
+	 */
+	int getDodgeBonus(int index)
+	{
+		if (index < 0 || index >= dodgeCount)
 		{
-			out.append(" (");
-			Iterator<Modifier> allModifiers = modifiers.iterator();
-			while (allModifiers.hasNext())
-			{
-				Modifier modifier = allModifiers.next();
-				out.append(I18nUtil.formatBonus(modifier.value));
-				out.append(" ");
-				if (modifier.referenceAttribute != null)
-				{
-					out.append(modifier.referenceAttribute.getAbbreviation());
-				}
-				else
-				{
-					out.append(modifier.type.getBonusName());
-				}
-				if (allModifiers.hasNext())
-				{
-					out.append(", ");
-				}
-			}
-			out.append(")");
+			throw new IndexOutOfBoundsException("No dodge bonus " + index);
 		}
-		return out.toString();
+		return dodgeBonuses[index];
 	}
 }
@@ -19,16 +19,14 @@
  */
 package de.martindreier.rpg.prd.rules;
 
-import de.martindreier.rpg.prd.util.I18nUtil;
-import de.martindreier.rpg.prd.util.I18nUtil.Bundles;
-import lombok.Getter;
+import java.util.Locale;
+import lombok.NonNull;
 
 /**
  * Representation of an attribute. Do not instantiate.
  *
  * @author Martin Dreier <martin@martindreier.de>
  */
-@Getter
 public enum Attribute
 {
 	/**
@@ -57,23 +55,47 @@ public enum Attribute
 	CHARISMA;
 
 	/**
-	 * Abbreviation of the feat.
+	 * Get the abbreviation of the attribute in the default locale.
+	 *
+	 * @return The abbreviation.
 	 */
-	private String	abbreviation;
+	public String getAbbreviation()
+	{
+		return Translations.getDefault().getAttributeAbbreviation(this);
+	}
 
 	/**
-	 * Name of the feat.
+	 * Get the abbreviation of the attribute.
+	 *
+	 * @param locale
+	 *          The locale.
+	 * @return The abbreviation.
 	 */
-	private String	attributeName;
+	public String getAbbreviation(@NonNull Locale locale)
+	{
+		return Translations.forLocale(locale).getAttributeAbbreviation(this);
+	}
 
 	/**
-	 * Create a new attribute.
+	 * Get the name of the attribute in the default locale.
+	 *
+	 * @return The name.
+	 */
+	public String getAttributeName()
+	{
+		return Translations.getDefault().getAttributeName(this);
+	}
+
+	/**
+	 * Get the name of the attribute.
+	 *
+	 * @param locale
+	 *          The locale.
+	 * @return The name.
 	 */
-	private Attribute()
+	public String getAttributeName(@NonNull Locale locale)
 	{
-		String textKey = "attribute." + name().toLowerCase();
-		this.abbreviation = I18nUtil.getResourceBundle(Bundles.RULES).getString(textKey + ".abbreviation");
-		this.attributeName = I18nUtil.getResourceBundle(Bundles.RULES).getString(textKey);
+		return Translations.forLocale(locale).getAttributeName(this);
 	}
 
 	/**
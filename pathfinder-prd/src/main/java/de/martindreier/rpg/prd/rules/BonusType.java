@@ -19,27 +19,38 @@
  */
 package de.martindreier.rpg.prd.rules;
 
-import de.martindreier.rpg.prd.util.I18nUtil;
-import lombok.Getter;
+import java.util.Locale;
+import lombok.NonNull;
 
 /**
  * Types of bonuses.
  *
  * @author Martin Dreier <martin@martindreier.de>
  */
-@Getter
 public enum BonusType
 {
 	ALCHEMICAL, ARMOR, CIRCUMSTANCE, COMPETENCE, DEFLECTION, DODGE, ENHANCEMENT, INHERENT, INSIGHT, LUCK, MORALE,
 	NATURAL_ARMOR, PROFANE, RACIAL, RESISTANCE, SACRED, SHIELD, SIZE, TRAIT;
 
 	/**
-	 * Display name of the bonus.
+	 * Get the display name of the bonus in the default locale.
+	 *
+	 * @return The display name.
 	 */
-	private final String bonusName;
+	public String getBonusName()
+	{
+		return Translations.getDefault().getBonusName(this);
+	}
 
-	private BonusType()
+	/**
+	 * Get the display name of the bonus.
+	 *
+	 * @param locale
+	 *          The locale.
+	 * @return The display name.
+	 */
+	public String getBonusName(@NonNull Locale locale)
 	{
-		this.bonusName = I18nUtil.translateEnumValue(this, "bonus");
+		return Translations.forLocale(locale).getBonusName(this);
 	}
 }
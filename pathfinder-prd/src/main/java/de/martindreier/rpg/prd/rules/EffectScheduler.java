@@ -0,0 +1,389 @@
+/**
+ * EffectScheduler.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import de.martindreier.rpg.prd.rules.ModifierStack.Entry;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Expires temporary effects, e.g. &quot;+2 morale bonus for 1 minute&quot;,
+ * when their duration in combat rounds has passed.
+ * <p>
+ * Effects are kept in a hierarchical timing wheel: {@value #LEVELS} levels of
+ * {@value #SLOTS} slots each, where a slot on level <i>n</i> covers
+ * {@value #SLOTS}<sup><i>n</i></sup> rounds. An effect is put into the slot of
+ * the lowest level which reaches its expiry, and moved down one level each time
+ * the wheel below it has turned once. Scheduling and cancelling an effect take
+ * constant time, and each {@link #tick()} only touches the effects which expire
+ * or move down in that round, no matter how many creatures or effects there
+ * are.
+ * <p>
+ * Typed modifiers with a duration are best added through
+ * {@link #schedule(ModifierStack, BonusType, String, int, int)}: the modifier
+ * is added to the stack now and removed again when it expires, and the stack
+ * passes the change on to {@link ArmorClass#applyModifiers(ModifierStack)} or
+ * {@link Saves#applyModifiers(Saves.SaveType, ModifierStack)}. Bind each stack
+ * only once, and remove the returned listener when the target goes away.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class EffectScheduler
+{
+	/**
+	 * A scheduled effect. Used as handle to cancel the effect.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	public static final class Effect
+	{
+		/**
+		 * Scheduler holding the effect.
+		 */
+		private final EffectScheduler	scheduler;
+
+		/**
+		 * Round in which the effect expires.
+		 */
+		@Getter
+		private final long						expiry;
+
+		/**
+		 * Action run when the effect expires.
+		 */
+		private final Runnable				onExpiry;
+
+		/**
+		 * Level of the wheel holding the effect, -1 if not scheduled.
+		 */
+		private int										level	= -1;
+
+		/**
+		 * Slot holding the effect.
+		 */
+		private int										slot;
+
+		/**
+		 * Previous effect in the same slot.
+		 */
+		private Effect								previous;
+
+		/**
+		 * Next effect in the same slot.
+		 */
+		private Effect								next;
+
+		/**
+		 * Create an effect.
+		 *
+		 * @param scheduler
+		 *          Scheduler holding the effect.
+		 * @param expiry
+		 *          Round in which the effect expires.
+		 * @param onExpiry
+		 *          Action run when the effect expires.
+		 */
+		private Effect(EffectScheduler scheduler, long expiry, Runnable onExpiry)
+		{
+			this.scheduler = scheduler;
+			this.expiry = expiry;
+			this.onExpiry = onExpiry;
+		}
+
+		/**
+		 * Check if the effect is still waiting for its expiry.
+		 *
+		 * @return <code>true</code> if the effect has neither expired nor been
+		 *         cancelled.
+		 */
+		public boolean isScheduled()
+		{
+			return level >= 0;
+		}
+	}
+
+	/**
+	 * Number of bits of the round handled by one level.
+	 */
+	private static final int	LEVEL_BITS		= 6;
+
+	/**
+	 * Number of slots per level.
+	 */
+	public static final int		SLOTS					= 1 << LEVEL_BITS;
+
+	/**
+	 * Number of levels.
+	 */
+	public static final int		LEVELS				= 4;
+
+	/**
+	 * Longest possible duration in rounds.
+	 */
+	public static final int		MAX_DURATION	= (1 << (LEVEL_BITS * LEVELS)) - 1;
+
+	/**
+	 * Mask for the slot index.
+	 */
+	private static final int	SLOT_MASK			= SLOTS - 1;
+
+	/**
+	 * First effect of each slot, indexed by level and slot.
+	 */
+	private final Effect[][]	wheel					= new Effect[LEVELS][SLOTS];
+
+	/**
+	 * The current round.
+	 */
+	@Getter
+	private long							currentRound;
+
+	/**
+	 * Number of scheduled effects.
+	 */
+	@Getter
+	private int								size					= 0;
+
+	/**
+	 * Create a scheduler starting in round 0.
+	 */
+	public EffectScheduler()
+	{
+		this(0);
+	}
+
+	/**
+	 * Create a scheduler.
+	 *
+	 * @param currentRound
+	 *          The current round. Must be zero or positive.
+	 */
+	public EffectScheduler(long currentRound)
+	{
+		if (currentRound < 0)
+		{
+			throw new IllegalArgumentException("Round must be zero or positive");
+		}
+		this.currentRound = currentRound;
+	}
+
+	/**
+	 * Schedule an effect.
+	 *
+	 * @param duration
+	 *          Duration in rounds. The effect expires when the scheduler has
+	 *          ticked this many times. Must be between 1 and
+	 *          {@link #MAX_DURATION}.
+	 * @param onExpiry
+	 *          Action run when the effect expires.
+	 * @return Handle of the effect.
+	 */
+	public Effect schedule(int duration, @NonNull Runnable onExpiry)
+	{
+		if (duration < 1 || duration > MAX_DURATION)
+		{
+			throw new IllegalArgumentException("Duration must be between 1 and " + MAX_DURATION + " rounds");
+		}
+		Effect effect = new Effect(this, currentRound + duration, onExpiry);
+		insert(effect);
+		size++;
+		return effect;
+	}
+
+	/**
+	 * Add a modifier to a stack and remove it when it expires.
+	 *
+	 * @param stack
+	 *          The modifier stack.
+	 * @param type
+	 *          Bonus type.
+	 * @param source
+	 *          Origin of the modifier, e.g. a spell name. May be
+	 *          <code>null</code>.
+	 * @param value
+	 *          Modifier value. Negative values are penalties.
+	 * @param duration
+	 *          Duration in rounds.
+	 * @return Handle of the effect.
+	 * @see #schedule(int, Runnable)
+	 */
+	public Effect schedule(@NonNull ModifierStack stack, @NonNull BonusType type, String source, int value,
+					int duration)
+	{
+		if (duration < 1 || duration > MAX_DURATION)
+		{
+			throw new IllegalArgumentException("Duration must be between 1 and " + MAX_DURATION + " rounds");
+		}
+		Entry entry = stack.add(type, source, value);
+		return schedule(duration, () -> stack.remove(entry));
+	}
+
+	/**
+	 * Cancel an effect. Its expiry action is not run.
+	 *
+	 * @param effect
+	 *          Handle of the effect.
+	 * @return <code>true</code> if the effect was cancelled,
+	 *         <code>false</code> if it had already expired or been cancelled.
+	 */
+	public boolean cancel(@NonNull Effect effect)
+	{
+		if (effect.scheduler != this)
+		{
+			throw new IllegalArgumentException("Effect belongs to another scheduler");
+		}
+		if (!effect.isScheduled())
+		{
+			return false;
+		}
+		unlink(effect);
+		size--;
+		return true;
+	}
+
+	/**
+	 * End an effect early, e.g. when it is dispelled. Its expiry action is run
+	 * immediately.
+	 *
+	 * @param effect
+	 *          Handle of the effect.
+	 * @return <code>true</code> if the effect was ended, <code>false</code> if
+	 *         it had already expired or been cancelled.
+	 */
+	public boolean end(@NonNull Effect effect)
+	{
+		if (!cancel(effect))
+		{
+			return false;
+		}
+		effect.onExpiry.run();
+		return true;
+	}
+
+	/**
+	 * Advance to the next round and expire all effects which end in it.
+	 * Expiry actions may schedule or cancel other effects.
+	 *
+	 * @return Number of expired effects.
+	 */
+	public int tick()
+	{
+		currentRound++;
+		// Step 1: Move effects down from higher levels whose slot has come up
+		for (int level = 1; level < LEVELS; level++)
+		{
+			if ((currentRound & ((1L << (LEVEL_BITS * level)) - 1)) != 0)
+			{
+				break;
+			}
+			int slot = (int) (currentRound >>> (LEVEL_BITS * level)) & SLOT_MASK;
+			Effect effect = wheel[level][slot];
+			wheel[level][slot] = null;
+			while (effect != null)
+			{
+				Effect next = effect.next;
+				insert(effect);
+				effect = next;
+			}
+		}
+		// Step 2: Expire effects of the current round
+		int slot = (int) currentRound & SLOT_MASK;
+		int expired = 0;
+		Effect effect;
+		while ((effect = wheel[0][slot]) != null)
+		{
+			unlink(effect);
+			size--;
+			expired++;
+			effect.onExpiry.run();
+		}
+		return expired;
+	}
+
+	/**
+	 * Advance several rounds.
+	 *
+	 * @param rounds
+	 *          Number of rounds.
+	 * @return Number of expired effects.
+	 */
+	public int tick(int rounds)
+	{
+		int expired = 0;
+		for (int round = 0; round < rounds; round++)
+		{
+			expired += tick();
+		}
+		return expired;
+	}
+
+	/**
+	 * Put an effect into the slot for its expiry.
+	 *
+	 * @param effect
+	 *          The effect.
+	 */
+	private void insert(Effect effect)
+	{
+		long delay = effect.expiry - currentRound;
+		int level = 0;
+		while (level < LEVELS - 1 && delay >= 1L << (LEVEL_BITS * (level + 1)))
+		{
+			level++;
+		}
+		int slot = (int) (effect.expiry >>> (LEVEL_BITS * level)) & SLOT_MASK;
+		effect.level = level;
+		effect.slot = slot;
+		effect.previous = null;
+		effect.next = wheel[level][slot];
+		if (effect.next != null)
+		{
+			effect.next.previous = effect;
+		}
+		wheel[level][slot] = effect;
+	}
+
+	/**
+	 * Remove an effect from its slot.
+	 *
+	 * @param effect
+	 *          The effect.
+	 */
+	private void unlink(Effect effect)
+	{
+		if (effect.previous != null)
+		{
+			effect.previous.next = effect.next;
+		}
+		else
+		{
+			wheel[effect.level][effect.slot] = effect.next;
+		}
+		if (effect.next != null)
+		{
+			effect.next.previous = effect.previous;
+		}
+		effect.previous = null;
+		effect.next = null;
+		effect.level = -1;
+	}
+}
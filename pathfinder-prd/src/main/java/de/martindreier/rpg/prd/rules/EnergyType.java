@@ -19,23 +19,37 @@
  */
 package de.martindreier.rpg.prd.rules;
 
-import de.martindreier.rpg.prd.util.I18nUtil;
-import lombok.Getter;
+import java.util.Locale;
+import lombok.NonNull;
 
 /**
  * Known energy types.
  *
  * @author Martin Dreier <martin@martindreier.de>
  */
-@Getter
 public enum EnergyType
 {
 	ACID, COLD, ELECTRICITY, FIRE, FORCE, NEGATIVE, POSITIVE, SONIC;
 
-	private String energy;
+	/**
+	 * Get the display name of the energy type in the default locale.
+	 *
+	 * @return The display name.
+	 */
+	public String getEnergy()
+	{
+		return Translations.getDefault().getEnergyName(this);
+	}
 
-	private EnergyType()
+	/**
+	 * Get the display name of the energy type.
+	 *
+	 * @param locale
+	 *          The locale.
+	 * @return The display name.
+	 */
+	public String getEnergy(@NonNull Locale locale)
 	{
-		energy = I18nUtil.translateEnumValue(this, "energy");
+		return Translations.forLocale(locale).getEnergyName(this);
 	}
 }
@@ -0,0 +1,407 @@
+/**
+ * ImmutableArmorClass.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import java.util.Arrays;
+import de.martindreier.rpg.prd.rules.ArmorClass.Modifier;
+import de.martindreier.rpg.prd.util.PersistentIntVector;
+import lombok.NonNull;
+
+/**
+ * Immutable armor class. Follows the same rules as {@link ArmorClass}, but
+ * every change returns a new version. Versions share all modifier values which
+ * did not change, so keeping a version for every action costs a few small
+ * objects instead of a full copy. Instances can be handed to other threads
+ * without copying.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class ImmutableArmorClass
+{
+	/**
+	 * Armor class without any modifiers.
+	 */
+	public static final ImmutableArmorClass	EMPTY	= new ImmutableArmorClass(
+					PersistentIntVector.zeros(BonusType.values().length), 0,
+					PersistentIntVector.zeros(Attribute.values().length), 0, new int[0]);
+
+	/**
+	 * Values of the typed modifiers, indexed by bonus type ordinal. The entry for
+	 * {@link BonusType#DODGE} is the sum of all dodge bonuses.
+	 */
+	private final PersistentIntVector				typeValues;
+
+	/**
+	 * Bonus types for which a modifier is set, as bit mask over the bonus type
+	 * ordinals.
+	 */
+	private final int												typeMask;
+
+	/**
+	 * Values of the attribute modifiers, indexed by attribute ordinal.
+	 */
+	private final PersistentIntVector				attributeValues;
+
+	/**
+	 * Attributes for which a modifier is set, as bit mask over the attribute
+	 * ordinals.
+	 */
+	private final int												attributeMask;
+
+	/**
+	 * Separate dodge bonuses. Never modified after construction.
+	 */
+	private final int[]											dodgeBonuses;
+
+	/**
+	 * Total armor class.
+	 */
+	private final int												total;
+
+	/**
+	 * Touch armor class.
+	 */
+	private final int												touch;
+
+	/**
+	 * Flat-footed armor class.
+	 */
+	private final int												flatFooted;
+
+	/**
+	 * Create an armor class and calculate the totals.
+	 *
+	 * @param typeValues
+	 *          Values of the typed modifiers.
+	 * @param typeMask
+	 *          Bonus types which are set.
+	 * @param attributeValues
+	 *          Values of the attribute modifiers.
+	 * @param attributeMask
+	 *          Attributes which are set.
+	 * @param dodgeBonuses
+	 *          Separate dodge bonuses. Not copied.
+	 */
+	private ImmutableArmorClass(PersistentIntVector typeValues, int typeMask, PersistentIntVector attributeValues,
+					int attributeMask, int[] dodgeBonuses)
+	{
+		this.typeValues = typeValues;
+		this.typeMask = typeMask;
+		this.attributeValues = attributeValues;
+		this.attributeMask = attributeMask;
+		this.dodgeBonuses = dodgeBonuses;
+		int sum = ArmorClass.BASE_VALUE;
+		int touchSum = ArmorClass.BASE_VALUE;
+		int flatFootedSum = ArmorClass.BASE_VALUE;
+		for (int index = 0; index < typeValues.size(); index++)
+		{
+			int value = typeValues.get(index);
+			sum += value;
+			if ((ArmorClass.TOUCH_EXCLUDED & (1 << index)) == 0)
+			{
+				touchSum += value;
+			}
+			if (index != BonusType.DODGE.ordinal())
+			{
+				flatFootedSum += value;
+			}
+		}
+		for (int index = 0; index < attributeValues.size(); index++)
+		{
+			int value = attributeValues.get(index);
+			sum += value;
+			touchSum += value;
+			// Flat-footed creatures lose their Dexterity bonus, but not a penalty
+			flatFootedSum += index == Attribute.DEXTERITY.ordinal() ? Math.min(value, 0) : value;
+		}
+		total = sum;
+		touch = touchSum;
+		flatFooted = flatFootedSum;
+	}
+
+	/**
+	 * Create an immutable copy of an armor class.
+	 *
+	 * @param armorClass
+	 *          The armor class.
+	 * @return Immutable armor class with the same modifiers.
+	 */
+	public static ImmutableArmorClass of(@NonNull ArmorClass armorClass)
+	{
+		ImmutableArmorClass result = EMPTY;
+		for (Modifier modifier : armorClass.getModifiers())
+		{
+			if (modifier.getReferenceAttribute() != null)
+			{
+				result = result.withModifier(modifier.getReferenceAttribute(), modifier.getValue());
+			}
+			else
+			{
+				result = result.withModifier(modifier.getType(), modifier.getValue());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Create a mutable copy.
+	 *
+	 * @return New armor class with the same modifiers.
+	 */
+	public ArmorClass toArmorClass()
+	{
+		ArmorClass armorClass = new ArmorClass();
+		for (Attribute attribute : Attribute.values())
+		{
+			if (hasModifier(attribute))
+			{
+				armorClass.updateModifier(attribute, getModifier(attribute));
+			}
+		}
+		for (BonusType type : BonusType.values())
+		{
+			if (type == BonusType.DODGE)
+			{
+				for (int dodge : dodgeBonuses)
+				{
+					armorClass.updateModifier(type, dodge);
+				}
+			}
+			else if (hasModifier(type))
+			{
+				armorClass.updateModifier(type, getModifier(type));
+			}
+		}
+		return armorClass;
+	}
+
+	/**
+	 * Get the total armor class value from all modifiers.
+	 *
+	 * @return The total armor class.
+	 */
+	public int getTotal()
+	{
+		return total;
+	}
+
+	/**
+	 * Get the touch armor class. Armor, shield and natural armor bonuses do not
+	 * apply.
+	 *
+	 * @return The touch armor class.
+	 */
+	public int getTouch()
+	{
+		return touch;
+	}
+
+	/**
+	 * Get the flat-footed armor class. Dodge bonuses and a positive Dexterity
+	 * modifier do not apply.
+	 *
+	 * @return The flat-footed armor class.
+	 */
+	public int getFlatFooted()
+	{
+		return flatFooted;
+	}
+
+	/**
+	 * Check if a modifier of the given type is set.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @return <code>true</code> iff at least one modifier of the type is set.
+	 */
+	public boolean hasModifier(@NonNull BonusType type)
+	{
+		return (typeMask & (1 << type.ordinal())) != 0;
+	}
+
+	/**
+	 * Check if a modifier derived from the given attribute is set.
+	 *
+	 * @param referenceAttribute
+	 *          The reference attribute.
+	 * @return <code>true</code> iff a modifier for the attribute is set.
+	 */
+	public boolean hasModifier(@NonNull Attribute referenceAttribute)
+	{
+		return (attributeMask & (1 << referenceAttribute.ordinal())) != 0;
+	}
+
+	/**
+	 * Get the value of a typed modifier. For {@link BonusType#DODGE} this is the
+	 * sum of all dodge bonuses.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @return The value, or <code>0</code> if the modifier is not set.
+	 */
+	public int getModifier(@NonNull BonusType type)
+	{
+		return typeValues.get(type.ordinal());
+	}
+
+	/**
+	 * Get the value of a modifier derived from an attribute.
+	 *
+	 * @param referenceAttribute
+	 *          The reference attribute.
+	 * @return The value, or <code>0</code> if the modifier is not set.
+	 */
+	public int getModifier(@NonNull Attribute referenceAttribute)
+	{
+		return attributeValues.get(referenceAttribute.ordinal());
+	}
+
+	/**
+	 * Get the separate dodge bonuses.
+	 *
+	 * @return A copy of the dodge bonuses, in the order they were added.
+	 */
+	public int[] getDodgeBonuses()
+	{
+		return dodgeBonuses.clone();
+	}
+
+	/**
+	 * Set a typed modifier. Bonuses of type {@link BonusType#DODGE} are always
+	 * added to the existing dodge bonuses.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @param newValue
+	 *          New value of the modifier.
+	 * @return New armor class, or this one if nothing changed.
+	 */
+	public ImmutableArmorClass withModifier(@NonNull BonusType type, int newValue)
+	{
+		int index = type.ordinal();
+		if (type == BonusType.DODGE)
+		{
+			// Dodge bonuses stack, always add a new one
+			int[] dodges = Arrays.copyOf(dodgeBonuses, dodgeBonuses.length + 1);
+			dodges[dodgeBonuses.length] = newValue;
+			return new ImmutableArmorClass(typeValues.add(index, newValue), typeMask | (1 << index), attributeValues,
+							attributeMask, dodges);
+		}
+		if (hasModifier(type) && typeValues.get(index) == newValue)
+		{
+			return this;
+		}
+		return new ImmutableArmorClass(typeValues.set(index, newValue), typeMask | (1 << index), attributeValues,
+						attributeMask, dodgeBonuses);
+	}
+
+	/**
+	 * Set a modifier derived from an attribute.
+	 *
+	 * @param referenceAttribute
+	 *          The reference attribute.
+	 * @param newValue
+	 *          New value of the modifier.
+	 * @return New armor class, or this one if nothing changed.
+	 */
+	public ImmutableArmorClass withModifier(@NonNull Attribute referenceAttribute, int newValue)
+	{
+		int index = referenceAttribute.ordinal();
+		if (hasModifier(referenceAttribute) && attributeValues.get(index) == newValue)
+		{
+			return this;
+		}
+		return new ImmutableArmorClass(typeValues, typeMask, attributeValues.set(index, newValue),
+						attributeMask | (1 << index), dodgeBonuses);
+	}
+
+	/**
+	 * Remove all modifiers for the given type.
+	 *
+	 * @param type
+	 *          Bonus type of modifiers to be removed.
+	 * @return New armor class, or this one if no modifier of the type is set.
+	 */
+	public ImmutableArmorClass withoutModifier(@NonNull BonusType type)
+	{
+		if (!hasModifier(type))
+		{
+			return this;
+		}
+		int index = type.ordinal();
+		int[] dodges = type == BonusType.DODGE ? new int[0] : dodgeBonuses;
+		return new ImmutableArmorClass(typeValues.set(index, 0), typeMask & ~(1 << index), attributeValues,
+						attributeMask, dodges);
+	}
+
+	/**
+	 * Get the values of the typed modifiers.
+	 *
+	 * @return Persistent vector indexed by bonus type ordinal.
+	 */
+	PersistentIntVector getTypeValues()
+	{
+		return typeValues;
+	}
+
+	/**
+	 * Get the values of the attribute modifiers.
+	 *
+	 * @return Persistent vector indexed by attribute ordinal.
+	 */
+	PersistentIntVector getAttributeValues()
+	{
+		return attributeValues;
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (this == other)
+		{
+			return true;
+		}
+		if (!(other instanceof ImmutableArmorClass))
+		{
+			return false;
+		}
+		ImmutableArmorClass armorClass = (ImmutableArmorClass) other;
+		return typeMask == armorClass.typeMask && attributeMask == armorClass.attributeMask
+						&& typeValues.equals(armorClass.typeValues) && attributeValues.equals(armorClass.attributeValues)
+						&& Arrays.equals(dodgeBonuses, armorClass.dodgeBonuses);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return 31 * (31 * typeValues.hashCode() + attributeValues.hashCode()) + Arrays.hashCode(dodgeBonuses);
+	}
+
+	/**
+	 * Returns a simple output of &quot;AC&quot; plus the total AC value.
+	 *
+	 * @return Total AC.
+	 */
+	@Override
+	public String toString()
+	{
+		return "AC " + total;
+	}
+}
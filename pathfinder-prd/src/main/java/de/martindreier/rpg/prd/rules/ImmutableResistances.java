@@ -0,0 +1,291 @@
+/**
+ * ImmutableResistances.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import java.util.Objects;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Immutable resistances of a creature. Uses the same packed energy resistances
+ * and vulnerability mask as {@link Resistances}, so a new version costs a
+ * single small object and shares the damage reduction line with the previous
+ * one.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class ImmutableResistances
+{
+	/**
+	 * Resistances without any values set.
+	 */
+	public static final ImmutableResistances	NONE	= new ImmutableResistances(0L, 0, 0, 0, null);
+
+	/**
+	 * Energy resistances, {@link Resistances#RESISTANCE_BITS} bits per energy
+	 * type, indexed by energy type ordinal.
+	 */
+	@Getter
+	private final long												packedEnergyResistances;
+
+	/**
+	 * Vulnerability types as bit mask over the energy type ordinals.
+	 */
+	@Getter
+	private final int													vulnerabilityMask;
+
+	/**
+	 * Spell resistance.
+	 */
+	@Getter
+	private final int													spellResistance;
+
+	/**
+	 * Turn resistance.
+	 */
+	@Getter
+	private final int													turnResistance;
+
+	/**
+	 * Damage reduction line.
+	 */
+	@Getter
+	private final String											damageReduction;
+
+	/**
+	 * Create resistances.
+	 *
+	 * @param packedEnergyResistances
+	 *          Packed energy resistances.
+	 * @param vulnerabilityMask
+	 *          Vulnerability mask.
+	 * @param spellResistance
+	 *          Spell resistance.
+	 * @param turnResistance
+	 *          Turn resistance.
+	 * @param damageReduction
+	 *          Damage reduction line.
+	 */
+	private ImmutableResistances(long packedEnergyResistances, int vulnerabilityMask, int spellResistance,
+					int turnResistance, String damageReduction)
+	{
+		this.packedEnergyResistances = packedEnergyResistances;
+		this.vulnerabilityMask = vulnerabilityMask;
+		this.spellResistance = spellResistance;
+		this.turnResistance = turnResistance;
+		this.damageReduction = damageReduction;
+	}
+
+	/**
+	 * Create an immutable copy of resistances.
+	 *
+	 * @param resistances
+	 *          The resistances.
+	 * @return Immutable resistances with the same values.
+	 */
+	public static ImmutableResistances of(@NonNull Resistances resistances)
+	{
+		return new ImmutableResistances(resistances.getPackedEnergyResistances(), resistances.getVulnerabilityMask(),
+						resistances.getSpellResistance().get(), resistances.getTurnResistance().get(),
+						resistances.getDamageReduction());
+	}
+
+	/**
+	 * Create a mutable copy.
+	 *
+	 * @return New resistances with the same values.
+	 */
+	public Resistances toResistances()
+	{
+		Resistances resistances = new Resistances();
+		for (EnergyType type : EnergyType.values())
+		{
+			int resistance = getEnergyResistance(type);
+			if (resistance != 0)
+			{
+				resistances.setEnergyResistance(type, resistance);
+			}
+			if (isVulnerable(type))
+			{
+				resistances.addVulnerability(type);
+			}
+		}
+		resistances.getSpellResistance().set(spellResistance);
+		resistances.getTurnResistance().set(turnResistance);
+		resistances.setDamageReduction(damageReduction);
+		return resistances;
+	}
+
+	/**
+	 * Get the energy resistance for a specific energy type.
+	 *
+	 * @param type
+	 *          The energy type.
+	 * @return The resistance, or <code>0</code> if the creature is not resistant
+	 *         against the energy type.
+	 */
+	public int getEnergyResistance(@NonNull EnergyType type)
+	{
+		return Resistances.unpack(packedEnergyResistances, type.ordinal());
+	}
+
+	/**
+	 * Check if a creature is vulnerable to an energy type.
+	 *
+	 * @param type
+	 *          The energy type.
+	 * @return <code>true</code> iff the creature is vulnerable to the type.
+	 */
+	public boolean isVulnerable(@NonNull EnergyType type)
+	{
+		return (vulnerabilityMask & (1 << type.ordinal())) != 0;
+	}
+
+	/**
+	 * Set the energy resistance for a specific energy type.
+	 *
+	 * @param type
+	 *          The energy type.
+	 * @param newValue
+	 *          The new value. Must be 0 or positive and not larger than
+	 *          {@link Resistances#MAX_ENERGY_RESISTANCE}.
+	 * @return New resistances, or these if nothing changed.
+	 */
+	public ImmutableResistances withEnergyResistance(@NonNull EnergyType type, int newValue)
+	{
+		if (newValue < 0)
+		{
+			throw new IllegalArgumentException("Resistance value must be 0 or positive");
+		}
+		else if (newValue > Resistances.MAX_ENERGY_RESISTANCE)
+		{
+			throw new IllegalArgumentException("Resistance value must not exceed " + Resistances.MAX_ENERGY_RESISTANCE);
+		}
+		int shift = type.ordinal() * Resistances.RESISTANCE_BITS;
+		long packed = (packedEnergyResistances & ~((long) Resistances.MAX_ENERGY_RESISTANCE << shift))
+						| ((long) newValue << shift);
+		if (packed == packedEnergyResistances)
+		{
+			return this;
+		}
+		return new ImmutableResistances(packed, vulnerabilityMask, spellResistance, turnResistance, damageReduction);
+	}
+
+	/**
+	 * Add or remove a vulnerability.
+	 *
+	 * @param type
+	 *          The energy type.
+	 * @param vulnerable
+	 *          <code>true</code> to add the vulnerability, <code>false</code> to
+	 *          remove it.
+	 * @return New resistances, or these if nothing changed.
+	 */
+	public ImmutableResistances withVulnerability(@NonNull EnergyType type, boolean vulnerable)
+	{
+		int bit = 1 << type.ordinal();
+		int mask = vulnerable ? vulnerabilityMask | bit : vulnerabilityMask & ~bit;
+		if (mask == vulnerabilityMask)
+		{
+			return this;
+		}
+		return new ImmutableResistances(packedEnergyResistances, mask, spellResistance, turnResistance,
+						damageReduction);
+	}
+
+	/**
+	 * Set the spell resistance.
+	 *
+	 * @param newValue
+	 *          The new spell resistance.
+	 * @return New resistances, or these if nothing changed.
+	 */
+	public ImmutableResistances withSpellResistance(int newValue)
+	{
+		if (newValue == spellResistance)
+		{
+			return this;
+		}
+		return new ImmutableResistances(packedEnergyResistances, vulnerabilityMask, newValue, turnResistance,
+						damageReduction);
+	}
+
+	/**
+	 * Set the turn resistance.
+	 *
+	 * @param newValue
+	 *          The new turn resistance.
+	 * @return New resistances, or these if nothing changed.
+	 */
+	public ImmutableResistances withTurnResistance(int newValue)
+	{
+		if (newValue == turnResistance)
+		{
+			return this;
+		}
+		return new ImmutableResistances(packedEnergyResistances, vulnerabilityMask, spellResistance, newValue,
+						damageReduction);
+	}
+
+	/**
+	 * Set the damage reduction line.
+	 *
+	 * @param newValue
+	 *          The new damage reduction line. May be <code>null</code>.
+	 * @return New resistances, or these if nothing changed.
+	 */
+	public ImmutableResistances withDamageReduction(String newValue)
+	{
+		if (Objects.equals(newValue, damageReduction))
+		{
+			return this;
+		}
+		return new ImmutableResistances(packedEnergyResistances, vulnerabilityMask, spellResistance, turnResistance,
+						newValue);
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (this == other)
+		{
+			return true;
+		}
+		if (!(other instanceof ImmutableResistances))
+		{
+			return false;
+		}
+		ImmutableResistances resistances = (ImmutableResistances) other;
+		return packedEnergyResistances == resistances.packedEnergyResistances
+						&& vulnerabilityMask == resistances.vulnerabilityMask && spellResistance == resistances.spellResistance
+						&& turnResistance == resistances.turnResistance
+						&& Objects.equals(damageReduction, resistances.damageReduction);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int hash = Long.hashCode(packedEnergyResistances);
+		hash = 31 * hash + vulnerabilityMask;
+		hash = 31 * hash + spellResistance;
+		hash = 31 * hash + turnResistance;
+		return 31 * hash + Objects.hashCode(damageReduction);
+	}
+}
@@ -0,0 +1,351 @@
+/**
+ * ModifierStack.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A set of modifiers to a single value (armor class, a save, a skill) which
+ * applies the stacking rules per {@link BonusType}:
+ * <ul>
+ * <li>Bonuses of the same type do not stack, only the highest one counts.</li>
+ * <li>Bonuses of type {@link BonusType#DODGE} and
+ * {@link BonusType#CIRCUMSTANCE} always stack.</li>
+ * <li>Penalties always stack.</li>
+ * </ul>
+ * The effective value per bonus type and the total are cached. Adding or
+ * removing a modifier costs at most O(log n) in the number of modifiers of the
+ * same type.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class ModifierStack
+{
+	/**
+	 * A single modifier in the stack. Returned when adding a modifier and used
+	 * as handle to remove or change it.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	@Getter
+	public static class Entry
+	{
+		/**
+		 * Bonus type.
+		 */
+		private final BonusType	type;
+		/**
+		 * Origin of the modifier, e.g. a spell name. May be <code>null</code>.
+		 */
+		private final String		source;
+		/**
+		 * Modifier value. Negative values are penalties.
+		 */
+		private int							value;
+		/**
+		 * <code>true</code> while the entry is part of the stack.
+		 */
+		private boolean					active;
+
+		/**
+		 * Create a new entry.
+		 *
+		 * @param type
+		 *          Bonus type.
+		 * @param source
+		 *          Origin of the modifier. May be <code>null</code>.
+		 * @param value
+		 *          Modifier value.
+		 */
+		private Entry(BonusType type, String source, int value)
+		{
+			this.type = type;
+			this.source = source;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Receives changes of the effective value of a bonus type.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	public static interface Listener
+	{
+		/**
+		 * Called after the effective value of a bonus type has changed.
+		 *
+		 * @param type
+		 *          The bonus type.
+		 * @param oldValue
+		 *          Previous effective value.
+		 * @param newValue
+		 *          New effective value.
+		 */
+		public void modifierChanged(BonusType type, int oldValue, int newValue);
+	}
+
+	/**
+	 * Sum of all penalties, indexed by bonus type ordinal.
+	 */
+	private final int[]														penalties		= new int[BonusType.values().length];
+
+	/**
+	 * Sum of all bonuses of stacking types, indexed by bonus type ordinal.
+	 */
+	private final int[]														bonusSums		= new int[BonusType.values().length];
+
+	/**
+	 * Bonuses of non-stacking types, indexed by bonus type ordinal. Each map
+	 * counts how often a bonus value is present. Created on first use.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private final TreeMap<Integer, Integer>[]	bonuses			= new TreeMap[BonusType.values().length];
+
+	/**
+	 * Effective value, indexed by bonus type ordinal.
+	 */
+	private final int[]														effective		= new int[BonusType.values().length];
+
+	/**
+	 * Cached total of all effective values.
+	 */
+	@Getter
+	private int																		total				= 0;
+
+	/**
+	 * Listeners to changes of effective values.
+	 */
+	private final List<Listener>									listeners		= new ArrayList<>(1);
+
+	/**
+	 * Check if bonuses of a given type stack with each other.
+	 *
+	 * @param type
+	 *          The bonus type.
+	 * @return <code>true</code> if all bonuses of the type are added up,
+	 *         <code>false</code> if only the highest bonus counts.
+	 */
+	public static boolean isStacking(@NonNull BonusType type)
+	{
+		return type == BonusType.DODGE || type == BonusType.CIRCUMSTANCE;
+	}
+
+	/**
+	 * Add a modifier.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @param value
+	 *          Modifier value. Negative values are penalties.
+	 * @return Handle of the modifier, used to remove it later.
+	 */
+	public Entry add(@NonNull BonusType type, int value)
+	{
+		return add(type, null, value);
+	}
+
+	/**
+	 * Add a modifier.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @param source
+	 *          Origin of the modifier, e.g. a spell name. May be
+	 *          <code>null</code>.
+	 * @param value
+	 *          Modifier value. Negative values are penalties.
+	 * @return Handle of the modifier, used to remove it later.
+	 */
+	public Entry add(@NonNull BonusType type, String source, int value)
+	{
+		Entry entry = new Entry(type, source, value);
+		entry.active = true;
+		insert(type, value);
+		recalculate(type);
+		return entry;
+	}
+
+	/**
+	 * Remove a modifier. Removing an entry twice has no effect.
+	 *
+	 * @param entry
+	 *          Handle of the modifier.
+	 */
+	public void remove(@NonNull Entry entry)
+	{
+		if (!entry.active)
+		{
+			return;
+		}
+		entry.active = false;
+		delete(entry.type, entry.value);
+		recalculate(entry.type);
+	}
+
+	/**
+	 * Change the value of a modifier.
+	 *
+	 * @param entry
+	 *          Handle of the modifier.
+	 * @param newValue
+	 *          New modifier value.
+	 */
+	public void update(@NonNull Entry entry, int newValue)
+	{
+		if (!entry.active)
+		{
+			throw new IllegalStateException("Modifier has already been removed");
+		}
+		delete(entry.type, entry.value);
+		entry.value = newValue;
+		insert(entry.type, newValue);
+		recalculate(entry.type);
+	}
+
+	/**
+	 * Get the effective value of all modifiers of a type after applying the
+	 * stacking rules.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @return The effective value.
+	 */
+	public int getValue(@NonNull BonusType type)
+	{
+		return effective[type.ordinal()];
+	}
+
+	/**
+	 * Register a listener for changes of effective values.
+	 *
+	 * @param listener
+	 *          The listener.
+	 */
+	public void addListener(@NonNull Listener listener)
+	{
+		listeners.add(listener);
+	}
+
+	/**
+	 * Remove a listener.
+	 *
+	 * @param listener
+	 *          The listener.
+	 */
+	public void removeListener(@NonNull Listener listener)
+	{
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Record a modifier value.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @param value
+	 *          Modifier value.
+	 */
+	private void insert(BonusType type, int value)
+	{
+		int index = type.ordinal();
+		if (value < 0)
+		{
+			penalties[index] += value;
+		}
+		else if (isStacking(type))
+		{
+			bonusSums[index] += value;
+		}
+		else
+		{
+			if (bonuses[index] == null)
+			{
+				bonuses[index] = new TreeMap<>();
+			}
+			bonuses[index].merge(value, 1, Integer::sum);
+		}
+	}
+
+	/**
+	 * Forget a modifier value.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 * @param value
+	 *          Modifier value.
+	 */
+	private void delete(BonusType type, int value)
+	{
+		int index = type.ordinal();
+		if (value < 0)
+		{
+			penalties[index] -= value;
+		}
+		else if (isStacking(type))
+		{
+			bonusSums[index] -= value;
+		}
+		else
+		{
+			TreeMap<Integer, Integer> values = bonuses[index];
+			int count = values.get(value);
+			if (count == 1)
+			{
+				values.remove(value);
+			}
+			else
+			{
+				values.put(value, count - 1);
+			}
+		}
+	}
+
+	/**
+	 * Determine the new effective value of a type, update the total and notify
+	 * listeners.
+	 *
+	 * @param type
+	 *          Bonus type.
+	 */
+	private void recalculate(BonusType type)
+	{
+		int index = type.ordinal();
+		int newValue = penalties[index] + bonusSums[index];
+		if (bonuses[index] != null && !bonuses[index].isEmpty())
+		{
+			newValue += bonuses[index].lastKey();
+		}
+		int oldValue = effective[index];
+		if (newValue != oldValue)
+		{
+			effective[index] = newValue;
+			total += newValue - oldValue;
+			for (Listener listener : listeners)
+			{
+				listener.modifierChanged(type, oldValue, newValue);
+			}
+		}
+	}
+}
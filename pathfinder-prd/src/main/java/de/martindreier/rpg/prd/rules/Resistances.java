@@ -19,12 +19,11 @@
  */
 package de.martindreier.rpg.prd.rules;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -32,40 +31,64 @@ import lombok.Setter;
 /**
  * Handles all resistances of a creature: Spell resistance, damage reductions,
  * energy resistances.
+ * <p>
+ * Energy resistances are packed into a single atomic word with
+ * {@value #RESISTANCE_BITS} bits per energy type, vulnerabilities are a bit
+ * mask over the energy types. Both can be updated from several threads without
+ * a lock, and {@link #getEnergyResistanceSnapshot()} returns all energy
+ * resistances as they were set at one point in time.
  *
  * @author Martin Dreier <martin@martindreier.de>
  */
 public class Resistances
 {
+	/**
+	 * Number of bits used for each energy type in the packed resistances.
+	 */
+	public static final int	RESISTANCE_BITS				= 8;
+
+	/**
+	 * Largest possible energy resistance.
+	 */
+	public static final int	MAX_ENERGY_RESISTANCE	= (1 << RESISTANCE_BITS) - 1;
+
+	static
+	{
+		if (EnergyType.values().length * RESISTANCE_BITS > Long.SIZE)
+		{
+			throw new IllegalStateException("Energy resistances do not fit into packed value");
+		}
+	}
+
 	/**
 	 * Spell resistance.
 	 */
 	@Getter
-	private final AtomicInteger										spellResistance		= new AtomicInteger(0);
+	private final AtomicInteger	spellResistance		= new AtomicInteger(0);
 
 	/**
-	 * Energy resistances (types and amounts).
+	 * Energy resistances, {@link #RESISTANCE_BITS} bits per energy type, indexed
+	 * by energy type ordinal.
 	 */
-	private final Map<EnergyType, AtomicInteger>	energyResistances	= new HashMap<>();
+	private final AtomicLong		energyResistances	= new AtomicLong(0);
 
 	/**
 	 * Damage reduction line.
 	 */
 	@Getter
 	@Setter
-	private String																damageReduction		= null;
+	private volatile String			damageReduction		= null;
 
 	/**
 	 * Turn resistance.
 	 */
 	@Getter
-	private final AtomicInteger										turnResistance		= new AtomicInteger(0);
+	private final AtomicInteger	turnResistance		= new AtomicInteger(0);
 
 	/**
-	 * Vulnerability types.
+	 * Vulnerability types as bit mask over the energy type ordinals.
 	 */
-	@Getter
-	private final Set<EnergyType>									vulnerabilities		= new HashSet<>();
+	private final AtomicInteger	vulnerabilities		= new AtomicInteger(0);
 
 	/**
 	 * Get the energy resistance for a specific energy type.
@@ -77,14 +100,36 @@ public class Resistances
 	 */
 	public int getEnergyResistance(@NonNull EnergyType type)
 	{
-		if (energyResistances.containsKey(type))
-		{
-			return energyResistances.get(type).get();
-		}
-		else
+		return unpack(energyResistances.get(), type.ordinal());
+	}
+
+	/**
+	 * Get all energy resistances at once. The values are consistent even while
+	 * other threads update the resistances.
+	 *
+	 * @return Energy resistances, indexed by energy type ordinal.
+	 */
+	public int[] getEnergyResistanceSnapshot()
+	{
+		long packed = energyResistances.get();
+		int[] snapshot = new int[EnergyType.values().length];
+		for (int index = 0; index < snapshot.length; index++)
 		{
-			return 0;
+			snapshot[index] = unpack(packed, index);
 		}
+		return snapshot;
+	}
+
+	/**
+	 * Get all energy resistances packed into a single value,
+	 * {@link #RESISTANCE_BITS} bits per energy type ordinal. Intended for bulk
+	 * processing of many creatures.
+	 *
+	 * @return The packed energy resistances.
+	 */
+	public long getPackedEnergyResistances()
+	{
+		return energyResistances.get();
 	}
 
 	/**
@@ -93,7 +138,8 @@ public class Resistances
 	 * @param type
 	 *          The energy type.
 	 * @param newValue
-	 *          The new value. Must be 0 or positive.
+	 *          The new value. Must be 0 or positive and not larger than
+	 *          {@link #MAX_ENERGY_RESISTANCE}.
 	 */
 	public void setEnergyResistance(@NonNull EnergyType type, int newValue)
 	{
@@ -101,22 +147,19 @@ public class Resistances
 		{
 			throw new IllegalArgumentException("Resistance value must be 0 or positive");
 		}
-		else if (newValue == 0)
+		else if (newValue > MAX_ENERGY_RESISTANCE)
 		{
-			// For resistance value 0, remove resistance from set
-			energyResistances.remove(type);
+			throw new IllegalArgumentException("Resistance value must not exceed " + MAX_ENERGY_RESISTANCE);
 		}
-		else
+		int shift = type.ordinal() * RESISTANCE_BITS;
+		long current;
+		long updated;
+		do
 		{
-			if (energyResistances.containsKey(type))
-			{
-				energyResistances.get(type).set(newValue);
-			}
-			else
-			{
-				energyResistances.put(type, new AtomicInteger(newValue));
-			}
+			current = energyResistances.get();
+			updated = (current & ~((long) MAX_ENERGY_RESISTANCE << shift)) | ((long) newValue << shift);
 		}
+		while (!energyResistances.compareAndSet(current, updated));
 	}
 
 	/**
@@ -126,20 +169,82 @@ public class Resistances
 	 */
 	public String getEnergyResistances()
 	{
-		Iterator<EnergyType> resistances = energyResistances.keySet().iterator();
-		StringBuilder out = new StringBuilder();
-		while (resistances.hasNext())
+		return StatBlockRenderer.render(StatBlockRenderer::appendEnergyResistances, this);
+	}
+
+	/**
+	 * Get the vulnerability types.
+	 *
+	 * @return A read-only copy of the vulnerability types.
+	 */
+	public Set<EnergyType> getVulnerabilities()
+	{
+		int mask = vulnerabilities.get();
+		Set<EnergyType> types = EnumSet.noneOf(EnergyType.class);
+		for (EnergyType type : EnergyType.values())
 		{
-			EnergyType energyType = resistances.next();
-			out.append(energyType.getEnergy());
-			out.append(" ");
-			out.append(energyResistances.get(energyType).get());
-			if (resistances.hasNext())
+			if ((mask & (1 << type.ordinal())) != 0)
 			{
-				out.append(", ");
+				types.add(type);
 			}
 		}
-		return out.toString();
+		return Collections.unmodifiableSet(types);
+	}
+
+	/**
+	 * Get the vulnerability types as bit mask over the energy type ordinals.
+	 *
+	 * @return The vulnerability mask.
+	 */
+	public int getVulnerabilityMask()
+	{
+		return vulnerabilities.get();
+	}
+
+	/**
+	 * Check if a creature is vulnerable to an energy type.
+	 *
+	 * @param type
+	 *          The energy type.
+	 * @return <code>true</code> iff the creature is vulnerable to the type.
+	 */
+	public boolean isVulnerable(@NonNull EnergyType type)
+	{
+		return (vulnerabilities.get() & (1 << type.ordinal())) != 0;
+	}
+
+	/**
+	 * Add a vulnerability.
+	 *
+	 * @param type
+	 *          The energy type.
+	 */
+	public void addVulnerability(@NonNull EnergyType type)
+	{
+		int bit = 1 << type.ordinal();
+		int current;
+		do
+		{
+			current = vulnerabilities.get();
+		}
+		while (!vulnerabilities.compareAndSet(current, current | bit));
+	}
+
+	/**
+	 * Remove a vulnerability.
+	 *
+	 * @param type
+	 *          The energy type.
+	 */
+	public void removeVulnerability(@NonNull EnergyType type)
+	{
+		int bit = 1 << type.ordinal();
+		int current;
+		do
+		{
+			current = vulnerabilities.get();
+		}
+		while (!vulnerabilities.compareAndSet(current, current & ~bit));
 	}
 
 	/**
@@ -160,7 +265,7 @@ public class Resistances
 	 */
 	public boolean hasEnergyResistance()
 	{
-		return !energyResistances.isEmpty();
+		return energyResistances.get() != 0;
 	}
 
 	/**
@@ -192,6 +297,20 @@ public class Resistances
 	 */
 	public boolean hasVulnerabilities()
 	{
-		return !vulnerabilities.isEmpty();
+		return vulnerabilities.get() != 0;
+	}
+
+	/**
+	 * Read the resistance for a single energy type from the packed value.
+	 *
+	 * @param packed
+	 *          The packed resistances.
+	 * @param ordinal
+	 *          The energy type ordinal.
+	 * @return The resistance.
+	 */
+	static int unpack(long packed, int ordinal)
+	{
+		return (int) (packed >>> (ordinal * RESISTANCE_BITS)) & MAX_ENERGY_RESISTANCE;
 	}
 }
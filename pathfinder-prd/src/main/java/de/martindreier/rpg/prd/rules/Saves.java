@@ -19,16 +19,19 @@
  */
 package de.martindreier.rpg.prd.rules;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
-import de.martindreier.rpg.prd.util.I18nUtil;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.Value;
 
 /**
  * The saving throw bonuses of an entity. Implementation without any
  * intelligence, just stores, updates and returns the fixed values.
+ * <p>
+ * All three values are packed into a single atomic word, so updates from
+ * several threads do not need a lock and {@link #getSnapshot()} always returns
+ * values which have been set together.
  *
  * @author Martin Dreier <martin@martindreier.de>
  */
@@ -42,20 +45,136 @@ public class Saves
 	@Getter
 	public static enum SaveType
 	{
-		FORTITUDE, REFLEX, WILL;
+		FORTITUDE(Attribute.CONSTITUTION), REFLEX(Attribute.DEXTERITY), WILL(Attribute.WISDOM);
 
-		private String type;
+		/**
+		 * Attribute which modifies this save.
+		 */
+		private Attribute baseAttribute;
 
-		private SaveType()
+		private SaveType(Attribute baseAttribute)
 		{
-			type = I18nUtil.translateEnumValue(this, "save");
+			this.baseAttribute = baseAttribute;
+		}
+
+		/**
+		 * Get the display name of the save in the default locale.
+		 *
+		 * @return The display name.
+		 */
+		public String getType()
+		{
+			return Translations.getDefault().getSaveName(this);
+		}
+
+		/**
+		 * Get the display name of the save.
+		 *
+		 * @param locale
+		 *          The locale.
+		 * @return The display name.
+		 */
+		public String getType(@NonNull Locale locale)
+		{
+			return Translations.forLocale(locale).getSaveName(this);
 		}
 	}
 
 	/**
-	 * Values of saves.
+	 * Consistent copy of all saving throw bonuses at one point in time. Snapshots
+	 * are immutable and can also be used on their own, e.g. to keep a history of
+	 * saves; {@link #with(SaveType, int)} returns a changed copy.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
 	 */
-	private final Map<SaveType, AtomicInteger> saves = new HashMap<>();
+	@Value
+	public static class Snapshot
+	{
+		/**
+		 * Fortitude saving throw bonus.
+		 */
+		private final int	fortitude;
+		/**
+		 * Reflex saving throw bonus.
+		 */
+		private final int	reflex;
+		/**
+		 * Will saving throw bonus.
+		 */
+		private final int	will;
+
+		/**
+		 * Get the bonus for a saving throw.
+		 *
+		 * @param type
+		 *          The type of saving throw.
+		 * @return The saving throw bonus.
+		 */
+		public int get(@NonNull SaveType type)
+		{
+			switch (type)
+			{
+				case FORTITUDE:
+					return fortitude;
+				case REFLEX:
+					return reflex;
+				default:
+					return will;
+			}
+		}
+
+		/**
+		 * Change a saving throw bonus.
+		 *
+		 * @param type
+		 *          The type of saving throw.
+		 * @param value
+		 *          The new saving throw bonus.
+		 * @return New snapshot, or this one if the value did not change.
+		 */
+		public Snapshot with(@NonNull SaveType type, int value)
+		{
+			if (get(type) == value)
+			{
+				return this;
+			}
+			switch (type)
+			{
+				case FORTITUDE:
+					return new Snapshot(value, reflex, will);
+				case REFLEX:
+					return new Snapshot(fortitude, value, will);
+				default:
+					return new Snapshot(fortitude, reflex, value);
+			}
+		}
+	}
+
+	/**
+	 * Number of bits used for each save in the packed value.
+	 */
+	private static final int	BITS			= 21;
+
+	/**
+	 * Mask for a single save in the packed value.
+	 */
+	private static final long	MASK			= (1L << BITS) - 1;
+
+	/**
+	 * Largest value a save may have.
+	 */
+	public static final int		MAX_VALUE	= (1 << (BITS - 1)) - 1;
+
+	/**
+	 * Smallest value a save may have.
+	 */
+	public static final int		MIN_VALUE	= -MAX_VALUE;
+
+	/**
+	 * Values of saves, {@link #BITS} bits per save type, indexed by save type
+	 * ordinal.
+	 */
+	private final AtomicLong	saves			= new AtomicLong();
 
 	/**
 	 * Create a new set of saves with initial values.
@@ -69,9 +188,21 @@ public class Saves
 	 */
 	public Saves(int fortitude, int reflex, int will)
 	{
-		saves.put(SaveType.FORTITUDE, new AtomicInteger(fortitude));
-		saves.put(SaveType.REFLEX, new AtomicInteger(reflex));
-		saves.put(SaveType.WILL, new AtomicInteger(will));
+		long packed = pack(0L, SaveType.FORTITUDE, fortitude);
+		packed = pack(packed, SaveType.REFLEX, reflex);
+		packed = pack(packed, SaveType.WILL, will);
+		saves.set(packed);
+	}
+
+	/**
+	 * Create a new set of saves from a snapshot.
+	 *
+	 * @param snapshot
+	 *          Initial saving throw bonuses.
+	 */
+	public Saves(@NonNull Snapshot snapshot)
+	{
+		this(snapshot.getFortitude(), snapshot.getReflex(), snapshot.getWill());
 	}
 
 	/**
@@ -81,7 +212,7 @@ public class Saves
 	 */
 	public int getFortitudeSave()
 	{
-		return saves.get(SaveType.FORTITUDE).get();
+		return getSave(SaveType.FORTITUDE);
 	}
 
 	/**
@@ -91,7 +222,7 @@ public class Saves
 	 */
 	public int getReflexSave()
 	{
-		return saves.get(SaveType.REFLEX).get();
+		return getSave(SaveType.REFLEX);
 	}
 
 	/**
@@ -101,7 +232,32 @@ public class Saves
 	 */
 	public int getWillSave()
 	{
-		return saves.get(SaveType.WILL).get();
+		return getSave(SaveType.WILL);
+	}
+
+	/**
+	 * Get a saving throw bonus.
+	 *
+	 * @param type
+	 *          The type of saving throw.
+	 * @return The saving throw bonus.
+	 */
+	public int getSave(@NonNull SaveType type)
+	{
+		return unpack(saves.get(), type);
+	}
+
+	/**
+	 * Get all saving throw bonuses at once. The values are consistent even while
+	 * other threads update the saves.
+	 *
+	 * @return Copy of all saving throw bonuses.
+	 */
+	public Snapshot getSnapshot()
+	{
+		long packed = saves.get();
+		return new Snapshot(unpack(packed, SaveType.FORTITUDE), unpack(packed, SaveType.REFLEX),
+						unpack(packed, SaveType.WILL));
 	}
 
 	/**
@@ -115,7 +271,14 @@ public class Saves
 	 */
 	public void updateSave(@NonNull SaveType type, int modification)
 	{
-		saves.get(type).addAndGet(modification);
+		long current;
+		long updated;
+		do
+		{
+			current = saves.get();
+			updated = pack(current, type, unpack(current, type) + modification);
+		}
+		while (!saves.compareAndSet(current, updated));
 	}
 
 	/**
@@ -129,6 +292,73 @@ public class Saves
 	 */
 	public void setSave(@NonNull SaveType type, int newValue)
 	{
-		saves.get(type).set(newValue);
+		long current;
+		long updated;
+		do
+		{
+			current = saves.get();
+			updated = pack(current, type, newValue);
+		}
+		while (!saves.compareAndSet(current, updated));
+	}
+
+	/**
+	 * Read a single save from the packed value.
+	 *
+	 * @param packed
+	 *          The packed saves.
+	 * @param type
+	 *          The type of saving throw.
+	 * @return The saving throw bonus.
+	 */
+	private static int unpack(long packed, SaveType type)
+	{
+		int shift = type.ordinal() * BITS;
+		// Shift the field to the top of the word first to restore the sign
+		return (int) ((packed << (64 - BITS - shift)) >> (64 - BITS));
+	}
+
+	/**
+	 * Replace a single save in the packed value.
+	 *
+	 * @param packed
+	 *          The packed saves.
+	 * @param type
+	 *          The type of saving throw.
+	 * @param value
+	 *          The new saving throw bonus.
+	 * @return The new packed value.
+	 */
+	private static long pack(long packed, SaveType type, int value)
+	{
+		if (value < MIN_VALUE || value > MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Save value out of range: " + value);
+		}
+		int shift = type.ordinal() * BITS;
+		return (packed & ~(MASK << shift)) | ((value & MASK) << shift);
+	}
+
+	/**
+	 * Apply the total of a modifier stack to a saving throw bonus. The current
+	 * total is added immediately, later changes to the stack are added or
+	 * subtracted as they happen.
+	 * <p>
+	 * Each call registers a new listener, so binding the same stack twice adds
+	 * its total twice. Remove the returned listener from the stack to stop
+	 * following it; the bonus added so far is kept.
+	 *
+	 * @param type
+	 *          The type of saving throw.
+	 * @param stack
+	 *          The modifier stack.
+	 * @return The listener registered on the stack.
+	 */
+	public ModifierStack.Listener applyModifiers(@NonNull SaveType type, @NonNull ModifierStack stack)
+	{
+		updateSave(type, stack.getTotal());
+		ModifierStack.Listener listener = (bonusType, oldValue, newValue) -> updateSave(type, newValue - oldValue);
+		stack.addListener(listener);
+		return listener;
 	}
 }
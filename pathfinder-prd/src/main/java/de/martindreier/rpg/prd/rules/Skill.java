@@ -19,9 +19,9 @@
  */
 package de.martindreier.rpg.prd.rules;
 
-import de.martindreier.rpg.prd.util.I18nUtil;
-import de.martindreier.rpg.prd.util.I18nUtil.Bundles;
+import java.util.Locale;
 import lombok.Getter;
+import lombok.NonNull;
 
 /**
  * Representation of a skill.
@@ -44,16 +44,16 @@ public enum Skill
 	HandleAnimal(null, Attribute.CHARISMA, false, false), //
 	Heal(null, Attribute.WISDOM, false, false), //
 	Intimidate(null, Attribute.CHARISMA, false, false), //
-	KnowledgeArcana("knowlede_arcana", Attribute.INTELLIGENCE, false, false), //
-	KnowledgeDungeoneering("knowlede_dungeoneering", Attribute.INTELLIGENCE, false, false), //
-	KnowledgeEngineering("knowlede_engineering", Attribute.INTELLIGENCE, false, false), //
-	KnowledgeGeography("knowlede_geography", Attribute.INTELLIGENCE, false, false), //
-	KnowledgeHistory("knowlede_history", Attribute.INTELLIGENCE, false, false), //
-	KnowledgeLocal("knowlede_local", Attribute.INTELLIGENCE, false, false), //
-	KnowledgeNature("knowlede_nature", Attribute.INTELLIGENCE, false, false), //
-	KnowledgeNobility("knowlede_nobility", Attribute.INTELLIGENCE, false, false), //
-	KnowledgePlanes("knowlede_planes", Attribute.INTELLIGENCE, false, false), //
-	KnowledgeReligion("knowlede_religion", Attribute.INTELLIGENCE, false, false), //
+	KnowledgeArcana("knowledge_arcana", Attribute.INTELLIGENCE, false, false), //
+	KnowledgeDungeoneering("knowledge_dungeoneering", Attribute.INTELLIGENCE, false, false), //
+	KnowledgeEngineering("knowledge_engineering", Attribute.INTELLIGENCE, false, false), //
+	KnowledgeGeography("knowledge_geography", Attribute.INTELLIGENCE, false, false), //
+	KnowledgeHistory("knowledge_history", Attribute.INTELLIGENCE, false, false), //
+	KnowledgeLocal("knowledge_local", Attribute.INTELLIGENCE, false, false), //
+	KnowledgeNature("knowledge_nature", Attribute.INTELLIGENCE, false, false), //
+	KnowledgeNobility("knowledge_nobility", Attribute.INTELLIGENCE, false, false), //
+	KnowledgePlanes("knowledge_planes", Attribute.INTELLIGENCE, false, false), //
+	KnowledgeReligion("knowledge_religion", Attribute.INTELLIGENCE, false, false), //
 	Linguistics(null, Attribute.INTELLIGENCE, false, false), //
 	Perception(null, Attribute.WISDOM, false, false), //
 	Perform(null, Attribute.CHARISMA, false, true), //
@@ -70,9 +70,11 @@ public enum Skill
 	private Attribute	baseAttribute;
 
 	/**
-	 * Name of the skill.
+	 * Key for the translation of the name, without the <code>skill.</code>
+	 * prefix. The build reads the key from the constructor call when it
+	 * generates the translation tables.
 	 */
-	private String		skillName;
+	private String		nameKey;
 
 	/**
 	 * Short skill description.
@@ -94,8 +96,9 @@ public enum Skill
 	 * Create a new skill.
 	 *
 	 * @param nameKey
-	 *          The key for the translation of the name. May be <code>null</code>,
-	 *          then the lower case enum name will be used as key.
+	 *          The key for the translation of the name, without the
+	 *          <code>skill.</code> prefix. May be <code>null</code>, then the
+	 *          lower case enum name will be used as key.
 	 * @param baseAttribute
 	 *          Base attribute for this skill;
 	 * @param hasArmorCheckPenalty
@@ -111,10 +114,32 @@ public enum Skill
 		typed = isTyped;
 		if (nameKey == null)
 		{
-			nameKey = name().toLowerCase().replaceAll("\\w", "");
+			nameKey = name().toLowerCase();
 		}
-		skillName = I18nUtil.getResourceBundle(Bundles.RULES).getString(nameKey);
+		this.nameKey = nameKey;
 		// TODO: Implement descriptions
 		description = "";
 	}
+
+	/**
+	 * Get the name of the skill in the default locale.
+	 *
+	 * @return The name.
+	 */
+	public String getSkillName()
+	{
+		return Translations.getDefault().getSkillName(this);
+	}
+
+	/**
+	 * Get the name of the skill.
+	 *
+	 * @param locale
+	 *          The locale.
+	 * @return The name.
+	 */
+	public String getSkillName(@NonNull Locale locale)
+	{
+		return Translations.forLocale(locale).getSkillName(this);
+	}
 }
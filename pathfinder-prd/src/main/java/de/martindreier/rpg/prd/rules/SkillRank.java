@@ -19,7 +19,6 @@
  */
 package de.martindreier.rpg.prd.rules;
 
-import de.martindreier.rpg.prd.util.I18nUtil;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NonNull;
@@ -50,10 +49,22 @@ public class SkillRank
 	 */
 	private int			bonus;
 
+	/**
+	 * Get the skill bonus including situational modifiers.
+	 *
+	 * @param modifiers
+	 *          Additional modifiers to the skill, stacked according to their
+	 *          bonus types.
+	 * @return The total skill bonus.
+	 */
+	public int getTotal(@NonNull ModifierStack modifiers)
+	{
+		return bonus + modifiers.getTotal();
+	}
+
 	@Override
 	public String toString()
 	{
-		return String.format("%s (%s) %s", baseSkill.getSkillName(), baseSkill.getBaseAttribute().getAbbreviation(),
-						I18nUtil.formatBonus(bonus));
+		return StatBlockRenderer.render(StatBlockRenderer::appendSkillRank, this);
 	}
 }
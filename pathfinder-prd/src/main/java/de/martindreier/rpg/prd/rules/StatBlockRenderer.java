@@ -0,0 +1,300 @@
+/**
+ * StatBlockRenderer.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.util.I18nUtil;
+import lombok.NonNull;
+
+/**
+ * Writes stat block parts directly into an {@link Appendable}, e.g. a reused
+ * {@link StringBuilder} or a {@link java.io.Writer} for an export file.
+ * Bonuses come from precomputed strings and numbers are written digit by
+ * digit, so rendering does not create temporary objects.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class StatBlockRenderer
+{
+	/**
+	 * Part of a stat block which can be written to an {@link Appendable}.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 * @param <T>
+	 *          Type of the rendered object.
+	 */
+	@FunctionalInterface
+	public static interface Section<T>
+	{
+		/**
+		 * Write the section.
+		 *
+		 * @param out
+		 *          Target of the output.
+		 * @param value
+		 *          The rendered object.
+		 * @throws IOException
+		 *           Writing to the target failed.
+		 */
+		public void append(Appendable out, T value) throws IOException;
+	}
+
+	/**
+	 * All attributes, cached to avoid copying the array on every call.
+	 */
+	private static final Attribute[]	ATTRIBUTES		= Attribute.values();
+
+	/**
+	 * All bonus types, cached to avoid copying the array on every call.
+	 */
+	private static final BonusType[]	BONUS_TYPES		= BonusType.values();
+
+	/**
+	 * All energy types, cached to avoid copying the array on every call.
+	 */
+	private static final EnergyType[]	ENERGY_TYPES	= EnergyType.values();
+
+	/**
+	 * All save types, cached to avoid copying the array on every call.
+	 */
+	private static final SaveType[]		SAVE_TYPES		= SaveType.values();
+
+	/**
+	 * Utility class, do not instantiate.
+	 */
+	private StatBlockRenderer()
+	{}
+
+	/**
+	 * Render a section into a new string.
+	 *
+	 * @param section
+	 *          The section.
+	 * @param value
+	 *          The rendered object.
+	 * @return The rendered section.
+	 */
+	public static <T> String render(@NonNull Section<T> section, T value)
+	{
+		StringBuilder out = new StringBuilder();
+		try
+		{
+			section.append(out, value);
+		}
+		catch (IOException e)
+		{
+			// StringBuilder does not throw
+			throw new UncheckedIOException(e);
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Write the armor class line, including total and all modifiers, e.g.
+	 * &quot;17 (+2 DEX, +4 Armor, +1 Dodge)&quot;.
+	 *
+	 * @param out
+	 *          Target of the output.
+	 * @param armorClass
+	 *          The armor class.
+	 * @throws IOException
+	 *           Writing to the target failed.
+	 */
+	public static void appendArmorClassLine(@NonNull Appendable out, @NonNull ArmorClass armorClass)
+					throws IOException
+	{
+		I18nUtil.appendNumber(out, armorClass.getTotal());
+		boolean first = true;
+		for (Attribute attribute : ATTRIBUTES)
+		{
+			if (armorClass.hasModifier(attribute))
+			{
+				first = appendSeparator(out, first);
+				I18nUtil.appendBonus(out, armorClass.getModifier(attribute));
+				out.append(' ').append(attribute.getAbbreviation());
+			}
+		}
+		for (BonusType type : BONUS_TYPES)
+		{
+			if (type == BonusType.DODGE)
+			{
+				for (int index = 0; index < armorClass.getDodgeCount(); index++)
+				{
+					first = appendSeparator(out, first);
+					I18nUtil.appendBonus(out, armorClass.getDodgeBonus(index));
+					out.append(' ').append(type.getBonusName());
+				}
+			}
+			else if (armorClass.hasModifier(type))
+			{
+				first = appendSeparator(out, first);
+				I18nUtil.appendBonus(out, armorClass.getModifier(type));
+				out.append(' ').append(type.getBonusName());
+			}
+		}
+		if (!first)
+		{
+			out.append(')');
+		}
+	}
+
+	/**
+	 * Write all saving throws, e.g. &quot;Fortitude +4, Reflex +2, Will
+	 * +1&quot;.
+	 *
+	 * @param out
+	 *          Target of the output.
+	 * @param saves
+	 *          The saving throws.
+	 * @throws IOException
+	 *           Writing to the target failed.
+	 */
+	public static void appendSaves(@NonNull Appendable out, @NonNull Saves saves) throws IOException
+	{
+		for (SaveType type : SAVE_TYPES)
+		{
+			if (type.ordinal() > 0)
+			{
+				out.append(", ");
+			}
+			out.append(type.getType()).append(' ');
+			I18nUtil.appendBonus(out, saves.getSave(type));
+		}
+	}
+
+	/**
+	 * Write all energy resistances above 0, e.g. &quot;Fire 10, Sonic 5&quot;.
+	 *
+	 * @param out
+	 *          Target of the output.
+	 * @param resistances
+	 *          The resistances.
+	 * @throws IOException
+	 *           Writing to the target failed.
+	 */
+	public static void appendEnergyResistances(@NonNull Appendable out, @NonNull Resistances resistances)
+					throws IOException
+	{
+		long packed = resistances.getPackedEnergyResistances();
+		boolean first = true;
+		for (EnergyType energyType : ENERGY_TYPES)
+		{
+			int resistance = Resistances.unpack(packed, energyType.ordinal());
+			if (resistance > 0)
+			{
+				if (!first)
+				{
+					out.append(", ");
+				}
+				first = false;
+				out.append(energyType.getEnergy()).append(' ');
+				I18nUtil.appendNumber(out, resistance);
+			}
+		}
+	}
+
+	/**
+	 * Write a skill rank, e.g. &quot;Acrobatics (DEX) +5&quot;.
+	 *
+	 * @param out
+	 *          Target of the output.
+	 * @param skillRank
+	 *          The skill rank.
+	 * @throws IOException
+	 *           Writing to the target failed.
+	 */
+	public static void appendSkillRank(@NonNull Appendable out, @NonNull SkillRank skillRank) throws IOException
+	{
+		Skill skill = skillRank.getBaseSkill();
+		out.append(skill.getSkillName()).append(" (").append(skill.getBaseAttribute().getAbbreviation()).append(") ");
+		I18nUtil.appendBonus(out, skillRank.getBonus());
+	}
+
+	/**
+	 * Write the name of an entity, followed by its source in parentheses if it
+	 * is known.
+	 *
+	 * @param out
+	 *          Target of the output.
+	 * @param entity
+	 *          The entity.
+	 * @throws IOException
+	 *           Writing to the target failed.
+	 */
+	public static void appendEntity(@NonNull Appendable out, @NonNull BaseEntity entity) throws IOException
+	{
+		out.append(entity.getName());
+		if (entity.getSource() != null)
+		{
+			out.append(" (").append(entity.getSource().getSourceName()).append(')');
+		}
+	}
+
+	/**
+	 * Write the defensive part of a stat block: armor class, saving throws and
+	 * energy resistances (if any), one per line.
+	 *
+	 * @param out
+	 *          Target of the output.
+	 * @param armorClass
+	 *          The armor class.
+	 * @param saves
+	 *          The saving throws.
+	 * @param resistances
+	 *          The resistances.
+	 * @throws IOException
+	 *           Writing to the target failed.
+	 */
+	public static void appendDefense(@NonNull Appendable out, @NonNull ArmorClass armorClass, @NonNull Saves saves,
+					@NonNull Resistances resistances) throws IOException
+	{
+		out.append("AC ");
+		appendArmorClassLine(out, armorClass);
+		out.append('\n');
+		appendSaves(out, saves);
+		out.append('\n');
+		if (resistances.hasEnergyResistance())
+		{
+			appendEnergyResistances(out, resistances);
+			out.append('\n');
+		}
+	}
+
+	/**
+	 * Write the separator before an armor class modifier.
+	 *
+	 * @param out
+	 *          Target of the output.
+	 * @param first
+	 *          <code>true</code> if this is the first modifier.
+	 * @return Always <code>false</code>, the value of <code>first</code> for the
+	 *         next modifier.
+	 * @throws IOException
+	 *           Writing to the target failed.
+	 */
+	private static boolean appendSeparator(Appendable out, boolean first) throws IOException
+	{
+		out.append(first ? " (" : ", ");
+		return false;
+	}
+}
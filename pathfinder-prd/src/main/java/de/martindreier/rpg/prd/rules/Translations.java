@@ -0,0 +1,254 @@
+/**
+ * Translations.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Display names of the rules enums for one locale. The names are stored in
+ * arrays indexed by enum ordinal, so a lookup is a single array read. The
+ * arrays are generated from <code>i18n/Rules*.properties</code> during the
+ * build, so no resource bundle is loaded at runtime. Instances are immutable
+ * and can be shared between threads; one instance exists per locale.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class Translations
+{
+	/**
+	 * Tables already created, by locale.
+	 */
+	private static final ConcurrentMap<Locale, Translations>	cache	= new ConcurrentHashMap<>();
+
+	/**
+	 * Tables for the most recently used default locale.
+	 */
+	private static volatile Translations											defaultTranslations;
+
+	/**
+	 * Locale of the translations.
+	 */
+	@Getter
+	private final Locale																			locale;
+
+	/**
+	 * Attribute names by ordinal.
+	 */
+	private final String[]																		attributeNames;
+
+	/**
+	 * Attribute abbreviations by ordinal.
+	 */
+	private final String[]																		attributeAbbreviations;
+
+	/**
+	 * Skill names by ordinal.
+	 */
+	private final String[]																		skillNames;
+
+	/**
+	 * Bonus type names by ordinal.
+	 */
+	private final String[]																		bonusNames;
+
+	/**
+	 * Energy type names by ordinal.
+	 */
+	private final String[]																		energyNames;
+
+	/**
+	 * Save type names by ordinal.
+	 */
+	private final String[]																		saveNames;
+
+	/**
+	 * Load all translations for a locale.
+	 *
+	 * @param locale
+	 *          The locale.
+	 */
+	private Translations(Locale locale)
+	{
+		this.locale = locale;
+		int table = findTable(locale);
+		attributeNames = check(GeneratedTranslations.ATTRIBUTE_NAMES[table], Attribute.values());
+		attributeAbbreviations = check(GeneratedTranslations.ATTRIBUTE_ABBREVIATIONS[table], Attribute.values());
+		skillNames = check(GeneratedTranslations.SKILL_NAMES[table], Skill.values());
+		bonusNames = check(GeneratedTranslations.BONUS_NAMES[table], BonusType.values());
+		energyNames = check(GeneratedTranslations.ENERGY_NAMES[table], EnergyType.values());
+		saveNames = check(GeneratedTranslations.SAVE_NAMES[table], SaveType.values());
+	}
+
+	/**
+	 * Get the translations for the default locale.
+	 *
+	 * @return The translations.
+	 */
+	public static Translations getDefault()
+	{
+		Translations translations = defaultTranslations;
+		Locale locale = Locale.getDefault();
+		if (translations == null || translations.locale != locale)
+		{
+			translations = forLocale(locale);
+			defaultTranslations = translations;
+		}
+		return translations;
+	}
+
+	/**
+	 * Get the translations for a locale.
+	 *
+	 * @param locale
+	 *          The locale.
+	 * @return The translations.
+	 */
+	public static Translations forLocale(@NonNull Locale locale)
+	{
+		Translations translations = cache.get(locale);
+		if (translations == null)
+		{
+			translations = cache.computeIfAbsent(locale, Translations::new);
+		}
+		return translations;
+	}
+
+	/**
+	 * Get the name of an attribute.
+	 *
+	 * @param attribute
+	 *          The attribute.
+	 * @return The translated name.
+	 */
+	public String getAttributeName(@NonNull Attribute attribute)
+	{
+		return attributeNames[attribute.ordinal()];
+	}
+
+	/**
+	 * Get the abbreviation of an attribute.
+	 *
+	 * @param attribute
+	 *          The attribute.
+	 * @return The translated abbreviation.
+	 */
+	public String getAttributeAbbreviation(@NonNull Attribute attribute)
+	{
+		return attributeAbbreviations[attribute.ordinal()];
+	}
+
+	/**
+	 * Get the name of a skill.
+	 *
+	 * @param skill
+	 *          The skill.
+	 * @return The translated name.
+	 */
+	public String getSkillName(@NonNull Skill skill)
+	{
+		return skillNames[skill.ordinal()];
+	}
+
+	/**
+	 * Get the name of a bonus type.
+	 *
+	 * @param type
+	 *          The bonus type.
+	 * @return The translated name.
+	 */
+	public String getBonusName(@NonNull BonusType type)
+	{
+		return bonusNames[type.ordinal()];
+	}
+
+	/**
+	 * Get the name of an energy type.
+	 *
+	 * @param type
+	 *          The energy type.
+	 * @return The translated name.
+	 */
+	public String getEnergyName(@NonNull EnergyType type)
+	{
+		return energyNames[type.ordinal()];
+	}
+
+	/**
+	 * Get the name of a save type.
+	 *
+	 * @param type
+	 *          The save type.
+	 * @return The translated name.
+	 */
+	public String getSaveName(@NonNull SaveType type)
+	{
+		return saveNames[type.ordinal()];
+	}
+
+	/**
+	 * Find the generated table for a locale. Like a resource bundle without
+	 * fallback to the default locale, this tries the full locale, then language
+	 * and country, then language only, and finally the base table.
+	 *
+	 * @param locale
+	 *          The locale.
+	 * @return Index of the table.
+	 */
+	private static int findTable(Locale locale)
+	{
+		String[] candidates = { locale.getLanguage() + "_" + locale.getCountry() + "_" + locale.getVariant(),
+						locale.getLanguage() + "_" + locale.getCountry(), locale.getLanguage() };
+		for (String candidate : candidates)
+		{
+			for (int table = 0; table < GeneratedTranslations.LOCALES.length; table++)
+			{
+				if (GeneratedTranslations.LOCALES[table].equals(candidate))
+				{
+					return table;
+				}
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Check that a generated table matches the enum it translates.
+	 *
+	 * @param names
+	 *          The generated table.
+	 * @param values
+	 *          All enum values.
+	 * @return The table.
+	 */
+	private static String[] check(String[] names, Enum<?>[] values)
+	{
+		if (names.length != values.length)
+		{
+			throw new IllegalStateException("Translation table for " + values.getClass().getComponentType().getSimpleName()
+							+ " is out of date, rebuild the project");
+		}
+		return names;
+	}
+}
@@ -0,0 +1,288 @@
+/**
+ * EncounterSimulator.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.simulation;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import de.martindreier.rpg.prd.rules.ArmorClass;
+import de.martindreier.rpg.prd.rules.Saves;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import lombok.NonNull;
+
+/**
+ * Estimates the outcome of attacks and saving throws by running many random
+ * trials. Trials are split into chunks which run in parallel on a fork/join
+ * pool. Every chunk has its own random number generator, split from the
+ * generator of its parent chunk. The split structure only depends on the
+ * number of trials, so the same seed always gives the same result, no matter
+ * how many threads the pool has.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class EncounterSimulator
+{
+	/**
+	 * Number of trials below which a chunk is not split any further.
+	 */
+	private static final long		CHUNK_SIZE	= 1 << 14;
+
+	/**
+	 * Pool running the trials.
+	 */
+	private final ForkJoinPool	pool;
+
+	/**
+	 * Create a simulator using the common fork/join pool.
+	 */
+	public EncounterSimulator()
+	{
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Create a simulator using a specific pool.
+	 *
+	 * @param pool
+	 *          Pool running the trials.
+	 */
+	public EncounterSimulator(@NonNull ForkJoinPool pool)
+	{
+		this.pool = pool;
+	}
+
+	/**
+	 * Simulate attack rolls against an armor class. A natural 20 always hits, a
+	 * natural 1 always misses.
+	 *
+	 * @param attackBonus
+	 *          Total attack bonus.
+	 * @param target
+	 *          Armor class of the target.
+	 * @param trials
+	 *          Number of attacks to simulate.
+	 * @param seed
+	 *          Seed for the random number generator.
+	 * @return Result, successes are hits.
+	 */
+	public SimulationResult simulateAttacks(int attackBonus, @NonNull ArmorClass target, long trials, long seed)
+	{
+		int armorClass = target.getTotal();
+		long[] counters = run((random, hits) -> {
+			int roll = random.nextInt(20) + 1;
+			if (roll == 20 || (roll != 1 && roll + attackBonus >= armorClass))
+			{
+				hits[0]++;
+			}
+		}, 1, trials, seed);
+		return new SimulationResult(trials, counters[0]);
+	}
+
+	/**
+	 * Simulate saving throws of a single creature. A natural 20 always succeeds,
+	 * a natural 1 always fails.
+	 *
+	 * @param saves
+	 *          Saves of the creature.
+	 * @param type
+	 *          The type of saving throw.
+	 * @param difficulty
+	 *          Difficulty class of the saving throw.
+	 * @param trials
+	 *          Number of saving throws to simulate.
+	 * @param seed
+	 *          Seed for the random number generator.
+	 * @return Result, successes are successful saves.
+	 */
+	public SimulationResult simulateSaves(@NonNull Saves saves, @NonNull SaveType type, int difficulty, long trials,
+					long seed)
+	{
+		int bonus = saves.getSave(type);
+		long[] counters = run((random, successes) -> {
+			if (isSaved(random.nextInt(20) + 1, bonus, difficulty))
+			{
+				successes[0]++;
+			}
+		}, 1, trials, seed);
+		return new SimulationResult(trials, counters[0]);
+	}
+
+	/**
+	 * Simulate every member of a party rolling a saving throw against the same
+	 * difficulty class.
+	 *
+	 * @param party
+	 *          Saves of the party members.
+	 * @param type
+	 *          The type of saving throw.
+	 * @param difficulty
+	 *          Difficulty class of the saving throw.
+	 * @param trials
+	 *          Number of rounds of saving throws to simulate.
+	 * @param seed
+	 *          Seed for the random number generator.
+	 * @return Result per party member and for the party as a whole.
+	 */
+	public PartySaveResult simulatePartySaves(@NonNull List<Saves> party, @NonNull SaveType type, int difficulty,
+					long trials, long seed)
+	{
+		int members = party.size();
+		int[] bonuses = new int[members];
+		for (int member = 0; member < members; member++)
+		{
+			bonuses[member] = party.get(member).getSave(type);
+		}
+		// Counters: number of trials by number of successes, then successes per
+		// member
+		long[] counters = run((random, results) -> {
+			int successes = 0;
+			for (int member = 0; member < members; member++)
+			{
+				if (isSaved(random.nextInt(20) + 1, bonuses[member], difficulty))
+				{
+					successes++;
+					results[members + 1 + member]++;
+				}
+			}
+			results[successes]++;
+		}, 2 * members + 1, trials, seed);
+		long[] successCounts = new long[members + 1];
+		long[] memberSuccesses = new long[members];
+		System.arraycopy(counters, 0, successCounts, 0, members + 1);
+		System.arraycopy(counters, members + 1, memberSuccesses, 0, members);
+		return new PartySaveResult(trials, successCounts, memberSuccesses);
+	}
+
+	/**
+	 * Run a trial many times and sum up the counters of all runs.
+	 *
+	 * @param trial
+	 *          The trial.
+	 * @param counterCount
+	 *          Number of counters the trial uses.
+	 * @param trials
+	 *          Number of runs. Must be positive.
+	 * @param seed
+	 *          Seed for the random number generator.
+	 * @return Sum of the counters.
+	 */
+	public long[] run(@NonNull Trial trial, int counterCount, long trials, long seed)
+	{
+		if (trials <= 0)
+		{
+			throw new IllegalArgumentException("Number of trials must be positive");
+		}
+		return pool.invoke(new Chunk(trial, counterCount, trials, new SplittableRandom(seed)));
+	}
+
+	/**
+	 * Check if a saving throw succeeds.
+	 *
+	 * @param roll
+	 *          The natural die roll.
+	 * @param bonus
+	 *          Saving throw bonus.
+	 * @param difficulty
+	 *          Difficulty class.
+	 * @return <code>true</code> if the save succeeds.
+	 */
+	private static boolean isSaved(int roll, int bonus, int difficulty)
+	{
+		return roll == 20 || (roll != 1 && roll + bonus >= difficulty);
+	}
+
+	/**
+	 * A number of trials, split in half until it is small enough to run
+	 * directly.
+	 *
+	 * @author Martin Dreier <martin@martindreier.de>
+	 */
+	private static class Chunk extends RecursiveTask<long[]>
+	{
+		private static final long				serialVersionUID	= 1L;
+
+		/**
+		 * The trial to run.
+		 */
+		private final Trial							trial;
+
+		/**
+		 * Number of counters.
+		 */
+		private final int								counterCount;
+
+		/**
+		 * Number of trials in this chunk.
+		 */
+		private final long							trials;
+
+		/**
+		 * Random number generator of this chunk.
+		 */
+		private final SplittableRandom	random;
+
+		/**
+		 * Create a chunk.
+		 *
+		 * @param trial
+		 *          The trial to run.
+		 * @param counterCount
+		 *          Number of counters.
+		 * @param trials
+		 *          Number of trials in this chunk.
+		 * @param random
+		 *          Random number generator of this chunk.
+		 */
+		private Chunk(Trial trial, int counterCount, long trials, SplittableRandom random)
+		{
+			this.trial = trial;
+			this.counterCount = counterCount;
+			this.trials = trials;
+			this.random = random;
+		}
+
+		@Override
+		protected long[] compute()
+		{
+			if (trials <= CHUNK_SIZE)
+			{
+				long[] counters = new long[counterCount];
+				for (long count = 0; count < trials; count++)
+				{
+					trial.run(random, counters);
+				}
+				return counters;
+			}
+			// Split before forking, so the generators do not depend on scheduling
+			long half = trials / 2;
+			Chunk left = new Chunk(trial, counterCount, half, random.split());
+			Chunk right = new Chunk(trial, counterCount, trials - half, random);
+			left.fork();
+			long[] counters = right.compute();
+			long[] leftCounters = left.join();
+			for (int index = 0; index < counterCount; index++)
+			{
+				counters[index] += leftCounters[index];
+			}
+			return counters;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/**
+ * PartySaveResult.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.simulation;
+
+import lombok.Getter;
+
+/**
+ * Outcome of a simulation in which every member of a party rolls a saving
+ * throw against the same difficulty class.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public class PartySaveResult
+{
+	/**
+	 * Number of trials.
+	 */
+	@Getter
+	private final long		trials;
+
+	/**
+	 * Number of trials by number of successful party members.
+	 */
+	private final long[]	successCounts;
+
+	/**
+	 * Number of successful saves per party member.
+	 */
+	private final long[]	memberSuccesses;
+
+	/**
+	 * Create a result.
+	 *
+	 * @param trials
+	 *          Number of trials.
+	 * @param successCounts
+	 *          Number of trials by number of successful party members. One entry
+	 *          more than there are party members.
+	 * @param memberSuccesses
+	 *          Number of successful saves per party member.
+	 */
+	PartySaveResult(long trials, long[] successCounts, long[] memberSuccesses)
+	{
+		this.trials = trials;
+		this.successCounts = successCounts;
+		this.memberSuccesses = memberSuccesses;
+	}
+
+	/**
+	 * Get the size of the party.
+	 *
+	 * @return Number of party members.
+	 */
+	public int getPartySize()
+	{
+		return memberSuccesses.length;
+	}
+
+	/**
+	 * Get the result for a single party member.
+	 *
+	 * @param member
+	 *          Index of the party member.
+	 * @return Result of the member's saves.
+	 */
+	public SimulationResult getMemberResult(int member)
+	{
+		return new SimulationResult(trials, memberSuccesses[member]);
+	}
+
+	/**
+	 * Get the probability that at least a given number of party members
+	 * succeed.
+	 *
+	 * @param members
+	 *          Minimum number of successful members.
+	 * @return The estimated probability.
+	 */
+	public double getProbabilityAtLeast(int members)
+	{
+		long count = 0;
+		for (int successes = Math.max(members, 0); successes < successCounts.length; successes++)
+		{
+			count += successCounts[successes];
+		}
+		return (double) count / trials;
+	}
+
+	/**
+	 * Get the probability that all party members succeed.
+	 *
+	 * @return The estimated probability.
+	 */
+	public double getProbabilityAllSucceed()
+	{
+		return getProbabilityAtLeast(getPartySize());
+	}
+
+	/**
+	 * Get the expected number of successful party members.
+	 *
+	 * @return The mean number of successes per trial.
+	 */
+	public double getExpectedSuccesses()
+	{
+		double sum = 0;
+		for (int successes = 0; successes < successCounts.length; successes++)
+		{
+			sum += (double) successes * successCounts[successes];
+		}
+		return sum / trials;
+	}
+}
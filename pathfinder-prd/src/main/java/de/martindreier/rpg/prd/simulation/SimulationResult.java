@@ -0,0 +1,106 @@
+/**
+ * SimulationResult.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.simulation;
+
+import lombok.Getter;
+
+/**
+ * Outcome of a simulation with a yes/no result per trial, e.g. hit or miss.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@Getter
+public class SimulationResult
+{
+	/**
+	 * Number of trials.
+	 */
+	private final long	trials;
+
+	/**
+	 * Number of successful trials.
+	 */
+	private final long	successes;
+
+	/**
+	 * Create a result.
+	 *
+	 * @param trials
+	 *          Number of trials. Must be positive.
+	 * @param successes
+	 *          Number of successful trials.
+	 */
+	public SimulationResult(long trials, long successes)
+	{
+		if (trials <= 0)
+		{
+			throw new IllegalArgumentException("Number of trials must be positive");
+		}
+		this.trials = trials;
+		this.successes = successes;
+	}
+
+	/**
+	 * Get the estimated probability of success.
+	 *
+	 * @return Successes divided by trials.
+	 */
+	public double getProbability()
+	{
+		return (double) successes / trials;
+	}
+
+	/**
+	 * Get the standard error of the estimated probability.
+	 *
+	 * @return The standard error.
+	 */
+	public double getStandardError()
+	{
+		double probability = getProbability();
+		return Math.sqrt(probability * (1 - probability) / trials);
+	}
+
+	/**
+	 * Get the lower bound of the 95% confidence interval of the probability.
+	 *
+	 * @return The lower bound, not less than 0.
+	 */
+	public double getLowerBound()
+	{
+		return Math.max(0, getProbability() - 1.96 * getStandardError());
+	}
+
+	/**
+	 * Get the upper bound of the 95% confidence interval of the probability.
+	 *
+	 * @return The upper bound, not more than 1.
+	 */
+	public double getUpperBound()
+	{
+		return Math.min(1, getProbability() + 1.96 * getStandardError());
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("%.4f (%.4f - %.4f, %d trials)", getProbability(), getLowerBound(), getUpperBound(), trials);
+	}
+}
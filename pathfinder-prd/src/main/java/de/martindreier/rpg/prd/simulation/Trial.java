@@ -0,0 +1,43 @@
+/**
+ * Trial.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * A single random experiment, e.g. one attack roll. Trials must not keep
+ * state between runs, as they are executed concurrently by several workers.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@FunctionalInterface
+public interface Trial
+{
+	/**
+	 * Run the experiment once and record the outcome.
+	 *
+	 * @param random
+	 *          Random number source of the current worker.
+	 * @param counters
+	 *          Counters of the current worker. The trial increments the
+	 *          counters matching its outcome.
+	 */
+	public void run(SplittableRandom random, long[] counters);
+}
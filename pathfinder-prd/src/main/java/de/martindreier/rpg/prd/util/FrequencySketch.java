@@ -0,0 +1,164 @@
+/**
+ * FrequencySketch.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.util;
+
+/**
+ * Approximate access frequencies of many keys in little memory (a count-min
+ * sketch). Each key is counted in four 4 bit counters chosen by its hash; the
+ * smallest of the four is the estimate, which may be too high because of
+ * collisions but never too low. Counters saturate at {@value #MAX_FREQUENCY}.
+ * <p>
+ * When the number of increments reaches ten times the number of counters
+ * sized for, all counters are halved. Old popularity therefore fades, so keys
+ * which are popular now can overtake keys which were popular long ago.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class FrequencySketch
+{
+	/**
+	 * Largest frequency a counter can hold.
+	 */
+	public static final int			MAX_FREQUENCY	= 15;
+
+	/**
+	 * Multipliers for the four counter rows (odd 64 bit constants).
+	 */
+	private static final long[]	SEEDS					= { 0x97cb3127e5c8d0f1L, 0xc3a5c85c97cb3127L,
+					0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL };
+
+	/**
+	 * Mask to halve all sixteen counters of a word at once.
+	 */
+	private static final long		HALF_MASK			= 0x7777777777777777L;
+
+	/**
+	 * Counters, sixteen per word.
+	 */
+	private final long[]				table;
+
+	/**
+	 * Mask for counter indexes.
+	 */
+	private final int						counterMask;
+
+	/**
+	 * Number of increments after which all counters are halved.
+	 */
+	private final int						sampleSize;
+
+	/**
+	 * Increments since the last halving.
+	 */
+	private int									size;
+
+	/**
+	 * Create a sketch.
+	 *
+	 * @param expectedKeys
+	 *          Number of distinct keys which should be told apart, e.g. the
+	 *          capacity of a cache.
+	 */
+	public FrequencySketch(int expectedKeys)
+	{
+		if (expectedKeys <= 0)
+		{
+			throw new IllegalArgumentException("Expected number of keys must be positive");
+		}
+		int counters = Integer.highestOneBit(Math.min(expectedKeys, 1 << 26) - 1) << 1;
+		counters = Math.max(counters, 16);
+		table = new long[counters / 16];
+		counterMask = counters - 1;
+		sampleSize = 10 * counters;
+	}
+
+	/**
+	 * Count an access.
+	 *
+	 * @param hash
+	 *          Hash code of the key.
+	 */
+	public void increment(int hash)
+	{
+		boolean added = false;
+		for (int row = 0; row < SEEDS.length; row++)
+		{
+			int index = indexOf(hash, row);
+			int shift = (index & 15) << 2;
+			if (((table[index >>> 4] >>> shift) & 0xF) < MAX_FREQUENCY)
+			{
+				table[index >>> 4] += 1L << shift;
+				added = true;
+			}
+		}
+		if (added && ++size >= sampleSize)
+		{
+			reset();
+		}
+	}
+
+	/**
+	 * Estimate how often a key was accessed recently.
+	 *
+	 * @param hash
+	 *          Hash code of the key.
+	 * @return Estimated frequency, 0 to {@value #MAX_FREQUENCY}.
+	 */
+	public int frequency(int hash)
+	{
+		int frequency = MAX_FREQUENCY;
+		for (int row = 0; row < SEEDS.length; row++)
+		{
+			int index = indexOf(hash, row);
+			frequency = Math.min(frequency, (int) ((table[index >>> 4] >>> ((index & 15) << 2)) & 0xF));
+		}
+		return frequency;
+	}
+
+	/**
+	 * Halve all counters.
+	 */
+	private void reset()
+	{
+		for (int i = 0; i < table.length; i++)
+		{
+			table[i] = (table[i] >>> 1) & HALF_MASK;
+		}
+		size /= 2;
+	}
+
+	/**
+	 * Get the counter of a key in a row.
+	 *
+	 * @param hash
+	 *          Hash code of the key.
+	 * @param row
+	 *          The row.
+	 * @return Counter index.
+	 */
+	private int indexOf(int hash, int row)
+	{
+		long mixed = (hash + SEEDS[row]) * SEEDS[row];
+		mixed ^= mixed >>> 29;
+		return (int) mixed & counterMask;
+	}
+}
@@ -19,9 +19,11 @@
  */
 package de.martindreier.rpg.prd.util;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import lombok.NonNull;
 
 /**
@@ -46,7 +48,12 @@ public class I18nUtil
 		/**
 		 * Base name of the resource bundle.
 		 */
-		private String resourceBundleName;
+		private String																			resourceBundleName;
+
+		/**
+		 * Already loaded resource bundles by locale.
+		 */
+		private final ConcurrentMap<Locale, ResourceBundle>	cache	= new ConcurrentHashMap<>();
 
 		/**
 		 * Create new bundle reference.
@@ -67,12 +74,39 @@ public class I18nUtil
 	}
 
 	/**
-	 * Cache for already loaded resource bundles.
+	 * Smallest bonus with a precomputed string.
+	 */
+	public static final int				MIN_CACHED_BONUS	= -64;
+
+	/**
+	 * Largest bonus with a precomputed string.
+	 */
+	public static final int				MAX_CACHED_BONUS	= 64;
+
+	/**
+	 * Formatted bonuses from {@link #MIN_CACHED_BONUS} to
+	 * {@link #MAX_CACHED_BONUS}.
+	 */
+	private static final String[]	BONUS_STRINGS			= new String[MAX_CACHED_BONUS - MIN_CACHED_BONUS + 1];
+
+	static
+	{
+		for (int bonus = MIN_CACHED_BONUS; bonus <= MAX_CACHED_BONUS; bonus++)
+		{
+			BONUS_STRINGS[bonus - MIN_CACHED_BONUS] = String.format("%+d", bonus);
+		}
+	}
+
+	/**
+	 * Control for loading resource bundles. Does not fall back to the default
+	 * locale, so a bundle for one locale never contains texts for another
+	 * locale just because the JVM runs with that default.
 	 */
-	private static final Map<Bundles, ResourceBundle> resourceBundleCache = new HashMap<>();
+	private static final ResourceBundle.Control BUNDLE_CONTROL = ResourceBundle.Control
+					.getNoFallbackControl(ResourceBundle.Control.FORMAT_DEFAULT);
 
 	/**
-	 * Get a resource bundle.
+	 * Get a resource bundle for the default locale.
 	 *
 	 * @param bundle
 	 *          The bundle key.
@@ -80,18 +114,28 @@ public class I18nUtil
 	 */
 	public static ResourceBundle getResourceBundle(@NonNull Bundles bundle)
 	{
-		// Lookup bundle in cache first
-		if (resourceBundleCache.containsKey(bundle))
-		{
-			return resourceBundleCache.get(bundle);
-		}
-		else
+		return getResourceBundle(bundle, Locale.getDefault());
+	}
+
+	/**
+	 * Get a resource bundle. Bundles are loaded once per locale and can be used
+	 * from several threads.
+	 *
+	 * @param bundle
+	 *          The bundle key.
+	 * @param locale
+	 *          The locale.
+	 * @return The resource bundle for the given key and locale.
+	 */
+	public static ResourceBundle getResourceBundle(@NonNull Bundles bundle, @NonNull Locale locale)
+	{
+		ResourceBundle resource = bundle.cache.get(locale);
+		if (resource == null)
 		{
-			// Load bundle and store in cache
-			ResourceBundle resource = ResourceBundle.getBundle("i18n." + bundle.resourceBundleName);
-			resourceBundleCache.put(bundle, resource);
-			return resource;
+			resource = bundle.cache.computeIfAbsent(locale,
+							key -> ResourceBundle.getBundle("i18n." + bundle.resourceBundleName, key, BUNDLE_CONTROL));
 		}
+		return resource;
 	}
 
 	/**
@@ -103,12 +147,75 @@ public class I18nUtil
 	 */
 	public static String formatBonus(int bonus)
 	{
+		if (bonus >= MIN_CACHED_BONUS && bonus <= MAX_CACHED_BONUS)
+		{
+			return BONUS_STRINGS[bonus - MIN_CACHED_BONUS];
+		}
 		return String.format("%+d", bonus);
 	}
 
+	/**
+	 * Write a bonus with leading sign. Does not create any objects.
+	 *
+	 * @param out
+	 *          Target of the output.
+	 * @param bonus
+	 *          The bonus value.
+	 * @throws IOException
+	 *           Writing to the target failed.
+	 */
+	public static void appendBonus(@NonNull Appendable out, int bonus) throws IOException
+	{
+		if (bonus >= MIN_CACHED_BONUS && bonus <= MAX_CACHED_BONUS)
+		{
+			out.append(BONUS_STRINGS[bonus - MIN_CACHED_BONUS]);
+			return;
+		}
+		if (bonus >= 0)
+		{
+			out.append('+');
+		}
+		appendNumber(out, bonus);
+	}
+
+	/**
+	 * Write a number in decimal notation. Does not create any objects.
+	 *
+	 * @param out
+	 *          Target of the output.
+	 * @param number
+	 *          The number.
+	 * @throws IOException
+	 *           Writing to the target failed.
+	 */
+	public static void appendNumber(@NonNull Appendable out, int number) throws IOException
+	{
+		// Work with the negative value, which also covers Integer.MIN_VALUE
+		int negative = number;
+		if (number < 0)
+		{
+			out.append('-');
+		}
+		else
+		{
+			negative = -number;
+		}
+		int divisor = -1;
+		while (divisor >= -100000000 && negative <= divisor * 10)
+		{
+			divisor *= 10;
+		}
+		while (divisor != 0)
+		{
+			out.append((char) ('0' + negative / divisor));
+			negative %= divisor;
+			divisor /= 10;
+		}
+	}
+
 	/**
 	 * Provide a translation for an enum value from the {@link Bundles#RULES Rules
-	 * bundle}. Used by constructors for enum types.
+	 * bundle} in the default locale.
 	 *
 	 * @param enumValue
 	 *          The value to translate.
@@ -119,6 +226,26 @@ public class I18nUtil
 	 */
 	public static String translateEnumValue(Enum<?> enumValue, String prefix)
 	{
-		return getResourceBundle(Bundles.RULES).getString(prefix + "." + enumValue.name().toLowerCase());
+		return translateEnumValue(enumValue, prefix, Locale.getDefault());
+	}
+
+	/**
+	 * Provide a translation for an enum value from the {@link Bundles#RULES Rules
+	 * bundle}. Builds the translation key on every call; for repeated lookups
+	 * use the precomputed tables in
+	 * {@link de.martindreier.rpg.prd.rules.Translations}.
+	 *
+	 * @param enumValue
+	 *          The value to translate.
+	 * @param prefix
+	 *          Type-specific prefix of the translation key. Provided without
+	 *          separator (.).
+	 * @param locale
+	 *          The locale.
+	 * @return Translated value.
+	 */
+	public static String translateEnumValue(@NonNull Enum<?> enumValue, @NonNull String prefix, @NonNull Locale locale)
+	{
+		return getResourceBundle(Bundles.RULES, locale).getString(prefix + "." + enumValue.name().toLowerCase());
 	}
 }
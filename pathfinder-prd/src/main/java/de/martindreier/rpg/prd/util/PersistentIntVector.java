@@ -0,0 +1,337 @@
+/**
+ * PersistentIntVector.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.util;
+
+import java.util.Arrays;
+import lombok.NonNull;
+
+/**
+ * Immutable vector of integers with a fixed size. The values are stored in a
+ * tree with {@value #WIDTH} values per leaf and {@value #WIDTH} children per
+ * inner node. Setting a value copies only the path from the root to the
+ * affected leaf; all other nodes are shared with the previous version, so
+ * keeping many versions of a vector is cheap.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class PersistentIntVector
+{
+	/**
+	 * Number of index bits handled by one tree level.
+	 */
+	private static final int		BITS			= 3;
+
+	/**
+	 * Number of values per leaf and children per inner node.
+	 */
+	private static final int		WIDTH			= 1 << BITS;
+
+	/**
+	 * Mask for the index bits of one tree level.
+	 */
+	private static final int		MASK			= WIDTH - 1;
+
+	/**
+	 * Leaf with all values 0, shared by all vectors.
+	 */
+	private static final int[]	ZERO_LEAF	= new int[WIDTH];
+
+	/**
+	 * Number of values.
+	 */
+	private final int						size;
+
+	/**
+	 * Number of index bits below the root: 0 if the root is a leaf.
+	 */
+	private final int						shift;
+
+	/**
+	 * Root node: an <code>int[]</code> leaf or an <code>Object[]</code> inner
+	 * node.
+	 */
+	private final Object				root;
+
+	/**
+	 * Create a vector.
+	 *
+	 * @param size
+	 *          Number of values.
+	 * @param shift
+	 *          Number of index bits below the root.
+	 * @param root
+	 *          Root node.
+	 */
+	private PersistentIntVector(int size, int shift, Object root)
+	{
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+	}
+
+	/**
+	 * Create a vector with all values 0.
+	 *
+	 * @param size
+	 *          Number of values. Must be zero or positive.
+	 * @return New vector.
+	 */
+	public static PersistentIntVector zeros(int size)
+	{
+		if (size < 0)
+		{
+			throw new IllegalArgumentException("Size must be zero or positive");
+		}
+		int shift = 0;
+		while (size > (WIDTH << shift))
+		{
+			shift += BITS;
+		}
+		return new PersistentIntVector(size, shift, zeroNode(shift));
+	}
+
+	/**
+	 * Create a vector from values.
+	 *
+	 * @param values
+	 *          The values. Copied.
+	 * @return New vector.
+	 */
+	public static PersistentIntVector of(@NonNull int... values)
+	{
+		PersistentIntVector vector = zeros(values.length);
+		Object root = vector.root;
+		for (int index = 0; index < values.length; index++)
+		{
+			if (values[index] != 0)
+			{
+				root = vector.set(root, vector.shift, index, values[index]);
+			}
+		}
+		return new PersistentIntVector(values.length, vector.shift, root);
+	}
+
+	/**
+	 * Get the number of values.
+	 *
+	 * @return The size.
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get a value.
+	 *
+	 * @param index
+	 *          Index of the value.
+	 * @return The value.
+	 */
+	public int get(int index)
+	{
+		checkIndex(index);
+		return leafFor(index)[index & MASK];
+	}
+
+	/**
+	 * Set a value.
+	 *
+	 * @param index
+	 *          Index of the value.
+	 * @param value
+	 *          The new value.
+	 * @return New vector sharing all unchanged nodes with this one, or this
+	 *         vector if the value does not change.
+	 */
+	public PersistentIntVector set(int index, int value)
+	{
+		checkIndex(index);
+		if (leafFor(index)[index & MASK] == value)
+		{
+			return this;
+		}
+		return new PersistentIntVector(size, shift, set(root, shift, index, value));
+	}
+
+	/**
+	 * Add to a value.
+	 *
+	 * @param index
+	 *          Index of the value.
+	 * @param delta
+	 *          Amount to add.
+	 * @return New vector, or this vector if the delta is 0.
+	 */
+	public PersistentIntVector add(int index, int delta)
+	{
+		return delta == 0 ? this : set(index, get(index) + delta);
+	}
+
+	/**
+	 * Copy all values into an array.
+	 *
+	 * @return New array.
+	 */
+	public int[] toArray()
+	{
+		int[] values = new int[size];
+		for (int index = 0; index < size; index += WIDTH)
+		{
+			System.arraycopy(leafFor(index), 0, values, index, Math.min(WIDTH, size - index));
+		}
+		return values;
+	}
+
+	/**
+	 * Check if a value is stored in the same leaf object in both vectors. Used
+	 * to find out what two versions share.
+	 *
+	 * @param other
+	 *          Another vector.
+	 * @param index
+	 *          Index of the value.
+	 * @return <code>true</code> if both vectors share the leaf.
+	 */
+	public boolean sharesLeaf(@NonNull PersistentIntVector other, int index)
+	{
+		checkIndex(index);
+		other.checkIndex(index);
+		return leafFor(index) == other.leafFor(index);
+	}
+
+	@Override
+	public boolean equals(Object other)
+	{
+		if (this == other)
+		{
+			return true;
+		}
+		if (!(other instanceof PersistentIntVector) || ((PersistentIntVector) other).size != size)
+		{
+			return false;
+		}
+		PersistentIntVector vector = (PersistentIntVector) other;
+		for (int index = 0; index < size; index += WIDTH)
+		{
+			int[] leaf = leafFor(index);
+			int[] otherLeaf = vector.leafFor(index);
+			if (leaf != otherLeaf && !Arrays.equals(leaf, otherLeaf))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int hash = size;
+		for (int index = 0; index < size; index++)
+		{
+			hash = 31 * hash + get(index);
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString()
+	{
+		return Arrays.toString(toArray());
+	}
+
+	/**
+	 * Find the leaf holding a value.
+	 *
+	 * @param index
+	 *          Index of the value.
+	 * @return The leaf.
+	 */
+	private int[] leafFor(int index)
+	{
+		Object node = root;
+		for (int level = shift; level > 0; level -= BITS)
+		{
+			node = ((Object[]) node)[(index >>> level) & MASK];
+		}
+		return (int[]) node;
+	}
+
+	/**
+	 * Copy the path to a value and set the value in the copied leaf.
+	 *
+	 * @param node
+	 *          Current node.
+	 * @param level
+	 *          Number of index bits below the node.
+	 * @param index
+	 *          Index of the value.
+	 * @param value
+	 *          The new value.
+	 * @return Copy of the node.
+	 */
+	private Object set(Object node, int level, int index, int value)
+	{
+		if (level == 0)
+		{
+			int[] leaf = ((int[]) node).clone();
+			leaf[index & MASK] = value;
+			return leaf;
+		}
+		Object[] children = ((Object[]) node).clone();
+		int child = (index >>> level) & MASK;
+		children[child] = set(children[child], level - BITS, index, value);
+		return children;
+	}
+
+	/**
+	 * Create a subtree with all values 0. All leaves are the shared zero leaf.
+	 *
+	 * @param level
+	 *          Number of index bits below the node.
+	 * @return The node.
+	 */
+	private static Object zeroNode(int level)
+	{
+		if (level == 0)
+		{
+			return ZERO_LEAF;
+		}
+		Object[] children = new Object[WIDTH];
+		Object child = zeroNode(level - BITS);
+		Arrays.fill(children, child);
+		return children;
+	}
+
+	/**
+	 * Check that an index is valid.
+	 *
+	 * @param index
+	 *          The index.
+	 */
+	private void checkIndex(int index)
+	{
+		if (index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException("Index " + index + " in vector of size " + size);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+/**
+ * VarInt.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Variable length encoding of integers. Each byte holds seven bits of the
+ * value, the highest bit is set if more bytes follow. Small values, which are
+ * the common case for modifiers and ordinals, take a single byte. Signed values
+ * are zig-zag encoded first so that small negative values are short as well.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+public final class VarInt
+{
+	/**
+	 * Maximum number of bytes of an encoded <code>int</code>.
+	 */
+	public static final int	MAX_INT_BYTES		= 5;
+
+	/**
+	 * Maximum number of bytes of an encoded <code>long</code>.
+	 */
+	public static final int	MAX_LONG_BYTES	= 10;
+
+	/**
+	 * Utility class, no instances.
+	 */
+	private VarInt()
+	{}
+
+	/**
+	 * Write an unsigned value.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param value
+	 *          The value, interpreted as unsigned.
+	 */
+	public static void writeUnsigned(ByteBuffer buffer, int value)
+	{
+		while ((value & ~0x7F) != 0)
+		{
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Write an unsigned value.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param value
+	 *          The value, interpreted as unsigned.
+	 */
+	public static void writeUnsigned(ByteBuffer buffer, long value)
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Write a signed value.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param value
+	 *          The value.
+	 */
+	public static void writeSigned(ByteBuffer buffer, int value)
+	{
+		writeUnsigned(buffer, (value << 1) ^ (value >> 31));
+	}
+
+	/**
+	 * Write a signed value.
+	 *
+	 * @param buffer
+	 *          Target buffer.
+	 * @param value
+	 *          The value.
+	 */
+	public static void writeSigned(ByteBuffer buffer, long value)
+	{
+		writeUnsigned(buffer, (value << 1) ^ (value >> 63));
+	}
+
+	/**
+	 * Read an unsigned value.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @return The value.
+	 * @throws IllegalArgumentException
+	 *           The encoding is longer than {@link #MAX_INT_BYTES}.
+	 */
+	public static int readUnsigned(ByteBuffer buffer)
+	{
+		int value = 0;
+		for (int shift = 0; shift < 7 * MAX_INT_BYTES; shift += 7)
+		{
+			byte next = buffer.get();
+			value |= (next & 0x7F) << shift;
+			if (next >= 0)
+			{
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Invalid variable length int at " + buffer.position());
+	}
+
+	/**
+	 * Read an unsigned value.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @return The value.
+	 * @throws IllegalArgumentException
+	 *           The encoding is longer than {@link #MAX_LONG_BYTES}.
+	 */
+	public static long readUnsignedLong(ByteBuffer buffer)
+	{
+		long value = 0;
+		for (int shift = 0; shift < 7 * MAX_LONG_BYTES; shift += 7)
+		{
+			byte next = buffer.get();
+			value |= (long) (next & 0x7F) << shift;
+			if (next >= 0)
+			{
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Invalid variable length long at " + buffer.position());
+	}
+
+	/**
+	 * Read a signed value.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @return The value.
+	 */
+	public static int readSigned(ByteBuffer buffer)
+	{
+		int encoded = readUnsigned(buffer);
+		return (encoded >>> 1) ^ -(encoded & 1);
+	}
+
+	/**
+	 * Read a signed value.
+	 *
+	 * @param buffer
+	 *          Source buffer.
+	 * @return The value.
+	 */
+	public static long readSignedLong(ByteBuffer buffer)
+	{
+		long encoded = readUnsignedLong(buffer);
+		return (encoded >>> 1) ^ -(encoded & 1);
+	}
+
+	/**
+	 * Get the encoded size of an unsigned value.
+	 *
+	 * @param value
+	 *          The value, interpreted as unsigned.
+	 * @return Number of bytes.
+	 */
+	public static int sizeOfUnsigned(int value)
+	{
+		int bytes = 1;
+		while ((value & ~0x7F) != 0)
+		{
+			value >>>= 7;
+			bytes++;
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * CatalogPublisherTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.catalog.CatalogChange.Type;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Feat.FeatType;
+
+/**
+ * Tests for content hashes and the change stream of catalogs.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class CatalogPublisherTest
+{
+	/**
+	 * Create a feat.
+	 *
+	 * @param name
+	 *          Feat name.
+	 * @param description
+	 *          Feat description.
+	 * @return The feat.
+	 */
+	private static Feat feat(String name, String description)
+	{
+		return new Feat(name, "Str 13", description, EnumSet.of(FeatType.COMBAT), Source.CORE_RULEBOOK);
+	}
+
+	/**
+	 * Content hashes cover all fields of a feat.
+	 */
+	@Test
+	public void testContentHash()
+	{
+		long hash = Catalog.contentHash(feat("Cleave", "Text"));
+		assertEquals("Same content", hash, Catalog.contentHash(feat("Cleave", "Text")));
+		assertNotEquals("Description", hash, Catalog.contentHash(feat("Cleave", "Other text")));
+		assertNotEquals("Prerequisites", hash, Catalog.contentHash(new Feat("Cleave", "Str 15", "Text",
+						EnumSet.of(FeatType.COMBAT), Source.CORE_RULEBOOK)));
+		assertNotEquals("Types", hash, Catalog.contentHash(new Feat("Cleave", "Str 13", "Text", null,
+						Source.CORE_RULEBOOK)));
+		assertNotEquals("Source", hash, Catalog.contentHash(new Feat("Cleave", "Str 13", "Text",
+						EnumSet.of(FeatType.COMBAT), Source.UNCHAINED)));
+		// Field boundaries are part of the hash
+		assertNotEquals("Boundaries", Catalog.contentHash(feat("Cleave", "Text")),
+						Catalog.contentHash(feat("CleaveT", "ext")));
+	}
+
+	/**
+	 * Listeners receive added, updated and removed entities.
+	 */
+	@Test
+	public void testPublish()
+	{
+		CatalogPublisher publisher = new CatalogPublisher(Catalog.EMPTY);
+		List<List<CatalogChange>> received = new ArrayList<>();
+		publisher.addListener((previous, current, changes) -> received.add(changes));
+		Catalog first = new Catalog(Arrays.asList(feat("Cleave", "Text"), feat("Dodge", "Text"),
+						feat("Power Attack", "Text")));
+		assertEquals("Initial load", 3, publisher.publish(first).size());
+		// New objects with the same content are no change
+		assertTrue("Same content", publisher.publish(new Catalog(Arrays.asList(feat("Cleave", "Text"), feat("Dodge",
+						"Text"), feat("Power Attack", "Text")))).isEmpty());
+		Feat updated = feat("Dodge", "Errata");
+		Feat added = feat("Mobility", "Text");
+		List<CatalogChange> changes = publisher.publish(new Catalog(Arrays.asList(feat("Power Attack", "Text"),
+						updated, added)));
+		assertEquals("Types", Arrays.asList(Type.REMOVED, Type.UPDATED, Type.ADDED), Arrays.asList(changes.get(0)
+						.getType(), changes.get(1).getType(), changes.get(2).getType()));
+		assertEquals("Removed", "Cleave", changes.get(0).getPrevious().getName());
+		assertSame("Updated", updated, changes.get(1).getCurrent());
+		assertEquals("Updated key", EntityKey.of(updated), changes.get(1).getKey());
+		assertSame("Added", added, changes.get(2).getCurrent());
+		assertEquals("Notifications", 2, received.size());
+		assertSame("Current", changes, received.get(1));
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ * CatalogSnapshotTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Feat.FeatType;
+
+/**
+ * Tests for catalog snapshot files.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class CatalogSnapshotTest
+{
+	/**
+	 * Temporary files.
+	 */
+	@Rule
+	public TemporaryFolder		folder		= new TemporaryFolder();
+
+	/**
+	 * Expected exceptions.
+	 */
+	@Rule
+	public ExpectedException	expected	= ExpectedException.none();
+
+	/**
+	 * Create a catalog with feats of two sources and one feat without source.
+	 *
+	 * @return The catalog.
+	 */
+	private static Catalog catalog()
+	{
+		List<BaseEntity> entities = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+		{
+			entities.add(new Feat("Feat " + i, i % 3 == 0 ? null : "Str " + i, "Description " + i, EnumSet.of(
+							FeatType.COMBAT), i % 2 == 0 ? Source.CORE_RULEBOOK : Source.ADVANCED_PLAYERS_GUIDE));
+		}
+		entities.add(new Feat("Homebrew", null, "House rule", null, null));
+		return new Catalog(entities);
+	}
+
+	/**
+	 * A snapshot written to a file and mapped again has the same content.
+	 *
+	 * @throws IOException
+	 *           Unexpected.
+	 */
+	@Test
+	public void testRoundTrip() throws IOException
+	{
+		Catalog catalog = catalog();
+		Path file = folder.getRoot().toPath().resolve("data/catalog.bin");
+		CatalogSnapshot.write(catalog, file);
+		CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+		assertEquals("Size", catalog.size(), snapshot.size());
+		assertEquals("Sources", EnumSet.of(Source.CORE_RULEBOOK, Source.ADVANCED_PLAYERS_GUIDE), snapshot.getSources());
+		assertEquals("Source size", 50, snapshot.size(Source.CORE_RULEBOOK));
+		assertEquals("Without source", 1, snapshot.load(null).size());
+		assertTrue("Missing source", snapshot.load(Source.BESTIARY1).isEmpty());
+		assertEquals("Version", catalog.getVersionTag(), snapshot.toCatalog().getVersionTag());
+	}
+
+	/**
+	 * A partitioned catalog decodes only the sources it accesses.
+	 *
+	 * @throws IOException
+	 *           Unexpected.
+	 */
+	@Test
+	public void testPartitioned() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		CatalogSnapshot.write(catalog(), bytes);
+		PartitionedCatalog catalog = CatalogSnapshot.open(ByteBuffer.wrap(bytes.toByteArray())).toPartitionedCatalog();
+		assertEquals("Feat", "Description 2", catalog.get(Source.CORE_RULEBOOK, "Feat 2").getDescription());
+		assertTrue("Accessed", catalog.isLoaded(Source.CORE_RULEBOOK));
+		assertFalse("Not accessed", catalog.isLoaded(Source.ADVANCED_PLAYERS_GUIDE));
+	}
+
+	/**
+	 * Truncated snapshots are rejected when opened.
+	 *
+	 * @throws IOException
+	 *           Expected.
+	 */
+	@Test
+	public void testTruncated() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		CatalogSnapshot.write(catalog(), bytes);
+		expected.expect(IOException.class);
+		CatalogSnapshot.open(ByteBuffer.wrap(Arrays.copyOf(bytes.toByteArray(), bytes.size() - 10)));
+	}
+}
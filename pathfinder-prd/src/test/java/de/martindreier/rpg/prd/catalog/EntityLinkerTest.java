@@ -0,0 +1,157 @@
+/**
+ * EntityLinkerTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.catalog.EntityLinker.Kind;
+import de.martindreier.rpg.prd.catalog.EntityLinker.Link;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Skill;
+
+/**
+ * Tests for the entity linker.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class EntityLinkerTest
+{
+	/**
+	 * Create a feat.
+	 *
+	 * @param name
+	 *          Feat name.
+	 * @param prerequisites
+	 *          Feat prerequisites.
+	 * @return The feat.
+	 */
+	private static Feat feat(String name, String prerequisites)
+	{
+		return new Feat(name, prerequisites, "Description of " + name, null, Source.CORE_RULEBOOK);
+	}
+
+	/**
+	 * Render links for comparison.
+	 *
+	 * @param text
+	 *          The linked text.
+	 * @param links
+	 *          The links.
+	 * @return Linked parts of the text with their kind.
+	 */
+	private static List<String> render(String text, List<Link> links)
+	{
+		List<String> rendered = new ArrayList<>();
+		for (Link link : links)
+		{
+			rendered.add(link.getKind() + ":" + text.substring(link.getStart(), link.getEnd()));
+		}
+		return rendered;
+	}
+
+	/**
+	 * Link feat prerequisites.
+	 */
+	@Test
+	public void testPrerequisites()
+	{
+		Feat powerAttack = feat("Power Attack", "Str 13, base attack bonus +1");
+		Catalog catalog = new Catalog(Arrays.asList(powerAttack, feat("Bull Rush", null),
+						feat("Improved Bull Rush", null), feat("Acrobatic", null)));
+		EntityLinker linker = new EntityLinker(catalog, Locale.ROOT);
+		String text = "STR 13, Power Attack, Improved Bull Rush, Acrobatics 5 ranks";
+		List<Link> links = linker.link(text);
+		assertEquals("Links", Arrays.asList("ATTRIBUTE:STR", "ENTITY:Power Attack", "ENTITY:Improved Bull Rush",
+						"SKILL:Acrobatics"), render(text, links));
+		assertSame("Entity", powerAttack, links.get(1).getEntity());
+		assertSame("Attribute", Attribute.STRENGTH, links.get(0).getAttribute());
+		assertSame("Skill", Skill.Acrobatics, links.get(3).getSkill());
+		assertEquals("Whole words only", 0, linker.link("Strong, powerful attackers").size());
+		assertEquals("Case", Arrays.asList("ENTITY:bull rush"), render("bull rush", linker.link("bull rush")));
+		assertTrue("Empty", linker.link(null).isEmpty());
+	}
+
+	/**
+	 * Overlapping names: the leftmost match wins, then the longest.
+	 */
+	@Test
+	public void testOverlap()
+	{
+		Catalog catalog = new Catalog(Arrays.asList(feat("Spring Attack", null), feat("Attack Focus", null),
+						feat("Focus", null), feat("Spring", null), feat("Mobility Spring Attack Focus", null)));
+		EntityLinker linker = new EntityLinker(catalog, Locale.ROOT);
+		String text = "Spring Attack Focus, Mobility Spring Attack Focus; Mobility Spring";
+		assertEquals("Links", Arrays.asList("ENTITY:Spring Attack", "ENTITY:Focus", "ENTITY:Mobility Spring Attack Focus",
+						"ENTITY:Spring"), render(text, linker.link(text)));
+	}
+
+	/**
+	 * Skill and attribute names of several locales.
+	 */
+	@Test
+	public void testLocales()
+	{
+		EntityLinker linker = new EntityLinker(Catalog.EMPTY, Locale.ENGLISH, Locale.GERMAN);
+		String text = "Akrobatik 5 R\u00e4nge, GE 13, Dexterity 13";
+		List<Link> links = linker.link(text);
+		assertEquals("Links", Arrays.asList("SKILL:Akrobatik", "ATTRIBUTE:GE", "ATTRIBUTE:Dexterity"),
+						render(text, links));
+		assertSame("Same attribute", links.get(1).getAttribute(), links.get(2).getAttribute());
+	}
+
+	/**
+	 * Linking a large catalog is fast.
+	 */
+	@Test
+	public void testLargeCatalog()
+	{
+		List<BaseEntity> feats = new ArrayList<>();
+		for (int i = 0; i < 5000; i++)
+		{
+			feats.add(feat("Feat Number " + i, "Feat Number " + (i / 2) + ", Dex 13, Feat Number " + (i / 3)
+							+ ", Knowledge (arcana) 3 ranks"));
+		}
+		Catalog catalog = new Catalog(feats);
+		EntityLinker linker = new EntityLinker(catalog, Locale.ROOT);
+		long start = System.nanoTime();
+		int links = 0;
+		for (Feat feat : catalog.getFeats())
+		{
+			links += linker.link(feat.getPrerequisites()).size();
+			links += linker.link(feat.getDescription()).size();
+		}
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		assertEquals("Links", 5000 * 4 + 5000, links);
+		assertTrue("Linking took " + millis + " ms", millis < 1000);
+		assertEquals("Kind", Kind.SKILL, linker.link("Knowledge (arcana)").get(0).getKind());
+	}
+}
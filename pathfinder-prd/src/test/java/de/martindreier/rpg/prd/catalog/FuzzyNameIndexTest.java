@@ -0,0 +1,180 @@
+/**
+ * FuzzyNameIndexTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.catalog.FuzzyNameIndex.Match;
+import de.martindreier.rpg.prd.rules.Feat;
+
+/**
+ * Tests for the fuzzy name index.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class FuzzyNameIndexTest
+{
+	/**
+	 * Create a feat.
+	 *
+	 * @param name
+	 *          Feat name.
+	 * @param source
+	 *          Feat source.
+	 * @return The feat.
+	 */
+	private static Feat feat(String name, Source source)
+	{
+		return new Feat(name, null, "Description of " + name, null, source);
+	}
+
+	/**
+	 * Get the names of matches.
+	 *
+	 * @param matches
+	 *          The matches.
+	 * @return Name and distance of each match.
+	 */
+	private static List<String> names(List<Match> matches)
+	{
+		List<String> names = new ArrayList<>();
+		for (Match match : matches)
+		{
+			names.add(match.getEntity().getName() + ":" + match.getDistance());
+		}
+		return names;
+	}
+
+	/**
+	 * Find misspelled feat names.
+	 */
+	@Test
+	public void testMisspelling()
+	{
+		FuzzyNameIndex index = new FuzzyNameIndex(new Catalog(Arrays.asList(feat("Weapon Focus", Source.CORE_RULEBOOK),
+						feat("Weapon Finesse", Source.CORE_RULEBOOK), feat("Improved Critical", Source.CORE_RULEBOOK),
+						feat("Improved Critical", Source.ADVANCED_PLAYERS_GUIDE), feat("Improved Grapple",
+										Source.CORE_RULEBOOK))));
+		assertEquals("Distinct names", 4, index.getSize());
+		assertEquals("Weapon Focus", Arrays.asList("Weapon Focus:1"), names(index.find("weapon  focs", 2, 5)));
+		assertEquals("Improved Critical", Arrays.asList("Improved Critical:1", "Improved Critical:1"),
+						names(index.find("Improved Critcal", 2, 5)));
+		assertEquals("Catalog order", Source.CORE_RULEBOOK,
+						index.find("Improved Critcal", 2, 5).get(0).getEntity().getSource());
+		assertEquals("Limit", 1, index.find("Improved Critcal", 2, 1).size());
+		assertTrue("Too far", index.find("Cleave", 2, 5).isEmpty());
+		assertTrue("Empty catalog", new FuzzyNameIndex(Catalog.EMPTY).find("Cleave", 2, 5).isEmpty());
+	}
+
+	/**
+	 * Results agree with comparing the query to every name.
+	 */
+	@Test
+	public void testAgainstLinearSearch()
+	{
+		SplittableRandom random = new SplittableRandom(7);
+		// Same names in two sources share a node of the tree
+		Map<EntityKey, BaseEntity> feats = new HashMap<>();
+		for (int i = 0; i < 3000; i++)
+		{
+			Feat feat = feat(randomName(random), random.nextBoolean() ? Source.CORE_RULEBOOK : Source.UNCHAINED);
+			feats.put(EntityKey.of(feat), feat);
+		}
+		Catalog catalog = new Catalog(feats.values());
+		FuzzyNameIndex index = new FuzzyNameIndex(catalog);
+		for (int i = 0; i < 200; i++)
+		{
+			String query = randomName(random);
+			int maxDistance = random.nextInt(4);
+			int limit = 1 + random.nextInt(5);
+			List<Match> expected = new ArrayList<>();
+			for (BaseEntity entity : catalog.getEntities())
+			{
+				int distance = FuzzyNameIndex.distance(query, entity.getName(), Integer.MAX_VALUE);
+				if (distance <= maxDistance)
+				{
+					expected.add(new Match(entity, distance));
+				}
+			}
+			// Stable sort keeps catalog order within the same name
+			expected.sort(Comparator.comparingInt(Match::getDistance).thenComparing(match -> match.getEntity()
+							.getName()));
+			assertEquals("Query " + query, expected.subList(0, Math.min(limit, expected.size())),
+							index.find(query, maxDistance, limit));
+		}
+	}
+
+	/**
+	 * Check the edit distance.
+	 */
+	@Test
+	public void testDistance()
+	{
+		assertEquals("Equal", 0, FuzzyNameIndex.distance("cleave", "cleave", 5));
+		assertEquals("Kitten", 3, FuzzyNameIndex.distance("kitten", "sitting", 5));
+		assertEquals("Insert", 1, FuzzyNameIndex.distance("", "a", 5));
+		assertTrue("Bound", FuzzyNameIndex.distance("abcdef", "uvwxyz", 2) > 2);
+	}
+
+	/**
+	 * Create a random lower case name from a small alphabet, so that many names
+	 * are close to each other.
+	 *
+	 * @param random
+	 *          Random numbers.
+	 * @return The name.
+	 */
+	private static String randomName(SplittableRandom random)
+	{
+		char[] name = new char[3 + random.nextInt(5)];
+		for (int i = 0; i < name.length; i++)
+		{
+			name[i] = (char) ('a' + random.nextInt(4));
+		}
+		return new String(name);
+	}
+
+	/**
+	 * Unlimited distances do not overflow.
+	 */
+	@Test
+	public void testUnlimitedDistance()
+	{
+		FuzzyNameIndex index = new FuzzyNameIndex(new Catalog(Arrays.asList(feat("Dodge", Source.CORE_RULEBOOK),
+						feat("Mobility", Source.CORE_RULEBOOK), feat("Spring Attack", Source.CORE_RULEBOOK))));
+		assertEquals("All names by distance", Arrays.asList("Dodge:0", "Mobility:7", "Spring Attack:12"), names(index
+						.find("dodge", Integer.MAX_VALUE, 5)));
+		assertEquals("Limit", Arrays.asList("Dodge:0"), names(index.find("dodge", Integer.MAX_VALUE, 1)));
+		assertEquals("Exact distance", 7, FuzzyNameIndex.distance("dodge", "mobility", Integer.MAX_VALUE));
+	}
+}
@@ -0,0 +1,144 @@
+/**
+ * OverlayCatalogTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.rules.Feat;
+
+/**
+ * Tests for overlays on top of a shared catalog.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class OverlayCatalogTest
+{
+	/**
+	 * Create a catalog with three feats in each of three sources, and one
+	 * without source.
+	 *
+	 * @return The catalog.
+	 */
+	private static Catalog createCatalog()
+	{
+		List<BaseEntity> entities = new ArrayList<>();
+		for (Source source : Arrays.asList(Source.CORE_RULEBOOK, Source.ULTIMATE_MAGIC, Source.BESTIARY1))
+		{
+			for (int i = 0; i < 3; i++)
+			{
+				entities.add(new Feat("Feat " + i, null, "Description", null, source));
+			}
+		}
+		entities.add(new Feat("Feat 0", null, "Description", null, null));
+		return new Catalog(entities);
+	}
+
+	/**
+	 * Overlays add, replace and remove entities of the base.
+	 */
+	@Test
+	public void testOverlay()
+	{
+		Catalog base = createCatalog();
+		Feat houseRule = new Feat("Feat 1", null, "House rule", null, Source.CORE_RULEBOOK);
+		Feat added = new Feat("Feat 9", null, "New feat", null, Source.CORE_RULEBOOK);
+		OverlayCatalog overlay = new OverlayCatalog(base).with(houseRule).with(added)
+						.without(new EntityKey(Source.BESTIARY1, "Feat 0"));
+		assertSame("Replaced", houseRule, overlay.get(Source.CORE_RULEBOOK, "Feat 1"));
+		assertSame("Added", added, overlay.get(Source.CORE_RULEBOOK, "Feat 9"));
+		assertNull("Removed", overlay.get(Source.BESTIARY1, "Feat 0"));
+		assertSame("Unchanged", base.get(Source.BESTIARY1, "Feat 1"), overlay.get(Source.BESTIARY1, "Feat 1"));
+		assertEquals("Changes", 3, overlay.getChangeCount());
+		List<BaseEntity> core = overlay.getEntities(Source.CORE_RULEBOOK);
+		assertEquals("Core rulebook", 4, core.size());
+		assertSame("Order", houseRule, core.get(1));
+		assertEquals("All entities", 10, overlay.getEntities().size());
+		assertEquals("Base unchanged", 10, base.getEntities().size());
+		// Changes which restore the base are dropped
+		OverlayCatalog restored = overlay.with(base.get(Source.CORE_RULEBOOK, "Feat 1"))
+						.without(EntityKey.of(added)).with(base.get(Source.BESTIARY1, "Feat 0"));
+		assertEquals("Restored", 0, restored.getChangeCount());
+		assertSame("Same overlay", restored, restored.without(new EntityKey(Source.UNCHAINED, "Feat 0")));
+		// Overlays can be stacked
+		OverlayCatalog campaign = new OverlayCatalog(overlay).without(EntityKey.of(houseRule));
+		assertNull("Stacked removal", campaign.get(Source.CORE_RULEBOOK, "Feat 1"));
+		assertSame("Stacked addition", added, campaign.get(Source.CORE_RULEBOOK, "Feat 9"));
+	}
+
+	/**
+	 * Entities without source are merged separately from those of all
+	 * sources.
+	 */
+	@Test
+	public void testWithoutSource()
+	{
+		Catalog base = createCatalog();
+		Feat replaced = new Feat("Feat 0", null, "House rule", null, null);
+		Feat added = new Feat("Feat 5", null, "New feat", null, null);
+		Feat core = new Feat("Feat 5", null, "New feat", null, Source.CORE_RULEBOOK);
+		OverlayCatalog overlay = new OverlayCatalog(base).with(added).with(core).with(replaced);
+		List<BaseEntity> entities = overlay.getEntities(null);
+		assertEquals("Without source", Arrays.asList(replaced, added), entities);
+		assertEquals("Core rulebook", 4, overlay.getEntities(Source.CORE_RULEBOOK).size());
+		List<BaseEntity> all = overlay.getEntities();
+		assertEquals("All entities", 12, all.size());
+		assertSame("Without source first", replaced, all.get(0));
+		assertEquals("Base unchanged", "Description", base.get(null, "Feat 0").getDescription());
+		// Removing the only base entity without source leaves the additions
+		OverlayCatalog removed = new OverlayCatalog(base).without(new EntityKey(null, "Feat 0")).with(added);
+		assertEquals("Additions only", Arrays.asList(added), removed.getEntities(null));
+	}
+
+	/**
+	 * Adding an entity under a removed key replaces the removal.
+	 */
+	@Test
+	public void testWithRemovedKey()
+	{
+		Catalog base = createCatalog();
+		EntityKey key = new EntityKey(Source.ULTIMATE_MAGIC, "Feat 2");
+		OverlayCatalog removed = new OverlayCatalog(base).without(key);
+		assertTrue("Removal", removed.getRemovals().contains(key));
+		Feat houseRule = new Feat("Feat 2", null, "House rule", null, Source.ULTIMATE_MAGIC);
+		OverlayCatalog replaced = removed.with(houseRule);
+		assertSame("Replaced", houseRule, replaced.get(key));
+		assertFalse("No removal", replaced.getRemovals().contains(key));
+		assertEquals("Changes", 1, replaced.getChangeCount());
+		assertEquals("Ultimate magic", 3, replaced.getEntities(Source.ULTIMATE_MAGIC).size());
+		assertTrue("Removed overlay unchanged", removed.getRemovals().contains(key));
+		// Adding the base entity again restores the base
+		OverlayCatalog restored = removed.with(base.get(key));
+		assertEquals("Restored", 0, restored.getChangeCount());
+		assertSame("Base entity", base.get(key), restored.get(key));
+		assertEquals("Base entities", base.getEntities(Source.ULTIMATE_MAGIC), restored.getEntities(Source.ULTIMATE_MAGIC));
+	}
+}
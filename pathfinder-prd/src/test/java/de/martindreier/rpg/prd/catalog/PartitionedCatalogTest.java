@@ -0,0 +1,160 @@
+/**
+ * PartitionedCatalogTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.rules.Feat;
+
+/**
+ * Tests for catalogs partitioned by source.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class PartitionedCatalogTest
+{
+	/**
+	 * Expected exceptions.
+	 */
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	/**
+	 * Create a catalog with three feats in each of three sources, and one
+	 * without source.
+	 *
+	 * @return The catalog.
+	 */
+	private static Catalog createCatalog()
+	{
+		List<BaseEntity> entities = new ArrayList<>();
+		for (Source source : Arrays.asList(Source.CORE_RULEBOOK, Source.ULTIMATE_MAGIC, Source.BESTIARY1))
+		{
+			for (int i = 0; i < 3; i++)
+			{
+				entities.add(new Feat("Feat " + i, null, "Description", null, source));
+			}
+		}
+		entities.add(new Feat("Feat 0", null, "Description", null, null));
+		return new Catalog(entities);
+	}
+
+	/**
+	 * A catalog lists the entities of each source.
+	 */
+	@Test
+	public void testCatalogSources()
+	{
+		Catalog catalog = createCatalog();
+		assertEquals("Without source", 1, catalog.getEntities(null).size());
+		assertEquals("Core rulebook", 3, catalog.getEntities(Source.CORE_RULEBOOK).size());
+		assertEquals("Bestiary", Source.BESTIARY1, catalog.getEntities(Source.BESTIARY1).get(2).getSource());
+		assertTrue("Missing source", catalog.getEntities(Source.UNCHAINED).isEmpty());
+	}
+
+	/**
+	 * Partitions are loaded on first access and only for enabled sources.
+	 */
+	@Test
+	public void testLazyLoading()
+	{
+		Catalog catalog = createCatalog();
+		List<Source> requested = new ArrayList<>();
+		PartitionedCatalog partitioned = new PartitionedCatalog(source -> {
+			requested.add(source);
+			return catalog.getEntities(source);
+		}, EnumSet.of(Source.CORE_RULEBOOK, Source.BESTIARY1));
+		assertTrue("Nothing loaded", partitioned.getLoadedSources().isEmpty());
+		assertSame("Lookup", catalog.get(Source.BESTIARY1, "Feat 1"), partitioned.get(Source.BESTIARY1, "Feat 1"));
+		assertNull("Missing", partitioned.get(Source.BESTIARY1, "Feat 9"));
+		assertNull("Disabled source", partitioned.get(Source.ULTIMATE_MAGIC, "Feat 1"));
+		assertNull("No source", partitioned.get(null, "Feat 0"));
+		assertEquals("Loaded", EnumSet.of(Source.BESTIARY1), partitioned.getLoadedSources());
+		assertEquals("All entities", 6, partitioned.getEntities().size());
+		assertEquals("Requested", Arrays.asList(Source.BESTIARY1, Source.CORE_RULEBOOK), requested);
+		assertEquals("Load count", 2, partitioned.getLoadCount());
+	}
+
+	/**
+	 * Idle partitions are evicted and loaded again when needed.
+	 */
+	@Test
+	public void testEviction()
+	{
+		AtomicLong time = new AtomicLong();
+		PartitionedCatalog partitioned = new PartitionedCatalog(PartitionLoader.of(createCatalog()),
+						EnumSet.of(Source.CORE_RULEBOOK, Source.ULTIMATE_MAGIC), time::get);
+		partitioned.get(Source.CORE_RULEBOOK, "Feat 0");
+		time.addAndGet(TimeUnit.MINUTES.toNanos(5));
+		partitioned.get(Source.ULTIMATE_MAGIC, "Feat 0");
+		time.addAndGet(TimeUnit.MINUTES.toNanos(5));
+		assertEquals("Evicted", 1, partitioned.evictIdle(10, TimeUnit.MINUTES));
+		assertFalse("Core rulebook", partitioned.isLoaded(Source.CORE_RULEBOOK));
+		assertTrue("Ultimate magic", partitioned.isLoaded(Source.ULTIMATE_MAGIC));
+		assertEquals("Reloaded", 3, partitioned.getEntities(Source.CORE_RULEBOOK).size());
+		assertEquals("Load count", 3, partitioned.getLoadCount());
+		assertTrue("Evict", partitioned.evict(Source.ULTIMATE_MAGIC));
+		assertFalse("Evict again", partitioned.evict(Source.ULTIMATE_MAGIC));
+	}
+
+	/**
+	 * Loader errors are reported on access.
+	 */
+	@Test
+	public void testLoaderError()
+	{
+		PartitionedCatalog partitioned = new PartitionedCatalog(source -> {
+			throw new IOException("Missing snapshot");
+		}, EnumSet.of(Source.CORE_RULEBOOK));
+		exception.expect(UncheckedIOException.class);
+		partitioned.get(Source.CORE_RULEBOOK, "Feat 0");
+	}
+
+	/**
+	 * Entities of other sources are rejected.
+	 */
+	@Test
+	public void testWrongSource()
+	{
+		PartitionedCatalog partitioned = new PartitionedCatalog(source -> createCatalog().getEntities(
+						Source.BESTIARY1), EnumSet.of(Source.CORE_RULEBOOK));
+		exception.expect(IllegalStateException.class);
+		partitioned.getEntities(Source.CORE_RULEBOOK);
+	}
+}
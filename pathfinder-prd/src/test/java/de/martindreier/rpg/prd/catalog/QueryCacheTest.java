@@ -0,0 +1,157 @@
+/**
+ * QueryCacheTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Feat.FeatType;
+
+/**
+ * Tests for catalog queries and the query cache.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class QueryCacheTest
+{
+	/**
+	 * Create a catalog of feats from two sources.
+	 *
+	 * @param count
+	 *          Number of feats.
+	 * @return The catalog.
+	 */
+	private static Catalog createCatalog(int count)
+	{
+		List<BaseEntity> entities = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+		{
+			entities.add(new Feat(String.format("Feat %04d", i), null, "Description " + i,
+							i % 4 == 0 ? EnumSet.of(FeatType.COMBAT) : null,
+							i % 2 == 0 ? Source.CORE_RULEBOOK : Source.ADVANCED_PLAYERS_GUIDE));
+		}
+		return new Catalog(entities);
+	}
+
+	/**
+	 * Equivalent queries are equal and select the right entities.
+	 */
+	@Test
+	public void testQuery()
+	{
+		Catalog catalog = createCatalog(100);
+		CatalogQuery query = CatalogQuery.all().withFeatType(FeatType.COMBAT).withSource(Source.CORE_RULEBOOK);
+		assertEquals("Type implies feats", CatalogQuery.feats().withSource(Source.CORE_RULEBOOK)
+						.withFeatType(FeatType.COMBAT), query);
+		assertEquals("Combat feats", 25, query.execute(catalog).size());
+		assertEquals("Normalized prefix", CatalogQuery.all().withNamePrefix("feat 00"),
+						CatalogQuery.all().withNamePrefix("  FEAT \t 00"));
+		assertEquals("Blank prefix", CatalogQuery.all(), CatalogQuery.all().withNamePrefix(" "));
+		assertEquals("Prefix", 10, CatalogQuery.all().withNamePrefix("Feat 005").execute(catalog).size());
+		assertEquals("Prefix and source", 5, CatalogQuery.all().withNamePrefix("Feat 005")
+						.withSource(Source.ADVANCED_PLAYERS_GUIDE).execute(catalog).size());
+	}
+
+	/**
+	 * Cached results are returned until the catalog version changes.
+	 */
+	@Test
+	public void testInvalidation()
+	{
+		QueryCache cache = new QueryCache(1 << 20);
+		Catalog catalog = createCatalog(100);
+		CatalogQuery query = CatalogQuery.feats().withNamePrefix("feat");
+		List<BaseEntity> first = cache.get(catalog, query);
+		assertSame("Cached", first, cache.get(catalog, query));
+		assertSame("Same content", first, cache.get(createCatalog(100), query));
+		List<BaseEntity> changed = cache.get(createCatalog(101), query);
+		assertEquals("New result", 101, changed.size());
+		QueryCache.Statistics statistics = cache.getStatistics();
+		assertEquals("Hits", 2, statistics.getHits());
+		assertEquals("Misses", 2, statistics.getMisses());
+		assertEquals("Invalidations", 1, statistics.getInvalidations());
+		assertEquals("Size", 1, statistics.getSize());
+	}
+
+	/**
+	 * With skewed traffic, popular queries stay cached while a stream of one-off
+	 * queries passes through, and the size bound holds.
+	 */
+	@Test
+	public void testSkewedTraffic()
+	{
+		Catalog catalog = createCatalog(2000);
+		// Room for about 300 single-feat results
+		QueryCache cache = new QueryCache(300 * 200);
+		SplittableRandom random = new SplittableRandom(42);
+		long maximum = 0;
+		for (int i = 0; i < 100_000; i++)
+		{
+			// 90 % of the queries go to 200 popular feats, the rest to any feat
+			int feat = random.nextInt(10) < 9 ? random.nextInt(200) : random.nextInt(2000);
+			CatalogQuery query = CatalogQuery.all().withNamePrefix(String.format("Feat %04d", feat));
+			assertEquals("Result", 1, cache.get(catalog, query).size());
+			maximum = Math.max(maximum, cache.getStatistics().getWeight());
+		}
+		QueryCache.Statistics statistics = cache.getStatistics();
+		assertTrue("Size bound exceeded: " + maximum, maximum <= cache.getMaximumWeight());
+		// Caching the popular feats only would give 0.9 + 0.1 * 200 / 2000 = 0.91
+		assertTrue("Hit rate " + statistics.getHitRate(), statistics.getHitRate() > 0.88);
+		assertTrue("Evictions", statistics.getEvictions() > 0);
+	}
+
+	/**
+	 * A large candidate which loses against one of the results it would evict
+	 * does not evict any result.
+	 */
+	@Test
+	public void testRejectedCandidateKeepsVictims()
+	{
+		Catalog catalog = createCatalog(2000);
+		// Main region holds both single-feat results, but not a third of a
+		// hundred-feat result in addition to either
+		QueryCache cache = new QueryCache(1100);
+		CatalogQuery cold = CatalogQuery.all().withNamePrefix("Feat 1001");
+		CatalogQuery hot = CatalogQuery.all().withNamePrefix("Feat 1002");
+		CatalogQuery large = CatalogQuery.all().withNamePrefix("Feat 00");
+		cache.get(catalog, cold);
+		for (int i = 0; i < 5; i++)
+		{
+			cache.get(catalog, hot);
+		}
+		assertEquals("Large result", 100, cache.get(catalog, large).size());
+		cache.get(catalog, large);
+		assertEquals("Size after rejection", 2, cache.getStatistics().getSize());
+		long hits = cache.getStatistics().getHits();
+		cache.get(catalog, cold);
+		assertEquals("Less popular victim kept", hits + 1, cache.getStatistics().getHits());
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * CatalogSyncTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.catalog.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.BaseEntity;
+import de.martindreier.rpg.prd.Source;
+import de.martindreier.rpg.prd.catalog.Catalog;
+import de.martindreier.rpg.prd.catalog.EntityCodec;
+import de.martindreier.rpg.prd.catalog.EntityKey;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Feat.FeatType;
+
+/**
+ * Tests for the entity codec and catalog synchronization over a loopback
+ * connection.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class CatalogSyncTest
+{
+	/**
+	 * Number of entities in the test catalog.
+	 */
+	private static final int								SIZE		= 2000;
+
+	/**
+	 * Catalog served by the server.
+	 */
+	private final AtomicReference<Catalog>	served	= new AtomicReference<>(Catalog.EMPTY);
+
+	/**
+	 * The server.
+	 */
+	private CatalogSyncServer								server;
+
+	/**
+	 * Client connected to the server.
+	 */
+	private CatalogSyncClient								client;
+
+	/**
+	 * Start the server.
+	 *
+	 * @throws IOException
+	 *           The server cannot be started.
+	 */
+	@Before
+	public void setUp() throws IOException
+	{
+		server = new CatalogSyncServer(served::get, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		client = new CatalogSyncClient(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+	}
+
+	/**
+	 * Stop the server.
+	 *
+	 * @throws IOException
+	 *           The server cannot be stopped.
+	 */
+	@After
+	public void tearDown() throws IOException
+	{
+		server.close();
+	}
+
+	/**
+	 * Create the test entities, spread over two sources and many name ranges.
+	 *
+	 * @return The entities.
+	 */
+	private static List<BaseEntity> entities()
+	{
+		List<BaseEntity> entities = new ArrayList<>();
+		for (int i = 0; i < SIZE; i++)
+		{
+			String name = (char) ('A' + i % 26) + "" + (char) ('a' + i / 26 % 26) + " Feat " + i;
+			entities.add(new Feat(name, "Str " + (i % 20), "Description " + i, EnumSet.of(FeatType.values()[i
+							% FeatType.values().length]), i % 2 == 0 ? Source.CORE_RULEBOOK : Source.ULTIMATE_COMBAT));
+		}
+		return entities;
+	}
+
+	/**
+	 * Entities survive encoding and decoding.
+	 *
+	 * @throws IOException
+	 *           Unexpected.
+	 */
+	@Test
+	public void testCodec() throws IOException
+	{
+		Feat feat = new Feat("Stra\u00dfenkampf", null, "Text", EnumSet.of(FeatType.COMBAT, FeatType.TEAMWORK), null);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		EntityCodec.write(new DataOutputStream(bytes), feat);
+		Feat decoded = (Feat) EntityCodec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		assertEquals("Name", feat.getName(), decoded.getName());
+		assertNull("Prerequisites", decoded.getPrerequisites());
+		assertNull("Source", decoded.getSource());
+		assertEquals("Types", feat.getTypes(), decoded.getTypes());
+		assertEquals("Content", Catalog.contentHash(feat), Catalog.contentHash(decoded));
+	}
+
+	/**
+	 * Identical catalogs need only the root comparison.
+	 *
+	 * @throws IOException
+	 *           Unexpected.
+	 */
+	@Test
+	public void testIdentical() throws IOException
+	{
+		Catalog local = new Catalog(entities());
+		served.set(new Catalog(entities()));
+		CatalogSyncClient.Result result = client.sync(local);
+		assertSame("Unchanged", local, result.getCatalog());
+		assertEquals("Requests", 1, result.getRequestCount());
+		assertEquals("Entities", 0, result.getEntityCount());
+	}
+
+	/**
+	 * An empty catalog receives everything.
+	 *
+	 * @throws IOException
+	 *           Unexpected.
+	 */
+	@Test
+	public void testInitial() throws IOException
+	{
+		served.set(new Catalog(entities()));
+		CatalogSyncClient.Result result = client.sync(Catalog.EMPTY);
+		assertEquals("Version", served.get().getVersionTag(), result.getCatalog().getVersionTag());
+		assertEquals("Entities", SIZE, result.getEntityCount());
+	}
+
+	/**
+	 * Only the ranges with changes are transferred.
+	 *
+	 * @throws IOException
+	 *           Unexpected.
+	 */
+	@Test
+	public void testChanges() throws IOException
+	{
+		Catalog local = new Catalog(entities());
+		List<BaseEntity> remote = entities();
+		// Update, remove and add one entity each, in three different ranges
+		Feat updated = (Feat) remote.get(0);
+		remote.set(0, new Feat(updated.getName(), updated.getPrerequisites(), "Errata", updated.getTypes(),
+						updated.getSource()));
+		BaseEntity removed = remote.remove(27);
+		remote.add(new Feat("Zz New Feat", null, "New", null, Source.ULTIMATE_COMBAT));
+		// Remove all entities of a range
+		remote.removeIf(entity -> entity.getName().startsWith("Mb"));
+		served.set(new Catalog(remote));
+
+		CatalogSyncClient.Result result = client.sync(local);
+		Catalog synced = result.getCatalog();
+		assertEquals("Version", served.get().getVersionTag(), synced.getVersionTag());
+		assertEquals("Size", remote.size(), synced.size());
+		assertEquals("Updated", "Errata", synced.get(EntityKey.of(updated)).getDescription());
+		assertNull("Removed", synced.get(EntityKey.of(removed)));
+		assertTrue("Few ranges", result.getRangeCount() <= 4);
+		assertTrue("Few entities: " + result.getEntityCount(), result.getEntityCount() < SIZE / 20);
+		// Now in sync
+		assertEquals("Second sync", 1, client.sync(synced).getRequestCount());
+	}
+
+	/**
+	 * A request for entities without range closes the connection, but the
+	 * server keeps serving.
+	 *
+	 * @throws IOException
+	 *           Unexpected.
+	 */
+	@Test
+	public void testMissingRange() throws IOException
+	{
+		served.set(new Catalog(entities()));
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort()))
+		{
+			socket.setSoTimeout(CatalogSyncClient.DEFAULT_TIMEOUT);
+			DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			out.writeInt(SyncProtocol.MAGIC);
+			out.writeInt(SyncProtocol.VERSION);
+			out.write(SyncProtocol.ENTITIES);
+			out.writeByte(EntityCodec.indexOf(Source.CORE_RULEBOOK));
+			EntityCodec.writeString(out, null);
+			out.flush();
+			assertEquals("Closed", -1, socket.getInputStream().read());
+		}
+		assertEquals("Still serving", SIZE, client.sync(Catalog.EMPTY).getEntityCount());
+	}
+}
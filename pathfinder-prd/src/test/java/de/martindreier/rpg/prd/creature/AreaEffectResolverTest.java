@@ -0,0 +1,111 @@
+/**
+ * AreaEffectResolverTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.SplittableRandom;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.ArmorClass;
+import de.martindreier.rpg.prd.rules.EnergyType;
+import de.martindreier.rpg.prd.rules.Resistances;
+import de.martindreier.rpg.prd.rules.Saves;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+
+/**
+ * Tests for batched area effects.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class AreaEffectResolverTest
+{
+	/**
+	 * Test saves, vulnerability and resistance on table rows.
+	 */
+	@Test
+	public void tableRows()
+	{
+		CreatureTable table = new CreatureTable();
+		for (int row = 0; row < 4; row++)
+		{
+			table.add();
+			table.setSave(row, SaveType.REFLEX, 5);
+		}
+		table.setVulnerable(1, EnergyType.FIRE, true);
+		table.setEnergyResistance(2, EnergyType.FIRE, 10);
+		table.setVulnerable(3, EnergyType.FIRE, true);
+		table.setEnergyResistance(3, EnergyType.FIRE, 5);
+
+		DamagePacket fireball = new DamagePacket(EnergyType.FIRE, 21, SaveType.REFLEX, 15);
+		AreaEffectResult result = AreaEffectResolver.resolve(fireball, table, 0, 4, new int[] { 10, 1, 12, 20 },
+						new AreaEffectResult(2));
+		assertEquals("Incorrect batch size", 4, result.getSize());
+		assertTrue("Save should succeed", result.isSaved(0));
+		assertEquals("Incorrect damage on save", 10, result.getDamage(0));
+		assertFalse("Natural 1 should fail", result.isSaved(1));
+		assertEquals("Incorrect damage with vulnerability", 31, result.getDamage(1));
+		assertEquals("Incorrect damage with resistance", 0, result.getDamage(2));
+		assertEquals("Incorrect damage with vulnerability and resistance", 10, result.getDamage(3));
+		assertEquals("Incorrect save count", 3, result.getSaveCount());
+		assertEquals("Incorrect total damage", 51, result.getTotalDamage());
+	}
+
+	/**
+	 * Test that table rows and separate objects give the same result.
+	 */
+	@Test
+	public void batchMatchesTable()
+	{
+		Saves[] saves = new Saves[50];
+		Resistances[] resistances = new Resistances[50];
+		CreatureTable table = new CreatureTable();
+		for (int index = 0; index < saves.length; index++)
+		{
+			saves[index] = new Saves(index % 7, index % 5, index % 3);
+			resistances[index] = new Resistances();
+			resistances[index].setEnergyResistance(EnergyType.COLD, index % 4 * 5);
+			if (index % 6 == 0)
+			{
+				resistances[index].addVulnerability(EnergyType.COLD);
+			}
+			table.add(new ArmorClass(), saves[index], resistances[index]);
+		}
+
+		DamagePacket coneOfCold = new DamagePacket(EnergyType.COLD, 35, SaveType.REFLEX, 17, false);
+		AreaEffectResult fromTable = AreaEffectResolver.resolve(coneOfCold, table, 0, table.getSize(),
+						new SplittableRandom(7), new AreaEffectResult());
+		AreaEffectResult fromBatch = AreaEffectResolver.resolve(coneOfCold, saves, resistances, new SplittableRandom(7),
+						new AreaEffectResult());
+		for (int index = 0; index < saves.length; index++)
+		{
+			assertEquals("Different roll", fromTable.getRoll(index), fromBatch.getRoll(index));
+			assertEquals("Different damage", fromTable.getDamage(index), fromBatch.getDamage(index));
+			if (fromBatch.isSaved(index))
+			{
+				assertEquals("Save should negate damage", 0, fromBatch.getDamage(index));
+			}
+		}
+		assertEquals("Different total", fromTable.getTotalDamage(), fromBatch.getTotalDamage());
+	}
+}
@@ -0,0 +1,246 @@
+/**
+ * CreatureEventLogTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.EnergyType;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.rules.Skill;
+
+/**
+ * Tests for the creature event log.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class CreatureEventLogTest
+{
+	/**
+	 * Temporary folder for log files.
+	 */
+	@Rule
+	public TemporaryFolder		folder		= new TemporaryFolder();
+
+	/**
+	 * Expected exceptions.
+	 */
+	@Rule
+	public ExpectedException	expected	= ExpectedException.none();
+
+	/**
+	 * Create random events for a few creatures.
+	 *
+	 * @param count
+	 *          Number of events.
+	 * @return The events, starting with the creatures being added.
+	 */
+	private static List<CreatureEvent> randomEvents(int count)
+	{
+		SplittableRandom random = new SplittableRandom(39);
+		List<CreatureEvent> events = new ArrayList<>();
+		events.add(CreatureEvent.added(0, "Goblin", 6));
+		events.add(CreatureEvent.added(1, "Orc Fighter", 13));
+		events.add(CreatureEvent.added(7, "Ogre", 30));
+		int[] creatures = { 0, 1, 7 };
+		BonusType[] types = BonusType.values();
+		EnergyType[] energies = EnergyType.values();
+		while (events.size() < count)
+		{
+			int creature = creatures[random.nextInt(creatures.length)];
+			int value = random.nextInt(-5, 20);
+			switch (random.nextInt(9))
+			{
+				case 0:
+					events.add(CreatureEvent.armorClassModifier(creature, types[random.nextInt(types.length)], value));
+					break;
+				case 1:
+					events.add(CreatureEvent.armorClassModifier(creature, Attribute.DEXTERITY, value));
+					break;
+				case 2:
+					events.add(CreatureEvent.armorClassModifierRemoved(creature, types[random.nextInt(types.length)]));
+					break;
+				case 3:
+					events.add(CreatureEvent.save(creature, SaveType.values()[random.nextInt(3)], value));
+					break;
+				case 4:
+					events.add(CreatureEvent.energyResistance(creature, energies[random.nextInt(energies.length)],
+									Math.abs(value)));
+					break;
+				case 5:
+					events.add(CreatureEvent.vulnerability(creature, energies[random.nextInt(energies.length)],
+									random.nextBoolean()));
+					break;
+				case 6:
+					events.add(CreatureEvent.hitPoints(creature, value));
+					break;
+				case 7:
+					events.add(CreatureEvent.attributeScore(creature, Attribute.STRENGTH, 10 + value));
+					break;
+				default:
+					events.add(CreatureEvent.skillRanks(creature, Skill.Stealth, Math.abs(value)));
+			}
+		}
+		return events;
+	}
+
+	/**
+	 * Check that reopening a log restores the same state as applying all events,
+	 * and that all events can be read back.
+	 *
+	 * @throws IOException
+	 *           Unexpected failure.
+	 */
+	@Test
+	public void restore() throws IOException
+	{
+		Path file = folder.getRoot().toPath().resolve("session.log");
+		List<CreatureEvent> events = randomEvents(5000);
+		try (CreatureEventLog log = new CreatureEventLog(file, 64))
+		{
+			for (CreatureEvent event : events)
+			{
+				log.append(event);
+			}
+		}
+		CreatureEventLog expected;
+		try (CreatureEventLog log = new CreatureEventLog(folder.getRoot().toPath().resolve("reference.log"),
+						Integer.MAX_VALUE))
+		{
+			for (CreatureEvent event : events)
+			{
+				log.append(event);
+			}
+			expected = log;
+		}
+		try (CreatureEventLog log = new CreatureEventLog(file, 64))
+		{
+			assertEquals("Incorrect state after restore", expected.getStatBlocks(), log.getStatBlocks());
+			assertEquals("Incorrect events since snapshot", events.size() % 64, log.getEventsSinceSnapshot());
+			List<CreatureEvent> audit = new ArrayList<>();
+			log.forEach(audit::add);
+			assertEquals("Incorrect audit log", events, audit);
+		}
+	}
+
+	/**
+	 * Check that a record cut off by a crash is ignored.
+	 *
+	 * @throws IOException
+	 *           Unexpected failure.
+	 */
+	@Test
+	public void incompleteRecord() throws IOException
+	{
+		Path file = folder.getRoot().toPath().resolve("crash.log");
+		int end;
+		try (CreatureEventLog log = new CreatureEventLog(file))
+		{
+			log.append(CreatureEvent.added(0, "Goblin", 6));
+			log.append(CreatureEvent.hitPoints(0, 4));
+			end = log.getSize();
+		}
+		// Simulate a record which was written, but not committed in the header
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+		{
+			channel.write(ByteBuffer.wrap(new byte[] { 1, 3, (byte) 0xFF }), end);
+		}
+		try (CreatureEventLog log = new CreatureEventLog(file))
+		{
+			assertEquals("Incorrect hit points", 4, log.getStatBlock(0).getHitPoints());
+			log.append(CreatureEvent.hitPoints(0, 1));
+		}
+		try (CreatureEventLog log = new CreatureEventLog(file))
+		{
+			assertEquals("Incorrect hit points after overwrite", 1, log.getStatBlock(0).getHitPoints());
+			assertNull("Unknown creature", log.getStatBlock(1));
+		}
+	}
+
+	/**
+	 * Check that events for unknown creatures are rejected and not recorded.
+	 *
+	 * @throws IOException
+	 *           Unexpected failure.
+	 */
+	@Test
+	public void unknownCreature() throws IOException
+	{
+		try (CreatureEventLog log = new CreatureEventLog(folder.getRoot().toPath().resolve("unknown.log")))
+		{
+			expected.expect(IllegalStateException.class);
+			log.append(CreatureEvent.hitPoints(3, 1));
+		}
+	}
+
+	/**
+	 * Check that other files and logs with a corrupt name length are rejected.
+	 *
+	 * @throws IOException
+	 *           Expected failure.
+	 */
+	@Test
+	public void invalidFile() throws IOException
+	{
+		Path corrupt = folder.getRoot().toPath().resolve("corrupt.log");
+		try (CreatureEventLog log = new CreatureEventLog(corrupt))
+		{
+			log.append(CreatureEvent.added(0, "Goblin", 6));
+		}
+		// Replace the name length of the committed record with almost 2 GB: the
+		// record starts with kind, length, event type and creature
+		try (FileChannel channel = FileChannel.open(corrupt, StandardOpenOption.WRITE))
+		{
+			channel.write(ByteBuffer.wrap(new byte[] { (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 }),
+							CreatureEventLog.HEADER_SIZE + 4);
+		}
+		try (CreatureEventLog log = new CreatureEventLog(corrupt))
+		{
+			fail("Corrupt name length not detected");
+		}
+		catch (IOException e)
+		{
+			assertTrue("Incorrect cause " + e.getCause(), e.getCause() instanceof IllegalArgumentException);
+		}
+		Path file = folder.getRoot().toPath().resolve("other.txt");
+		Files.write(file, "Not a log".getBytes("UTF-8"));
+		expected.expect(IOException.class);
+		new CreatureEventLog(file).close();
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * CreatureStatisticsTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.rules.Skill;
+
+/**
+ * Tests for the creature statistics graph.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class CreatureStatisticsTest
+{
+	/**
+	 * Test that derived values follow attribute changes.
+	 */
+	@Test
+	public void derivedValues()
+	{
+		CreatureStatistics statistics = new CreatureStatistics();
+		statistics.setAttributeScore(Attribute.DEXTERITY, 16);
+		statistics.setBaseSave(SaveType.REFLEX, 2);
+		statistics.setSkillRanks(Skill.Acrobatics, 4);
+		statistics.setArmorCheckPenalty(-2);
+		statistics.getArmorClass().updateModifier(BonusType.ARMOR, 4);
+		assertEquals("Incorrect AC", 17, statistics.getArmorClass().getTotal());
+		assertEquals("Incorrect reflex save", 5, statistics.getSave(SaveType.REFLEX));
+		assertEquals("Incorrect skill total", 5, statistics.getSkill(Skill.Acrobatics));
+
+		statistics.setAttributeScore(Attribute.DEXTERITY, 12);
+		assertEquals("AC does not follow Dexterity", 15, statistics.getArmorClass().getTotal());
+		assertEquals("Save does not follow Dexterity", 3, statistics.getSave(SaveType.REFLEX));
+		assertEquals("Skill does not follow Dexterity", 3, statistics.getSkill(Skill.Acrobatics));
+
+		statistics.getSaveModifiers(SaveType.REFLEX).add(BonusType.RESISTANCE, 1);
+		statistics.getSkillModifiers(Skill.Acrobatics).add(BonusType.COMPETENCE, 2);
+		assertEquals("Save modifiers not applied", 4, statistics.getSave(SaveType.REFLEX));
+		assertEquals("Skill modifiers not applied", 5, statistics.getSkill(Skill.Acrobatics));
+		assertEquals("Armor check penalty must not apply", 0, statistics.getSkill(Skill.Appraise));
+	}
+
+	/**
+	 * Test that only values affected by a change are calculated again.
+	 */
+	@Test
+	public void lazyRecalculation()
+	{
+		CreatureStatistics statistics = new CreatureStatistics();
+		StatNode acrobatics = statistics.getSkillNode(Skill.Acrobatics);
+		StatNode perception = statistics.getSkillNode(Skill.Perception);
+		statistics.getSkill(Skill.Acrobatics);
+		statistics.getSkill(Skill.Perception);
+
+		statistics.setAttributeScore(Attribute.DEXTERITY, 14);
+		statistics.setAttributeScore(Attribute.DEXTERITY, 16);
+		assertEquals("Value calculated before read", 1, acrobatics.getEvaluations());
+		assertEquals("Incorrect skill total", 3, statistics.getSkill(Skill.Acrobatics));
+		statistics.getSkill(Skill.Perception);
+		assertEquals("Value not calculated once", 2, acrobatics.getEvaluations());
+		assertEquals("Unaffected value calculated again", 1, perception.getEvaluations());
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ * CreatureTableTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.ArmorClass;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.EnergyType;
+import de.martindreier.rpg.prd.rules.Resistances;
+import de.martindreier.rpg.prd.rules.Saves;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+
+/**
+ * Tests for the column-oriented creature table.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class CreatureTableTest
+{
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	/**
+	 * Test that total, touch and flat-footed armor class follow modifier
+	 * updates, as in {@link ArmorClass}.
+	 */
+	@Test
+	public void cachedArmorClass()
+	{
+		CreatureTable table = new CreatureTable();
+		int row = table.add();
+		assertEquals("Incorrect base AC", 10, table.getArmorClass(row));
+
+		table.setDexterityModifier(row, 3);
+		table.setArmorClassModifier(row, BonusType.ARMOR, 5);
+		table.setArmorClassModifier(row, BonusType.DEFLECTION, 1);
+		table.setArmorClassModifier(row, BonusType.DODGE, 1);
+		assertEquals("Incorrect total AC", 20, table.getArmorClass(row));
+		assertEquals("Incorrect touch AC", 15, table.getTouchArmorClass(row));
+		assertEquals("Incorrect flat-footed AC", 16, table.getFlatFootedArmorClass(row));
+
+		table.setArmorClassModifier(row, BonusType.ARMOR, 7);
+		table.setDexterityModifier(row, -1);
+		assertEquals("Incorrect total AC after update", 18, table.getArmorClass(row));
+		assertEquals("Incorrect touch AC after update", 11, table.getTouchArmorClass(row));
+		assertEquals("Incorrect flat-footed AC after update", 17, table.getFlatFootedArmorClass(row));
+	}
+
+	/**
+	 * Test bulk updates and counting over ranges, including growth beyond the
+	 * initial capacity.
+	 */
+	@Test
+	public void ranges()
+	{
+		CreatureTable table = new CreatureTable(2);
+		for (int row = 0; row < 5; row++)
+		{
+			table.add();
+			table.setSave(row, SaveType.WILL, row);
+		}
+		assertEquals("Incorrect size", 5, table.getSize());
+		table.addArmorClassModifier(BonusType.SHIELD, 2, 1, 4);
+		assertEquals("Shield outside range", 10, table.getArmorClass(0));
+		assertEquals("Shield inside range", 12, table.getArmorClass(3));
+		assertEquals("Shield must not apply to touch AC", 10, table.getTouchArmorClass(3));
+		assertEquals("Incorrect hits", 2, table.countHits(11, false, 0, 5));
+		assertEquals("Incorrect touch hits", 5, table.countHits(11, true, 0, 5));
+
+		table.addSave(SaveType.WILL, 1, 0, 5);
+		assertEquals("Incorrect save after bulk update", 5, table.getSave(4, SaveType.WILL));
+		assertEquals("Incorrect successful saves", 2, table.countSaves(SaveType.WILL, 10, 14, 0, 5));
+
+		thrown.expect(IndexOutOfBoundsException.class);
+		table.getRow(5);
+	}
+
+	/**
+	 * Test that statistics survive adding a creature and copying it back.
+	 */
+	@Test
+	public void roundTrip()
+	{
+		ArmorClass armorClass = new ArmorClass();
+		armorClass.updateModifier(BonusType.NATURAL_ARMOR, 4);
+		Resistances resistances = new Resistances();
+		resistances.setEnergyResistance(EnergyType.COLD, Resistances.MAX_ENERGY_RESISTANCE);
+		resistances.addVulnerability(EnergyType.FIRE);
+		resistances.getSpellResistance().set(15);
+
+		CreatureTable table = new CreatureTable();
+		int row = table.add(armorClass, new Saves(4, -1, 2), resistances);
+		ArmorClass copiedArmorClass = table.toArmorClass(row);
+		assertEquals("Incorrect AC", 14, copiedArmorClass.getTotal());
+		assertFalse("Dexterity modifier was never set", copiedArmorClass.hasModifier(Attribute.DEXTERITY));
+		assertEquals("Incorrect AC line", armorClass.getArmorClassLine(), copiedArmorClass.getArmorClassLine());
+		assertEquals("Incorrect reflex save", -1, table.toSaves(row).getReflexSave());
+		Resistances copiedResistances = table.toResistances(row);
+		assertEquals("Incorrect cold resistance", Resistances.MAX_ENERGY_RESISTANCE, copiedResistances
+						.getEnergyResistance(EnergyType.COLD));
+		assertTrue("Vulnerability not copied", copiedResistances.isVulnerable(EnergyType.FIRE));
+		assertEquals("Incorrect spell resistance", 15, copiedResistances.getSpellResistance().get());
+
+		table.setDexterityModifier(row, 0);
+		assertTrue("Dexterity modifier was set", table.toArmorClass(row).hasModifier(Attribute.DEXTERITY));
+	}
+
+	/**
+	 * Test that the table rejects energy resistances which
+	 * {@link Resistances} cannot store.
+	 */
+	@Test
+	public void energyResistanceRange()
+	{
+		CreatureTable table = new CreatureTable();
+		int row = table.add();
+		table.setEnergyResistance(row, EnergyType.ACID, Resistances.MAX_ENERGY_RESISTANCE);
+		assertEquals("Incorrect acid resistance", Resistances.MAX_ENERGY_RESISTANCE, table.toResistances(row)
+						.getEnergyResistance(EnergyType.ACID));
+
+		thrown.expect(IllegalArgumentException.class);
+		table.setEnergyResistance(row, EnergyType.ACID, Resistances.MAX_ENERGY_RESISTANCE + 1);
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ * StatBlockCodecTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.creature;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.EnergyType;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.rules.Skill;
+
+/**
+ * Tests for the stat block codec.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class StatBlockCodecTest
+{
+	/**
+	 * Apply a random change to a stat block.
+	 *
+	 * @param random
+	 *          Random number generator.
+	 * @param statBlock
+	 *          The stat block.
+	 * @return Changed stat block.
+	 */
+	private static CreatureStatBlock change(SplittableRandom random, CreatureStatBlock statBlock)
+	{
+		BonusType[] types = BonusType.values();
+		EnergyType[] energies = EnergyType.values();
+		int value = random.nextInt(-5, 30);
+		switch (random.nextInt(12))
+		{
+			case 0:
+				return statBlock.withArmorClassModifier(types[random.nextInt(types.length)], value);
+			case 1:
+				return statBlock.withArmorClass(statBlock.getArmorClass().withModifier(Attribute.DEXTERITY, value));
+			case 2:
+				return statBlock.withArmorClass(statBlock.getArmorClass().withoutModifier(
+								types[random.nextInt(types.length)]));
+			case 3:
+				return statBlock.withSave(SaveType.values()[random.nextInt(3)], value);
+			case 4:
+				return statBlock.withResistances(statBlock.getResistances().withEnergyResistance(
+								energies[random.nextInt(energies.length)], Math.abs(value)));
+			case 5:
+				return statBlock.withResistances(statBlock.getResistances().withVulnerability(
+								energies[random.nextInt(energies.length)], random.nextBoolean()));
+			case 6:
+				return statBlock.withResistances(statBlock.getResistances().withSpellResistance(value)
+								.withTurnResistance(value / 2));
+			case 7:
+				return statBlock.withResistances(statBlock.getResistances().withDamageReduction(
+								random.nextBoolean() ? null : value + "/magic"));
+			case 8:
+				return statBlock.withHitPoints(value).withMaxHitPoints(value + 10);
+			case 9:
+				return statBlock.withAttributeScore(Attribute.values()[random.nextInt(6)], 10 + value);
+			case 10:
+				return statBlock.withSkillRanks(Skill.values()[random.nextInt(Skill.values().length)], Math.abs(value));
+			default:
+				return statBlock.withName("Creature " + value);
+		}
+	}
+
+	/**
+	 * Encode deltas between random versions and check that decoding restores the
+	 * new version.
+	 */
+	@Test
+	public void deltaRoundTrip()
+	{
+		SplittableRandom random = new SplittableRandom(41);
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		CreatureStatBlock statBlock = CreatureStatBlock.create("Ogre", 30);
+		for (int step = 0; step < 2000; step++)
+		{
+			CreatureStatBlock changed = statBlock;
+			for (int count = random.nextInt(1, 4); count > 0; count--)
+			{
+				changed = change(random, changed);
+			}
+			buffer.clear();
+			StatBlockCodec.encodeDelta(buffer, statBlock, changed);
+			buffer.flip();
+			assertEquals("Incorrect delta in step " + step, changed, StatBlockCodec.decodeDelta(buffer, statBlock));
+			assertFalse("Bytes left after delta", buffer.hasRemaining());
+
+			buffer.clear();
+			StatBlockCodec.encode(buffer, changed);
+			buffer.flip();
+			assertEquals("Incorrect full stat block in step " + step, changed, StatBlockCodec.decode(buffer));
+			statBlock = changed;
+		}
+	}
+
+	/**
+	 * Check that deltas for a single change are small and share unchanged parts.
+	 */
+	@Test
+	public void smallDelta()
+	{
+		CreatureStatBlock base = CreatureStatBlock.create("Goblin", 6).withArmorClassModifier(BonusType.ARMOR, 2)
+						.withSkillRanks(Skill.Stealth, 4);
+		CreatureStatBlock changed = base.withArmorClassModifier(BonusType.DEFLECTION, 2);
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		StatBlockCodec.encodeDelta(buffer, base, changed);
+		assertTrue("Delta too large: " + buffer.position(), buffer.position() <= 5);
+		buffer.flip();
+		CreatureStatBlock decoded = StatBlockCodec.decodeDelta(buffer, base);
+		assertSame("Skill ranks not shared", base.getSkillRanks(), decoded.getSkillRanks());
+		assertEquals("Incorrect armor class", 14, decoded.getArmorClass().getTotal());
+
+		buffer.clear();
+		StatBlockCodec.encodeDelta(buffer, changed, changed);
+		assertEquals("Empty delta too large", 1, buffer.position());
+	}
+
+	/**
+	 * Check that a frame adds, changes and removes creatures.
+	 */
+	@Test
+	public void frame()
+	{
+		Map<Integer, CreatureStatBlock> server = new TreeMap<>();
+		server.put(1, CreatureStatBlock.create("Goblin", 6));
+		server.put(2, CreatureStatBlock.create("Orc", 13));
+		server.put(3, CreatureStatBlock.create("Ogre", 30));
+		Map<Integer, CreatureStatBlock> client = new HashMap<>();
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		assertEquals("Incorrect initial entries", 3, StatBlockCodec.encodeFrame(buffer, client, server));
+		buffer.flip();
+		assertEquals("Incorrect decoded entries", 3, StatBlockCodec.decodeFrame(buffer, client));
+		assertEquals("Incorrect initial state", server, client);
+
+		Map<Integer, CreatureStatBlock> known = new TreeMap<>(server);
+		server.put(1, server.get(1).withHitPoints(2));
+		server.remove(2);
+		server.put(4, CreatureStatBlock.create("Wolf", 13));
+		buffer.clear();
+		assertEquals("Incorrect entries", 3, StatBlockCodec.encodeFrame(buffer, known, server));
+		buffer.flip();
+		CreatureStatBlock ogre = client.get(3);
+		StatBlockCodec.decodeFrame(buffer, client);
+		assertEquals("Incorrect state", server, client);
+		assertSame("Unchanged creature replaced", ogre, client.get(3));
+	}
+}
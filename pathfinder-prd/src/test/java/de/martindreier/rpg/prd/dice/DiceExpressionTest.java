@@ -0,0 +1,173 @@
+/**
+ * DiceExpressionTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.dice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for dice expressions.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class DiceExpressionTest
+{
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	/**
+	 * Test the distribution of simple dice with a constant.
+	 */
+	@Test
+	public void simpleDistribution()
+	{
+		Distribution distribution = DiceExpression.compile("2d6+4").getDistribution();
+		assertEquals("Incorrect minimum", 6, distribution.getMinimum());
+		assertEquals("Incorrect maximum", 16, distribution.getMaximum());
+		assertEquals("Incorrect probability", 6.0 / 36, distribution.getProbability(11), 1e-12);
+		assertEquals("Incorrect mean", 11, distribution.getMean(), 1e-12);
+		assertEquals("Incorrect probability", 1.0 / 36, distribution.getProbabilityAtLeast(16), 1e-12);
+		assertEquals("Incorrect probability", 1, distribution.getProbabilityAtLeast(2), 1e-12);
+	}
+
+	/**
+	 * Test the distribution with dropped dice.
+	 */
+	@Test
+	public void droppedDice()
+	{
+		Distribution distribution = DiceExpression.compile("4d6 drop lowest").getDistribution();
+		assertEquals("Incorrect minimum", 3, distribution.getMinimum());
+		assertEquals("Incorrect maximum", 18, distribution.getMaximum());
+		assertEquals("Incorrect probability of 18", 21.0 / 1296, distribution.getProbability(18), 1e-12);
+		assertEquals("Incorrect mean", 15869.0 / 1296, distribution.getMean(), 1e-9);
+
+		Distribution advantage = DiceExpression.compile("2d20kh1").getDistribution();
+		assertEquals("Incorrect probability of 20", 39.0 / 400, advantage.getProbability(20), 1e-12);
+	}
+
+	/**
+	 * Test variables and probability of success against a difficulty class.
+	 */
+	@Test
+	public void variables()
+	{
+		DiceExpression check = DiceExpression.compile("1d20 + SkillRank");
+		assertSame("Expression not cached", check, DiceExpression.compile("1d20 +  SkillRank"));
+		assertEquals("Incorrect variables", Arrays.asList("SkillRank"), check.getVariables());
+		assertEquals("Incorrect probability", 0.55, check.getProbabilityAtLeast(15, 5), 1e-12);
+
+		SplittableRandom random = new SplittableRandom(3);
+		for (int roll = 0; roll < 1000; roll++)
+		{
+			int result = check.roll(random, 5);
+			assertTrue("Roll out of range", result >= 6 && result <= 25);
+		}
+
+		thrown.expect(IllegalArgumentException.class);
+		check.roll(random);
+	}
+
+	/**
+	 * Test that invalid expressions are rejected.
+	 */
+	@Test
+	public void invalidExpression()
+	{
+		thrown.expect(IllegalArgumentException.class);
+		DiceExpression.compile("2d6 drop lowest 2 drop highest 1 *");
+	}
+
+	/**
+	 * Test that terms whose distribution would be too large are rejected.
+	 */
+	@Test
+	public void tooLargeTerm()
+	{
+		assertEquals("Incorrect maximum", DiceExpression.MAX_DICE * 100, DiceExpression.compile(DiceExpression.MAX_DICE
+						+ "d100").getDistribution().getMaximum());
+		thrown.expect(IllegalArgumentException.class);
+		DiceExpression.compile("1000d999999");
+	}
+
+	/**
+	 * Test that the range of all dice terms together is limited, and that large
+	 * terms are still added correctly.
+	 */
+	@Test
+	public void tooLargeTerms()
+	{
+		Distribution split = DiceExpression.compile("20d20+20d20").getDistribution();
+		Distribution single = DiceExpression.compile("40d20").getDistribution();
+		for (int outcome = single.getMinimum(); outcome <= single.getMaximum(); outcome++)
+		{
+			assertEquals("Incorrect probability of " + outcome, single.getProbability(outcome),
+							split.getProbability(outcome), 1e-12);
+		}
+		assertEquals("Incorrect mean", 50050, DiceExpression.compile("50d1000+50d1000").getDistribution().getMean(),
+						1e-6);
+		thrown.expect(IllegalArgumentException.class);
+		DiceExpression.compile("100d1000+100d1000");
+	}
+
+	/**
+	 * Test that the number of terms is limited.
+	 */
+	@Test
+	public void tooManyTerms()
+	{
+		StringBuilder text = new StringBuilder("1");
+		for (int term = 1; term < DiceExpression.MAX_TERMS; term++)
+		{
+			text.append("+d2");
+		}
+		assertEquals("Incorrect maximum", 2 * DiceExpression.MAX_TERMS - 1, DiceExpression.compile(text.toString())
+						.getDistribution().getMaximum());
+		thrown.expect(IllegalArgumentException.class);
+		DiceExpression.compile(text.append("+x").toString());
+	}
+
+	/**
+	 * Test that the cache of compiled expressions drops the least recently used
+	 * expressions.
+	 */
+	@Test
+	public void cacheBounded()
+	{
+		DiceExpression first = DiceExpression.compile("1d4+1000");
+		DiceExpression used = DiceExpression.compile("1d4+1001");
+		for (int index = 0; index < DiceExpression.CACHE_SIZE - 1; index++)
+		{
+			DiceExpression.compile("1d4+" + (2000 + index));
+			assertSame("Recently used expression evicted", used, DiceExpression.compile("1d4+1001"));
+		}
+		assertNotSame("Least recently used expression kept", first, DiceExpression.compile("1d4+1000"));
+	}
+}
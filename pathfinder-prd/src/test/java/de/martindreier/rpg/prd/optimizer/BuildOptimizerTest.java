@@ -0,0 +1,221 @@
+/**
+ * BuildOptimizerTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.optimizer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.Attribute;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.Feat;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+import de.martindreier.rpg.prd.rules.Skill;
+
+/**
+ * Tests for the build optimizer.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class BuildOptimizerTest
+{
+	/**
+	 * Dodge feat.
+	 */
+	private static final BuildOption	DODGE								= BuildOption.feat(feat("Dodge"), 0)
+					.withArmorClassBonus(BonusType.DODGE, 1)
+					.withPrerequisite(build -> build.getAttributeScore(Attribute.DEXTERITY) >= 13);
+
+	/**
+	 * Feat requiring Dodge.
+	 */
+	private static final BuildOption	MOBILITY						= BuildOption.feat(feat("Mobility"), 1)
+					.withArmorClassBonus(BonusType.DODGE, 1).withPrerequisite(build -> build.hasFeat(0));
+
+	/**
+	 * Saving throw feat.
+	 */
+	private static final BuildOption	LIGHTNING_REFLEXES	= BuildOption.feat(feat("Lightning Reflexes"), 2)
+					.withSaveBonus(SaveType.REFLEX, 2);
+
+	/**
+	 * Skill feat.
+	 */
+	private static final BuildOption	ACROBATIC						= BuildOption.feat(feat("Acrobatic"), 3)
+					.withSkillBonus(Skill.Acrobatics, 2);
+
+	/**
+	 * Feat with a shield bonus.
+	 */
+	private static final BuildOption	SHIELD_FOCUS				= BuildOption.feat(feat("Shield Focus"), 4)
+					.withArmorClassBonus(BonusType.SHIELD, 1);
+
+	/**
+	 * Test that the optimizer finds the same optimum as a full enumeration.
+	 */
+	@Test
+	public void matchesBruteForce()
+	{
+		CharacterBuild start = new CharacterBuild().withAttributeScore(Attribute.DEXTERITY, 12)
+						.withAttributeScore(Attribute.WISDOM, 13).withArmorClassBonus(BonusType.SHIELD, 1);
+		List<Choice> plan = smallPlan();
+		List<Objective> objectives = Arrays.asList(Objective.armorClass(), Objective.save(SaveType.REFLEX),
+						Objective.skill(Skill.Acrobatics), Objective.armorClass().plus(Objective.save(SaveType.WILL)),
+						build -> -build.getSkillTotal(Skill.Perception));
+		BuildOptimizer optimizer = new BuildOptimizer();
+		for (Objective objective : objectives)
+		{
+			BuildResult result = optimizer.optimize(start, plan, objective);
+			assertEquals("Different optimum", bruteForce(start, plan, 0, objective), result.getValue(), 1e-9);
+			CharacterBuild replayed = start;
+			for (BuildOption pick : result.getPicks())
+			{
+				replayed = pick.apply(replayed);
+			}
+			assertEquals("Picks do not lead to the build", result.getBuild(), replayed);
+			assertEquals("Value does not match build", objective.evaluate(replayed), result.getValue(), 1e-9);
+		}
+	}
+
+	/**
+	 * Test the best armor class in a small plan.
+	 */
+	@Test
+	public void bestArmorClass()
+	{
+		CharacterBuild start = new CharacterBuild().withAttributeScore(Attribute.DEXTERITY, 12);
+		BuildResult result = new BuildOptimizer().optimize(start, smallPlan(), Objective.armorClass());
+		// Dexterity 13 unlocks Dodge, which unlocks Mobility; Dexterity 14 adds +1
+		assertEquals("Incorrect best armor class", 15, result.getValue(), 1e-9);
+		assertTrue("Dodge not taken", result.getBuild().hasFeat(0));
+		assertTrue("Mobility not taken", result.getBuild().hasFeat(1));
+	}
+
+	/**
+	 * Test constraints on the final build.
+	 */
+	@Test
+	public void constraint()
+	{
+		CharacterBuild start = new CharacterBuild().withAttributeScore(Attribute.DEXTERITY, 12);
+		BuildResult result = new BuildOptimizer().optimize(start, smallPlan(), Objective.armorClass(),
+						build -> build.getSkillRanks(Skill.Perception) >= 2);
+		assertTrue("Constraint not met", result.getBuild().getSkillRanks(Skill.Perception) >= 2);
+		assertEquals("Incorrect best armor class with constraint", 15, result.getValue(), 1e-9);
+
+		assertNull("Impossible constraint", new BuildOptimizer().optimize(start, smallPlan(), Objective.armorClass(),
+						build -> build.getSkillRanks(Skill.Perception) > 3));
+	}
+
+	/**
+	 * Test a plan through 10th level, which has too many builds to enumerate.
+	 */
+	@Test
+	public void largePlan()
+	{
+		List<BuildOption> feats = Arrays.asList(DODGE, MOBILITY, LIGHTNING_REFLEXES, ACROBATIC, SHIELD_FOCUS);
+		List<Choice> plan = new ArrayList<>();
+		for (int level = 1; level <= 10; level++)
+		{
+			if (level % 2 == 1)
+			{
+				plan.add(new Choice(level, feats));
+			}
+			if (level % 4 == 0)
+			{
+				plan.add(Choice.attributeIncrease(level));
+			}
+			plan.add(Choice.skillRank(level, Skill.Acrobatics, Skill.Perception, Skill.Stealth, Skill.Climb));
+			plan.add(Choice.skillRank(level, Skill.Acrobatics, Skill.Perception, Skill.Stealth, Skill.Climb));
+		}
+		CharacterBuild start = new CharacterBuild().withAttributeScore(Attribute.DEXTERITY, 13)
+						.withBaseSave(SaveType.REFLEX, 7);
+		Objective objective = Objective.armorClass().plus(Objective.save(SaveType.REFLEX))
+						.plus(Objective.skill(Skill.Acrobatics).times(0.5));
+		BuildResult result = new BuildOptimizer().optimize(start, plan, objective);
+		// AC 10 + 2 Dex + 2 dodge + 1 shield, Reflex 7 + 2 + 2, Acrobatics 10 + 2 + 2
+		assertEquals("Incorrect optimum", 15 + 11 + 7, result.getValue(), 1e-9);
+	}
+
+	/**
+	 * Plan for three levels.
+	 *
+	 * @return The plan.
+	 */
+	private static List<Choice> smallPlan()
+	{
+		List<BuildOption> feats = Arrays.asList(DODGE, MOBILITY, LIGHTNING_REFLEXES, ACROBATIC, SHIELD_FOCUS);
+		return Arrays.asList(new Choice(1, feats), Choice.skillRank(1, Skill.Perception, Skill.Acrobatics),
+						Choice.attributeIncrease(2), Choice.skillRank(2, Skill.Perception, Skill.Acrobatics),
+						new Choice(3, feats), Choice.attributeIncrease(3),
+						Choice.skillRank(3, Skill.Perception, Skill.Acrobatics), new Choice(3, feats));
+	}
+
+	/**
+	 * Find the optimum by trying every combination.
+	 *
+	 * @param build
+	 *          Partial build.
+	 * @param plan
+	 *          The plan.
+	 * @param depth
+	 *          Number of choices made.
+	 * @param objective
+	 *          The objective.
+	 * @return Best value.
+	 */
+	private static double bruteForce(CharacterBuild build, List<Choice> plan, int depth, Objective objective)
+	{
+		if (depth == plan.size())
+		{
+			return objective.evaluate(build);
+		}
+		Choice choice = plan.get(depth);
+		double best = Double.NEGATIVE_INFINITY;
+		boolean picked = false;
+		for (BuildOption option : choice.getOptions())
+		{
+			if (option.isApplicable(build, choice.getLevel()))
+			{
+				picked = true;
+				best = Math.max(best, bruteForce(option.apply(build), plan, depth + 1, objective));
+			}
+		}
+		return picked ? best : bruteForce(build, plan, depth + 1, objective);
+	}
+
+	/**
+	 * Create a feat.
+	 *
+	 * @param name
+	 *          Feat name.
+	 * @return The feat.
+	 */
+	private static Feat feat(String name)
+	{
+		return new Feat(name, null, name, null, null);
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * ArmorClassTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import static org.junit.Assert.assertEquals;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.ArmorClass.Modifier;
+
+/**
+ * Tests for the armor class.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class ArmorClassTest
+{
+	/**
+	 * Test that total, touch and flat-footed armor class follow modifier
+	 * updates.
+	 */
+	@Test
+	public void cachedTotals()
+	{
+		ArmorClass armorClass = new ArmorClass();
+		assertEquals("Incorrect base AC", 10, armorClass.getTotal());
+
+		armorClass.updateModifier(Attribute.DEXTERITY, 3);
+		armorClass.updateModifier(BonusType.ARMOR, 5);
+		armorClass.updateModifier(BonusType.DEFLECTION, 1);
+		armorClass.updateModifier(BonusType.DODGE, 1);
+		assertEquals("Incorrect total AC", 20, armorClass.getTotal());
+		assertEquals("Incorrect touch AC", 15, armorClass.getTouch());
+		assertEquals("Incorrect flat-footed AC", 16, armorClass.getFlatFooted());
+
+		armorClass.updateModifier(BonusType.ARMOR, 7);
+		armorClass.updateModifier(Attribute.DEXTERITY, -1);
+		assertEquals("Incorrect total AC after update", 18, armorClass.getTotal());
+		assertEquals("Incorrect touch AC after update", 11, armorClass.getTouch());
+		assertEquals("Incorrect flat-footed AC after update", 17, armorClass.getFlatFooted());
+	}
+
+	/**
+	 * Test that dodge bonuses stack and are removed together.
+	 */
+	@Test
+	public void dodgeBonusesStack()
+	{
+		ArmorClass armorClass = new ArmorClass();
+		armorClass.updateModifier(BonusType.DODGE, 1);
+		armorClass.updateModifier(BonusType.DODGE, 2);
+		armorClass.updateModifier(BonusType.SHIELD, 2);
+		armorClass.updateModifier(Attribute.DEXTERITY, 1);
+		assertEquals("Dodge bonuses do not stack", 16, armorClass.getTotal());
+		assertEquals("Dodge bonuses do not stack", 3, armorClass.getModifier(BonusType.DODGE));
+
+		List<Modifier> modifiers = armorClass.getModifiers();
+		assertEquals("Incorrect number of modifiers", 4, modifiers.size());
+		assertEquals("Attribute modifiers must come first", Attribute.DEXTERITY, modifiers.get(0).getReferenceAttribute());
+		assertEquals("Incorrect modifier order", BonusType.DODGE, modifiers.get(1).getType());
+		assertEquals("Incorrect modifier order", BonusType.SHIELD, modifiers.get(3).getType());
+
+		armorClass.removeModifer(BonusType.DODGE);
+		assertEquals("Dodge bonuses not removed", 13, armorClass.getTotal());
+		assertEquals("Dex bonus must not apply to flat-footed AC", 12, armorClass.getFlatFooted());
+		assertEquals("Incorrect number of modifiers", 2, armorClass.getModifiers().size());
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * EffectSchedulerTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.EffectScheduler.Effect;
+
+/**
+ * Tests for the effect scheduler.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class EffectSchedulerTest
+{
+	/**
+	 * Compare random schedules and cancellations against the expected expiry
+	 * rounds, including durations on all levels of the wheel.
+	 */
+	@Test
+	public void expiresOnTime()
+	{
+		SplittableRandom random = new SplittableRandom(40);
+		EffectScheduler scheduler = new EffectScheduler(4000);
+		List<long[]> expired = new ArrayList<>();
+		List<Effect> effects = new ArrayList<>();
+		int[] maxDurations = { 10, 100, 5000, 300000 };
+		int cancelled = 0;
+		for (int index = 0; index < 2000; index++)
+		{
+			int duration = 1 + random.nextInt(maxDurations[index % maxDurations.length]);
+			long expectedRound = scheduler.getCurrentRound() + duration;
+			effects.add(scheduler.schedule(duration,
+							() -> expired.add(new long[] { expectedRound, scheduler.getCurrentRound() })));
+			if (random.nextInt(10) == 0)
+			{
+				if (scheduler.cancel(effects.get(random.nextInt(effects.size()))))
+				{
+					cancelled++;
+				}
+			}
+			if (random.nextInt(4) == 0)
+			{
+				scheduler.tick(random.nextInt(50));
+			}
+		}
+		assertEquals("Incorrect size", effects.size() - cancelled - expired.size(), scheduler.getSize());
+		scheduler.tick(EffectScheduler.MAX_DURATION >> 6);
+		while (scheduler.getSize() > 0)
+		{
+			scheduler.tick(1000);
+		}
+		assertEquals("Incorrect number of expired effects", effects.size() - cancelled, expired.size());
+		for (long[] rounds : expired)
+		{
+			assertEquals("Effect expired in wrong round", rounds[0], rounds[1]);
+		}
+	}
+
+	/**
+	 * Check that timed modifiers are removed from the armor class when they
+	 * expire, and that cancelled effects keep their modifier.
+	 */
+	@Test
+	public void timedModifiers()
+	{
+		EffectScheduler scheduler = new EffectScheduler();
+		ArmorClass armorClass = new ArmorClass();
+		ModifierStack stack = new ModifierStack();
+		armorClass.applyModifiers(stack);
+		scheduler.schedule(stack, BonusType.DEFLECTION, "Shield of Faith", 2, 10);
+		Effect haste = scheduler.schedule(stack, BonusType.DODGE, "Haste", 1, 5);
+		Effect barkskin = scheduler.schedule(stack, BonusType.NATURAL_ARMOR, "Barkskin", 2, 3);
+		assertEquals("Incorrect armor class", 15, armorClass.getTotal());
+
+		assertTrue("Cancel failed", scheduler.cancel(barkskin));
+		assertFalse("Cancelled twice", scheduler.cancel(barkskin));
+		assertEquals("Incorrect expired effects", 0, scheduler.tick(4));
+		assertEquals("Incorrect armor class after 4 rounds", 15, armorClass.getTotal());
+		assertEquals("Incorrect expired effects", 1, scheduler.tick());
+		assertFalse("Haste still scheduled", haste.isScheduled());
+		assertEquals("Incorrect armor class after 5 rounds", 14, armorClass.getTotal());
+		assertEquals("Incorrect expired effects", 1, scheduler.tick(5));
+		assertEquals("Incorrect armor class after 10 rounds", 12, armorClass.getTotal());
+		assertEquals("Effects remaining", 0, scheduler.getSize());
+	}
+}
@@ -0,0 +1,160 @@
+/**
+ * ImmutableArmorClassTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.creature.CreatureStatBlock;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+
+/**
+ * Tests for the immutable armor class, saves, resistances and stat blocks.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class ImmutableArmorClassTest
+{
+	/**
+	 * Compare random updates against the mutable armor class and check that old
+	 * versions are unchanged.
+	 */
+	@Test
+	public void matchesArmorClass()
+	{
+		SplittableRandom random = new SplittableRandom(38);
+		BonusType[] types = BonusType.values();
+		ArmorClass mutable = new ArmorClass();
+		ImmutableArmorClass immutable = ImmutableArmorClass.EMPTY;
+		List<ImmutableArmorClass> versions = new ArrayList<>();
+		List<Integer> totals = new ArrayList<>();
+		for (int step = 0; step < 500; step++)
+		{
+			int value = random.nextInt(-3, 6);
+			switch (random.nextInt(3))
+			{
+				case 0:
+					mutable.updateModifier(Attribute.DEXTERITY, value);
+					immutable = immutable.withModifier(Attribute.DEXTERITY, value);
+					break;
+				case 1:
+					BonusType type = types[random.nextInt(types.length)];
+					mutable.updateModifier(type, value);
+					immutable = immutable.withModifier(type, value);
+					break;
+				default:
+					BonusType removed = types[random.nextInt(types.length)];
+					mutable.removeModifer(removed);
+					immutable = immutable.withoutModifier(removed);
+			}
+			assertEquals("Incorrect total", mutable.getTotal(), immutable.getTotal());
+			assertEquals("Incorrect touch", mutable.getTouch(), immutable.getTouch());
+			assertEquals("Incorrect flat-footed", mutable.getFlatFooted(), immutable.getFlatFooted());
+			versions.add(immutable);
+			totals.add(immutable.getTotal());
+		}
+		for (int step = 0; step < versions.size(); step++)
+		{
+			assertEquals("Old version changed", totals.get(step).intValue(), versions.get(step).getTotal());
+		}
+		assertEquals("Incorrect conversion from armor class", immutable, ImmutableArmorClass.of(mutable));
+		assertEquals("Incorrect conversion to armor class", mutable.getArmorClassLine(),
+						immutable.toArmorClass().getArmorClassLine());
+	}
+
+	/**
+	 * Check that a change shares the unchanged values.
+	 */
+	@Test
+	public void sharing()
+	{
+		ImmutableArmorClass armorClass = ImmutableArmorClass.EMPTY.withModifier(Attribute.DEXTERITY, 3)
+						.withModifier(BonusType.ARMOR, 4);
+		ImmutableArmorClass changed = armorClass.withModifier(BonusType.SHIELD, 2);
+		assertSame("Attribute values not shared", armorClass.getAttributeValues(), changed.getAttributeValues());
+		assertSame("Unchanged armor class copied", changed, changed.withModifier(BonusType.SHIELD, 2));
+		assertEquals("Incorrect total", 19, changed.getTotal());
+		assertEquals("Incorrect touch", 13, changed.getTouch());
+		assertEquals("Incorrect flat-footed", 16, changed.getFlatFooted());
+		assertEquals("Old version changed", 17, armorClass.getTotal());
+	}
+
+	/**
+	 * Test immutable saves and resistances.
+	 */
+	@Test
+	public void savesAndResistances()
+	{
+		Saves.Snapshot saves = new Saves(4, 1, -1).getSnapshot();
+		Saves.Snapshot changed = saves.with(SaveType.REFLEX, 3);
+		assertEquals("Old version changed", 1, saves.getReflex());
+		assertEquals("Incorrect new value", 3, changed.getReflex());
+		assertSame("Unchanged saves copied", changed, changed.with(SaveType.WILL, -1));
+		assertEquals("Incorrect conversion to saves", 3, new Saves(changed).getReflexSave());
+
+		Resistances mutable = new Resistances();
+		mutable.setEnergyResistance(EnergyType.FIRE, 10);
+		mutable.addVulnerability(EnergyType.COLD);
+		mutable.getSpellResistance().set(15);
+		mutable.setDamageReduction("5/magic");
+		ImmutableResistances resistances = ImmutableResistances.of(mutable);
+		ImmutableResistances resistant = resistances.withEnergyResistance(EnergyType.ACID, 5);
+		assertEquals("Old version changed", 0, resistances.getEnergyResistance(EnergyType.ACID));
+		assertEquals("Incorrect new value", 5, resistant.getEnergyResistance(EnergyType.ACID));
+		assertEquals("Incorrect fire resistance", 10, resistant.getEnergyResistance(EnergyType.FIRE));
+		assertTrue("Vulnerability lost", resistant.isVulnerable(EnergyType.COLD));
+		assertSame("Damage reduction not shared", resistances.getDamageReduction(), resistant.getDamageReduction());
+		assertSame("Unchanged resistances copied", resistant, resistant.withSpellResistance(15));
+		Resistances converted = resistant.toResistances();
+		assertArrayEquals("Incorrect conversion to resistances", new int[] { 5, 0, 0, 10, 0 },
+						Arrays.copyOf(converted.getEnergyResistanceSnapshot(), 5));
+		assertEquals("Incorrect round trip", resistant, ImmutableResistances.of(converted));
+	}
+
+	/**
+	 * Test that stat block versions share everything that did not change.
+	 */
+	@Test
+	public void statBlock()
+	{
+		CreatureStatBlock goblin = CreatureStatBlock.create("Goblin", 6).withAttributeScore(Attribute.DEXTERITY, 15)
+						.withArmorClassModifier(BonusType.ARMOR, 2).withSkillRanks(Skill.Stealth, 1);
+		CreatureStatBlock hurt = goblin.withHitPoints(2);
+		CreatureStatBlock shielded = hurt.withArmorClassModifier(BonusType.SHIELD, 1);
+		assertSame("Armor class not shared", goblin.getArmorClass(), hurt.getArmorClass());
+		assertSame("Attributes not shared", hurt.getAttributeScores(), shielded.getAttributeScores());
+		assertSame("Skill ranks not shared", hurt.getSkillRanks(), shielded.getSkillRanks());
+		assertSame("Resistances not shared", goblin.getResistances(), shielded.getResistances());
+		assertEquals("Incorrect armor class", 13, shielded.getArmorClass().getTotal());
+		assertEquals("Old version changed", 12, hurt.getArmorClass().getTotal());
+		assertEquals("Incorrect hit points", 6, goblin.getHitPoints());
+		assertEquals("Incorrect skill ranks", 1, shielded.getSkillRanks(Skill.Stealth));
+		assertSame("Unchanged stat block copied", shielded, shielded.withSave(SaveType.WILL, 0));
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ * ModifierStackTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.ModifierStack.Entry;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+
+/**
+ * Tests for the modifier stack.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class ModifierStackTest
+{
+	/**
+	 * Test that only the highest bonus of a non-stacking type counts.
+	 */
+	@Test
+	public void highestBonusCounts()
+	{
+		ModifierStack stack = new ModifierStack();
+		Entry bless = stack.add(BonusType.MORALE, "Bless", 1);
+		Entry heroism = stack.add(BonusType.MORALE, "Heroism", 2);
+		stack.add(BonusType.LUCK, 1);
+		assertEquals("Morale bonuses must not stack", 2, stack.getValue(BonusType.MORALE));
+		assertEquals("Incorrect total", 3, stack.getTotal());
+
+		stack.remove(heroism);
+		assertEquals("Next highest bonus must apply", 1, stack.getValue(BonusType.MORALE));
+		stack.remove(bless);
+		stack.remove(bless);
+		assertEquals("Incorrect total after removal", 1, stack.getTotal());
+	}
+
+	/**
+	 * Test that penalties, dodge and circumstance bonuses stack.
+	 */
+	@Test
+	public void stackingModifiers()
+	{
+		ModifierStack stack = new ModifierStack();
+		stack.add(BonusType.DODGE, 1);
+		stack.add(BonusType.DODGE, 1);
+		stack.add(BonusType.CIRCUMSTANCE, 2);
+		stack.add(BonusType.CIRCUMSTANCE, 2);
+		stack.add(BonusType.ENHANCEMENT, 4);
+		stack.add(BonusType.ENHANCEMENT, -2);
+		Entry penalty = stack.add(BonusType.ENHANCEMENT, -1);
+		assertEquals("Dodge bonuses must stack", 2, stack.getValue(BonusType.DODGE));
+		assertEquals("Circumstance bonuses must stack", 4, stack.getValue(BonusType.CIRCUMSTANCE));
+		assertEquals("Penalties must stack", 1, stack.getValue(BonusType.ENHANCEMENT));
+
+		stack.update(penalty, 3);
+		assertEquals("Incorrect value after update", 2, stack.getValue(BonusType.ENHANCEMENT));
+		assertEquals("Incorrect total", 8, stack.getTotal());
+	}
+
+	/**
+	 * Test that armor class and saves follow changes to the stack.
+	 */
+	@Test
+	public void appliedToTargets()
+	{
+		ModifierStack stack = new ModifierStack();
+		stack.add(BonusType.DEFLECTION, 1);
+		ArmorClass armorClass = new ArmorClass();
+		armorClass.applyModifiers(stack);
+		Saves saves = new Saves(2, 3, 4);
+		saves.applyModifiers(SaveType.WILL, stack);
+		assertEquals("Initial stack not applied to AC", 11, armorClass.getTotal());
+		assertEquals("Initial stack not applied to save", 5, saves.getWillSave());
+
+		Entry shield = stack.add(BonusType.DEFLECTION, 2);
+		stack.add(BonusType.DODGE, 1);
+		stack.add(BonusType.DODGE, 1);
+		assertEquals("Change not applied to AC", 14, armorClass.getTotal());
+		assertEquals("Change not applied to save", 8, saves.getWillSave());
+
+		stack.remove(shield);
+		assertEquals("Removal not applied to AC", 13, armorClass.getTotal());
+		assertEquals("Removal not applied to save", 7, saves.getWillSave());
+	}
+
+	/**
+	 * Test that removing the returned listeners stops following the stack.
+	 */
+	@Test
+	public void removeTargets()
+	{
+		ModifierStack stack = new ModifierStack();
+		stack.add(BonusType.DEFLECTION, 1);
+		ArmorClass armorClass = new ArmorClass();
+		ModifierStack.Listener armorListener = armorClass.applyModifiers(stack);
+		Saves saves = new Saves(2, 3, 4);
+		ModifierStack.Listener saveListener = saves.applyModifiers(SaveType.WILL, stack);
+
+		stack.removeListener(armorListener);
+		stack.removeListener(saveListener);
+		stack.add(BonusType.DEFLECTION, 3);
+		assertEquals("Change applied to AC after removal", 11, armorClass.getTotal());
+		assertEquals("Change applied to save after removal", 5, saves.getWillSave());
+	}
+}
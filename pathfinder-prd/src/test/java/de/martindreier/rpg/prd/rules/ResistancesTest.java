@@ -0,0 +1,69 @@
+/**
+ * ResistancesTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for resistances, which are stored in packed atomic values.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class ResistancesTest
+{
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	/**
+	 * Test that energy resistances and vulnerabilities are stored per type.
+	 */
+	@Test
+	public void energyResistances()
+	{
+		Resistances resistances = new Resistances();
+		assertFalse("No resistance expected", resistances.hasEnergyResistance());
+		resistances.setEnergyResistance(EnergyType.FIRE, 10);
+		resistances.setEnergyResistance(EnergyType.COLD, 5);
+		resistances.setEnergyResistance(EnergyType.SONIC, Resistances.MAX_ENERGY_RESISTANCE);
+		resistances.setEnergyResistance(EnergyType.COLD, 0);
+		assertEquals("Incorrect fire resistance", 10, resistances.getEnergyResistance(EnergyType.FIRE));
+		assertEquals("Incorrect cold resistance", 0, resistances.getEnergyResistance(EnergyType.COLD));
+		assertEquals("Incorrect sonic resistance", Resistances.MAX_ENERGY_RESISTANCE,
+						resistances.getEnergyResistanceSnapshot()[EnergyType.SONIC.ordinal()]);
+		assertEquals("Incorrect resistance line", "Fire 10, Sonic 255", resistances.getEnergyResistances());
+
+		resistances.addVulnerability(EnergyType.COLD);
+		assertTrue("Vulnerability not set", resistances.isVulnerable(EnergyType.COLD));
+		assertEquals("Incorrect vulnerabilities", 1, resistances.getVulnerabilities().size());
+		resistances.removeVulnerability(EnergyType.COLD);
+		assertFalse("Vulnerability not removed", resistances.hasVulnerabilities());
+
+		thrown.expect(IllegalArgumentException.class);
+		resistances.setEnergyResistance(EnergyType.ACID, Resistances.MAX_ENERGY_RESISTANCE + 1);
+	}
+}
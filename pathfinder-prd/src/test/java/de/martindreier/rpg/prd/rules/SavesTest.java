@@ -0,0 +1,71 @@
+/**
+ * SavesTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+
+/**
+ * Tests for saves, which are stored in a packed atomic value.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class SavesTest
+{
+	/**
+	 * Test that negative saves survive packing and concurrent updates are not
+	 * lost.
+	 */
+	@Test
+	public void concurrentSaveUpdates() throws InterruptedException
+	{
+		Saves saves = new Saves(-3, 0, 7);
+		assertEquals("Incorrect fortitude save", -3, saves.getFortitudeSave());
+		List<Thread> threads = new ArrayList<>();
+		for (int thread = 0; thread < 4; thread++)
+		{
+			threads.add(new Thread(() -> {
+				for (int count = 0; count < 1000; count++)
+				{
+					saves.updateSave(SaveType.FORTITUDE, 1);
+					saves.updateSave(SaveType.WILL, -1);
+				}
+			}));
+		}
+		for (Thread thread : threads)
+		{
+			thread.start();
+		}
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		Saves.Snapshot snapshot = saves.getSnapshot();
+		assertEquals("Lost fortitude updates", 3997, snapshot.getFortitude());
+		assertEquals("Reflex save changed", 0, snapshot.get(SaveType.REFLEX));
+		assertEquals("Lost will updates", -3993, snapshot.getWill());
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * StatBlockRendererTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import static org.junit.Assert.assertEquals;
+import java.io.StringWriter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for the stat block renderer.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class StatBlockRendererTest
+{
+	/**
+	 * Test the armor class line.
+	 */
+	@Test
+	public void armorClassLine()
+	{
+		ArmorClass armorClass = new ArmorClass();
+		assertEquals("Incorrect line without modifiers", "10", armorClass.getArmorClassLine());
+
+		armorClass.updateModifier(Attribute.DEXTERITY, 2);
+		armorClass.updateModifier(BonusType.ARMOR, 4);
+		armorClass.updateModifier(BonusType.DODGE, 1);
+		armorClass.updateModifier(BonusType.DODGE, 1);
+		assertEquals("Incorrect armor class line", "18 (+2 DEX, +4 Armor, +1 Dodge, +1 Dodge)",
+						armorClass.getArmorClassLine());
+	}
+
+	/**
+	 * Test the defensive part of a stat block, written to a reused buffer.
+	 *
+	 * @throws Exception
+	 *           Unexpected failure.
+	 */
+	@Test
+	public void defense() throws Exception
+	{
+		ArmorClass armorClass = new ArmorClass();
+		armorClass.updateModifier(BonusType.NATURAL_ARMOR, 3);
+		Saves saves = new Saves(5, -1, 2);
+		Resistances resistances = new Resistances();
+
+		StringWriter out = new StringWriter();
+		StatBlockRenderer.appendDefense(out, armorClass, saves, resistances);
+		assertEquals("Incorrect defense", "AC 13 (+3 Natural Armor)\nFortitude +5, Reflex -1, Will +2\n",
+						out.toString());
+
+		resistances.setEnergyResistance(EnergyType.COLD, 10);
+		out.getBuffer().setLength(0);
+		StatBlockRenderer.appendDefense(out, armorClass, saves, resistances);
+		assertEquals("Incorrect defense with resistance",
+						"AC 13 (+3 Natural Armor)\nFortitude +5, Reflex -1, Will +2\nCold 10\n", out.toString());
+	}
+
+	/**
+	 * Test that skill ranks render as before.
+	 */
+	@Test
+	public void skillRank()
+	{
+		assertEquals("Incorrect skill rank", "Acrobatics (DEX) +7",
+						new SkillRank(Skill.Acrobatics, null, 7).toString());
+	}
+}
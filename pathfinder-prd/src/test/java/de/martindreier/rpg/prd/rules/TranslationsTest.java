@@ -0,0 +1,92 @@
+/**
+ * TranslationsTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.rules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+
+/**
+ * Tests for the translation tables.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class TranslationsTest
+{
+	/**
+	 * Test lookups in two locales.
+	 */
+	@Test
+	public void severalLocales()
+	{
+		Translations english = Translations.forLocale(Locale.ENGLISH);
+		Translations german = Translations.forLocale(Locale.GERMAN);
+		assertSame("Tables not cached", english, Translations.forLocale(Locale.ENGLISH));
+		assertEquals("Incorrect English name", "Dexterity", english.getAttributeName(Attribute.DEXTERITY));
+		assertEquals("Incorrect German name", "Geschicklichkeit", german.getAttributeName(Attribute.DEXTERITY));
+		assertEquals("Incorrect German abbreviation", "GE", Attribute.DEXTERITY.getAbbreviation(Locale.GERMAN));
+		assertEquals("Incorrect English skill", "Knowledge (arcana)", Skill.KnowledgeArcana.getSkillName(Locale.ENGLISH));
+		assertEquals("Incorrect German bonus", "Ausweichen", BonusType.DODGE.getBonusName(Locale.GERMAN));
+		assertEquals("Incorrect German energy", "Feuer", EnergyType.FIRE.getEnergy(Locale.GERMAN));
+		assertEquals("Incorrect English save", "Will", SaveType.WILL.getType(Locale.ENGLISH));
+	}
+
+	/**
+	 * Test that concurrent first lookups all see the same complete tables.
+	 *
+	 * @throws Exception
+	 *           Unexpected failure.
+	 */
+	@Test
+	public void concurrentLookup() throws Exception
+	{
+		Locale locale = Locale.GERMANY;
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try
+		{
+			List<Callable<Translations>> tasks = new ArrayList<>();
+			for (int task = 0; task < 32; task++)
+			{
+				tasks.add(() -> Translations.forLocale(locale));
+			}
+			Translations expected = Translations.forLocale(locale);
+			for (Future<Translations> result : executor.invokeAll(tasks))
+			{
+				assertSame("Different tables for the same locale", expected, result.get());
+				assertEquals("Incomplete tables", "Schall", result.get().getEnergyName(EnergyType.SONIC));
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+}
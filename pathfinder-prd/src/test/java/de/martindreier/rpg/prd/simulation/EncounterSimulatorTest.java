@@ -0,0 +1,84 @@
+/**
+ * EncounterSimulatorTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.simulation;
+
+import static org.junit.Assert.assertEquals;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import de.martindreier.rpg.prd.rules.ArmorClass;
+import de.martindreier.rpg.prd.rules.BonusType;
+import de.martindreier.rpg.prd.rules.Saves;
+import de.martindreier.rpg.prd.rules.Saves.SaveType;
+
+/**
+ * Tests for the encounter simulator.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class EncounterSimulatorTest
+{
+	/**
+	 * Test that the estimated hit chance is close to the exact value.
+	 */
+	@Test
+	public void attackProbability()
+	{
+		ArmorClass armorClass = new ArmorClass();
+		armorClass.updateModifier(BonusType.ARMOR, 5);
+		SimulationResult result = new EncounterSimulator().simulateAttacks(5, armorClass, 200000, 42);
+		// Hit on 10 or more: 11 of 20
+		assertEquals("Incorrect hit chance", 0.55, result.getProbability(), 0.01);
+		assertEquals("Incorrect number of trials", 200000, result.getTrials());
+	}
+
+	/**
+	 * Test that the same seed gives the same result with different degrees of
+	 * parallelism.
+	 */
+	@Test
+	public void deterministicSeeding()
+	{
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool multiple = new ForkJoinPool(4);
+		try
+		{
+			Saves saves = new Saves(2, 4, 6);
+			PartySaveResult first = new EncounterSimulator(single).simulatePartySaves(Arrays.asList(saves, saves),
+							SaveType.WILL, 15, 100000, 7);
+			PartySaveResult second = new EncounterSimulator(multiple).simulatePartySaves(Arrays.asList(saves, saves),
+							SaveType.WILL, 15, 100000, 7);
+			assertEquals("Results differ", first.getProbabilityAllSucceed(), second.getProbabilityAllSucceed(), 0);
+			assertEquals("Results differ", first.getMemberResult(1).getSuccesses(),
+							second.getMemberResult(1).getSuccesses());
+			// Success on 9 or more: 12 of 20
+			assertEquals("Incorrect probability", 0.36, first.getProbabilityAllSucceed(), 0.01);
+			assertEquals("Incorrect expected successes", 1.2, first.getExpectedSuccesses(), 0.02);
+		}
+		finally
+		{
+			single.shutdown();
+			multiple.shutdown();
+		}
+	}
+}
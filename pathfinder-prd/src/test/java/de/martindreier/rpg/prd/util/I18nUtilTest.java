@@ -47,5 +47,24 @@ public class I18nUtilTest
 		assertEquals("Incorrect bonus format", "+1", I18nUtil.formatBonus(1));
 		assertEquals("Incorrect bonus format", "+0", I18nUtil.formatBonus(0));
 		assertEquals("Incorrect bonus format", "-1", I18nUtil.formatBonus(-1));
+		assertEquals("Incorrect bonus format", "+120", I18nUtil.formatBonus(120));
+	}
+
+	@Test
+	public void appendNumbers() throws Exception
+	{
+		StringBuilder out = new StringBuilder();
+		I18nUtil.appendBonus(out, 3);
+		I18nUtil.appendBonus(out, -200);
+		I18nUtil.appendBonus(out, 1000);
+		assertEquals("Incorrect bonuses", "+3-200+1000", out.toString());
+
+		out.setLength(0);
+		I18nUtil.appendNumber(out, 0);
+		out.append(' ');
+		I18nUtil.appendNumber(out, Integer.MIN_VALUE);
+		out.append(' ');
+		I18nUtil.appendNumber(out, Integer.MAX_VALUE);
+		assertEquals("Incorrect numbers", "0 -2147483648 2147483647", out.toString());
 	}
 }
@@ -0,0 +1,111 @@
+/**
+ * PersistentIntVectorTest.java
+ * Created: 19.10.2026
+ * (c) 2026 Martin Dreier
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+package de.martindreier.rpg.prd.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.SplittableRandom;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for the persistent integer vector.
+ *
+ * @author Martin Dreier <martin@martindreier.de>
+ */
+@RunWith(JUnit4.class)
+public class PersistentIntVectorTest
+{
+	/**
+	 * Expected exceptions.
+	 */
+	@Rule
+	public ExpectedException expected = ExpectedException.none();
+
+	/**
+	 * Compare random updates against a plain array, keeping every version.
+	 */
+	@Test
+	public void randomUpdates()
+	{
+		SplittableRandom random = new SplittableRandom(38);
+		for (int size : new int[] { 0, 1, 7, 8, 9, 35, 64, 65, 600 })
+		{
+			PersistentIntVector vector = PersistentIntVector.zeros(size);
+			int[] values = new int[size];
+			PersistentIntVector[] versions = new PersistentIntVector[50];
+			int[][] snapshots = new int[50][];
+			for (int step = 0; size > 0 && step < versions.length; step++)
+			{
+				int index = random.nextInt(size);
+				int value = random.nextInt(-20, 20);
+				vector = step % 2 == 0 ? vector.set(index, value) : vector.add(index, value);
+				values[index] = step % 2 == 0 ? value : values[index] + value;
+				versions[step] = vector;
+				snapshots[step] = values.clone();
+			}
+			assertEquals("Incorrect size", size, vector.size());
+			assertArrayEquals("Incorrect values for size " + size, values, vector.toArray());
+			assertEquals("Incorrect equality for size " + size, PersistentIntVector.of(values), vector);
+			for (int step = 0; size > 0 && step < versions.length; step++)
+			{
+				assertArrayEquals("Old version changed", snapshots[step], versions[step].toArray());
+			}
+		}
+	}
+
+	/**
+	 * Check that a new version shares all unchanged leaves.
+	 */
+	@Test
+	public void sharing()
+	{
+		PersistentIntVector original = PersistentIntVector.zeros(100);
+		PersistentIntVector changed = original.set(42, 7);
+		assertEquals("Incorrect new value", 7, changed.get(42));
+		assertEquals("Old version changed", 0, original.get(42));
+		assertFalse("Changed leaf is shared", changed.sharesLeaf(original, 42));
+		for (int index = 0; index < 100; index++)
+		{
+			if (index / 8 != 42 / 8)
+			{
+				assertTrue("Unchanged leaf not shared: " + index, changed.sharesLeaf(original, index));
+			}
+		}
+		assertSame("Setting the same value must not copy", changed, changed.set(42, 7));
+		assertSame("Adding zero must not copy", changed, changed.add(3, 0));
+	}
+
+	/**
+	 * Check that invalid indexes are rejected.
+	 */
+	@Test
+	public void invalidIndex()
+	{
+		expected.expect(IndexOutOfBoundsException.class);
+		PersistentIntVector.zeros(10).set(10, 1);
+	}
+}